@@ -0,0 +1,386 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc;
+
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.errors.RetriableException;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.apache.kafka.connect.sink.SinkTaskContext;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.apache.kafka.connect.source.SourceTaskContext;
+import org.apache.kafka.connect.storage.OffsetStorageReader;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.confluent.connect.jdbc.sink.JdbcSinkConfig;
+import io.confluent.connect.jdbc.sink.JdbcSinkTask;
+import io.confluent.connect.jdbc.source.BenchmarkTables;
+import io.confluent.connect.jdbc.source.JdbcSourceConnectorConfig;
+import io.confluent.connect.jdbc.source.JdbcSourceTask;
+import io.confluent.connect.jdbc.source.JdbcSourceTaskConfig;
+
+/**
+ * Drives a {@link JdbcSourceTask} and a {@link JdbcSinkTask} directly, without Kafka, against an
+ * embedded Derby or an on-disk SQLite database, and reports their sustained throughput, batch
+ * latencies and allocation rate.
+ *
+ * <p>The source phase polls a table of synthetic rows for the given duration. In bulk mode the
+ * table is read over and over; in incrementing mode the phase ends once every row has been read.
+ * The sink phase then writes the records read by the source to a second table with the same
+ * columns, appending batches of them for the given duration. The sink always writes to SQLite,
+ * since it doesn't recognize Derby's connection URLs.
+ *
+ * <pre>
+ *   java -cp target/benchmarks.jar io.confluent.connect.jdbc.LoadHarness \
+ *       --database sqlite --rows 100000 --columns 20 --seconds 60 \
+ *       --source.batch.max.rows 500 --sink.batch.size 1000
+ * </pre>
+ *
+ * Options starting with {@code --source.} and {@code --sink.} are passed to the tasks as
+ * configuration. Allocation is counted for all live threads, including the task's own workers,
+ * so it also includes the small amount allocated by the harness itself.
+ */
+public class LoadHarness {
+
+  private static final String SOURCE_TABLE = "source";
+  private static final String SINK_TABLE = "sink";
+  private static final String TOPIC_PREFIX = "load-";
+
+  private final String database;
+  private final int rows;
+  private final int columns;
+  private final long durationNanos;
+  private final String mode;
+  private final int sinkBatchSize;
+  private final Map<String, String> sourceOverrides;
+  private final Map<String, String> sinkOverrides;
+
+  LoadHarness(Map<String, String> options) {
+    Map<String, String> remaining = new HashMap<>(options);
+    database = take(remaining, "database", BenchmarkTables.SQLITE);
+    rows = Integer.parseInt(take(remaining, "rows", "100000"));
+    columns = Integer.parseInt(take(remaining, "columns", "20"));
+    durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(take(remaining, "seconds", "30")));
+    mode = take(remaining, "mode", JdbcSourceConnectorConfig.MODE_BULK);
+    sinkBatchSize = Integer.parseInt(take(remaining, "sink-batch-size", "500"));
+    sourceOverrides = prefixed(remaining, "source.");
+    sinkOverrides = prefixed(remaining, "sink.");
+    if (!remaining.isEmpty()) {
+      throw new IllegalArgumentException("Unknown options " + remaining.keySet());
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = new HashMap<>();
+    for (int i = 0; i < args.length; i += 2) {
+      if (!args[i].startsWith("--") || i + 1 == args.length) {
+        System.err.println("Usage: LoadHarness [--database derby|sqlite] [--rows N] [--columns N] "
+                           + "[--seconds N] [--mode bulk|incrementing] [--sink-batch-size N] "
+                           + "[--source.<config> value] [--sink.<config> value]");
+        System.exit(1);
+      }
+      options.put(args[i].substring(2), args[i + 1]);
+    }
+    new LoadHarness(options).run();
+  }
+
+  void run() throws Exception {
+    List<String> tableColumns = BenchmarkTables.columns(columns);
+    List<SourceRecord> sourced;
+    BenchmarkTables.Database db = BenchmarkTables.open(database);
+    try {
+      try (Connection conn = db.connect()) {
+        System.out.printf("Populating %s with %d rows of %d columns%n", database, rows, columns);
+        BenchmarkTables.create(conn, SOURCE_TABLE, tableColumns, true, rows);
+      }
+      sourced = runSource(db);
+    } finally {
+      db.drop();
+    }
+
+    if (sourced.isEmpty()) {
+      System.out.println("sink: skipped, the source read no records");
+      return;
+    }
+    // Named as in the records, since Derby reports its column names in upper case
+    List<String> sinkColumns = new ArrayList<>(tableColumns);
+    List<Field> fields = sourced.get(0).valueSchema().fields();
+    for (int i = 0; i < fields.size(); i++) {
+      sinkColumns.set(2 * i, fields.get(i).name());
+    }
+    BenchmarkTables.Database sinkDb = BenchmarkTables.open(BenchmarkTables.SQLITE);
+    try {
+      try (Connection conn = sinkDb.connect()) {
+        // Without a key, so the sink can append the same records over and over
+        BenchmarkTables.create(conn, SINK_TABLE, sinkColumns, false, 0);
+      }
+      runSink(sinkDb, sourced);
+    } finally {
+      sinkDb.drop();
+    }
+  }
+
+  /**
+   * @return the records of the first {@code rows} rows read by the task
+   */
+  private List<SourceRecord> runSource(BenchmarkTables.Database db) throws Exception {
+    Map<String, String> props = new HashMap<>();
+    props.put(JdbcSourceConnectorConfig.CONNECTION_URL_CONFIG, db.url);
+    props.put(JdbcSourceTaskConfig.TABLES_CONFIG, SOURCE_TABLE);
+    props.put(JdbcSourceConnectorConfig.MODE_CONFIG, mode);
+    // Derby reports the unquoted column in upper case
+    props.put(JdbcSourceConnectorConfig.INCREMENTING_COLUMN_NAME_CONFIG,
+              database.equals(BenchmarkTables.DERBY) ? "ID" : "id");
+    props.put(JdbcSourceTaskConfig.TOPIC_PREFIX_CONFIG, TOPIC_PREFIX);
+    props.put(JdbcSourceConnectorConfig.POLL_INTERVAL_MS_CONFIG, "1");
+    if (database.equals(BenchmarkTables.SQLITE)) {
+      // The SQLite driver fails on the fetch direction hint that comes with a fetch size
+      props.put(JdbcSourceConnectorConfig.FETCH_SIZE_CONFIG, "0");
+    }
+    props.putAll(sourceOverrides);
+
+    JdbcSourceTask task = new JdbcSourceTask();
+    task.initialize(new SourceTaskContext() {
+      @Override
+      public OffsetStorageReader offsetStorageReader() {
+        return EMPTY_OFFSETS;
+      }
+    });
+    task.start(props);
+
+    List<SourceRecord> sourced = new ArrayList<>(rows);
+    Measurement measurement = new Measurement();
+    long lastCommit = System.nanoTime();
+    try {
+      while (!measurement.elapsed(durationNanos)) {
+        if (mode.equals(JdbcSourceConnectorConfig.MODE_INCREMENTING)
+            && measurement.records >= rows) {
+          // poll() would wait for new rows forever
+          break;
+        }
+        long start = System.nanoTime();
+        List<SourceRecord> batch = task.poll();
+        long end = System.nanoTime();
+        if (batch == null) {
+          continue;
+        }
+        measurement.batch(batch.size(), end - start);
+        for (int i = 0; i < batch.size() && sourced.size() < rows; i++) {
+          sourced.add(batch.get(i));
+        }
+        // Acknowledged right away, as if every record was sent as soon as it was returned
+        for (SourceRecord record : batch) {
+          task.commitRecord(record);
+        }
+        // As often as a worker flushes offsets by default
+        if (end - lastCommit > TimeUnit.SECONDS.toNanos(60)) {
+          task.commit();
+          lastCommit = end;
+        }
+      }
+      measurement.finish();
+    } finally {
+      task.stop();
+    }
+    measurement.report("source");
+    return sourced;
+  }
+
+  private void runSink(BenchmarkTables.Database db, List<SourceRecord> sourced) {
+    List<List<SinkRecord>> batches = new ArrayList<>();
+    for (int i = 0; i < sourced.size(); i += sinkBatchSize) {
+      List<SinkRecord> batch = new ArrayList<>(sinkBatchSize);
+      for (int j = i; j < Math.min(i + sinkBatchSize, sourced.size()); j++) {
+        SourceRecord record = sourced.get(j);
+        batch.add(new SinkRecord(record.topic(), 0, null, null, record.valueSchema(),
+                                 record.value(), j));
+      }
+      batches.add(batch);
+    }
+
+    Map<String, String> props = new HashMap<>();
+    props.put(JdbcSinkConfig.CONNECTION_URL, db.url);
+    props.put(JdbcSinkConfig.TABLE_NAME_FORMAT, SINK_TABLE);
+    props.put(JdbcSinkConfig.BATCH_SIZE, String.valueOf(sinkBatchSize));
+    props.putAll(sinkOverrides);
+
+    JdbcSinkTask task = new JdbcSinkTask();
+    task.initialize(new StubSinkTaskContext());
+    task.start(props);
+
+    Measurement measurement = new Measurement();
+    int retries = 0;
+    try {
+      for (int i = 0; !measurement.elapsed(durationNanos); i = (i + 1) % batches.size()) {
+        List<SinkRecord> batch = batches.get(i);
+        long start = System.nanoTime();
+        try {
+          task.put(batch);
+        } catch (RetriableException e) {
+          // The worker would deliver the same batch again after the timeout
+          retries++;
+          i--;
+          continue;
+        }
+        measurement.batch(batch.size(), System.nanoTime() - start);
+      }
+      measurement.finish();
+    } finally {
+      task.stop();
+    }
+    measurement.report("sink");
+    if (retries > 0) {
+      System.out.printf("sink: %d batches were retried%n", retries);
+    }
+  }
+
+  private static String take(Map<String, String> options, String name, String defaultValue) {
+    String value = options.remove(name);
+    return value != null ? value : defaultValue;
+  }
+
+  private static Map<String, String> prefixed(Map<String, String> options, String prefix) {
+    Map<String, String> matching = new HashMap<>();
+    for (String name : new ArrayList<>(options.keySet())) {
+      if (name.startsWith(prefix)) {
+        matching.put(name.substring(prefix.length()), options.remove(name));
+      }
+    }
+    return matching;
+  }
+
+  /**
+   * The records, latencies and allocation of a phase, from its creation until {@link #finish()}.
+   */
+  private static final class Measurement {
+    private final long startNanos = System.nanoTime();
+    private final long startAllocated = allocatedBytes();
+    private long[] latencies = new long[1024];
+    private int batches;
+    private long records;
+    private long elapsedNanos;
+    private long allocated;
+
+    boolean elapsed(long durationNanos) {
+      return System.nanoTime() - startNanos >= durationNanos;
+    }
+
+    void batch(int size, long latencyNanos) {
+      if (batches == latencies.length) {
+        latencies = Arrays.copyOf(latencies, batches * 2);
+      }
+      latencies[batches++] = latencyNanos;
+      records += size;
+    }
+
+    void finish() {
+      elapsedNanos = System.nanoTime() - startNanos;
+      allocated = allocatedBytes() - startAllocated;
+    }
+
+    void report(String phase) {
+      double seconds = elapsedNanos / 1e9;
+      long[] sorted = Arrays.copyOf(latencies, batches);
+      Arrays.sort(sorted);
+      System.out.printf(
+          Locale.ROOT,
+          "%s: %d records in %d batches over %.1f s, %.0f records/s, batch latency p50 %.2f ms "
+          + "p99 %.2f ms, allocation %.1f MB/s (%.0f B/record)%n",
+          phase, records, batches, seconds, records / seconds, percentile(sorted, 0.50) / 1e6,
+          percentile(sorted, 0.99) / 1e6, allocated / seconds / (1024 * 1024),
+          records > 0 ? (double) allocated / records : 0d);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+      if (sorted.length == 0) {
+        return 0;
+      }
+      return sorted[(int) Math.ceil(quantile * sorted.length) - 1];
+    }
+
+    /**
+     * @return the bytes allocated so far by all live threads
+     */
+    private static long allocatedBytes() {
+      com.sun.management.ThreadMXBean threads =
+          (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      long total = 0;
+      for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+        if (allocated > 0) {
+          total += allocated;
+        }
+      }
+      return total;
+    }
+  }
+
+  private static final OffsetStorageReader EMPTY_OFFSETS = new OffsetStorageReader() {
+    @Override
+    public <T> Map<String, Object> offset(Map<String, T> partition) {
+      return null;
+    }
+
+    @Override
+    public <T> Map<Map<String, T>, Map<String, Object>> offsets(
+        Collection<Map<String, T>> partitions) {
+      return Collections.emptyMap();
+    }
+  };
+
+  private static final class StubSinkTaskContext implements SinkTaskContext {
+    @Override
+    public void offset(Map<TopicPartition, Long> offsets) {
+    }
+
+    @Override
+    public void offset(TopicPartition tp, long offset) {
+    }
+
+    @Override
+    public void timeout(long timeoutMs) {
+    }
+
+    @Override
+    public Set<TopicPartition> assignment() {
+      return Collections.emptySet();
+    }
+
+    @Override
+    public void pause(TopicPartition... partitions) {
+    }
+
+    @Override
+    public void resume(TopicPartition... partitions) {
+    }
+
+    @Override
+    public void requestCommit() {
+    }
+  }
+}
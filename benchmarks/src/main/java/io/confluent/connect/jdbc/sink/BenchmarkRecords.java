@@ -0,0 +1,144 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.sink;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.sink.SinkRecord;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Batches of sink records for the benchmarks, written to a table in an on-disk SQLite database.
+ *
+ * <p>The records have an {@code id} primary key followed by integer, string, double and timestamp
+ * columns. A batch with schema changes switches between two versions of the value schema, where
+ * the second adds an optional column, as often as requested.
+ */
+final class BenchmarkRecords {
+
+  static final String TOPIC = "benchmark";
+
+  final Schema schema;
+  final Schema evolvedSchema;
+  private final int batchSize;
+  private final int schemaChanges;
+
+  BenchmarkRecords(int columns, int batchSize, int schemaChanges) {
+    if (schemaChanges >= batchSize) {
+      throw new IllegalArgumentException("Can't change schemas more often than there are records");
+    }
+    SchemaBuilder builder = SchemaBuilder.struct().name("benchmark");
+    builder.field("id", Schema.INT64_SCHEMA);
+    Schema[] types = {Schema.INT32_SCHEMA, Schema.STRING_SCHEMA, Schema.FLOAT64_SCHEMA,
+                      Timestamp.SCHEMA};
+    for (int i = 1; i < columns; i++) {
+      builder.field("c" + i, types[i % types.length]);
+    }
+    schema = builder.build();
+
+    SchemaBuilder evolved = SchemaBuilder.struct().name("benchmark");
+    for (Field field : schema.fields()) {
+      evolved.field(field.name(), field.schema());
+    }
+    evolved.field("note", Schema.OPTIONAL_STRING_SCHEMA);
+    evolvedSchema = evolved.build();
+
+    this.batchSize = batchSize;
+    this.schemaChanges = schemaChanges;
+  }
+
+  /**
+   * @return a batch of records with the ids {@code firstId} onwards, divided into runs of equal
+   *     length that alternate between the two schemas
+   */
+  List<SinkRecord> batch(long firstId) {
+    Random random = new Random(42);
+    int runLength = batchSize / (schemaChanges + 1);
+    List<SinkRecord> records = new ArrayList<>(batchSize);
+    for (int i = 0; i < batchSize; i++) {
+      int run = Math.min(i / runLength, schemaChanges);
+      Schema valueSchema = run % 2 == 0 ? schema : evolvedSchema;
+      long id = firstId + i;
+      records.add(new SinkRecord(TOPIC, 0, null, null, valueSchema, value(valueSchema, id, random),
+                                 id));
+    }
+    return records;
+  }
+
+  private static Struct value(Schema schema, long id, Random random) {
+    Struct struct = new Struct(schema);
+    for (Field field : schema.fields()) {
+      if (field.name().equals("id")) {
+        struct.put(field, id);
+      } else if (field.schema().isOptional()) {
+        struct.put(field, "note-" + id);
+      } else if (Timestamp.LOGICAL_NAME.equals(field.schema().name())) {
+        struct.put(field, new java.util.Date(1500000000000L + random.nextInt()));
+      } else {
+        switch (field.schema().type()) {
+          case INT32:
+            struct.put(field, random.nextInt());
+            break;
+          case FLOAT64:
+            struct.put(field, random.nextDouble() * 1000);
+            break;
+          default:
+            struct.put(field, "value-" + random.nextInt(100000));
+        }
+      }
+    }
+    return struct;
+  }
+
+  /**
+   * @return the configuration of a sink writing the records to the given database file, keyed
+   *     by their {@code id} and creating and evolving the table as needed
+   */
+  static JdbcSinkConfig config(File database, String insertMode, int batchSize) {
+    return config(database, insertMode, batchSize, 1);
+  }
+
+  static JdbcSinkConfig config(File database, String insertMode, int batchSize,
+                               int rowsPerStatement) {
+    Map<String, String> props = new HashMap<>();
+    props.put(JdbcSinkConfig.CONNECTION_URL, "jdbc:sqlite:" + database.getAbsolutePath());
+    props.put(JdbcSinkConfig.INSERT_MODE, insertMode);
+    props.put(JdbcSinkConfig.PK_MODE, "record_value");
+    props.put(JdbcSinkConfig.PK_FIELDS, "id");
+    props.put(JdbcSinkConfig.BATCH_SIZE, String.valueOf(batchSize));
+    props.put(JdbcSinkConfig.ROWS_PER_STATEMENT, String.valueOf(rowsPerStatement));
+    props.put(JdbcSinkConfig.AUTO_CREATE, "true");
+    props.put(JdbcSinkConfig.AUTO_EVOLVE, "true");
+    return new JdbcSinkConfig(props);
+  }
+
+  static File createDatabaseFile() throws IOException {
+    File file = File.createTempFile("benchmark", ".db");
+    file.deleteOnExit();
+    return file;
+  }
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.sink;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.confluent.connect.jdbc.sink.dialect.DbDialect;
+import io.confluent.connect.jdbc.sink.metadata.FieldsMetadata;
+import io.confluent.connect.jdbc.sink.metadata.SchemaPair;
+
+/**
+ * Measures the work done in memory for each batch of sink records: extracting the {@link
+ * FieldsMetadata} of each schema in the batch, generating the insert or upsert statement for it,
+ * and binding the records to prepared statements with {@link PreparedStatementBinder}. Nothing is
+ * executed against the database.
+ *
+ * <p>Scores are the time per batch. Use {@link SinkWriteBenchmark} for the cost of writing the
+ * batches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SinkBindBenchmark {
+
+  private static final String TABLE = "benchmark";
+
+  @Param({"100", "1000"})
+  public int batchSize;
+
+  @Param({"4", "64"})
+  public int columns;
+
+  @Param({"insert", "upsert"})
+  public String insertMode;
+
+  @Param({"0", "1", "4"})
+  public int schemaChanges;
+
+  private File file;
+  private Connection connection;
+  private JdbcSinkConfig config;
+  private DbDialect dialect;
+  private BenchmarkRecords records;
+  private List<SinkRecord> batch;
+  private FieldsMetadata fieldsMetadata;
+  private FieldsMetadata evolvedFieldsMetadata;
+  private PreparedStatement statement;
+  private PreparedStatement evolvedStatement;
+  private PreparedStatementBinder binder;
+  private PreparedStatementBinder evolvedBinder;
+
+  @Setup
+  public void setup() throws Exception {
+    file = BenchmarkRecords.createDatabaseFile();
+    config = BenchmarkRecords.config(file, insertMode, batchSize);
+    connection = DriverManager.getConnection(config.connectionUrl);
+    dialect = DbDialect.fromConnectionString(config.connectionUrl);
+    records = new BenchmarkRecords(columns, batchSize, schemaChanges);
+    batch = records.batch(0);
+
+    DbStructure structure = new DbStructure(dialect);
+    SchemaPair schemaPair = new SchemaPair(null, records.schema);
+    SchemaPair evolvedSchemaPair = new SchemaPair(null, records.evolvedSchema);
+    fieldsMetadata = extract(records.schema);
+    evolvedFieldsMetadata = extract(records.evolvedSchema);
+    structure.createOrAmendIfNecessary(config, connection, TABLE, fieldsMetadata);
+    structure.createOrAmendIfNecessary(config, connection, TABLE, evolvedFieldsMetadata);
+
+    statement = connection.prepareStatement(sql(fieldsMetadata));
+    evolvedStatement = connection.prepareStatement(sql(evolvedFieldsMetadata));
+    binder = new PreparedStatementBinder(statement, config.pkMode, schemaPair, fieldsMetadata,
+                                         connection);
+    evolvedBinder = new PreparedStatementBinder(evolvedStatement, config.pkMode,
+                                                evolvedSchemaPair, evolvedFieldsMetadata,
+                                                connection);
+  }
+
+  @TearDown
+  public void teardown() throws SQLException {
+    statement.close();
+    evolvedStatement.close();
+    connection.close();
+    file.delete();
+  }
+
+  @Benchmark
+  public void extractFieldsMetadata(Blackhole blackhole) {
+    Schema previous = null;
+    for (SinkRecord record : batch) {
+      if (record.valueSchema() != previous) {
+        previous = record.valueSchema();
+        blackhole.consume(extract(previous));
+      }
+    }
+  }
+
+  @Benchmark
+  public void generateSql(Blackhole blackhole) {
+    // One statement for the first schema of the batch and one for each change
+    for (int i = 0; i <= schemaChanges; i++) {
+      blackhole.consume(sql(i % 2 == 0 ? fieldsMetadata : evolvedFieldsMetadata));
+    }
+  }
+
+  @Benchmark
+  public void bindRecord() throws SQLException {
+    for (SinkRecord record : batch) {
+      if (record.valueSchema() == records.schema) {
+        binder.bindRecord(record);
+      } else {
+        evolvedBinder.bindRecord(record);
+      }
+    }
+    statement.clearBatch();
+    evolvedStatement.clearBatch();
+  }
+
+  private FieldsMetadata extract(Schema valueSchema) {
+    return FieldsMetadata.extract(TABLE, config.pkMode, config.pkFields, config.fieldsWhitelist,
+                                  null, valueSchema);
+  }
+
+  private String sql(FieldsMetadata fieldsMetadata) {
+    if (config.insertMode == JdbcSinkConfig.InsertMode.UPSERT) {
+      return dialect.getUpsertQuery(TABLE, fieldsMetadata.keyFieldNames,
+                                    fieldsMetadata.nonKeyFieldNames);
+    }
+    return dialect.getInsert(TABLE, fieldsMetadata.keyFieldNames, fieldsMetadata.nonKeyFieldNames);
+  }
+}
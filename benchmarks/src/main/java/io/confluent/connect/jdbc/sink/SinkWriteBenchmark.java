@@ -0,0 +1,131 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.sink;
+
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.confluent.connect.jdbc.sink.dialect.DbDialect;
+
+/**
+ * Measures writing a batch of sink records to an on-disk SQLite database, both through {@link
+ * BufferedRecords} on its own and through {@link JdbcDbWriter} the way the task does. Each batch
+ * is committed, so the scores include syncing the database file.
+ *
+ * <p>Scores are the time per batch. With {@code rowsPerStatement} above 1 the records are written
+ * with multi-row statements. In insert mode every batch has new ids, in upsert mode every
+ * batch after the first updates the same rows. The table is created and evolved for the schemas
+ * during the first batches, so later batches pay only for switching between statements.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SinkWriteBenchmark {
+
+  @Param({"100", "1000"})
+  public int batchSize;
+
+  @Param({"4", "64"})
+  public int columns;
+
+  @Param({"insert", "upsert"})
+  public String insertMode;
+
+  @Param({"0", "1", "4"})
+  public int schemaChanges;
+
+  @Param({"1", "100"})
+  public int rowsPerStatement;
+
+  private File file;
+  private JdbcSinkConfig config;
+  private DbDialect dialect;
+  private DbStructure structure;
+  private Connection connection;
+  private JdbcDbWriter writer;
+  private BenchmarkRecords records;
+  private List<SinkRecord> batch;
+  private long nextId;
+
+  @Setup
+  public void setup() throws Exception {
+    file = BenchmarkRecords.createDatabaseFile();
+    config = BenchmarkRecords.config(file, insertMode, batchSize, rowsPerStatement);
+    dialect = DbDialect.fromConnectionString(config.connectionUrl);
+    structure = new DbStructure(dialect);
+    connection = DriverManager.getConnection(config.connectionUrl);
+    connection.setAutoCommit(false);
+    writer = new JdbcDbWriter(config, dialect, new DbStructure(dialect));
+    records = new BenchmarkRecords(columns, batchSize, schemaChanges);
+    batch = records.batch(0);
+  }
+
+  @Setup(Level.Invocation)
+  public void nextBatch() {
+    if (config.insertMode == JdbcSinkConfig.InsertMode.INSERT) {
+      nextId += batchSize;
+      batch = records.batch(nextId);
+    }
+  }
+
+  @TearDown
+  public void teardown() throws SQLException {
+    writer.closeQuietly();
+    connection.close();
+    file.delete();
+  }
+
+  @Benchmark
+  public List<SinkRecord> bufferedRecords() throws SQLException {
+    BufferedRecords buffer = new BufferedRecords(config, "buffered", dialect, structure,
+                                                 connection);
+    for (SinkRecord record : batch) {
+      buffer.add(record);
+    }
+    List<SinkRecord> flushed = buffer.flush();
+    buffer.close();
+    connection.commit();
+    return flushed;
+  }
+
+  @Benchmark
+  public void write() throws SQLException {
+    writer.write(batch);
+  }
+}
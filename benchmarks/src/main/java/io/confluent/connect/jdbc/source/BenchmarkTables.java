@@ -0,0 +1,233 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Databases and tables of the shapes the benchmarks are run against, filled with random but
+ * repeatable data.
+ *
+ * <ul>
+ *   <li>narrow - an id, a short string, a timestamp and a double</li>
+ *   <li>wide - an id and 199 columns of integers, strings, doubles and timestamps</li>
+ *   <li>lob - an id, a 16 KB text document and 16 KB of binary data</li>
+ *   <li>decimal - an id and 20 DECIMAL(18,4) columns</li>
+ * </ul>
+ *
+ * <p>The SQLite driver doesn't implement {@code getBlob()} or {@code getClob()}, so on SQLite the
+ * LOB shape holds its values in TEXT columns.
+ */
+public final class BenchmarkTables {
+
+  public static final String DERBY = "derby";
+  public static final String SQLITE = "sqlite";
+
+  static final int LOB_SIZE = 16 * 1024;
+
+  private static final String[] WIDE_TYPES = {"INT", "VARCHAR(32)", "DOUBLE", "TIMESTAMP"};
+
+  private BenchmarkTables() {
+  }
+
+  /**
+   * A database holding benchmark tables, which is deleted when it is closed.
+   */
+  public static final class Database {
+    public final String name;
+    public final String url;
+    private final File file;
+
+    private Database(String name, String url, File file) {
+      this.name = name;
+      this.url = url;
+      this.file = file;
+    }
+
+    public Connection connect() throws SQLException {
+      return DriverManager.getConnection(url);
+    }
+
+    public void drop() throws SQLException {
+      if (name.equals(DERBY)) {
+        String dropUrl = url.replace(";create=true", ";drop=true");
+        try {
+          DriverManager.getConnection(dropUrl);
+        } catch (SQLException e) {
+          // Derby reports a successful drop as an exception
+          if (!"08006".equals(e.getSQLState())) {
+            throw e;
+          }
+        }
+      } else if (file != null && !file.delete()) {
+        file.deleteOnExit();
+      }
+    }
+  }
+
+  public static Database open(String name) throws IOException {
+    switch (name) {
+      case DERBY:
+        return new Database(DERBY, "jdbc:derby:memory:benchmark;create=true", null);
+      case SQLITE:
+        // An on-disk database, since that is how SQLite is used
+        File file = File.createTempFile("benchmark", ".db");
+        return new Database(SQLITE, "jdbc:sqlite:" + file.getAbsolutePath(), file);
+      default:
+        throw new IllegalArgumentException("Unknown database " + name);
+    }
+  }
+
+  /**
+   * @return the names and types of the columns of a table of the given shape, alternating
+   */
+  static List<String> columns(String shape, String database) {
+    if (shape.equals("wide")) {
+      return columns(200);
+    }
+    List<String> columns = new ArrayList<>();
+    columns.addAll(Arrays.asList("id", "BIGINT NOT NULL"));
+    switch (shape) {
+      case "narrow":
+        columns.addAll(Arrays.asList("name", "VARCHAR(64)", "updated_at", "TIMESTAMP",
+                                     "amount", "DOUBLE"));
+        break;
+      case "lob":
+        boolean lobs = database.equals(DERBY);
+        columns.addAll(Arrays.asList("document", lobs ? "CLOB(1M)" : "TEXT",
+                                     "data", lobs ? "BLOB(1M)" : "TEXT"));
+        break;
+      case "decimal":
+        for (int i = 1; i <= 20; i++) {
+          columns.add("d" + i);
+          columns.add("DECIMAL(18,4)");
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown table shape " + shape);
+    }
+    return columns;
+  }
+
+  /**
+   * @return the names and types of the columns of a table with an id and {@code width - 1}
+   *     integer, string, double and timestamp columns, alternating
+   */
+  public static List<String> columns(int width) {
+    List<String> columns = new ArrayList<>();
+    columns.addAll(Arrays.asList("id", "BIGINT NOT NULL"));
+    for (int i = 1; i < width; i++) {
+      columns.add("c" + i);
+      columns.add(WIDE_TYPES[i % WIDE_TYPES.length]);
+    }
+    return columns;
+  }
+
+  /**
+   * Create a table of the given shape and insert the given number of rows into it.
+   */
+  static void create(Connection conn, String database, String table, String shape, int rows)
+      throws SQLException {
+    create(conn, table, columns(shape, database), true, rows);
+  }
+
+  /**
+   * Create a table with the given columns, keyed by its first column if {@code primaryKey} is
+   * set, and insert the given number of rows into it.
+   */
+  public static void create(Connection conn, String table, List<String> columns,
+                            boolean primaryKey, int rows) throws SQLException {
+    // Quoted, since the queriers quote the table name
+    StringBuilder create = new StringBuilder("CREATE TABLE \"").append(table).append("\" (");
+    StringBuilder insert = new StringBuilder("INSERT INTO \"").append(table).append("\" VALUES (");
+    for (int i = 0; i < columns.size(); i += 2) {
+      if (i > 0) {
+        create.append(", ");
+        insert.append(", ");
+      }
+      create.append(columns.get(i)).append(' ').append(columns.get(i + 1));
+      insert.append('?');
+    }
+    create.append(primaryKey ? ", PRIMARY KEY (id))" : ")");
+    insert.append(')');
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute(create.toString());
+    }
+
+    boolean autoCommit = conn.getAutoCommit();
+    conn.setAutoCommit(false);
+    Random random = new Random(42);
+    try (PreparedStatement stmt = conn.prepareStatement(insert.toString())) {
+      for (int row = 0; row < rows; row++) {
+        stmt.setLong(1, row);
+        for (int i = 2; i < columns.size(); i += 2) {
+          bind(stmt, i / 2 + 1, columns.get(i + 1), random);
+        }
+        stmt.addBatch();
+        if (row % 100 == 99) {
+          stmt.executeBatch();
+        }
+      }
+      stmt.executeBatch();
+    }
+    conn.commit();
+    conn.setAutoCommit(autoCommit);
+  }
+
+  private static void bind(PreparedStatement stmt, int index, String type, Random random)
+      throws SQLException {
+    if (type.startsWith("INT")) {
+      stmt.setInt(index, random.nextInt());
+    } else if (type.startsWith("VARCHAR")) {
+      stmt.setString(index, randomString(random, 24));
+    } else if (type.startsWith("DOUBLE")) {
+      stmt.setDouble(index, random.nextDouble() * 1000);
+    } else if (type.startsWith("TIMESTAMP")) {
+      stmt.setTimestamp(index, new Timestamp(1500000000000L + random.nextInt()));
+    } else if (type.startsWith("DECIMAL")) {
+      stmt.setBigDecimal(index, BigDecimal.valueOf(random.nextLong() % 100000000000000L, 4));
+    } else if (type.startsWith("CLOB") || type.startsWith("TEXT")) {
+      stmt.setString(index, randomString(random, LOB_SIZE));
+    } else if (type.startsWith("BLOB")) {
+      byte[] data = new byte[LOB_SIZE];
+      random.nextBytes(data);
+      stmt.setBytes(index, data);
+    } else {
+      throw new IllegalArgumentException("Unknown column type " + type);
+    }
+  }
+
+  private static String randomString(Random random, int length) {
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = (char) ('a' + random.nextInt(26));
+    }
+    return new String(chars);
+  }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the source side conversion path over real result sets: generating the Connect schema
+ * of a result set, converting a single row, and reading a whole table through a {@link
+ * TableQuerier} the way a task does, which includes fetching the rows from the database.
+ *
+ * <p>{@code readTable} reports the time per row. Write the results as JSON to compare them
+ * between builds:
+ * <pre>
+ *   java -jar target/benchmarks.jar SourceConversionBenchmark -rf json -rff source.json
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SourceConversionBenchmark {
+
+  private static final String TABLE = "benchmark";
+  private static final int ROWS = 1000;
+
+  @Param({BenchmarkTables.DERBY, BenchmarkTables.SQLITE})
+  public String database;
+
+  @Param({"narrow", "wide", "lob", "decimal"})
+  public String shape;
+
+  private BenchmarkTables.Database db;
+  private Connection rowConnection;
+  private Statement rowStatement;
+  private ResultSet row;
+  private ResultSetMetaData metadata;
+  private SchemaMapping mapping;
+  private Connection querierConnection;
+  private BulkTableQuerier querier;
+  private final List<SourceRecord> batch = new ArrayList<>();
+
+  @Setup
+  public void setup() throws Exception {
+    db = BenchmarkTables.open(database);
+    rowConnection = db.connect();
+    BenchmarkTables.create(rowConnection, database, TABLE, shape, ROWS);
+
+    // A result set positioned on its first row, which convertRecord reads over and over
+    rowStatement = rowConnection.createStatement();
+    row = rowStatement.executeQuery("SELECT * FROM \"" + TABLE + "\"");
+    row.next();
+    metadata = row.getMetaData();
+    mapping = SchemaMapping.create(TABLE, metadata, false);
+
+    querierConnection = db.connect();
+    // The SQLite driver fails on fetch direction hints, so it reads with its default fetch size
+    int fetchSize = database.equals(BenchmarkTables.SQLITE) ? 0 : 100;
+    querier = new BulkTableQuerier(TableQuerier.QueryMode.TABLE, TABLE, null, "benchmark-",
+                                   fetchSize, false);
+  }
+
+  @TearDown
+  public void teardown() throws SQLException {
+    querier.releaseStatement();
+    querierConnection.close();
+    row.close();
+    rowStatement.close();
+    rowConnection.close();
+    db.drop();
+  }
+
+  @Benchmark
+  public Schema convertSchema() throws SQLException {
+    return DataConverter.convertSchema(TABLE, metadata, false);
+  }
+
+  @Benchmark
+  public Struct convertRecord() {
+    return DataConverter.convertRecord(mapping, row);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public int readTable() throws SQLException {
+    querier.maybeStartQuery(querierConnection);
+    int records = 0;
+    boolean hadNext = true;
+    while (hadNext) {
+      batch.clear();
+      hadNext = querier.readBatch(batch, 100);
+      records += batch.size();
+    }
+    querier.reset(0, querierConnection);
+    return records;
+  }
+}
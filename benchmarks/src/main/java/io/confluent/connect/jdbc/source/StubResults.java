@@ -0,0 +1,118 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+
+/**
+ * Result sets that return the same row forever, so that benchmarks measure the conversion of rows
+ * without the cost of a database.
+ */
+final class StubResults {
+
+  /**
+   * A column of the row, whose value is returned by every getter of the result set.
+   */
+  static final class Column {
+    final String name;
+    final int type;
+    final int precision;
+    final int scale;
+    final Object value;
+
+    Column(String name, int type, Object value) {
+      this(name, type, 0, 0, value);
+    }
+
+    Column(String name, int type, int precision, int scale, Object value) {
+      this.name = name;
+      this.type = type;
+      this.precision = precision;
+      this.scale = scale;
+      this.value = value;
+    }
+  }
+
+  private StubResults() {
+  }
+
+  static ResultSetMetaData metadata(final Column... columns) {
+    return (ResultSetMetaData) Proxy.newProxyInstance(
+        StubResults.class.getClassLoader(), new Class<?>[]{ResultSetMetaData.class},
+        new InvocationHandler() {
+          @Override
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+              case "getColumnCount":
+                return columns.length;
+              case "getColumnLabel":
+              case "getColumnName":
+                return column(columns, args).name;
+              case "getColumnType":
+                return column(columns, args).type;
+              case "getPrecision":
+                return column(columns, args).precision;
+              case "getScale":
+                return column(columns, args).scale;
+              case "getColumnTypeName":
+                return "";
+              case "isNullable":
+                return ResultSetMetaData.columnNoNulls;
+              case "isSigned":
+                return true;
+              default:
+                throw new UnsupportedOperationException(method.getName());
+            }
+          }
+        });
+  }
+
+  /**
+   * @return a result set that is never exhausted and returns the values of the columns
+   */
+  static ResultSet resultSet(final Column... columns) {
+    final ResultSetMetaData metadata = metadata(columns);
+    return (ResultSet) Proxy.newProxyInstance(
+        StubResults.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+        new InvocationHandler() {
+          @Override
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if (name.equals("next")) {
+              return true;
+            } else if (name.equals("wasNull")) {
+              return false;
+            } else if (name.equals("getMetaData")) {
+              return metadata;
+            } else if (name.equals("close")) {
+              return null;
+            } else if (name.startsWith("get") && args != null && args[0] instanceof Integer) {
+              return column(columns, args).value;
+            }
+            throw new UnsupportedOperationException(name);
+          }
+        });
+  }
+
+  private static Column column(Column[] columns, Object[] args) {
+    return columns[(Integer) args[0] - 1];
+  }
+}
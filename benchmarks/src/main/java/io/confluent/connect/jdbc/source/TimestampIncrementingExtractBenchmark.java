@@ -0,0 +1,83 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.connect.source.SourceRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link TimestampIncrementingTableQuerier#extractRecord()} for a single row that is read
+ * over and over, so the result is the cost of converting one row and building its record.
+ *
+ * <p>Run with the GC profiler to see the garbage produced per row:
+ * <pre>
+ *   java -jar target/benchmarks.jar TimestampIncrementingExtractBenchmark -prof gc
+ * </pre>
+ * {@code gc.alloc.rate.norm} is the number of bytes allocated per row, so a task reading 100k
+ * rows per second allocates 100,000 times that per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimestampIncrementingExtractBenchmark {
+
+  @Param({"incrementing", "timestamp+incrementing"})
+  public String mode;
+
+  private TimestampIncrementingTableQuerier querier;
+
+  @Setup
+  public void setup() throws SQLException {
+    String timestampColumn = mode.startsWith("timestamp") ? "updated_at" : null;
+    querier = new TimestampIncrementingTableQuerier(
+        TableQuerier.QueryMode.TABLE, "orders", "jdbc-", timestampColumn, "id",
+        Collections.<String, Object>emptyMap(), 0L, null, 100, false);
+
+    StubResults.Column[] columns = {
+        new StubResults.Column("id", Types.BIGINT, 42L),
+        new StubResults.Column("updated_at", Types.TIMESTAMP, new Timestamp(1500000000000L)),
+        new StubResults.Column("customer", Types.VARCHAR, "customer-42"),
+        new StubResults.Column("amount", Types.DOUBLE, 12.5d)
+    };
+    querier.schemaMapping = SchemaMapping.create("orders", StubResults.metadata(columns), false);
+    querier.resultSet = StubResults.resultSet(columns);
+  }
+
+  @Benchmark
+  public SourceRecord extractRecord() throws SQLException {
+    return querier.extractRecord();
+  }
+}
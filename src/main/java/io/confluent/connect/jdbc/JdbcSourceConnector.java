@@ -26,6 +26,8 @@ import org.apache.kafka.connect.util.ConnectorUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -33,12 +35,16 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import io.confluent.connect.jdbc.util.CachedConnectionProvider;
 import io.confluent.connect.jdbc.source.JdbcSourceConnectorConfig;
 import io.confluent.connect.jdbc.source.JdbcSourceTask;
 import io.confluent.connect.jdbc.source.JdbcSourceTaskConfig;
 import io.confluent.connect.jdbc.source.TableMonitorThread;
+import io.confluent.connect.jdbc.source.WeightedTableAssignment;
+import io.confluent.connect.jdbc.source.dialect.SourceDialect;
 import io.confluent.connect.jdbc.util.StringUtils;
 import io.confluent.connect.jdbc.util.Version;
 
@@ -55,7 +61,10 @@ public class JdbcSourceConnector extends SourceConnector {
   private Map<String, String> configProperties;
   private JdbcSourceConnectorConfig config;
   private CachedConnectionProvider cachedConnectionProvider;
+  private SourceDialect dialect;
   private TableMonitorThread tableMonitorThread;
+  // The tables assigned to each task by the last call to taskConfigs
+  private List<List<String>> tableGroups;
 
   @Override
   public String version() {
@@ -78,7 +87,13 @@ public class JdbcSourceConnector extends SourceConnector {
     cachedConnectionProvider = new CachedConnectionProvider(dbUrl, dbUser, dbPassword == null ? null : dbPassword.value());
 
     // Initial connection attempt
-    cachedConnectionProvider.getValidConnection();
+    Connection connection = cachedConnectionProvider.getValidConnection();
+    try {
+      dialect = SourceDialect.fromConnection(connection, dbUrl);
+    } catch (SQLException e) {
+      log.warn("Failed to read the database product name, choosing the dialect from the URL", e);
+      dialect = SourceDialect.fromConnectionString(dbUrl);
+    }
 
     long tablePollMs = config.getLong(JdbcSourceConnectorConfig.TABLE_POLL_INTERVAL_MS_CONFIG);
     List<String> whitelist = config.getList(JdbcSourceConnectorConfig.TABLE_WHITELIST_CONFIG);
@@ -93,20 +108,36 @@ public class JdbcSourceConnector extends SourceConnector {
       throw new ConnectException(JdbcSourceConnectorConfig.TABLE_WHITELIST_CONFIG + " and "
                                  + JdbcSourceConnectorConfig.TABLE_BLACKLIST_CONFIG + " are "
                                  + "exclusive.");
+    Pattern includePattern = compilePattern(JdbcSourceConnectorConfig.TABLE_INCLUDE_REGEX_CONFIG);
+    Pattern excludePattern = compilePattern(JdbcSourceConnectorConfig.TABLE_EXCLUDE_REGEX_CONFIG);
     String query = config.getString(JdbcSourceConnectorConfig.QUERY_CONFIG);
     String schemaPattern = config.getString(JdbcSourceConnectorConfig.SCHEMA_PATTERN_CONFIG);
     if (!query.isEmpty()) {
-      if (whitelistSet != null || blacklistSet != null)
+      if (whitelistSet != null || blacklistSet != null || includePattern != null
+          || excludePattern != null)
         throw new ConnectException(JdbcSourceConnectorConfig.QUERY_CONFIG + " may not be combined"
                                    + " with whole-table copying settings.");
       // Force filtering out the entire set of tables since the one task we'll generate is for the
       // query.
       whitelistSet = Collections.emptySet();
     }
-    tableMonitorThread = new TableMonitorThread(cachedConnectionProvider, context, schemaPattern, tablePollMs, whitelistSet, blacklistSet, tableTypesSet);
+    tableMonitorThread = new TableMonitorThread(cachedConnectionProvider, context, schemaPattern, tablePollMs, whitelistSet, blacklistSet, tableTypesSet,
+                                                includePattern, excludePattern, dialect);
     tableMonitorThread.start();
   }
 
+  private Pattern compilePattern(String name) {
+    String regex = config.getString(name);
+    if (regex.isEmpty()) {
+      return null;
+    }
+    try {
+      return Pattern.compile(regex);
+    } catch (PatternSyntaxException e) {
+      throw new ConnectException("Invalid regular expression for " + name + ": " + regex, e);
+    }
+  }
+
   @Override
   public Class<? extends Task> taskClass() {
     return JdbcSourceTask.class;
@@ -119,23 +150,58 @@ public class JdbcSourceConnector extends SourceConnector {
       List<Map<String, String>> taskConfigs = new ArrayList<>(1);
       Map<String, String> taskProps = new HashMap<>(configProperties);
       taskProps.put(JdbcSourceTaskConfig.TABLES_CONFIG, "");
+      taskProps.put(JdbcSourceTaskConfig.TASK_ID_CONFIG, "0");
       taskConfigs.add(taskProps);
       return taskConfigs;
     } else {
       List<String> currentTables = tableMonitorThread.tables();
       int numGroups = Math.min(currentTables.size(), maxTasks);
-      List<List<String>> tablesGrouped = ConnectorUtils.groupPartitions(currentTables, numGroups);
+      List<List<String>> tablesGrouped = groupTables(currentTables, numGroups);
       List<Map<String, String>> taskConfigs = new ArrayList<>(tablesGrouped.size());
       for (List<String> taskTables : tablesGrouped) {
+        if (taskTables.isEmpty()) {
+          // A task needs at least one table
+          continue;
+        }
         Map<String, String> taskProps = new HashMap<>(configProperties);
         taskProps.put(JdbcSourceTaskConfig.TABLES_CONFIG,
                       StringUtils.join(taskTables, ","));
+        taskProps.put(JdbcSourceTaskConfig.TASK_ID_CONFIG, String.valueOf(taskConfigs.size()));
         taskConfigs.add(taskProps);
       }
       return taskConfigs;
     }
   }
 
+  /**
+   * Group the tables for the tasks. Once the tables have been grouped, later groupings keep each
+   * table with its group, so that adding or dropping a table only changes the configuration of
+   * the task it is added to or dropped from.
+   */
+  private synchronized List<List<String>> groupTables(List<String> tables, int numGroups) {
+    boolean weighted = config.getString(JdbcSourceConnectorConfig.TABLE_ASSIGNMENT_CONFIG)
+        .equals(JdbcSourceConnectorConfig.TABLE_ASSIGNMENT_WEIGHTED);
+    Map<String, Long> weights = Collections.emptyMap();
+    if (weighted) {
+      // The table monitor thread uses the same connection
+      synchronized (cachedConnectionProvider) {
+        weights = WeightedTableAssignment.estimateRowCounts(
+            cachedConnectionProvider.getValidConnection(), dialect,
+            config.getString(JdbcSourceConnectorConfig.SCHEMA_PATTERN_CONFIG));
+      }
+      weights.putAll(WeightedTableAssignment.parseWeights(
+          config.getList(JdbcSourceConnectorConfig.TABLE_WEIGHTS_CONFIG)));
+    }
+    if (tableGroups != null) {
+      tableGroups = WeightedTableAssignment.regroup(tableGroups, tables, weights, numGroups);
+    } else if (weighted) {
+      tableGroups = WeightedTableAssignment.group(tables, weights, numGroups);
+    } else {
+      tableGroups = ConnectorUtils.groupPartitions(tables, numGroups);
+    }
+    return tableGroups;
+  }
+
   @Override
   public void stop() throws ConnectException {
     log.info("Stopping table monitoring thread");
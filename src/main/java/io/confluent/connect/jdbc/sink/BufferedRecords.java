@@ -16,88 +16,172 @@
 
 package io.confluent.connect.jdbc.sink;
 
+import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.sink.SinkRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
+import io.confluent.connect.jdbc.sink.dialect.BulkLoader;
 import io.confluent.connect.jdbc.sink.dialect.DbDialect;
 import io.confluent.connect.jdbc.sink.metadata.FieldsMetadata;
 import io.confluent.connect.jdbc.sink.metadata.SchemaPair;
 
+/**
+ * Buffers the records for a table in groups of the same {@link SchemaPair}, so that records of schemas that alternate,
+ * such as while producers are upgraded, are still written in batches. When upserting with a primary key from the records,
+ * a key is never written out of order: a record whose key is already buffered with another schema writes out all
+ * buffered records first.
+ */
 public class BufferedRecords {
   private static final Logger log = LoggerFactory.getLogger(BufferedRecords.class);
 
+  // Statements for a few schemas of the table, when there is no cache shared with other tables
+  private static final int OWN_STATE_CACHE_CAPACITY = 8;
+
+  /**
+   * The buffered records of one schema.
+   */
+  private static final class SchemaGroup {
+    final SchemaPair schemaPair;
+    final FieldsMetadata fieldsMetadata;
+    List<SinkRecord> records = new ArrayList<>();
+
+    SchemaGroup(SchemaPair schemaPair, FieldsMetadata fieldsMetadata) {
+      this.schemaPair = schemaPair;
+      this.fieldsMetadata = fieldsMetadata;
+    }
+  }
+
   private final String tableName;
   private final JdbcSinkConfig config;
   private final DbDialect dbDialect;
   private final DbStructure dbStructure;
   private final Connection connection;
+  private final boolean bulkLoad;
+  private final WriterStateCache stateCache;
+  private final boolean ownsStateCache;
+
+  private final List<SchemaGroup> groups = new ArrayList<>();
+  // The group buffering each key, only tracked while there is more than one group and the keys come from the records
+  private Map<Object, SchemaGroup> groupByKey;
 
-  private List<SinkRecord> records = new ArrayList<>();
+  // The schema of the group being added or written, and what is prepared for it
   private SchemaPair currentSchemaPair;
   private FieldsMetadata fieldsMetadata;
   private PreparedStatement preparedStatement;
   private PreparedStatementBinder preparedStatementBinder;
+  private int rowsPerStatement;
+  private BulkLoader bulkLoader;
 
   public BufferedRecords(JdbcSinkConfig config, String tableName, DbDialect dbDialect, DbStructure dbStructure, Connection connection) {
+    this(config, tableName, dbDialect, dbStructure, connection, false);
+  }
+
+  /**
+   * @param bulkLoad whether to write the records with the bulk loader of the dialect, or with inserts of as many rows
+   *                 per statement as possible if it has none
+   */
+  public BufferedRecords(JdbcSinkConfig config, String tableName, DbDialect dbDialect, DbStructure dbStructure, Connection connection,
+                         boolean bulkLoad) {
+    this(config, tableName, dbDialect, dbStructure, connection, bulkLoad, new WriterStateCache(OWN_STATE_CACHE_CAPACITY), true);
+  }
+
+  /**
+   * @param stateCache where the statements for writing to the table are kept across batches, which closes them rather
+   *                   than {@link #close()}
+   */
+  public BufferedRecords(JdbcSinkConfig config, String tableName, DbDialect dbDialect, DbStructure dbStructure, Connection connection,
+                         boolean bulkLoad, WriterStateCache stateCache) {
+    this(config, tableName, dbDialect, dbStructure, connection, bulkLoad, stateCache, false);
+  }
+
+  private BufferedRecords(JdbcSinkConfig config, String tableName, DbDialect dbDialect, DbStructure dbStructure, Connection connection,
+                          boolean bulkLoad, WriterStateCache stateCache, boolean ownsStateCache) {
     this.tableName = tableName;
     this.config = config;
     this.dbDialect = dbDialect;
     this.dbStructure = dbStructure;
     this.connection = connection;
+    this.bulkLoad = bulkLoad;
+    this.stateCache = stateCache;
+    this.ownsStateCache = ownsStateCache;
   }
 
   public List<SinkRecord> add(SinkRecord record) throws SQLException {
-    final SchemaPair schemaPair = new SchemaPair(record.keySchema(), record.valueSchema());
-
-    if (currentSchemaPair == null) {
-      currentSchemaPair = schemaPair;
-      // re-initialize everything that depends on the record schema
-      fieldsMetadata = FieldsMetadata.extract(tableName, config.pkMode, config.pkFields, config.fieldsWhitelist, currentSchemaPair);
-      dbStructure.createOrAmendIfNecessary(config, connection, tableName, fieldsMetadata);
-      final String insertSql = getInsertSql();
-      log.debug("{} sql: {}", config.insertMode, insertSql);
-      close();
-      preparedStatement = connection.prepareStatement(insertSql);
-      preparedStatementBinder = new PreparedStatementBinder(preparedStatement, config.pkMode, schemaPair, fieldsMetadata, this.connection);
-    }
-
-    final List<SinkRecord> flushed;
-    if (currentSchemaPair.equals(schemaPair)) {
-      // Continue with current batch state
-      records.add(record);
-      if (records.size() >= config.batchSize) {
-        flushed = flush();
-      } else {
-        flushed = Collections.emptyList();
+    SchemaGroup group = findGroup(record);
+    if (group == null) {
+      group = addGroup(new SchemaPair(record.keySchema(), record.valueSchema()));
+    }
+
+    if (groupByKey != null) {
+      final Object key = keyOf(record, group.schemaPair, group.fieldsMetadata);
+      final SchemaGroup keyGroup = groupByKey.get(key);
+      if (keyGroup != null && keyGroup != group) {
+        // Write the earlier records of the key before this one
+        final List<SinkRecord> flushed = flush();
+        flushed.addAll(add(record));
+        return flushed;
       }
-    } else {
-      // Each batch needs to have the same SchemaPair, so get the buffered records out, reset state and re-attempt the add
-      flushed = flush();
-      currentSchemaPair = null;
-      flushed.addAll(add(record));
+      groupByKey.put(key, group);
     }
-    return flushed;
+
+    group.records.add(record);
+    if (group.records.size() >= config.batchSize) {
+      return flush(group);
+    }
+    return Collections.emptyList();
   }
 
+  /**
+   * Write all buffered records, a group at a time in the order their first records were added.
+   */
   public List<SinkRecord> flush() throws SQLException {
+    final List<SinkRecord> flushed = new ArrayList<>();
+    // None of the keys stay buffered
+    groupByKey = null;
+    for (SchemaGroup group : groups) {
+      flushed.addAll(flush(group));
+    }
+    groups.clear();
+    return flushed;
+  }
+
+  private List<SinkRecord> flush(SchemaGroup group) throws SQLException {
+    final List<SinkRecord> records = group.records;
     if (records.isEmpty()) {
       return new ArrayList<>();
     }
-    for (SinkRecord record : records) {
-      preparedStatementBinder.bindRecord(record);
-    }
-    int totalUpdateCount = 0;
-    for (int updateCount : preparedStatement.executeBatch()) {
-      totalUpdateCount += updateCount;
+    currentSchemaPair = group.schemaPair;
+    // The statements may have been evicted from the cache since the first record was added
+    useState();
+    final int totalUpdateCount;
+    if (bulkLoader != null) {
+      final List<String> columns = new ArrayList<>(fieldsMetadata.keyFieldNames);
+      columns.addAll(fieldsMetadata.nonKeyFieldNames);
+      totalUpdateCount = (int) bulkLoader.load(connection, tableName, columns,
+                                               new CsvRecordReader(records, config.pkMode, currentSchemaPair, fieldsMetadata));
+    } else if (rowsPerStatement > 1) {
+      totalUpdateCount = executeMultiRow(records);
+    } else {
+      for (SinkRecord record : records) {
+        preparedStatementBinder.bindRecord(record);
+      }
+      totalUpdateCount = sum(preparedStatement.executeBatch());
     }
     if (totalUpdateCount != records.size()) {
       switch (config.insertMode) {
@@ -109,29 +193,215 @@ public class BufferedRecords {
       }
     }
 
-    final List<SinkRecord> flushedRecords = records;
-    records = new ArrayList<>();
-    return flushedRecords;
+    group.records = new ArrayList<>();
+    if (groupByKey != null) {
+      for (SinkRecord record : records) {
+        groupByKey.remove(keyOf(record, group.schemaPair, group.fieldsMetadata));
+      }
+    }
+    return records;
   }
 
   public void close() throws SQLException {
-    if (preparedStatement != null) {
-      preparedStatement.close();
-      preparedStatement = null;
+    if (ownsStateCache) {
+      stateCache.invalidateAll();
+    }
+    preparedStatement = null;
+    preparedStatementBinder = null;
+  }
+
+  private SchemaGroup findGroup(SinkRecord record) {
+    // Records usually share their schema instances, which is cheaper to check than equality
+    for (SchemaGroup group : groups) {
+      if (group.schemaPair.keySchema == record.keySchema() && group.schemaPair.valueSchema == record.valueSchema()) {
+        return group;
+      }
+    }
+    for (SchemaGroup group : groups) {
+      if (Objects.equals(group.schemaPair.keySchema, record.keySchema())
+          && Objects.equals(group.schemaPair.valueSchema, record.valueSchema())) {
+        return group;
+      }
+    }
+    return null;
+  }
+
+  private SchemaGroup addGroup(SchemaPair schemaPair) throws SQLException {
+    // Create or alter the table for the schema right away
+    currentSchemaPair = schemaPair;
+    useState();
+    final SchemaGroup group = new SchemaGroup(schemaPair, fieldsMetadata);
+    groups.add(group);
+    if (groups.size() == 2 && keysAreOrdered()) {
+      final SchemaGroup first = groups.get(0);
+      groupByKey = new HashMap<>();
+      for (SinkRecord record : first.records) {
+        groupByKey.put(keyOf(record, first.schemaPair, first.fieldsMetadata), first);
+      }
     }
+    return group;
+  }
+
+  /**
+   * @return whether upserts of the same key must be written in order, which is when the key comes from the records
+   */
+  private boolean keysAreOrdered() {
+    return config.insertMode == JdbcSinkConfig.InsertMode.UPSERT
+           && (config.pkMode == JdbcSinkConfig.PrimaryKeyMode.RECORD_KEY || config.pkMode == JdbcSinkConfig.PrimaryKeyMode.RECORD_VALUE);
+  }
+
+  /**
+   * Set up everything that depends on the schema of the current records, reusing what was prepared for an earlier batch
+   * if it is still cached.
+   */
+  private void useState() throws SQLException {
+    WriterStateCache.State state = stateCache.get(tableName, currentSchemaPair);
+    if (state == null || state.bulkLoad != bulkLoad) {
+      state = prepareState();
+      stateCache.put(tableName, currentSchemaPair, state);
+    }
+    fieldsMetadata = state.fieldsMetadata;
+    rowsPerStatement = state.rowsPerStatement;
+    bulkLoader = state.bulkLoader;
+    preparedStatement = state.preparedStatement;
+    preparedStatementBinder = state.preparedStatementBinder;
+  }
+
+  private WriterStateCache.State prepareState() throws SQLException {
+    fieldsMetadata = FieldsMetadata.extract(tableName, config.pkMode, config.pkFields, config.fieldsWhitelist, currentSchemaPair);
+    if (dbStructure.createOrAmendIfNecessary(config, connection, tableName, fieldsMetadata)) {
+      // Don't keep using statements prepared before the table changed
+      stateCache.invalidate(tableName);
+    }
+    final BulkLoader loader = bulkLoad ? dbDialect.getBulkLoader() : null;
+    if (loader != null) {
+      return new WriterStateCache.State(fieldsMetadata, bulkLoad, 1, loader, null, null);
+    }
+    final int rows = rowsPerStatement();
+    final String insertSql = getInsertSql(rows);
+    log.debug("{} sql: {}", config.insertMode, insertSql);
+    final PreparedStatement statement = connection.prepareStatement(insertSql);
+    final PreparedStatementBinder binder =
+        new PreparedStatementBinder(statement, config.pkMode, currentSchemaPair, fieldsMetadata, connection);
+    return new WriterStateCache.State(fieldsMetadata, bulkLoad, rows, null, statement, binder);
+  }
+
+  /**
+   * Write the buffered records in order with statements of {@code rowsPerStatement} rows each, which are batched. An upsert
+   * ends its statement early when a key repeats, since PostgreSQL can't update the same row twice in one statement.
+   * Statements with fewer rows are prepared as needed and executed on their own.
+   */
+  private int executeMultiRow(List<SinkRecord> records) throws SQLException {
+    final Set<Object> keys = config.insertMode == JdbcSinkConfig.InsertMode.UPSERT ? new HashSet<>() : null;
+    int totalUpdateCount = 0;
+    boolean batched = false;
+    int start = 0;
+    while (start < records.size()) {
+      int end = Math.min(start + rowsPerStatement, records.size());
+      if (keys != null) {
+        keys.clear();
+        for (int i = start; i < end; i++) {
+          if (!keys.add(keyOf(records.get(i), currentSchemaPair, fieldsMetadata))) {
+            end = i;
+            break;
+          }
+        }
+      }
+      if (end - start == rowsPerStatement) {
+        for (int i = start; i < end; i++) {
+          preparedStatementBinder.bindRecord(records.get(i), i - start);
+        }
+        preparedStatement.addBatch();
+        batched = true;
+      } else {
+        // Write the batched statements first to keep the records in order
+        if (batched) {
+          totalUpdateCount += sum(preparedStatement.executeBatch());
+          batched = false;
+        }
+        totalUpdateCount += executeRows(records, start, end);
+      }
+      start = end;
+    }
+    if (batched) {
+      totalUpdateCount += sum(preparedStatement.executeBatch());
+    }
+    return totalUpdateCount;
+  }
+
+  private int executeRows(List<SinkRecord> records, int start, int end) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(getInsertSql(end - start))) {
+      final PreparedStatementBinder binder =
+          new PreparedStatementBinder(statement, config.pkMode, currentSchemaPair, fieldsMetadata, connection);
+      for (int i = start; i < end; i++) {
+        binder.bindRecord(records.get(i), i - start);
+      }
+      return statement.executeUpdate();
+    }
+  }
+
+  private Object keyOf(SinkRecord record, SchemaPair schemaPair, FieldsMetadata fieldsMetadata) {
+    switch (config.pkMode) {
+      case RECORD_KEY:
+        if (schemaPair.keySchema.type().isPrimitive()) {
+          return keyValue(record.key());
+        }
+        return keyValues((Struct) record.key(), fieldsMetadata);
+      case RECORD_VALUE:
+        return keyValues((Struct) record.value(), fieldsMetadata);
+      default:
+        return Arrays.<Object>asList(record.topic(), record.kafkaPartition(), record.kafkaOffset());
+    }
+  }
+
+  private static Object keyValues(Struct struct, FieldsMetadata fieldsMetadata) {
+    if (fieldsMetadata.keyFieldNames.size() == 1) {
+      return keyValue(struct.get(fieldsMetadata.keyFieldNames.iterator().next()));
+    }
+    final List<Object> values = new ArrayList<>(fieldsMetadata.keyFieldNames.size());
+    for (String fieldName : fieldsMetadata.keyFieldNames) {
+      values.add(keyValue(struct.get(fieldName)));
+    }
+    return values;
+  }
+
+  private static Object keyValue(Object value) {
+    // Arrays don't compare by their contents
+    return value instanceof byte[] ? ByteBuffer.wrap((byte[]) value) : value;
+  }
+
+  private static int sum(int[] updateCounts) {
+    int total = 0;
+    for (int updateCount : updateCounts) {
+      total += updateCount;
+    }
+    return total;
+  }
+
+  /**
+   * @return the configured number of rows per statement, or as many as possible when bulk loading, capped by the batch
+   * size and what the dialect supports for the columns of the current schema
+   */
+  private int rowsPerStatement() {
+    final int columns = fieldsMetadata.keyFieldNames.size() + fieldsMetadata.nonKeyFieldNames.size();
+    final int maxRows = config.insertMode == JdbcSinkConfig.InsertMode.UPSERT
+                        ? dbDialect.getMaxUpsertRows(columns)
+                        : dbDialect.getMaxInsertRows(columns);
+    final int requestedRows = bulkLoad ? maxRows : config.rowsPerStatement;
+    return Math.max(1, Math.min(requestedRows, Math.min(maxRows, config.batchSize)));
   }
 
-  private String getInsertSql() {
+  private String getInsertSql(int rows) {
     switch (config.insertMode) {
       case INSERT:
-        return dbDialect.getInsert(tableName, fieldsMetadata.keyFieldNames, fieldsMetadata.nonKeyFieldNames);
+        return dbDialect.getInsert(tableName, fieldsMetadata.keyFieldNames, fieldsMetadata.nonKeyFieldNames, rows);
       case UPSERT:
         if (fieldsMetadata.keyFieldNames.isEmpty()) {
           throw new ConnectException(String.format(
               "Write to table '%s' in UPSERT mode requires key field names to be known, check the primary key configuration", tableName
           ));
         }
-        return dbDialect.getUpsertQuery(tableName, fieldsMetadata.keyFieldNames, fieldsMetadata.nonKeyFieldNames);
+        return dbDialect.getUpsertQuery(tableName, fieldsMetadata.keyFieldNames, fieldsMetadata.nonKeyFieldNames, rows);
       default:
         throw new ConnectException("Invalid insert mode");
     }
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2016 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.connect.jdbc.sink;
+
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.errors.ConnectException;
+import org.apache.kafka.connect.sink.SinkRecord;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.xml.bind.DatatypeConverter;
+
+import io.confluent.connect.jdbc.sink.metadata.FieldsMetadata;
+import io.confluent.connect.jdbc.sink.metadata.SchemaPair;
+import io.confluent.connect.jdbc.util.DateTimeUtils;
+
+/**
+ * Reads records as the CSV expected by a {@link io.confluent.connect.jdbc.sink.dialect.BulkLoader}, with the key columns
+ * followed by the non-key columns in the same order as {@link PreparedStatementBinder} binds them. Each row is formatted
+ * only when it is about to be read.
+ */
+public class CsvRecordReader extends Reader {
+
+  private final Iterator<SinkRecord> records;
+  private final JdbcSinkConfig.PrimaryKeyMode pkMode;
+  private final SchemaPair schemaPair;
+  private final FieldsMetadata fieldsMetadata;
+  private final StringBuilder row = new StringBuilder();
+  private int position;
+
+  public CsvRecordReader(
+      List<SinkRecord> records,
+      JdbcSinkConfig.PrimaryKeyMode pkMode,
+      SchemaPair schemaPair,
+      FieldsMetadata fieldsMetadata
+  ) {
+    this.records = records.iterator();
+    this.pkMode = pkMode;
+    this.schemaPair = schemaPair;
+    this.fieldsMetadata = fieldsMetadata;
+  }
+
+  @Override
+  public int read(char[] buffer, int offset, int length) {
+    if (length == 0) {
+      return 0;
+    }
+    if (position == row.length()) {
+      if (!records.hasNext()) {
+        return -1;
+      }
+      row.setLength(0);
+      position = 0;
+      appendRecord(records.next());
+    }
+    final int count = Math.min(length, row.length() - position);
+    row.getChars(position, position + count, buffer, offset);
+    position += count;
+    return count;
+  }
+
+  @Override
+  public void close() {
+  }
+
+  private void appendRecord(SinkRecord record) {
+    final int start = row.length();
+    switch (pkMode) {
+      case NONE:
+        break;
+
+      case KAFKA:
+        appendValue(Schema.STRING_SCHEMA, record.topic());
+        appendValue(Schema.INT32_SCHEMA, record.kafkaPartition());
+        appendValue(Schema.INT64_SCHEMA, record.kafkaOffset());
+        break;
+
+      case RECORD_KEY:
+        if (schemaPair.keySchema.type().isPrimitive()) {
+          appendValue(schemaPair.keySchema, record.key());
+        } else {
+          for (String fieldName : fieldsMetadata.keyFieldNames) {
+            final Field field = schemaPair.keySchema.field(fieldName);
+            appendValue(field.schema(), ((Struct) record.key()).get(field));
+          }
+        }
+        break;
+
+      case RECORD_VALUE:
+        for (String fieldName : fieldsMetadata.keyFieldNames) {
+          final Field field = schemaPair.valueSchema.field(fieldName);
+          appendValue(field.schema(), ((Struct) record.value()).get(field));
+        }
+        break;
+    }
+
+    final Struct valueStruct = (Struct) record.value();
+    for (String fieldName : fieldsMetadata.nonKeyFieldNames) {
+      final Field field = schemaPair.valueSchema.field(fieldName);
+      appendValue(field.schema(), valueStruct.get(field));
+    }
+
+    // Every value was followed by a separator, so the last one ends the row instead
+    if (row.length() > start) {
+      row.setLength(row.length() - 1);
+    }
+    row.append('\n');
+  }
+
+  private void appendValue(Schema schema, Object value) {
+    if (value != null) {
+      appendNonNullValue(schema, value);
+    }
+    row.append(',');
+  }
+
+  private void appendNonNullValue(Schema schema, Object value) {
+    if (schema.name() != null) {
+      switch (schema.name()) {
+        case Date.LOGICAL_NAME:
+          row.append(DateTimeUtils.formatUtcDate((java.util.Date) value));
+          return;
+        case Decimal.LOGICAL_NAME:
+          row.append(((BigDecimal) value).toPlainString());
+          return;
+        case Time.LOGICAL_NAME:
+          row.append(DateTimeUtils.formatUtcTime((java.util.Date) value));
+          return;
+        case Timestamp.LOGICAL_NAME:
+          row.append(DateTimeUtils.formatUtcTimestamp((java.util.Date) value));
+          return;
+      }
+    }
+    switch (schema.type()) {
+      case INT8:
+      case INT16:
+      case INT32:
+      case INT64:
+      case FLOAT32:
+      case FLOAT64:
+      case BOOLEAN:
+        row.append(value);
+        break;
+      case STRING:
+        appendQuoted((String) value);
+        break;
+      case BYTES:
+        final byte[] bytes;
+        if (value instanceof ByteBuffer) {
+          final ByteBuffer buffer = ((ByteBuffer) value).slice();
+          bytes = new byte[buffer.remaining()];
+          buffer.get(bytes);
+        } else {
+          bytes = (byte[]) value;
+        }
+        row.append("\\x").append(DatatypeConverter.printHexBinary(bytes));
+        break;
+      case ARRAY:
+        appendQuoted(arrayLiteral((List<?>) value));
+        break;
+      default:
+        throw new ConnectException("Unsupported source data type: " + schema.type());
+    }
+  }
+
+  private void appendQuoted(String value) {
+    row.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if (c == '"') {
+        row.append('"');
+      }
+      row.append(c);
+    }
+    row.append('"');
+  }
+
+  /**
+   * @return the elements of a list as an array literal, such as {@code {"a","b",NULL}}
+   */
+  private static String arrayLiteral(List<?> elements) {
+    final StringBuilder builder = new StringBuilder("{");
+    for (int i = 0; i < elements.size(); i++) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      final Object element = elements.get(i);
+      if (element == null) {
+        builder.append("NULL");
+        continue;
+      }
+      builder.append('"');
+      final String text = element.toString();
+      for (int j = 0; j < text.length(); j++) {
+        final char c = text.charAt(j);
+        if (c == '"' || c == '\\') {
+          builder.append('\\');
+        }
+        builder.append(c);
+      }
+      builder.append('"');
+    }
+    return builder.append('}').toString();
+  }
+}
@@ -18,58 +18,239 @@ package io.confluent.connect.jdbc.sink;
 
 import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.sink.SinkRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.confluent.connect.jdbc.sink.dialect.DbDialect;
-import io.confluent.connect.jdbc.util.CachedConnectionProvider;
+import io.confluent.connect.jdbc.util.PooledConnectionProvider;
 
 public class JdbcDbWriter {
+  private static final Logger log = LoggerFactory.getLogger(JdbcDbWriter.class);
+
+  // Enough for the table and schema combinations of most connectors, each of which keeps a statement open
+  private static final int MAX_CACHED_WRITER_STATES = 100;
+
+  /**
+   * A connection checked out of the pool of the writer and the statements prepared on it for writing the tables
+   * assigned to it. Each table is always written on the same lane, and a lane is written by one thread at a time.
+   */
+  final class Lane {
+    final DbStructure dbStructure;
+    final WriterStateCache writerStateCache = new WriterStateCache(MAX_CACHED_WRITER_STATES);
+    private int tableCount;
+    Connection connection;
+
+    Lane(DbStructure dbStructure) {
+      this.dbStructure = dbStructure;
+    }
+
+    void write(Map<String, List<SinkRecord>> recordsByTable) throws SQLException {
+      // Only validated if it wasn't used recently
+      final Connection current = connection == null ? connectionProvider.acquire() : connectionProvider.revalidate(connection);
+      if (current != connection) {
+        // Statements prepared on a previous connection can't be used with this one
+        writerStateCache.invalidateAll();
+        connection = current;
+      }
+      for (Map.Entry<String, List<SinkRecord>> entry : recordsByTable.entrySet()) {
+        final List<SinkRecord> records = entry.getValue();
+        final BufferedRecords buffer = new BufferedRecords(config, entry.getKey(), dbDialect, dbStructure, connection,
+                                                           config.bulkLoadTopics.contains(records.get(0).topic()), writerStateCache);
+        for (SinkRecord record : records) {
+          buffer.add(record);
+        }
+        buffer.flush();
+        buffer.close();
+      }
+    }
+
+    void commit() throws SQLException {
+      connection.commit();
+    }
+
+    void rollbackQuietly() {
+      if (connection == null) {
+        return;
+      }
+      try {
+        connection.rollback();
+      } catch (SQLException sqle) {
+        log.warn("Ignoring error rolling back writes", sqle);
+      }
+    }
+
+    void closeQuietly() {
+      writerStateCache.invalidateAll();
+      connectionProvider.invalidate(connection);
+      connection = null;
+    }
+  }
 
   private final JdbcSinkConfig config;
   private final DbDialect dbDialect;
-  private final DbStructure dbStructure;
-  final CachedConnectionProvider cachedConnectionProvider;
+  private final PooledConnectionProvider connectionProvider;
+  final List<Lane> lanes;
+  private final Map<String, Lane> laneByTable = new HashMap<>();
+  private final ExecutorService executor;
 
   JdbcDbWriter(final JdbcSinkConfig config, DbDialect dbDialect, DbStructure dbStructure) {
     this.config = config;
     this.dbDialect = dbDialect;
-    this.dbStructure = dbStructure;
 
-    this.cachedConnectionProvider = new CachedConnectionProvider(config.connectionUrl, config.connectionUser, config.connectionPassword) {
+    int parallelism = config.writeParallelism;
+    if (parallelism > 1 && !dbDialect.supportsConcurrentWrites()) {
+      log.warn("Ignoring {}={} since {} databases are written on one connection",
+               JdbcSinkConfig.WRITE_PARALLELISM, parallelism, dbDialect.getClass().getSimpleName());
+      parallelism = 1;
+    }
+    // Every lane keeps one connection checked out
+    this.connectionProvider = new PooledConnectionProvider(config.connectionUrl, config.connectionUser, config.connectionPassword,
+                                                           1, parallelism, config.connectionValidationIntervalMs) {
       @Override
       protected void onConnect(Connection connection) throws SQLException {
         connection.setAutoCommit(false);
       }
     };
+    this.lanes = new ArrayList<>(parallelism);
+    this.lanes.add(new Lane(dbStructure));
+    for (int i = 1; i < parallelism; i++) {
+      // The table metadata cache of a structure isn't thread-safe, so every lane has its own
+      this.lanes.add(new Lane(new DbStructure(dbDialect)));
+    }
+    this.executor = parallelism > 1 ? Executors.newFixedThreadPool(parallelism, new WriterThreadFactory()) : null;
   }
 
   void write(final Collection<SinkRecord> records) throws SQLException {
-    final Connection connection = cachedConnectionProvider.getValidConnection();
-
-    final Map<String, BufferedRecords> bufferByTable = new HashMap<>();
+    final Map<Lane, Map<String, List<SinkRecord>>> recordsByLane = new LinkedHashMap<>();
     for (SinkRecord record : records) {
       final String table = destinationTable(record.topic());
-      BufferedRecords buffer = bufferByTable.get(table);
-      if (buffer == null) {
-        buffer = new BufferedRecords(config, table, dbDialect, dbStructure, connection);
-        bufferByTable.put(table, buffer);
+      final Lane lane = laneFor(table);
+      Map<String, List<SinkRecord>> recordsByTable = recordsByLane.get(lane);
+      if (recordsByTable == null) {
+        recordsByTable = new LinkedHashMap<>();
+        recordsByLane.put(lane, recordsByTable);
+      }
+      List<SinkRecord> tableRecords = recordsByTable.get(table);
+      if (tableRecords == null) {
+        tableRecords = new ArrayList<>();
+        recordsByTable.put(table, tableRecords);
+      }
+      tableRecords.add(record);
+    }
+
+    try {
+      if (recordsByLane.size() == 1) {
+        final Map.Entry<Lane, Map<String, List<SinkRecord>>> entry = recordsByLane.entrySet().iterator().next();
+        entry.getKey().write(entry.getValue());
+      } else {
+        writeConcurrently(recordsByLane);
+      }
+    } catch (SQLException | RuntimeException e) {
+      for (Lane lane : recordsByLane.keySet()) {
+        lane.rollbackQuietly();
       }
-      buffer.add(record);
+      throw e;
     }
-    for (BufferedRecords buffer : bufferByTable.values()) {
-      buffer.flush();
-      buffer.close();
+
+    // Every lane was written, so commit them all, rolling back the rest if a commit fails
+    final List<Lane> written = new ArrayList<>(recordsByLane.keySet());
+    for (int i = 0; i < written.size(); i++) {
+      try {
+        written.get(i).commit();
+      } catch (SQLException e) {
+        for (Lane lane : written.subList(i, written.size())) {
+          lane.rollbackQuietly();
+        }
+        throw e;
+      }
     }
-    connection.commit();
+  }
+
+  private void writeConcurrently(Map<Lane, Map<String, List<SinkRecord>>> recordsByLane) throws SQLException {
+    final List<Future<Void>> futures = new ArrayList<>(recordsByLane.size());
+    for (final Map.Entry<Lane, Map<String, List<SinkRecord>>> entry : recordsByLane.entrySet()) {
+      futures.add(executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws SQLException {
+          entry.getKey().write(entry.getValue());
+          return null;
+        }
+      }));
+    }
+
+    // Wait for every lane even after one failed or this thread is interrupted, so that none is still using its
+    // connection when the writes are rolled back
+    Throwable failure = null;
+    boolean interrupted = false;
+    for (Future<Void> future : futures) {
+      while (true) {
+        try {
+          future.get();
+          break;
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+          }
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+
+    if (failure instanceof SQLException) {
+      throw (SQLException) failure;
+    } else if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    } else if (failure != null) {
+      throw new ConnectException(failure);
+    }
+  }
+
+  private Lane laneFor(String table) {
+    Lane lane = laneByTable.get(table);
+    if (lane == null) {
+      lane = lanes.get(0);
+      for (Lane candidate : lanes) {
+        if (candidate.tableCount < lane.tableCount) {
+          lane = candidate;
+        }
+      }
+      lane.tableCount++;
+      laneByTable.put(table, lane);
+    }
+    return lane;
   }
 
   void closeQuietly() {
-    cachedConnectionProvider.closeQuietly();
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    for (Lane lane : lanes) {
+      lane.closeQuietly();
+    }
+    connectionProvider.closeQuietly();
   }
 
   String destinationTable(String topic) {
@@ -84,4 +265,15 @@ public class JdbcDbWriter {
     }
     return tableName;
   }
+
+  private static final class WriterThreadFactory implements ThreadFactory {
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      final Thread thread = new Thread(runnable, "jdbc-sink-writer-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
 }
@@ -63,6 +63,13 @@ public class JdbcSinkConfig extends AbstractConfig {
   private static final String CONNECTION_PASSWORD_DOC = "JDBC connection password.";
   private static final String CONNECTION_PASSWORD_DISPLAY = "JDBC Password";
 
+  public static final String CONNECTION_VALIDATION_INTERVAL_MS = "connection.validation.interval.ms";
+  private static final long CONNECTION_VALIDATION_INTERVAL_MS_DEFAULT = 10000L;
+  private static final String CONNECTION_VALIDATION_INTERVAL_MS_DOC =
+      "A database connection that has not been written to for at least this long is checked before it is used again. "
+      + "Connections used more recently are not checked, and a write that fails on a broken connection is retried on a new one.";
+  private static final String CONNECTION_VALIDATION_INTERVAL_MS_DISPLAY = "Connection Validation Interval (ms)";
+
   public static final String TABLE_NAME_FORMAT = "table.name.format";
   private static final String TABLE_NAME_FORMAT_DEFAULT = "${topic}";
   private static final String TABLE_NAME_FORMAT_DOC =
@@ -94,6 +101,34 @@ public class JdbcSinkConfig extends AbstractConfig {
       "Specifies how many records to attempt to batch together for insertion into the destination table, when possible.";
   private static final String BATCH_SIZE_DISPLAY = "Batch Size";
 
+  public static final String ROWS_PER_STATEMENT = "rows.per.statement";
+  private static final int ROWS_PER_STATEMENT_DEFAULT = 1;
+  private static final String ROWS_PER_STATEMENT_DOC =
+      "The number of records to write with each ``INSERT`` or upsert statement, as a multi-row ``VALUES`` list. "
+      + "With the default of 1 every record is a separate statement and batching them is left to the JDBC driver, which some drivers do one statement at a time.\n"
+      + "Larger values are capped by the number of bind parameters the database accepts in a statement. "
+      + "Dialects that can't write several rows with one statement, such as Oracle and HANA for inserts and all but MySQL, PostgreSQL and SQLite for upserts, "
+      + "write one record per statement.";
+  private static final String ROWS_PER_STATEMENT_DISPLAY = "Rows per Statement";
+
+  public static final String BULK_LOAD_TOPICS = "bulk.load.topics";
+  private static final String BULK_LOAD_TOPICS_DEFAULT = "";
+  private static final String BULK_LOAD_TOPICS_DOC =
+      "List of comma-separated topic names whose records are written with the database's bulk load facility instead of ``INSERT`` statements, "
+      + "which is ``COPY`` for PostgreSQL. Records of other databases are written with multi-row inserts of as many rows as fit in a statement.\n"
+      + "Only supported with the ``insert`` insertion mode.";
+  private static final String BULK_LOAD_TOPICS_DISPLAY = "Bulk Load Topics";
+
+  public static final String WRITE_PARALLELISM = "write.parallelism";
+  private static final int WRITE_PARALLELISM_DEFAULT = 1;
+  private static final String WRITE_PARALLELISM_DOC =
+      "The number of database connections used to write the tables of a batch of records concurrently, each table always on the same connection. "
+      + "The writes of all tables are committed once all of them succeeded and rolled back if any failed, "
+      + "but the commits of separate connections are not atomic, so a failure while committing can leave the batch partially written until it is retried. "
+      + "Prefer the ``upsert`` insertion mode when writing with more than one connection.\n"
+      + "SQLite databases are always written on one connection.";
+  private static final String WRITE_PARALLELISM_DISPLAY = "Write Parallelism";
+
   public static final String AUTO_CREATE = "auto.create";
   private static final String AUTO_CREATE_DEFAULT = "false";
   private static final String AUTO_CREATE_DOC =
@@ -171,6 +206,9 @@ public class JdbcSinkConfig extends AbstractConfig {
       .define(CONNECTION_PASSWORD, ConfigDef.Type.PASSWORD, null,
               ConfigDef.Importance.HIGH, CONNECTION_PASSWORD_DOC,
               CONNECTION_GROUP, 3, ConfigDef.Width.MEDIUM, CONNECTION_PASSWORD_DISPLAY)
+      .define(CONNECTION_VALIDATION_INTERVAL_MS, ConfigDef.Type.LONG, CONNECTION_VALIDATION_INTERVAL_MS_DEFAULT,
+              ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, CONNECTION_VALIDATION_INTERVAL_MS_DOC,
+              CONNECTION_GROUP, 4, ConfigDef.Width.SHORT, CONNECTION_VALIDATION_INTERVAL_MS_DISPLAY)
       // Writes
       .define(INSERT_MODE, ConfigDef.Type.STRING, INSERT_MODE_DEFAULT, EnumValidator.in(InsertMode.values()),
               ConfigDef.Importance.HIGH, INSERT_MODE_DOC,
@@ -178,6 +216,15 @@ public class JdbcSinkConfig extends AbstractConfig {
       .define(BATCH_SIZE, ConfigDef.Type.INT, BATCH_SIZE_DEFAULT, NON_NEGATIVE_INT_VALIDATOR,
               ConfigDef.Importance.MEDIUM, BATCH_SIZE_DOC,
               WRITES_GROUP, 2, ConfigDef.Width.SHORT, BATCH_SIZE_DISPLAY)
+      .define(ROWS_PER_STATEMENT, ConfigDef.Type.INT, ROWS_PER_STATEMENT_DEFAULT, ConfigDef.Range.atLeast(1),
+              ConfigDef.Importance.LOW, ROWS_PER_STATEMENT_DOC,
+              WRITES_GROUP, 3, ConfigDef.Width.SHORT, ROWS_PER_STATEMENT_DISPLAY)
+      .define(BULK_LOAD_TOPICS, ConfigDef.Type.LIST, BULK_LOAD_TOPICS_DEFAULT,
+              ConfigDef.Importance.LOW, BULK_LOAD_TOPICS_DOC,
+              WRITES_GROUP, 5, ConfigDef.Width.LONG, BULK_LOAD_TOPICS_DISPLAY)
+      .define(WRITE_PARALLELISM, ConfigDef.Type.INT, WRITE_PARALLELISM_DEFAULT, ConfigDef.Range.atLeast(1),
+              ConfigDef.Importance.LOW, WRITE_PARALLELISM_DOC,
+              WRITES_GROUP, 6, ConfigDef.Width.SHORT, WRITE_PARALLELISM_DISPLAY)
       // Data Mapping
       .define(TABLE_NAME_FORMAT, ConfigDef.Type.STRING, TABLE_NAME_FORMAT_DEFAULT,
               ConfigDef.Importance.MEDIUM, TABLE_NAME_FORMAT_DOC,
@@ -213,10 +260,14 @@ public class JdbcSinkConfig extends AbstractConfig {
   public final String connectionUrl;
   public final String connectionUser;
   public final String connectionPassword;
+  public final long connectionValidationIntervalMs;
   public final String tableNameFormat;
   public final String topicNamesToTableNames;
   public final Map<String, String> topicNamesToTableNamesMap;
   public final int batchSize;
+  public final int rowsPerStatement;
+  public final Set<String> bulkLoadTopics;
+  public final int writeParallelism;
   public final int maxRetries;
   public final int retryBackoffMs;
   public final boolean autoCreate;
@@ -231,11 +282,15 @@ public class JdbcSinkConfig extends AbstractConfig {
     connectionUrl = getString(CONNECTION_URL);
     connectionUser = getString(CONNECTION_USER);
     connectionPassword = getPasswordValue(CONNECTION_PASSWORD);
+    connectionValidationIntervalMs = getLong(CONNECTION_VALIDATION_INTERVAL_MS);
     tableNameFormat = getString(TABLE_NAME_FORMAT).trim();
     topicNamesToTableNames = getString(TOPIC_NAMES_TO_TABLE_NAMES);
     topicNamesToTableNamesMap = (topicNamesToTableNames != null) ?
       StringUtils.stringToMap(topicNamesToTableNames, ",", "=") : new HashMap<String, String>();
     batchSize = getInt(BATCH_SIZE);
+    rowsPerStatement = getInt(ROWS_PER_STATEMENT);
+    bulkLoadTopics = new HashSet<>(getList(BULK_LOAD_TOPICS));
+    writeParallelism = getInt(WRITE_PARALLELISM);
     maxRetries = getInt(MAX_RETRIES);
     retryBackoffMs = getInt(RETRY_BACKOFF_MS);
     autoCreate = getBoolean(AUTO_CREATE);
@@ -244,6 +299,9 @@ public class JdbcSinkConfig extends AbstractConfig {
     pkMode = PrimaryKeyMode.valueOf(getString(PK_MODE).toUpperCase());
     pkFields = getList(PK_FIELDS);
     fieldsWhitelist = new HashSet<>(getList(FIELDS_WHITELIST));
+    if (!bulkLoadTopics.isEmpty() && insertMode != InsertMode.INSERT) {
+      throw new ConfigException(BULK_LOAD_TOPICS, getList(BULK_LOAD_TOPICS), "Bulk loading is only supported with the insert mode 'insert'");
+    }
   }
 
   private String getPasswordValue(String key) {
@@ -44,6 +44,7 @@ public class PreparedStatementBinder {
   private final SchemaPair schemaPair;
   private final FieldsMetadata fieldsMetadata;
   private final Connection connection;
+  private final int columnsPerRow;
 
   public PreparedStatementBinder(
       PreparedStatement statement,
@@ -57,14 +58,24 @@ public class PreparedStatementBinder {
     this.schemaPair = schemaPair;
     this.fieldsMetadata = fieldsMetadata;
     this.connection = connection;
+    this.columnsPerRow = fieldsMetadata.keyFieldNames.size() + fieldsMetadata.nonKeyFieldNames.size();
   }
 
   public void bindRecord(SinkRecord record) throws SQLException {
+    bindRecord(record, 0);
+    statement.addBatch();
+  }
+
+  /**
+   * Bind the fields of a record as the given row of a multi-row statement, without adding the statement to its batch.
+   */
+  public void bindRecord(SinkRecord record, int row) throws SQLException {
     final Struct valueStruct = (Struct) record.value();
 
-    // Assumption: the relevant SQL has placeholders for keyFieldNames first followed by nonKeyFieldNames, in iteration order
+    // Assumption: the relevant SQL has placeholders for keyFieldNames first followed by nonKeyFieldNames, in iteration order,
+    // for each row in turn
 
-    int index = 1;
+    int index = 1 + row * columnsPerRow;
 
     switch (pkMode) {
       case NONE:
@@ -107,8 +118,6 @@ public class PreparedStatementBinder {
       final Field field = record.valueSchema().field(fieldName);
       bindField(index++, field.schema(), valueStruct.get(field));
     }
-
-    statement.addBatch();
   }
 
   void bindField(int index, Schema schema, Object value) throws SQLException {
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.connect.jdbc.sink;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import io.confluent.connect.jdbc.sink.dialect.BulkLoader;
+import io.confluent.connect.jdbc.sink.metadata.FieldsMetadata;
+import io.confluent.connect.jdbc.sink.metadata.SchemaPair;
+
+/**
+ * The statements {@link BufferedRecords} prepares for writing records of a schema to a table, kept across batches for
+ * the most recently used tables and schemas. Statements are closed when they are evicted or invalidated, which must
+ * happen before their connection is replaced.
+ */
+public class WriterStateCache {
+  private static final Logger log = LoggerFactory.getLogger(WriterStateCache.class);
+
+  /**
+   * What is prepared for writing records of one schema to a table.
+   */
+  static final class State {
+    final FieldsMetadata fieldsMetadata;
+    final boolean bulkLoad;
+    final int rowsPerStatement;
+    final BulkLoader bulkLoader;
+    final PreparedStatement preparedStatement;
+    final PreparedStatementBinder preparedStatementBinder;
+
+    State(FieldsMetadata fieldsMetadata, boolean bulkLoad, int rowsPerStatement, BulkLoader bulkLoader,
+          PreparedStatement preparedStatement, PreparedStatementBinder preparedStatementBinder) {
+      this.fieldsMetadata = fieldsMetadata;
+      this.bulkLoad = bulkLoad;
+      this.rowsPerStatement = rowsPerStatement;
+      this.bulkLoader = bulkLoader;
+      this.preparedStatement = preparedStatement;
+      this.preparedStatementBinder = preparedStatementBinder;
+    }
+
+    void close() {
+      if (preparedStatement != null) {
+        try {
+          preparedStatement.close();
+        } catch (SQLException sqle) {
+          log.warn("Ignoring error closing prepared statement", sqle);
+        }
+      }
+    }
+  }
+
+  private static final class Key {
+    final String tableName;
+    final SchemaPair schemaPair;
+
+    Key(String tableName, SchemaPair schemaPair) {
+      this.tableName = tableName;
+      this.schemaPair = schemaPair;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key that = (Key) o;
+      return tableName.equals(that.tableName) && schemaPair.equals(that.schemaPair);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(tableName, schemaPair);
+    }
+  }
+
+  private final Map<Key, State> states;
+
+  /**
+   * @param capacity the most states to keep, after which the least recently used one is closed
+   */
+  public WriterStateCache(final int capacity) {
+    this.states = new LinkedHashMap<Key, State>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, State> eldest) {
+        if (size() > capacity) {
+          eldest.getValue().close();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  State get(String tableName, SchemaPair schemaPair) {
+    return states.get(new Key(tableName, schemaPair));
+  }
+
+  void put(String tableName, SchemaPair schemaPair, State state) {
+    final State previous = states.put(new Key(tableName, schemaPair), state);
+    if (previous != null && previous != state) {
+      previous.close();
+    }
+  }
+
+  /**
+   * Close the states of a table, such as after it was altered.
+   */
+  void invalidate(String tableName) {
+    final Iterator<Map.Entry<Key, State>> iterator = states.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<Key, State> entry = iterator.next();
+      if (entry.getKey().tableName.equals(tableName)) {
+        entry.getValue().close();
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Close all states, such as before their connection is closed or replaced.
+   */
+  public void invalidateAll() {
+    for (State state : states.values()) {
+      state.close();
+    }
+    states.clear();
+  }
+
+  int size() {
+    return states.size();
+  }
+}
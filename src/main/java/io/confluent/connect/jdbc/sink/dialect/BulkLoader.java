@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.connect.jdbc.sink.dialect;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * Writes rows to a table with the database's bulk load facility rather than with {@code INSERT} statements.
+ */
+public interface BulkLoader {
+
+  /**
+   * Load rows into a table, as part of the current transaction of the connection.
+   *
+   * @param columns the columns to load, in the order of the values of each row
+   * @param rows    the rows as CSV, one line per row: strings are quoted with {@code "}, which is doubled within them,
+   *                nulls are empty and unquoted, dates, times and timestamps are in UTC and bytes are hexadecimal
+   *                prefixed with {@code \x}
+   * @return the number of rows loaded
+   */
+  long load(Connection connection, String tableName, Collection<String> columns, Reader rows) throws SQLException;
+}
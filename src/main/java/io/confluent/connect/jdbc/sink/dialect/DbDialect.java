@@ -37,10 +37,16 @@ import io.confluent.connect.jdbc.util.DateTimeUtils;
 
 import static io.confluent.connect.jdbc.sink.dialect.StringBuilderUtil.Transform;
 import static io.confluent.connect.jdbc.sink.dialect.StringBuilderUtil.joinToBuilder;
-import static io.confluent.connect.jdbc.sink.dialect.StringBuilderUtil.nCopiesToBuilder;
+import static io.confluent.connect.jdbc.sink.dialect.StringBuilderUtil.placeholderRowsToBuilder;
 
 public abstract class DbDialect {
 
+  /**
+   * Databases whose limit isn't known are assumed to accept as many bind parameters as SQLite does
+   * by default, which is the lowest limit among the supported databases.
+   */
+  private static final int DEFAULT_MAX_BIND_PARAMETERS = 999;
+
   private final String escapeStart;
   private final String escapeEnd;
 
@@ -50,13 +56,20 @@ public abstract class DbDialect {
   }
 
   public final String getInsert(final String tableName, final Collection<String> keyColumns, final Collection<String> nonKeyColumns) {
+    return getInsert(tableName, keyColumns, nonKeyColumns, 1);
+  }
+
+  /**
+   * @return an INSERT of {@code rows} rows, whose placeholders are the key columns followed by the
+   *     non-key columns of each row in turn
+   */
+  public final String getInsert(final String tableName, final Collection<String> keyColumns, final Collection<String> nonKeyColumns, final int rows) {
     StringBuilder builder = new StringBuilder("INSERT INTO ");
     builder.append(escaped(tableName));
     builder.append("(");
     joinToBuilder(builder, ",", keyColumns, nonKeyColumns, escaper());
-    builder.append(") VALUES(");
-    nCopiesToBuilder(builder, ",", "?", keyColumns.size() + nonKeyColumns.size());
-    builder.append(")");
+    builder.append(") VALUES");
+    placeholderRowsToBuilder(builder, keyColumns.size() + nonKeyColumns.size(), rows);
     return builder.toString();
   }
 
@@ -64,6 +77,57 @@ public abstract class DbDialect {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * @return an upsert of {@code rows} rows, whose placeholders are the key columns followed by the
+   *     non-key columns of each row in turn
+   * @throws UnsupportedOperationException for more than one row, unless {@link
+   *     #getMaxUpsertRows(int)} allows it
+   */
+  public String getUpsertQuery(final String table, final Collection<String> keyColumns, final Collection<String> columns, final int rows) {
+    if (rows == 1) {
+      return getUpsertQuery(table, keyColumns, columns);
+    }
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * @return the most rows with the given number of columns that a single INSERT can write, which
+   *     is 1 if the database doesn't support multi-row inserts
+   */
+  public int getMaxInsertRows(int columns) {
+    return Math.max(1, getMaxBindParameters() / Math.max(1, columns));
+  }
+
+  /**
+   * @return the most rows with the given number of columns that a single upsert can write, which
+   *     is 1 unless the dialect generates multi-row upserts
+   */
+  public int getMaxUpsertRows(int columns) {
+    return 1;
+  }
+
+  /**
+   * @return the loader for writing rows with the database's bulk load facility, or null if there is none and rows
+   *     are to be written with multi-row inserts instead
+   */
+  public BulkLoader getBulkLoader() {
+    return null;
+  }
+
+  /**
+   * @return whether separate connections can write to the database at the same time
+   */
+  public boolean supportsConcurrentWrites() {
+    return true;
+  }
+
+  /**
+   * @return the most bind parameters the database accepts in a single statement
+   */
+  protected int getMaxBindParameters() {
+    return DEFAULT_MAX_BIND_PARAMETERS;
+  }
+
   public String getCreateQuery(String tableName, Collection<SinkRecordField> fields) {
     final List<String> pkFieldNames = extractPrimaryKeyFieldNames(fields);
     final StringBuilder builder = new StringBuilder();
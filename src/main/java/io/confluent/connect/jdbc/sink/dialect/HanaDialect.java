@@ -104,4 +104,10 @@ public class HanaDialect extends DbDialect {
     builder.append(" WITH PRIMARY KEY");
     return builder.toString();
   }
+
+  @Override
+  public int getMaxInsertRows(int columns) {
+    // HANA doesn't accept more than one row in a VALUES list
+    return 1;
+  }
 }
@@ -26,7 +26,7 @@ import java.util.Collection;
 import java.util.Map;
 
 import static io.confluent.connect.jdbc.sink.dialect.StringBuilderUtil.joinToBuilder;
-import static io.confluent.connect.jdbc.sink.dialect.StringBuilderUtil.nCopiesToBuilder;
+import static io.confluent.connect.jdbc.sink.dialect.StringBuilderUtil.placeholderRowsToBuilder;
 
 public class MySqlDialect extends DbDialect {
 
@@ -74,6 +74,11 @@ public class MySqlDialect extends DbDialect {
 
   @Override
   public String getUpsertQuery(final String table, final Collection<String> keyCols, final Collection<String> cols) {
+    return getUpsertQuery(table, keyCols, cols, 1);
+  }
+
+  @Override
+  public String getUpsertQuery(final String table, final Collection<String> keyCols, final Collection<String> cols, final int rows) {
     //MySql doesn't support SQL 2003:merge so here how the upsert is handled
 
     final StringBuilder builder = new StringBuilder();
@@ -81,9 +86,9 @@ public class MySqlDialect extends DbDialect {
     builder.append(escaped(table));
     builder.append("(");
     joinToBuilder(builder, ",", keyCols, cols, escaper());
-    builder.append(") values(");
-    nCopiesToBuilder(builder, ",", "?", cols.size() + keyCols.size());
-    builder.append(") on duplicate key update ");
+    builder.append(") values");
+    placeholderRowsToBuilder(builder, cols.size() + keyCols.size(), rows);
+    builder.append(" on duplicate key update ");
     joinToBuilder(
         builder,
         ",",
@@ -98,4 +103,13 @@ public class MySqlDialect extends DbDialect {
     return builder.toString();
   }
 
+  @Override
+  public int getMaxUpsertRows(int columns) {
+    return getMaxInsertRows(columns);
+  }
+
+  @Override
+  protected int getMaxBindParameters() {
+    return 65535;
+  }
 }
@@ -118,4 +118,10 @@ public class OracleDialect extends DbDialect {
     builder.append(")");
     return builder.toString();
   }
+
+  @Override
+  public int getMaxInsertRows(int columns) {
+    // Oracle doesn't accept more than one row in a VALUES list
+    return 1;
+  }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.connect.jdbc.sink.dialect;
+
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * Loads rows with {@code COPY ... FROM STDIN}, streaming them through the {@code CopyManager} of the PostgreSQL driver.
+ * The driver is only available at runtime, so it is called reflectively.
+ */
+final class PostgreSqlCopyLoader implements BulkLoader {
+
+  private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+
+  private final PostgreSqlDialect dialect;
+
+  PostgreSqlCopyLoader(PostgreSqlDialect dialect) {
+    this.dialect = dialect;
+  }
+
+  @Override
+  public long load(Connection connection, String tableName, Collection<String> columns, Reader rows) throws SQLException {
+    return copyIn(copyManager(connection), dialect.getCopyQuery(tableName, columns), rows);
+  }
+
+  static Object copyManager(Connection connection) throws SQLException {
+    final Class<?> pgConnectionClass;
+    try {
+      pgConnectionClass = Class.forName(PG_CONNECTION_CLASS);
+    } catch (ClassNotFoundException e) {
+      throw new SQLException("The PostgreSQL JDBC driver is required for bulk loading", e);
+    }
+    if (!connection.isWrapperFor(pgConnectionClass)) {
+      throw new SQLException("Bulk loading requires a connection from the PostgreSQL JDBC driver, not " + connection.getClass().getName());
+    }
+    return invoke(pgConnectionClass, "getCopyAPI", new Class<?>[0], connection.unwrap(pgConnectionClass));
+  }
+
+  /**
+   * Call {@code copyIn(String, Reader)} on a {@code CopyManager}.
+   */
+  static long copyIn(Object copyManager, String sql, Reader rows) throws SQLException {
+    final Object rowCount = invoke(copyManager.getClass(), "copyIn", new Class<?>[]{String.class, Reader.class}, copyManager, sql, rows);
+    return ((Number) rowCount).longValue();
+  }
+
+  private static Object invoke(Class<?> type, String methodName, Class<?>[] parameterTypes, Object target, Object... args)
+      throws SQLException {
+    try {
+      return type.getMethod(methodName, parameterTypes).invoke(target, args);
+    } catch (InvocationTargetException e) {
+      if (e.getCause() instanceof SQLException) {
+        throw (SQLException) e.getCause();
+      }
+      throw new SQLException("Bulk load failed", e.getCause());
+    } catch (ReflectiveOperationException e) {
+      throw new SQLException(String.format("Can't call %s on %s", methodName, type.getName()), e);
+    }
+  }
+}
@@ -26,7 +26,7 @@ import java.util.Collection;
 import java.util.Map;
 
 import static io.confluent.connect.jdbc.sink.dialect.StringBuilderUtil.joinToBuilder;
-import static io.confluent.connect.jdbc.sink.dialect.StringBuilderUtil.nCopiesToBuilder;
+import static io.confluent.connect.jdbc.sink.dialect.StringBuilderUtil.placeholderRowsToBuilder;
 
 public class PostgreSqlDialect extends DbDialect {
 
@@ -73,16 +73,36 @@ public class PostgreSqlDialect extends DbDialect {
     return super.getSqlType(schemaName, parameters, type);
   }
 
+  @Override
+  public BulkLoader getBulkLoader() {
+    return new PostgreSqlCopyLoader(this);
+  }
+
+  String getCopyQuery(final String table, final Collection<String> columns) {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("COPY ");
+    builder.append(escaped(table));
+    builder.append("(");
+    joinToBuilder(builder, ",", columns, escaper());
+    builder.append(") FROM STDIN WITH (FORMAT csv)");
+    return builder.toString();
+  }
+
   @Override
   public String getUpsertQuery(final String table, final Collection<String> keyCols, final Collection<String> cols) {
+    return getUpsertQuery(table, keyCols, cols, 1);
+  }
+
+  @Override
+  public String getUpsertQuery(final String table, final Collection<String> keyCols, final Collection<String> cols, final int rows) {
     final StringBuilder builder = new StringBuilder();
     builder.append("INSERT INTO ");
     builder.append(escaped(table));
     builder.append(" (");
     joinToBuilder(builder, ",", keyCols, cols, escaper());
-    builder.append(") VALUES (");
-    nCopiesToBuilder(builder, ",", "?", cols.size() + keyCols.size());
-    builder.append(") ON CONFLICT (");
+    builder.append(") VALUES ");
+    placeholderRowsToBuilder(builder, cols.size() + keyCols.size(), rows);
+    builder.append(" ON CONFLICT (");
     joinToBuilder(builder, ",", keyCols, escaper());
     builder.append(") DO UPDATE SET ");
     joinToBuilder(
@@ -99,4 +119,14 @@ public class PostgreSqlDialect extends DbDialect {
     return builder.toString();
   }
 
+  @Override
+  public int getMaxUpsertRows(int columns) {
+    return getMaxInsertRows(columns);
+  }
+
+  @Override
+  protected int getMaxBindParameters() {
+    // The protocol sends the number of parameters as a 16-bit integer
+    return Short.MAX_VALUE;
+  }
 }
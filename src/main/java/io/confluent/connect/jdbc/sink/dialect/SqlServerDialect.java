@@ -115,4 +115,16 @@ public class SqlServerDialect extends DbDialect {
     builder.append(");");
     return builder.toString();
   }
-}
\ No newline at end of file
+
+  @Override
+  public int getMaxInsertRows(int columns) {
+    // A VALUES list can't have more than 1000 rows
+    return Math.min(1000, super.getMaxInsertRows(columns));
+  }
+
+  @Override
+  protected int getMaxBindParameters() {
+    // The limit is 2100, less the parameters the driver may add to the statement
+    return 2098;
+  }
+}
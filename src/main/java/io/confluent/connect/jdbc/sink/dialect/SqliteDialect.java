@@ -31,7 +31,7 @@ import java.util.Map;
 import io.confluent.connect.jdbc.sink.metadata.SinkRecordField;
 
 import static io.confluent.connect.jdbc.sink.dialect.StringBuilderUtil.joinToBuilder;
-import static io.confluent.connect.jdbc.sink.dialect.StringBuilderUtil.nCopiesToBuilder;
+import static io.confluent.connect.jdbc.sink.dialect.StringBuilderUtil.placeholderRowsToBuilder;
 
 public class SqliteDialect extends DbDialect {
   public SqliteDialect() {
@@ -92,13 +92,28 @@ public class SqliteDialect extends DbDialect {
 
   @Override
   public String getUpsertQuery(String table, Collection<String> keyCols, Collection<String> cols) {
+    return getUpsertQuery(table, keyCols, cols, 1);
+  }
+
+  @Override
+  public String getUpsertQuery(String table, Collection<String> keyCols, Collection<String> cols, int rows) {
     StringBuilder builder = new StringBuilder();
     builder.append("INSERT OR REPLACE INTO ");
     builder.append(escaped(table)).append("(");
     joinToBuilder(builder, ",", keyCols, cols, escaper());
-    builder.append(") VALUES(");
-    nCopiesToBuilder(builder, ",", "?", cols.size() + keyCols.size());
-    builder.append(")");
+    builder.append(") VALUES");
+    placeholderRowsToBuilder(builder, cols.size() + keyCols.size(), rows);
     return builder.toString();
   }
+
+  @Override
+  public int getMaxUpsertRows(int columns) {
+    return getMaxInsertRows(columns);
+  }
+
+  @Override
+  public boolean supportsConcurrentWrites() {
+    // A write locks the whole database, so writes of other connections fail as busy
+    return false;
+  }
 }
\ No newline at end of file
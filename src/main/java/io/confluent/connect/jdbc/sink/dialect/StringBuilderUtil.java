@@ -33,6 +33,21 @@ class StringBuilderUtil {
     }
   }
 
+  /**
+   * Append {@code rows} parenthesized, comma separated lists of {@code columns} placeholders, as
+   * in the {@code VALUES} list of a multi-row insert.
+   */
+  public static void placeholderRowsToBuilder(StringBuilder builder, int columns, int rows) {
+    for (int i = 0; i < rows; i++) {
+      if (i > 0) {
+        builder.append(",");
+      }
+      builder.append("(");
+      nCopiesToBuilder(builder, ",", "?", columns);
+      builder.append(")");
+    }
+  }
+
   public static <T> void joinToBuilder(StringBuilder builder, String delim, Iterable<T> iter, Transform<T> transform) {
     joinToBuilder(builder, delim, iter, false, transform);
   }
@@ -0,0 +1,204 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+
+import io.confluent.connect.jdbc.util.JdbcUtils;
+
+/**
+ * Splits a bulk copy of a table into a number of key ranges on a numeric column, so that the
+ * ranges can be read by separate {@link BulkTableQuerier}s, possibly concurrently.
+ *
+ * <p>The range boundaries are computed from the minimum and maximum value of the column. They are
+ * only recomputed once every chunk has started reading with the current boundaries, so the
+ * ranges used by the chunks of a pass always cover the whole table without gaps or overlaps. The
+ * first chunk is unbounded below and also includes rows where the column is NULL, and the last
+ * chunk is unbounded above.
+ */
+class BulkChunkPlan {
+  private static final Logger log = LoggerFactory.getLogger(BulkChunkPlan.class);
+
+  private final String table;
+  private final String column;
+  private final int chunkCount;
+
+  private long[] boundaries;
+  private int generation;
+  private final boolean[] claimed;
+  private final long[] rowsRead;
+  private int chunksFinished;
+
+  BulkChunkPlan(String table, String column, int chunkCount) {
+    if (chunkCount < 2) {
+      throw new IllegalArgumentException("A chunked table needs at least two chunks");
+    }
+    this.table = table;
+    this.column = column;
+    this.chunkCount = chunkCount;
+    this.claimed = new boolean[chunkCount];
+    this.rowsRead = new long[chunkCount];
+  }
+
+  /**
+   * Check whether the given SQL type can be used to split a table into key ranges.
+   */
+  static boolean isChunkableType(int sqlType) {
+    switch (sqlType) {
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+      case Types.BIGINT:
+      case Types.NUMERIC:
+      case Types.DECIMAL:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  String column() {
+    return column;
+  }
+
+  int chunkCount() {
+    return chunkCount;
+  }
+
+  /**
+   * @return the WHERE clause selecting the rows of the given chunk, with a parameter for each of
+   *         its bounds; see {@link #claimBounds}
+   */
+  String whereClause(int chunk, String quotedColumn) {
+    if (chunk == 0) {
+      return " WHERE (" + quotedColumn + " < ? OR " + quotedColumn + " IS NULL)";
+    } else if (chunk == chunkCount - 1) {
+      return " WHERE " + quotedColumn + " >= ?";
+    } else {
+      return " WHERE " + quotedColumn + " >= ? AND " + quotedColumn + " < ?";
+    }
+  }
+
+  /**
+   * Claim the bounds the given chunk should use for its next query, recomputing the boundaries
+   * from the table if every chunk has already used the current ones.
+   *
+   * @return the bounds to bind to the parameters of {@link #whereClause}, in order
+   */
+  synchronized long[] claimBounds(int chunk, Connection db) throws SQLException {
+    if (boundaries == null || allClaimed()) {
+      boundaries = computeBoundaries(db);
+      generation++;
+      Arrays.fill(claimed, false);
+      Arrays.fill(rowsRead, 0);
+      chunksFinished = 0;
+      log.debug("Split {} on {} into {} chunks at {} (pass {})", table, column, chunkCount,
+                Arrays.toString(boundaries), generation);
+    }
+    claimed[chunk] = true;
+    if (chunk == 0) {
+      return new long[]{boundaries[0]};
+    } else if (chunk == chunkCount - 1) {
+      return new long[]{boundaries[chunkCount - 2]};
+    } else {
+      return new long[]{boundaries[chunk - 1], boundaries[chunk]};
+    }
+  }
+
+  /**
+   * Record that the given chunk finished reading its range for the current pass.
+   */
+  synchronized void chunkFinished(int chunk, long rows) {
+    rowsRead[chunk] = rows;
+    chunksFinished++;
+    log.info("Chunk {}/{} of {} read {} rows (pass {}, {}/{} chunks done)", chunk + 1,
+             chunkCount, table, rows, generation, Math.min(chunksFinished, chunkCount),
+             chunkCount);
+    if (chunksFinished == chunkCount) {
+      long total = 0;
+      for (long r : rowsRead) {
+        total += r;
+      }
+      log.info("Finished pass {} of {}, {} rows read in {} chunks", generation, table, total,
+               chunkCount);
+    }
+  }
+
+  /**
+   * @return the number of rows each chunk read in the current pass, for chunks that finished
+   */
+  synchronized long[] rowsRead() {
+    return Arrays.copyOf(rowsRead, rowsRead.length);
+  }
+
+  private boolean allClaimed() {
+    for (boolean c : claimed) {
+      if (!c) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private long[] computeBoundaries(Connection db) throws SQLException {
+    String quoteString = JdbcUtils.getIdentifierQuoteString(db);
+    String quotedColumn = JdbcUtils.quoteString(column, quoteString);
+    String query = "SELECT MIN(" + quotedColumn + "), MAX(" + quotedColumn + ") FROM "
+                   + JdbcUtils.quoteString(table, quoteString);
+    long min = 0;
+    long max = 0;
+    try (Statement stmt = db.createStatement();
+         ResultSet rs = stmt.executeQuery(query)) {
+      if (rs.next()) {
+        min = rs.getLong(1);
+        boolean empty = rs.wasNull();
+        max = rs.getLong(2);
+        if (empty || rs.wasNull()) {
+          // Empty table, any boundaries will do
+          min = 0;
+          max = 0;
+        }
+      }
+    }
+    return splitRange(min, max, chunkCount);
+  }
+
+  /**
+   * Split the range [min, max] into the given number of ranges of (almost) equal size.
+   *
+   * @return the lower bound of each range except the first
+   */
+  static long[] splitRange(long min, long max, int chunkCount) {
+    BigInteger lower = BigInteger.valueOf(min);
+    BigInteger span = BigInteger.valueOf(max).subtract(lower).add(BigInteger.ONE);
+    BigInteger chunks = BigInteger.valueOf(chunkCount);
+    long[] result = new long[chunkCount - 1];
+    for (int i = 1; i < chunkCount; i++) {
+      result[i - 1] = lower.add(span.multiply(BigInteger.valueOf(i)).divide(chunks)).longValue();
+    }
+    return result;
+  }
+}
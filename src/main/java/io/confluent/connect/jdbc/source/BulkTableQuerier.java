@@ -22,23 +22,64 @@ import org.apache.kafka.connect.source.SourceRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Collections;
-import java.util.Map;
+import java.util.List;
 
 import io.confluent.connect.jdbc.util.JdbcUtils;
 
 /**
- * BulkTableQuerier always returns the entire table.
+ * BulkTableQuerier always returns the entire table, or only the rows that changed since the last
+ * pass if change detection is enabled.
  */
 public class BulkTableQuerier extends TableQuerier {
   private static final Logger log = LoggerFactory.getLogger(BulkTableQuerier.class);
 
+  private final BulkChunkPlan chunkPlan;
+  private final int chunk;
+  private long rowsInPass;
+
+  // Change detection state, only used if a digest store was set
+  private RowDigestStore digestStore;
+  private List<String> digestKeyFields;
+  private RowDigester digester;
+  private boolean passComplete;
+  private File pendingDigests;
+
   public BulkTableQuerier(QueryMode mode, String name, String schemaPattern,
                           String topicPrefix, Integer fetchSize, boolean mapNumerics) {
+    this(mode, name, schemaPattern, topicPrefix, fetchSize, mapNumerics, null, 0);
+  }
+
+  /**
+   * Create a querier that only reads one chunk of the table, as laid out by the given plan.
+   */
+  BulkTableQuerier(QueryMode mode, String name, String schemaPattern, String topicPrefix,
+                   Integer fetchSize, boolean mapNumerics, BulkChunkPlan chunkPlan, int chunk) {
     super(mode, name, topicPrefix, schemaPattern, fetchSize, mapNumerics);
+    if (chunkPlan != null && mode != QueryMode.TABLE) {
+      throw new IllegalArgumentException("Only tables can be read in chunks");
+    }
+    this.chunkPlan = chunkPlan;
+    this.chunk = chunk;
+  }
+
+  /**
+   * Only return rows that were inserted or changed since the last completed pass, by comparing
+   * the digest of each row with the one stored for its key in the given store.
+   *
+   * @param keyFields the fields identifying a row, or an empty list to use the whole row
+   */
+  void detectChanges(RowDigestStore digestStore, List<String> keyFields) {
+    if (mode != QueryMode.TABLE || chunkPlan != null) {
+      throw new IllegalArgumentException("Changes can only be detected when reading whole tables");
+    }
+    this.digestStore = digestStore;
+    this.digestKeyFields = keyFields;
+    this.digester = new RowDigester();
   }
 
   @Override
@@ -47,6 +88,10 @@ public class BulkTableQuerier extends TableQuerier {
       case TABLE:
         String quoteString = JdbcUtils.getIdentifierQuoteString(db);
         String queryString = "SELECT * FROM " + JdbcUtils.quoteString(name, quoteString);
+        if (chunkPlan != null) {
+          queryString += chunkPlan.whereClause(
+              chunk, JdbcUtils.quoteString(chunkPlan.column(), quoteString));
+        }
         log.debug("{} prepared SQL query: {}", this, queryString);
         stmt = db.prepareStatement(queryString);
         break;
@@ -59,37 +104,102 @@ public class BulkTableQuerier extends TableQuerier {
 
   @Override
   protected ResultSet executeQuery() throws SQLException {
+    rowsInPass = 0;
+    if (chunkPlan != null) {
+      long[] bounds = chunkPlan.claimBounds(chunk, stmt.getConnection());
+      for (int i = 0; i < bounds.length; i++) {
+        stmt.setLong(i + 1, bounds[i]);
+      }
+    }
     return stmt.executeQuery();
   }
 
   @Override
   public SourceRecord extractRecord() throws SQLException {
-    Struct record = DataConverter.convertRecord(schema, resultSet, mapNumerics);
-    // TODO: key from primary key? partition?
-    final String topic;
-    final Map<String, String> partition;
-    switch (mode) {
-      case TABLE:
-        partition = Collections.singletonMap(JdbcSourceConnectorConstants.TABLE_NAME_KEY, name);
-        topic = topicPrefix + name;
-        break;
-      case QUERY:
-        partition = Collections.singletonMap(JdbcSourceConnectorConstants.QUERY_NAME_KEY,
-                                             JdbcSourceConnectorConstants.QUERY_NAME_VALUE);
-        topic = topicPrefix;
-        break;
-      default:
-        throw new ConnectException("Unexpected query mode: " + mode);
+    Struct record = DataConverter.convertRecord(schemaMapping, resultSet);
+    rowsInPass++;
+    if (digestStore != null && !changed(record)) {
+      return null;
     }
+    // TODO: key from primary key?
     return new SourceRecord(partition, null, topic, record.schema(), record);
   }
 
+  private boolean changed(Struct record) {
+    long keyDigest = digester.keyDigest(record, digestKeyFields);
+    long rowDigest = digester.rowDigest(record);
+    try {
+      digestStore.add(keyDigest, rowDigest);
+    } catch (IOException e) {
+      throw new ConnectException("Failed to write row digests of " + name, e);
+    }
+    Long previous = digestStore.lookup(keyDigest);
+    return previous == null || previous != rowDigest;
+  }
+
+  @Override
+  public boolean next() throws SQLException {
+    boolean hadNext = super.next();
+    if (!hadNext) {
+      passComplete = true;
+    }
+    return hadNext;
+  }
+
+  @Override
+  public void reset(long now, Connection db) throws SQLException {
+    if (chunkPlan != null && querying()) {
+      chunkPlan.chunkFinished(chunk, rowsInPass);
+    }
+    if (digestStore != null) {
+      if (passComplete) {
+        try {
+          pendingDigests = digestStore.finishPass();
+        } catch (IOException e) {
+          log.error("Failed to write row digests of {}, changes will be detected against the "
+                    + "previous pass again", name, e);
+        }
+      } else {
+        digestStore.abortPass();
+      }
+    }
+    passComplete = false;
+    super.reset(now, db);
+  }
+
+  @Override
+  public Runnable takePendingCommit() {
+    if (pendingDigests == null) {
+      return null;
+    }
+    final File digests = pendingDigests;
+    pendingDigests = null;
+    return new Runnable() {
+      @Override
+      public void run() {
+        try {
+          digestStore.promote(digests);
+        } catch (IOException e) {
+          log.error("Failed to replace row digests of {}", name, e);
+          digestStore.discard(digests);
+        }
+      }
+    };
+  }
+
+  @Override
+  String metricsName() {
+    // Each chunk is run by its own querier, so each gets its own metrics
+    return chunkPlan != null ? name + ".chunk" + (chunk + 1) : name;
+  }
+
   @Override
   public String toString() {
     return "BulkTableQuerier{" +
            "name='" + name + '\'' +
            ", query='" + query + '\'' +
            ", topicPrefix='" + topicPrefix + '\'' +
+           (chunkPlan != null ? ", chunk=" + (chunk + 1) + "/" + chunkPlan.chunkCount() : "") +
            '}';
   }
 
@@ -28,7 +28,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.Array;
 import java.sql.Blob;
@@ -52,6 +51,13 @@ public class DataConverter {
   private static final Logger log = LoggerFactory.getLogger(JdbcSourceTask.class);
   private static final Set<String> STRING_CONVERTABLE_TYPES = ImmutableSet.of("json", "jsonb", "uuid");
 
+  /**
+   * Reads the value of one column of the current row of a result set.
+   */
+  public interface ColumnConverter {
+    Object convert(ResultSet resultSet) throws SQLException, IOException;
+  }
+
   public static Schema convertSchema(String tableName, ResultSetMetaData metadata, boolean mapNumerics)
       throws SQLException {
     // TODO: Detect changes to metadata, which will require schema updates
@@ -64,12 +70,19 @@ public class DataConverter {
 
   public static Struct convertRecord(Schema schema, ResultSet resultSet, boolean mapNumerics)
       throws SQLException {
-    ResultSetMetaData metadata = resultSet.getMetaData();
-    Struct struct = new Struct(schema);
-    for (int col = 1; col <= metadata.getColumnCount(); col++) {
+    return convertRecord(SchemaMapping.create(schema, resultSet.getMetaData(), mapNumerics), resultSet);
+  }
+
+  /**
+   * Convert the current row of the result set using a precompiled {@link SchemaMapping}. Unlike
+   * {@link #convertRecord(Schema, ResultSet, boolean)}, this does not touch the result set's
+   * metadata, so the mapping should be created once per query and reused for every row.
+   */
+  public static Struct convertRecord(SchemaMapping mapping, ResultSet resultSet) {
+    Struct struct = new Struct(mapping.schema());
+    for (SchemaMapping.FieldSetter setter : mapping.fieldSetters()) {
       try {
-        convertFieldValue(resultSet, col, metadata.getColumnType(col), struct,
-                          metadata.getColumnLabel(col), metadata.getColumnTypeName(col), mapNumerics);
+        setter.setField(struct, resultSet);
       } catch (IOException e) {
         log.warn("Ignoring record because processing failed:", e);
       } catch (SQLException e) {
@@ -79,14 +92,20 @@ public class DataConverter {
     return struct;
   }
 
+  /**
+   * Get the name of the field a column is converted to. Label is what the query requested the
+   * column name be using an "AS" clause, name is the original.
+   */
+  static String fieldName(ResultSetMetaData metadata, int col) throws SQLException {
+    String label = metadata.getColumnLabel(col);
+    String name = metadata.getColumnName(col);
+    return label != null && !label.isEmpty() ? label : name;
+  }
+
   private static void addFieldSchema(ResultSetMetaData metadata, int col,
                                      SchemaBuilder builder, boolean mapNumerics)
       throws SQLException {
-    // Label is what the query requested the column name be using an "AS" clause, name is the
-    // original
-    String label = metadata.getColumnLabel(col);
-    String name = metadata.getColumnName(col);
-    String fieldName = label != null && !label.isEmpty() ? label : name;
+    String fieldName = fieldName(metadata, col);
 
     int sqlType = metadata.getColumnType(col);
     boolean optional = false;
@@ -335,217 +354,329 @@ public class DataConverter {
     }
   }
 
-  private static void convertFieldValue(ResultSet resultSet, int col, int colType,
-                                        Struct struct, String fieldName, String typeName, boolean mapNumerics)
-      throws SQLException, IOException {
-    final Object colValue;
+  /**
+   * Create a converter that reads a single column of the current row of a result set as the Java
+   * object expected by the Connect schema generated for it in {@link #convertSchema}. All of the
+   * metadata the conversion depends on is looked up once here rather than for every row.
+   *
+   * @return the converter, or null if the column's type is not supported
+   */
+  static ColumnConverter columnConverterFor(ResultSetMetaData metadata, final int col,
+                                            boolean mapNumerics)
+      throws SQLException {
+    return columnConverterFor(metadata, col, mapNumerics, new LobReader());
+  }
+
+  /**
+   * Create a converter like {@link #columnConverterFor(ResultSetMetaData, int, boolean)} that
+   * reads BLOB and CLOB values with the given reader.
+   */
+  static ColumnConverter columnConverterFor(ResultSetMetaData metadata, final int col,
+                                            boolean mapNumerics, final LobReader lobReader)
+      throws SQLException {
+    final int colType = metadata.getColumnType(col);
     switch (colType) {
       case Types.NULL: {
-        colValue = null;
-        break;
+        return null;
       }
 
       case Types.BIT:
       case Types.BOOLEAN: {
-        colValue = resultSet.getBoolean(col);
-        break;
+        return new ColumnConverter() {
+          @Override
+          public Object convert(ResultSet resultSet) throws SQLException {
+            return resultSet.getBoolean(col);
+          }
+        };
       }
 
       // 8 bits int
       case Types.TINYINT: {
-        if (resultSet.getMetaData().isSigned(col)) {
-          colValue = resultSet.getByte(col);
+        if (metadata.isSigned(col)) {
+          return new ColumnConverter() {
+            @Override
+            public Object convert(ResultSet resultSet) throws SQLException {
+              return resultSet.getByte(col);
+            }
+          };
         } else {
-          colValue = resultSet.getShort(col);
+          return new ColumnConverter() {
+            @Override
+            public Object convert(ResultSet resultSet) throws SQLException {
+              return resultSet.getShort(col);
+            }
+          };
         }
-        break;
       }
 
       // 16 bits int
       case Types.SMALLINT: {
-        if (resultSet.getMetaData().isSigned(col)) {
-          colValue = resultSet.getShort(col);
+        if (metadata.isSigned(col)) {
+          return new ColumnConverter() {
+            @Override
+            public Object convert(ResultSet resultSet) throws SQLException {
+              return resultSet.getShort(col);
+            }
+          };
         } else {
-          colValue = resultSet.getInt(col);
+          return new ColumnConverter() {
+            @Override
+            public Object convert(ResultSet resultSet) throws SQLException {
+              return resultSet.getInt(col);
+            }
+          };
         }
-        break;
       }
 
       // 32 bits int
       case Types.INTEGER: {
-        if (resultSet.getMetaData().isSigned(col)) {
-          colValue = resultSet.getInt(col);
+        if (metadata.isSigned(col)) {
+          return new ColumnConverter() {
+            @Override
+            public Object convert(ResultSet resultSet) throws SQLException {
+              return resultSet.getInt(col);
+            }
+          };
         } else {
-          colValue = resultSet.getLong(col);
+          return new ColumnConverter() {
+            @Override
+            public Object convert(ResultSet resultSet) throws SQLException {
+              return resultSet.getLong(col);
+            }
+          };
         }
-        break;
       }
 
       // 64 bits int
       case Types.BIGINT: {
-        colValue = resultSet.getLong(col);
-        break;
+        return new ColumnConverter() {
+          @Override
+          public Object convert(ResultSet resultSet) throws SQLException {
+            return resultSet.getLong(col);
+          }
+        };
       }
 
       // REAL is a single precision floating point value, i.e. a Java float
       case Types.REAL: {
-        colValue = resultSet.getFloat(col);
-        break;
+        return new ColumnConverter() {
+          @Override
+          public Object convert(ResultSet resultSet) throws SQLException {
+            return resultSet.getFloat(col);
+          }
+        };
       }
 
       // FLOAT is, confusingly, double precision and effectively the same as DOUBLE. See REAL
       // for single precision
       case Types.FLOAT:
       case Types.DOUBLE: {
-        colValue = resultSet.getDouble(col);
-        break;
+        return new ColumnConverter() {
+          @Override
+          public Object convert(ResultSet resultSet) throws SQLException {
+            return resultSet.getDouble(col);
+          }
+        };
       }
 
       case Types.NUMERIC:
         if (mapNumerics) {
-          ResultSetMetaData metadata = resultSet.getMetaData();
           int precision = metadata.getPrecision(col);
           if (metadata.getScale(col) == 0 && precision < 19) { // integer
             if (precision > 9) {
-              colValue = resultSet.getLong(col);
+              return new ColumnConverter() {
+                @Override
+                public Object convert(ResultSet resultSet) throws SQLException {
+                  return resultSet.getLong(col);
+                }
+              };
             } else if (precision > 4) {
-              colValue = resultSet.getInt(col);
+              return new ColumnConverter() {
+                @Override
+                public Object convert(ResultSet resultSet) throws SQLException {
+                  return resultSet.getInt(col);
+                }
+              };
             } else if (precision > 2) {
-              colValue = resultSet.getShort(col);
+              return new ColumnConverter() {
+                @Override
+                public Object convert(ResultSet resultSet) throws SQLException {
+                  return resultSet.getShort(col);
+                }
+              };
             } else {
-              colValue = resultSet.getByte(col);
+              return new ColumnConverter() {
+                @Override
+                public Object convert(ResultSet resultSet) throws SQLException {
+                  return resultSet.getByte(col);
+                }
+              };
             }
-            break;
           }
         }
       case Types.DECIMAL: {
-        int scale = resultSet.getMetaData().getScale(col);
-        if (scale == -127)
-          scale = 127;
-        BigDecimal bigDecimalValue = resultSet.getBigDecimal(col, scale);
-        if (bigDecimalValue == null)
-          colValue = null;
-        else
-          colValue = bigDecimalValue;
-        break;
+        int metadataScale = metadata.getScale(col);
+        final int scale = metadataScale == -127 ? 127 : metadataScale;
+        return new ColumnConverter() {
+          @Override
+          public Object convert(ResultSet resultSet) throws SQLException {
+            return resultSet.getBigDecimal(col, scale);
+          }
+        };
       }
 
       case Types.CHAR:
       case Types.VARCHAR:
       case Types.LONGVARCHAR: {
-        colValue = resultSet.getString(col);
-        break;
+        return new ColumnConverter() {
+          @Override
+          public Object convert(ResultSet resultSet) throws SQLException {
+            return resultSet.getString(col);
+          }
+        };
       }
 
       case Types.NCHAR:
       case Types.NVARCHAR:
       case Types.LONGNVARCHAR: {
-        colValue = resultSet.getNString(col);
-        break;
+        return new ColumnConverter() {
+          @Override
+          public Object convert(ResultSet resultSet) throws SQLException {
+            return resultSet.getNString(col);
+          }
+        };
       }
 
       // Binary == fixed, VARBINARY and LONGVARBINARY == bytes
       case Types.BINARY:
       case Types.VARBINARY:
       case Types.LONGVARBINARY: {
-        colValue = resultSet.getBytes(col);
-        break;
+        return new ColumnConverter() {
+          @Override
+          public Object convert(ResultSet resultSet) throws SQLException {
+            return resultSet.getBytes(col);
+          }
+        };
       }
 
       // Date is day + moth + year
       case Types.DATE: {
-        colValue = resultSet.getDate(col, DateTimeUtils.UTC_CALENDAR.get());
-        break;
+        return new ColumnConverter() {
+          @Override
+          public Object convert(ResultSet resultSet) throws SQLException {
+            return resultSet.getDate(col, DateTimeUtils.UTC_CALENDAR.get());
+          }
+        };
       }
 
       // Time is a time of day -- hour, minute, seconds, nanoseconds
       case Types.TIME: {
-        colValue = resultSet.getTime(col, DateTimeUtils.UTC_CALENDAR.get());
-        break;
+        return new ColumnConverter() {
+          @Override
+          public Object convert(ResultSet resultSet) throws SQLException {
+            return resultSet.getTime(col, DateTimeUtils.UTC_CALENDAR.get());
+          }
+        };
       }
 
       // Timestamp is a date + time
       case Types.TIMESTAMP: {
-        colValue = resultSet.getTimestamp(col, DateTimeUtils.UTC_CALENDAR.get());
-        break;
+        return new ColumnConverter() {
+          @Override
+          public Object convert(ResultSet resultSet) throws SQLException {
+            return resultSet.getTimestamp(col, DateTimeUtils.UTC_CALENDAR.get());
+          }
+        };
       }
 
       // Datalink is basically a URL -> string
       case Types.DATALINK: {
-        URL url = resultSet.getURL(col);
-        colValue = (url != null ? url.toString() : null);
-        break;
+        return new ColumnConverter() {
+          @Override
+          public Object convert(ResultSet resultSet) throws SQLException {
+            URL url = resultSet.getURL(col);
+            return (url != null ? url.toString() : null);
+          }
+        };
       }
 
       // BLOB == fixed
       case Types.BLOB: {
-        Blob blob = resultSet.getBlob(col);
-        if (blob == null) {
-          colValue = null;
-        } else {
-          if (blob.length() > Integer.MAX_VALUE) {
-            throw new IOException("Can't process BLOBs longer than Integer.MAX_VALUE");
+        final String column = fieldName(metadata, col);
+        final boolean nullable = metadata.isNullable(col) != ResultSetMetaData.columnNoNulls;
+        return new ColumnConverter() {
+          @Override
+          public Object convert(ResultSet resultSet) throws SQLException, IOException {
+            Blob blob = resultSet.getBlob(col);
+            return blob == null ? null : lobReader.read(blob, column, nullable);
           }
-          colValue = blob.getBytes(1, (int) blob.length());
-          blob.free();
-        }
-        break;
+        };
       }
       case Types.CLOB:
       case Types.NCLOB: {
-        Clob clob = (colType == Types.CLOB ? resultSet.getClob(col) : resultSet.getNClob(col));
-        if (clob == null) {
-          colValue = null;
-        } else {
-          if (clob.length() > Integer.MAX_VALUE) {
-            throw new IOException("Can't process BLOBs longer than Integer.MAX_VALUE");
+        final String column = fieldName(metadata, col);
+        final boolean nullable = metadata.isNullable(col) != ResultSetMetaData.columnNoNulls;
+        return new ColumnConverter() {
+          @Override
+          public Object convert(ResultSet resultSet) throws SQLException, IOException {
+            Clob clob = (colType == Types.CLOB ? resultSet.getClob(col) : resultSet.getNClob(col));
+            return clob == null ? null : lobReader.read(clob, column, nullable);
           }
-          colValue = clob.getSubString(1, (int) clob.length());
-          clob.free();
-        }
-        break;
+        };
       }
 
       // XML -> string
       case Types.SQLXML: {
-        SQLXML xml = resultSet.getSQLXML(col);
-        colValue = (xml != null ? xml.getString() : null);
-        break;
+        return new ColumnConverter() {
+          @Override
+          public Object convert(ResultSet resultSet) throws SQLException {
+            SQLXML xml = resultSet.getSQLXML(col);
+            return (xml != null ? xml.getString() : null);
+          }
+        };
       }
 
       case Types.ARRAY: {
-        Array arr = resultSet.getArray(col);
-        String elementTypeName = arr.getBaseTypeName();
-        boolean isStringConvertableType = STRING_CONVERTABLE_TYPES.contains(elementTypeName.toLowerCase());
-
-        // https://docs.oracle.com/javase/tutorial/jdbc/basics/array.html#retrieving_array
-        Object[] objectArray = (Object[]) arr.getArray();
-
-        // The schema validator actually expects a list, not an array
-        // For now, convert all types in the array to Strings
-        ArrayList<String> stringArray = new ArrayList<>();
-        for (Object obj: objectArray) {
-          if (obj == null) {
-            stringArray.add(null);
-          } else if (String.class.isAssignableFrom(obj.getClass()) || isStringConvertableType) {
-            stringArray.add(obj.toString());
-          } else {
-            throw new IOException("Can't process input, supported types in arrays are string, JSON, UUID, and null. Your type: " + obj.getClass());
+        return new ColumnConverter() {
+          @Override
+          public Object convert(ResultSet resultSet) throws SQLException, IOException {
+            Array arr = resultSet.getArray(col);
+            if (arr == null) {
+              return null;
+            }
+            String elementTypeName = arr.getBaseTypeName();
+            boolean isStringConvertableType = STRING_CONVERTABLE_TYPES.contains(elementTypeName.toLowerCase());
+
+            // https://docs.oracle.com/javase/tutorial/jdbc/basics/array.html#retrieving_array
+            Object[] objectArray = (Object[]) arr.getArray();
+
+            // The schema validator actually expects a list, not an array
+            // For now, convert all types in the array to Strings
+            ArrayList<String> stringArray = new ArrayList<>();
+            for (Object obj: objectArray) {
+              if (obj == null) {
+                stringArray.add(null);
+              } else if (String.class.isAssignableFrom(obj.getClass()) || isStringConvertableType) {
+                stringArray.add(obj.toString());
+              } else {
+                throw new IOException("Can't process input, supported types in arrays are string, JSON, UUID, and null. Your type: " + obj.getClass());
+              }
+            }
+            return stringArray;
           }
-        }
-
-        colValue = stringArray;
-        break;
+        };
       }
 
       case Types.OTHER: {
-        if (STRING_CONVERTABLE_TYPES.contains(typeName.toLowerCase())) {
-          colValue = resultSet.getString(col);
-        } else {
-          return;
+        if (STRING_CONVERTABLE_TYPES.contains(metadata.getColumnTypeName(col).toLowerCase())) {
+          return new ColumnConverter() {
+            @Override
+            public Object convert(ResultSet resultSet) throws SQLException {
+              return resultSet.getString(col);
+            }
+          };
         }
-
-        break;
+        return null;
       }
 
       case Types.JAVA_OBJECT:
@@ -556,13 +687,9 @@ public class DataConverter {
       default: {
         // These are not currently supported, but we don't want to log something for every single
         // record we translate. There will already be errors logged for the schema translation
-        return;
+        return null;
       }
     }
-
-    // FIXME: Would passing in some extra info about the schema so we can get the Field by index
-    // be faster than setting this by name?
-    struct.put(fieldName, resultSet.wasNull() ? null : colValue);
   }
 
 }
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.connect.errors.ConnectException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+import io.confluent.connect.jdbc.source.dialect.SourceDialect;
+import io.confluent.connect.jdbc.util.DateTimeUtils;
+
+/**
+ * The current time of the database, shared by the queriers of a task.
+ *
+ * <p>Rather than querying the database for every query of every table, the clock measures the
+ * offset between the database time and the local time, and derives the database time from the
+ * local time until the next resync. Each measurement is corrected for half the round trip of the
+ * query that made it, and the remaining uncertainty is subtracted from the derived time, so it
+ * never runs ahead of the database.
+ *
+ * <p>If two consecutive measurements disagree by more than the maximum drift, or a measurement is
+ * more uncertain than that, the clocks aren't considered stable and the database is queried again
+ * for the next reading.
+ */
+class DatabaseClock {
+  private static final Logger log = LoggerFactory.getLogger(DatabaseClock.class);
+
+  private final SourceDialect dialect;
+  private final Time time;
+  private final long resyncIntervalMs;
+  private final long maxDriftMs;
+
+  private boolean synced;
+  private boolean stable;
+  private long lastSync;
+  private long offsetMs;
+  private long uncertaintyMs;
+
+  /**
+   * @param resyncIntervalMs how long to derive the database time from the local time after
+   *                         measuring their offset, or 0 to query the database for every reading
+   * @param maxDriftMs the largest change between measurements and the largest measurement
+   *                   uncertainty for which the offset is trusted
+   */
+  DatabaseClock(SourceDialect dialect, Time time, long resyncIntervalMs, long maxDriftMs) {
+    this.dialect = dialect;
+    this.time = time;
+    this.resyncIntervalMs = resyncIntervalMs;
+    this.maxDriftMs = maxDriftMs;
+  }
+
+  /**
+   * @return the current time of the database, querying it on the given connection if it's time
+   *         to resync
+   */
+  synchronized Timestamp currentTime(Connection db) throws SQLException {
+    long now = time.milliseconds();
+    // Also resync if the local clock went backwards
+    if (!synced || !stable || now - lastSync >= resyncIntervalMs || now < lastSync) {
+      return new Timestamp(sync(db));
+    }
+    return new Timestamp(now + offsetMs - uncertaintyMs);
+  }
+
+  /**
+   * Measure the offset between the database time and the local time.
+   *
+   * @return the database time that was read
+   */
+  private long sync(Connection db) throws SQLException {
+    String query = dialect.currentTimestampQuery();
+    long before = time.milliseconds();
+    long dbTime;
+    try (Statement stmt = db.createStatement()) {
+      log.debug("executing query " + query + " to get current time from database");
+      try (ResultSet rs = stmt.executeQuery(query)) {
+        if (!rs.next()) {
+          throw new ConnectException("Unable to get current time from DB using query " + query);
+        }
+        dbTime = rs.getTimestamp(1, DateTimeUtils.UTC_CALENDAR.get()).getTime();
+      }
+    } catch (SQLException e) {
+      log.error("Failed to get current time from DB using query " + query, e);
+      throw e;
+    }
+    long after = time.milliseconds();
+
+    long roundTrip = Math.max(0, after - before);
+    long newOffset = dbTime - (before + roundTrip / 2);
+    long drift = Math.abs(newOffset - offsetMs);
+    if (resyncIntervalMs == 0) {
+      // Every reading queries the database, so the offset is never used
+      stable = true;
+    } else if (synced && drift > maxDriftMs) {
+      log.warn("Database clock drifted by {} ms since the last measurement, querying it until "
+               + "it is stable again", drift);
+      stable = false;
+    } else if (roundTrip / 2 > maxDriftMs) {
+      log.debug("Database time measurement is uncertain by {} ms", roundTrip / 2);
+      stable = false;
+    } else {
+      stable = true;
+    }
+    offsetMs = newOffset;
+    uncertaintyMs = (roundTrip + 1) / 2;
+    lastSync = after;
+    synced = true;
+    return dbTime;
+  }
+}
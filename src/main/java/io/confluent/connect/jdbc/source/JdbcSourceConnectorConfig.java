@@ -127,6 +127,46 @@ public class JdbcSourceConnectorConfig extends AbstractConfig {
   public static final String TABLE_BLACKLIST_DEFAULT = "";
   private static final String TABLE_BLACKLIST_DISPLAY = "Table Blacklist";
 
+  public static final String TABLE_INCLUDE_REGEX_CONFIG = "table.include.regex";
+  private static final String TABLE_INCLUDE_REGEX_DOC =
+      "Regular expression that the whole name of a table must match for it to be copied. Applied "
+      + "in addition to table.whitelist or table.blacklist. If the expression starts with literal "
+      + "characters, only tables starting with them are listed from the database.";
+  public static final String TABLE_INCLUDE_REGEX_DEFAULT = "";
+  private static final String TABLE_INCLUDE_REGEX_DISPLAY = "Table Include Pattern";
+
+  public static final String TABLE_EXCLUDE_REGEX_CONFIG = "table.exclude.regex";
+  private static final String TABLE_EXCLUDE_REGEX_DOC =
+      "Regular expression that excludes tables whose whole name matches it from copying. Applied "
+      + "in addition to table.whitelist or table.blacklist.";
+  public static final String TABLE_EXCLUDE_REGEX_DEFAULT = "";
+  private static final String TABLE_EXCLUDE_REGEX_DISPLAY = "Table Exclude Pattern";
+
+  public static final String CONNECTION_POOL_MIN_SIZE_CONFIG = "connection.pool.min.size";
+  private static final String CONNECTION_POOL_MIN_SIZE_DOC =
+      "Number of database connections each task keeps open when they are idle.";
+  public static final int CONNECTION_POOL_MIN_SIZE_DEFAULT = 1;
+  private static final String CONNECTION_POOL_MIN_SIZE_DISPLAY = "Minimum Connections";
+
+  public static final String CONNECTION_POOL_MAX_SIZE_CONFIG = "connection.pool.max.size";
+  private static final String CONNECTION_POOL_MAX_SIZE_DOC =
+      "Maximum number of database connections each task opens. If it is less than "
+      + "query.concurrency plus one, fewer tables are queried concurrently. The default of 0 opens "
+      + "as many connections as needed.";
+  public static final int CONNECTION_POOL_MAX_SIZE_DEFAULT = 0;
+  private static final String CONNECTION_POOL_MAX_SIZE_DISPLAY = "Maximum Connections";
+
+  public static final String CONNECTION_VALIDATION_INTERVAL_MS_CONFIG =
+      "connection.validation.interval.ms";
+  private static final String CONNECTION_VALIDATION_INTERVAL_MS_DOC =
+      "A database connection that has been idle for at least this long is checked before it is "
+      + "used again, and idle connections beyond connection.pool.min.size are closed after this "
+      + "long. Connections used more recently are not checked, and a query that fails on a broken "
+      + "connection is retried on a new one.";
+  public static final long CONNECTION_VALIDATION_INTERVAL_MS_DEFAULT = 10000L;
+  private static final String CONNECTION_VALIDATION_INTERVAL_MS_DISPLAY =
+      "Connection Validation Interval (ms)";
+
   public static final String SCHEMA_PATTERN_CONFIG = "schema.pattern";
   private static final String SCHEMA_PATTERN_DOC =
       "Schema pattern to fetch tables metadata from the database:\n"
@@ -170,6 +210,160 @@ public class JdbcSourceConnectorConfig extends AbstractConfig {
   public static final long TIMESTAMP_DELAY_INTERVAL_MS_DEFAULT = 0;
   private static final String TIMESTAMP_DELAY_INTERVAL_MS_DISPLAY = "Delay Interval (ms)";
 
+  public static final String TIMESTAMP_CLOCK_RESYNC_INTERVAL_MS_CONFIG = "timestamp.clock.resync.interval.ms";
+  private static final String TIMESTAMP_CLOCK_RESYNC_INTERVAL_MS_DOC =
+      "In timestamp modes, how long each task derives the current database time, which bounds the "
+      + "rows returned by each query, from the local clock after measuring the offset between the "
+      + "two. Each measurement queries the database. The derived time is kept slightly behind the "
+      + "database time to account for the uncertainty of the measurement. The default of 0 queries "
+      + "the database for the current time before every query.";
+  public static final long TIMESTAMP_CLOCK_RESYNC_INTERVAL_MS_DEFAULT = 0;
+  private static final String TIMESTAMP_CLOCK_RESYNC_INTERVAL_MS_DISPLAY = "Database Clock Resync Interval (ms)";
+
+  public static final String TIMESTAMP_CLOCK_MAX_DRIFT_MS_CONFIG = "timestamp.clock.max.drift.ms";
+  private static final String TIMESTAMP_CLOCK_MAX_DRIFT_MS_DOC =
+      "The largest difference between consecutive measurements of the offset between the database "
+      + "and local clocks, and the largest uncertainty of a single measurement, for which the "
+      + "offset is trusted. If it is exceeded, the database is queried for the current time again "
+      + "until the measurements are stable.";
+  public static final long TIMESTAMP_CLOCK_MAX_DRIFT_MS_DEFAULT = 100;
+  private static final String TIMESTAMP_CLOCK_MAX_DRIFT_MS_DISPLAY = "Database Clock Maximum Drift (ms)";
+
+  public static final String BULK_CHUNK_COUNT_CONFIG = "bulk.chunk.count";
+  private static final String BULK_CHUNK_COUNT_DOC =
+      "In bulk mode, the number of key ranges each table is split into. Each range is read by a "
+      + "separate query, and ranges are read concurrently if ``query.concurrency`` allows. Tables "
+      + "are split on ``bulk.chunk.column``. The default of 1 reads each table with a single query.";
+  public static final int BULK_CHUNK_COUNT_DEFAULT = 1;
+  private static final String BULK_CHUNK_COUNT_DISPLAY = "Bulk Chunk Count";
+
+  public static final String BULK_CHUNK_COLUMN_CONFIG = "bulk.chunk.column";
+  private static final String BULK_CHUNK_COLUMN_DOC =
+      "The numeric column used to split tables into key ranges when ``bulk.chunk.count`` is greater "
+      + "than 1. An empty value indicates the column should be autodetected by looking for a "
+      + "numeric single-column primary key. Tables without a usable column are read with a single "
+      + "query.";
+  public static final String BULK_CHUNK_COLUMN_DEFAULT = "";
+  private static final String BULK_CHUNK_COLUMN_DISPLAY = "Bulk Chunk Column";
+
+  public static final String BULK_PAGE_SIZE_CONFIG = "bulk.page.size";
+  private static final String BULK_PAGE_SIZE_DOC =
+      "In bulk mode, the maximum number of rows read by each query. If greater than 0, tables are "
+      + "read in pages ordered by their primary key, each page starting after the last key of the "
+      + "previous one. The key of each row is stored as its source offset, so a restarted task "
+      + "resumes the current pass instead of copying the table again. Tables without a primary "
+      + "key are read with a single query. Cannot be combined with ``bulk.chunk.count``.";
+  public static final int BULK_PAGE_SIZE_DEFAULT = 0;
+  private static final String BULK_PAGE_SIZE_DISPLAY = "Bulk Page Size";
+
+  public static final String BULK_DIGEST_DIR_CONFIG = "bulk.digest.dir";
+  private static final String BULK_DIGEST_DIR_DOC =
+      "In bulk mode, a local directory in which to keep a digest of every row of each table. If "
+      + "set, each pass only publishes the rows that were inserted or changed since the previous "
+      + "pass, identified by their primary key. Deleted rows are not detected. The digests of a "
+      + "pass only replace those of the previous pass once its records have been committed, so a "
+      + "restarted task publishes changes again rather than losing them. Cannot be combined with "
+      + "``bulk.chunk.count`` or ``bulk.page.size``.";
+  public static final String BULK_DIGEST_DIR_DEFAULT = "";
+  private static final String BULK_DIGEST_DIR_DISPLAY = "Bulk Change Detection Directory";
+
+  public static final String POLL_INTERVAL_MAX_MS_CONFIG = "poll.interval.max.ms";
+  private static final String POLL_INTERVAL_MAX_MS_DOC =
+      "If greater than ``poll.interval.ms``, the time each table waits between queries adapts to "
+      + "how often it changes. A query that returns at least ``batch.max.rows`` rows is followed "
+      + "immediately by the next one, a query that returns fewer rows resets the wait to "
+      + "``poll.interval.ms``, and each query that returns no rows doubles the wait, up to this "
+      + "maximum. Tables copied in bulk mode without ``bulk.digest.dir`` always wait "
+      + "``poll.interval.ms``, since every query returns the whole table.";
+  public static final int POLL_INTERVAL_MAX_MS_DEFAULT = 0;
+  private static final String POLL_INTERVAL_MAX_MS_DISPLAY = "Maximum Poll Interval (ms)";
+
+  public static final String POLL_INTERVAL_OVERRIDES_CONFIG = "poll.interval.overrides";
+  private static final String POLL_INTERVAL_OVERRIDES_DOC =
+      "List of per-table poll interval ranges, each of the form ``<table>:<min ms>:<max ms>``. The "
+      + "wait between queries of a listed table adapts like with ``poll.interval.max.ms``, but is "
+      + "kept within the given range. Setting the minimum and maximum to the same value polls a "
+      + "table at a fixed interval.";
+  public static final String POLL_INTERVAL_OVERRIDES_DEFAULT = "";
+  private static final String POLL_INTERVAL_OVERRIDES_DISPLAY = "Per-Table Poll Intervals";
+
+  public static final String INCREMENTAL_PAGE_SIZE_CONFIG = "incremental.page.size";
+  private static final String INCREMENTAL_PAGE_SIZE_DOC =
+      "In incrementing and timestamp+incrementing modes, the maximum number of rows returned by "
+      + "each query. Once a page has been read, the next page is queried starting after its last "
+      + "row, so a large backlog is read in bounded queries that can use the index on the "
+      + "incrementing or timestamp column instead of sorting the whole backlog at once. The limit "
+      + "is added to generated table queries in the syntax of the database where it is known, and "
+      + "otherwise, as for a custom ``query``, only applied to the results. Ignored in timestamp "
+      + "mode. The default of 0 reads all new rows with a single query.";
+  public static final int INCREMENTAL_PAGE_SIZE_DEFAULT = 0;
+  private static final String INCREMENTAL_PAGE_SIZE_DISPLAY = "Incremental Page Size";
+
+  public static final String QUERY_CONCURRENCY_CONFIG = "query.concurrency";
+  private static final String QUERY_CONCURRENCY_DOC =
+      "Number of tables each task queries concurrently. Each concurrent query uses its own database "
+      + "connection. With the default of 1, the tables assigned to a task are queried one at a time "
+      + "on a single connection.";
+  public static final int QUERY_CONCURRENCY_DEFAULT = 1;
+  private static final String QUERY_CONCURRENCY_DISPLAY = "Query Concurrency";
+
+  public static final String TABLE_ASSIGNMENT_CONFIG = "table.assignment";
+  private static final String TABLE_ASSIGNMENT_DOC =
+      "How tables are split between tasks. Options include:\n"
+      + "  * count - give each task about the same number of tables\n"
+      + "  * weighted - give each task about the same total weight of tables. The weight of a table "
+      + "is taken from ``table.weights`` if it is listed there, and otherwise from the number of "
+      + "rows the database estimates it to have in its catalog statistics, where they are known "
+      + "(PostgreSQL, MySQL, SQL Server and Oracle), counting only the schemas matching "
+      + "``schema.pattern``. Tables with neither are weighted like the "
+      + "average table with a weight.\n"
+      + "Either way, tables found after the connector started are added to the task with the "
+      + "fewest tables or lowest weight, and dropped tables are removed from their task, without "
+      + "moving the other tables. Tables are only regrouped from scratch when the connector "
+      + "restarts.";
+  public static final String TABLE_ASSIGNMENT_COUNT = "count";
+  public static final String TABLE_ASSIGNMENT_WEIGHTED = "weighted";
+  public static final String TABLE_ASSIGNMENT_DEFAULT = TABLE_ASSIGNMENT_COUNT;
+  private static final String TABLE_ASSIGNMENT_DISPLAY = "Table Assignment";
+
+  public static final String TABLE_WEIGHTS_CONFIG = "table.weights";
+  private static final String TABLE_WEIGHTS_DOC =
+      "List of table weights used by the weighted ``table.assignment``, each of the form "
+      + "``<table>:<weight>``, for instance the rows per second or database time observed for the "
+      + "table. Weights given here take precedence over the estimates of the database.";
+  public static final String TABLE_WEIGHTS_DEFAULT = "";
+  private static final String TABLE_WEIGHTS_DISPLAY = "Table Weights";
+
+  public static final String LOB_MAX_BYTES_CONFIG = "lob.max.bytes";
+  private static final String LOB_MAX_BYTES_DOC =
+      "Maximum size of a BLOB value in bytes, or of a CLOB value in characters. Values are read "
+      + "from the database as streams, so no more than this is read for a larger value, which is "
+      + "handled as set by ``lob.overflow.handling``. The default of 0 reads values completely.";
+  public static final long LOB_MAX_BYTES_DEFAULT = 0L;
+  private static final String LOB_MAX_BYTES_DISPLAY = "Max LOB Size";
+
+  public static final String LOB_OVERFLOW_HANDLING_CONFIG = "lob.overflow.handling";
+  private static final String LOB_OVERFLOW_HANDLING_DOC =
+      "What to do with a BLOB or CLOB value larger than ``lob.max.bytes``. Options include:\n"
+      + "  * truncate - keep the first ``lob.max.bytes`` bytes or characters of the value\n"
+      + "  * skip - replace the value with null, or an empty value if the column doesn't allow "
+      + "nulls\n"
+      + "  * fail - fail the task";
+  public static final String LOB_OVERFLOW_HANDLING_TRUNCATE = "truncate";
+  public static final String LOB_OVERFLOW_HANDLING_SKIP = "skip";
+  public static final String LOB_OVERFLOW_HANDLING_FAIL = "fail";
+  public static final String LOB_OVERFLOW_HANDLING_DEFAULT = LOB_OVERFLOW_HANDLING_FAIL;
+  private static final String LOB_OVERFLOW_HANDLING_DISPLAY = "LOB Overflow Handling";
+
+  public static final String BATCH_MAX_LOB_BYTES_CONFIG = "batch.max.lob.bytes";
+  private static final String BATCH_MAX_LOB_BYTES_DOC =
+      "Maximum size in bytes of the BLOB and CLOB values in a batch of records. A batch ends early "
+      + "once the values read for it reach this size, so that a few large rows don't take up more "
+      + "memory than ``batch.max.rows`` small ones. CLOB values count two bytes per character. "
+      + "The default of 0 only limits the number of rows.";
+  public static final long BATCH_MAX_LOB_BYTES_DEFAULT = 0L;
+  private static final String BATCH_MAX_LOB_BYTES_DISPLAY = "Max LOB Bytes Per Batch";
+
   public static final String DATABASE_GROUP = "Database";
   public static final String MODE_GROUP = "Mode";
   public static final String CONNECTOR_GROUP = "Connector";
@@ -203,6 +397,11 @@ public class JdbcSourceConnectorConfig extends AbstractConfig {
                 TABLE_RECOMMENDER)
         .define(TABLE_BLACKLIST_CONFIG, Type.LIST, TABLE_BLACKLIST_DEFAULT, Importance.MEDIUM, TABLE_BLACKLIST_DOC, DATABASE_GROUP, 5, Width.LONG, TABLE_BLACKLIST_DISPLAY,
                 TABLE_RECOMMENDER)
+        .define(TABLE_INCLUDE_REGEX_CONFIG, Type.STRING, TABLE_INCLUDE_REGEX_DEFAULT, Importance.LOW, TABLE_INCLUDE_REGEX_DOC, DATABASE_GROUP, 6, Width.LONG, TABLE_INCLUDE_REGEX_DISPLAY)
+        .define(TABLE_EXCLUDE_REGEX_CONFIG, Type.STRING, TABLE_EXCLUDE_REGEX_DEFAULT, Importance.LOW, TABLE_EXCLUDE_REGEX_DOC, DATABASE_GROUP, 7, Width.LONG, TABLE_EXCLUDE_REGEX_DISPLAY)
+        .define(CONNECTION_POOL_MIN_SIZE_CONFIG, Type.INT, CONNECTION_POOL_MIN_SIZE_DEFAULT, ConfigDef.Range.atLeast(0), Importance.LOW, CONNECTION_POOL_MIN_SIZE_DOC, DATABASE_GROUP, 8, Width.SHORT, CONNECTION_POOL_MIN_SIZE_DISPLAY)
+        .define(CONNECTION_POOL_MAX_SIZE_CONFIG, Type.INT, CONNECTION_POOL_MAX_SIZE_DEFAULT, ConfigDef.Range.atLeast(0), Importance.LOW, CONNECTION_POOL_MAX_SIZE_DOC, DATABASE_GROUP, 9, Width.SHORT, CONNECTION_POOL_MAX_SIZE_DISPLAY)
+        .define(CONNECTION_VALIDATION_INTERVAL_MS_CONFIG, Type.LONG, CONNECTION_VALIDATION_INTERVAL_MS_DEFAULT, ConfigDef.Range.atLeast(0), Importance.LOW, CONNECTION_VALIDATION_INTERVAL_MS_DOC, DATABASE_GROUP, 10, Width.SHORT, CONNECTION_VALIDATION_INTERVAL_MS_DISPLAY)
         .define(SCHEMA_PATTERN_CONFIG, Type.STRING, null, Importance.MEDIUM, SCHEMA_PATTERN_DOC, DATABASE_GROUP, 4, Width.SHORT, SCHEMA_PATTERN_DISPLAY)
         .define(TABLE_TYPE_CONFIG, Type.LIST, TABLE_TYPE_DEFAULT, Importance.LOW,
                 TABLE_TYPE_DOC, CONNECTOR_GROUP, 4, Width.MEDIUM, TABLE_TYPE_DISPLAY)
@@ -216,12 +415,27 @@ public class JdbcSourceConnectorConfig extends AbstractConfig {
         .define(VALIDATE_NON_NULL_CONFIG, Type.BOOLEAN, VALIDATE_NON_NULL_DEFAULT, Importance.LOW, VALIDATE_NON_NULL_DOC, MODE_GROUP, 4, Width.SHORT, VALIDATE_NON_NULL_DISPLAY,
                 MODE_DEPENDENTS_RECOMMENDER)
         .define(QUERY_CONFIG, Type.STRING, QUERY_DEFAULT, Importance.MEDIUM, QUERY_DOC, MODE_GROUP, 5, Width.SHORT, QUERY_DISPLAY)
+        .define(BULK_CHUNK_COUNT_CONFIG, Type.INT, BULK_CHUNK_COUNT_DEFAULT, ConfigDef.Range.atLeast(1), Importance.LOW, BULK_CHUNK_COUNT_DOC, MODE_GROUP, 6, Width.SHORT, BULK_CHUNK_COUNT_DISPLAY)
+        .define(BULK_CHUNK_COLUMN_CONFIG, Type.STRING, BULK_CHUNK_COLUMN_DEFAULT, Importance.LOW, BULK_CHUNK_COLUMN_DOC, MODE_GROUP, 7, Width.MEDIUM, BULK_CHUNK_COLUMN_DISPLAY)
+        .define(BULK_PAGE_SIZE_CONFIG, Type.INT, BULK_PAGE_SIZE_DEFAULT, ConfigDef.Range.atLeast(0), Importance.LOW, BULK_PAGE_SIZE_DOC, MODE_GROUP, 8, Width.SHORT, BULK_PAGE_SIZE_DISPLAY)
+        .define(BULK_DIGEST_DIR_CONFIG, Type.STRING, BULK_DIGEST_DIR_DEFAULT, Importance.LOW, BULK_DIGEST_DIR_DOC, MODE_GROUP, 9, Width.LONG, BULK_DIGEST_DIR_DISPLAY)
+        .define(INCREMENTAL_PAGE_SIZE_CONFIG, Type.INT, INCREMENTAL_PAGE_SIZE_DEFAULT, ConfigDef.Range.atLeast(0), Importance.LOW, INCREMENTAL_PAGE_SIZE_DOC, MODE_GROUP, 10, Width.SHORT, INCREMENTAL_PAGE_SIZE_DISPLAY)
         .define(POLL_INTERVAL_MS_CONFIG, Type.INT, POLL_INTERVAL_MS_DEFAULT, Importance.HIGH, POLL_INTERVAL_MS_DOC, CONNECTOR_GROUP, 1, Width.SHORT, POLL_INTERVAL_MS_DISPLAY)
         .define(BATCH_MAX_ROWS_CONFIG, Type.INT, BATCH_MAX_ROWS_DEFAULT, Importance.LOW, BATCH_MAX_ROWS_DOC, CONNECTOR_GROUP, 2, Width.SHORT, BATCH_MAX_ROWS_DISPLAY)
         .define(TABLE_POLL_INTERVAL_MS_CONFIG, Type.LONG, TABLE_POLL_INTERVAL_MS_DEFAULT, Importance.LOW, TABLE_POLL_INTERVAL_MS_DOC, CONNECTOR_GROUP, 3, Width.SHORT, TABLE_POLL_INTERVAL_MS_DISPLAY)
         .define(TOPIC_PREFIX_CONFIG, Type.STRING, Importance.HIGH, TOPIC_PREFIX_DOC, CONNECTOR_GROUP, 4, Width.MEDIUM, TOPIC_PREFIX_DISPLAY)
         .define(TIMESTAMP_DELAY_INTERVAL_MS_CONFIG, Type.LONG, TIMESTAMP_DELAY_INTERVAL_MS_DEFAULT, Importance.HIGH, TIMESTAMP_DELAY_INTERVAL_MS_DOC, CONNECTOR_GROUP, 5, Width.MEDIUM, TIMESTAMP_DELAY_INTERVAL_MS_DISPLAY)
-        .define(FETCH_SIZE_CONFIG, Type.INT, FETCH_SIZE_DEFAULT, Importance.MEDIUM, FETCH_SIZE_CONFIG_DOC);
+        .define(FETCH_SIZE_CONFIG, Type.INT, FETCH_SIZE_DEFAULT, Importance.MEDIUM, FETCH_SIZE_CONFIG_DOC)
+        .define(QUERY_CONCURRENCY_CONFIG, Type.INT, QUERY_CONCURRENCY_DEFAULT, ConfigDef.Range.atLeast(1), Importance.LOW, QUERY_CONCURRENCY_DOC, CONNECTOR_GROUP, 6, Width.SHORT, QUERY_CONCURRENCY_DISPLAY)
+        .define(POLL_INTERVAL_MAX_MS_CONFIG, Type.INT, POLL_INTERVAL_MAX_MS_DEFAULT, ConfigDef.Range.atLeast(0), Importance.LOW, POLL_INTERVAL_MAX_MS_DOC, CONNECTOR_GROUP, 7, Width.SHORT, POLL_INTERVAL_MAX_MS_DISPLAY)
+        .define(POLL_INTERVAL_OVERRIDES_CONFIG, Type.LIST, POLL_INTERVAL_OVERRIDES_DEFAULT, Importance.LOW, POLL_INTERVAL_OVERRIDES_DOC, CONNECTOR_GROUP, 8, Width.LONG, POLL_INTERVAL_OVERRIDES_DISPLAY)
+        .define(TIMESTAMP_CLOCK_RESYNC_INTERVAL_MS_CONFIG, Type.LONG, TIMESTAMP_CLOCK_RESYNC_INTERVAL_MS_DEFAULT, ConfigDef.Range.atLeast(0), Importance.LOW, TIMESTAMP_CLOCK_RESYNC_INTERVAL_MS_DOC, CONNECTOR_GROUP, 9, Width.SHORT, TIMESTAMP_CLOCK_RESYNC_INTERVAL_MS_DISPLAY)
+        .define(TIMESTAMP_CLOCK_MAX_DRIFT_MS_CONFIG, Type.LONG, TIMESTAMP_CLOCK_MAX_DRIFT_MS_DEFAULT, ConfigDef.Range.atLeast(0), Importance.LOW, TIMESTAMP_CLOCK_MAX_DRIFT_MS_DOC, CONNECTOR_GROUP, 10, Width.SHORT, TIMESTAMP_CLOCK_MAX_DRIFT_MS_DISPLAY)
+        .define(TABLE_ASSIGNMENT_CONFIG, Type.STRING, TABLE_ASSIGNMENT_DEFAULT, ConfigDef.ValidString.in(TABLE_ASSIGNMENT_COUNT, TABLE_ASSIGNMENT_WEIGHTED), Importance.LOW, TABLE_ASSIGNMENT_DOC, CONNECTOR_GROUP, 11, Width.SHORT, TABLE_ASSIGNMENT_DISPLAY)
+        .define(TABLE_WEIGHTS_CONFIG, Type.LIST, TABLE_WEIGHTS_DEFAULT, Importance.LOW, TABLE_WEIGHTS_DOC, CONNECTOR_GROUP, 12, Width.LONG, TABLE_WEIGHTS_DISPLAY)
+        .define(LOB_MAX_BYTES_CONFIG, Type.LONG, LOB_MAX_BYTES_DEFAULT, ConfigDef.Range.between(0, Integer.MAX_VALUE), Importance.LOW, LOB_MAX_BYTES_DOC, CONNECTOR_GROUP, 13, Width.SHORT, LOB_MAX_BYTES_DISPLAY)
+        .define(LOB_OVERFLOW_HANDLING_CONFIG, Type.STRING, LOB_OVERFLOW_HANDLING_DEFAULT, ConfigDef.ValidString.in(LOB_OVERFLOW_HANDLING_TRUNCATE, LOB_OVERFLOW_HANDLING_SKIP, LOB_OVERFLOW_HANDLING_FAIL), Importance.LOW, LOB_OVERFLOW_HANDLING_DOC, CONNECTOR_GROUP, 14, Width.SHORT, LOB_OVERFLOW_HANDLING_DISPLAY)
+        .define(BATCH_MAX_LOB_BYTES_CONFIG, Type.LONG, BATCH_MAX_LOB_BYTES_DEFAULT, ConfigDef.Range.atLeast(0), Importance.LOW, BATCH_MAX_LOB_BYTES_DOC, CONNECTOR_GROUP, 15, Width.SHORT, BATCH_MAX_LOB_BYTES_DISPLAY);
   }
 
   public static final ConfigDef CONFIG_DEF = baseConfigDef();
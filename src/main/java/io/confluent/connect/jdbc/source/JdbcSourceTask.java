@@ -26,17 +26,21 @@ import org.apache.kafka.connect.source.SourceTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import io.confluent.connect.jdbc.util.CachedConnectionProvider;
+import io.confluent.connect.jdbc.source.dialect.SourceDialect;
 import io.confluent.connect.jdbc.util.JdbcUtils;
+import io.confluent.connect.jdbc.util.PooledConnectionProvider;
 import io.confluent.connect.jdbc.util.Version;
 
 /**
@@ -49,8 +53,11 @@ public class JdbcSourceTask extends SourceTask {
 
   private Time time;
   private JdbcSourceTaskConfig config;
-  private CachedConnectionProvider cachedConnectionProvider;
+  private PooledConnectionProvider connectionProvider;
   private PriorityQueue<TableQuerier> tableQueue = new PriorityQueue<TableQuerier>();
+  private QuerierWorkerPool querierWorkerPool;
+  private SourceTaskMetrics metrics;
+  private PendingCommits pendingCommits = new PendingCommits(false);
   private AtomicBoolean stop;
 
   public JdbcSourceTask() {
@@ -74,10 +81,7 @@ public class JdbcSourceTask extends SourceTask {
       throw new ConnectException("Couldn't start JdbcSourceTask due to configuration error", e);
     }
 
-    final String dbUrl = config.getString(JdbcSourceConnectorConfig.CONNECTION_URL_CONFIG);
-    final String dbUser = config.getString(JdbcSourceConnectorConfig.CONNECTION_USER_CONFIG);
-    final Password dbPassword = config.getPassword(JdbcSourceConnectorConfig.CONNECTION_PASSWORD_CONFIG);
-    cachedConnectionProvider = new CachedConnectionProvider(dbUrl, dbUser, dbPassword == null ? null : dbPassword.value());
+    connectionProvider = createConnectionProvider();
 
     List<String> tables = config.getList(JdbcSourceTaskConfig.TABLES_CONFIG);
     String query = config.getString(JdbcSourceTaskConfig.QUERY_CONFIG);
@@ -91,10 +95,28 @@ public class JdbcSourceTask extends SourceTask {
                                  Collections.singletonList(query) : tables;
 
     String mode = config.getString(JdbcSourceTaskConfig.MODE_CONFIG);
+    int bulkChunkCount = config.getInt(JdbcSourceTaskConfig.BULK_CHUNK_COUNT_CONFIG);
+    int bulkPageSize = config.getInt(JdbcSourceTaskConfig.BULK_PAGE_SIZE_CONFIG);
+    boolean bulkPaging = mode.equals(JdbcSourceTaskConfig.MODE_BULK)
+                         && queryMode == TableQuerier.QueryMode.TABLE && bulkPageSize > 0;
+    String bulkDigestDir = config.getString(JdbcSourceTaskConfig.BULK_DIGEST_DIR_CONFIG);
+    boolean bulkDigests = mode.equals(JdbcSourceTaskConfig.MODE_BULK)
+                          && queryMode == TableQuerier.QueryMode.TABLE && !bulkDigestDir.isEmpty();
+    if (bulkDigests && (bulkPaging || bulkChunkCount > 1)) {
+      throw new ConnectException("Invalid configuration: " + JdbcSourceTaskConfig.BULK_DIGEST_DIR_CONFIG
+                                 + " cannot be combined with " + JdbcSourceTaskConfig.BULK_PAGE_SIZE_CONFIG
+                                 + " or " + JdbcSourceTaskConfig.BULK_CHUNK_COUNT_CONFIG);
+    }
+    if (bulkPaging && bulkChunkCount > 1) {
+      throw new ConnectException("Invalid configuration: " + JdbcSourceTaskConfig.BULK_PAGE_SIZE_CONFIG
+                                 + " cannot be combined with " + JdbcSourceTaskConfig.BULK_CHUNK_COUNT_CONFIG);
+    }
+    pendingCommits = new PendingCommits(bulkDigests);
     Map<Map<String, String>, Map<String, Object>> offsets = null;
     if (mode.equals(JdbcSourceTaskConfig.MODE_INCREMENTING) ||
         mode.equals(JdbcSourceTaskConfig.MODE_TIMESTAMP) ||
-        mode.equals(JdbcSourceTaskConfig.MODE_TIMESTAMP_INCREMENTING)) {
+        mode.equals(JdbcSourceTaskConfig.MODE_TIMESTAMP_INCREMENTING) ||
+        bulkPaging) {
       List<Map<String, String>> partitions = new ArrayList<>(tables.size());
       switch (queryMode) {
         case TABLE:
@@ -146,8 +168,30 @@ public class JdbcSourceTask extends SourceTask {
       String topicPrefix = config.getString(JdbcSourceTaskConfig.TOPIC_PREFIX_CONFIG);
       boolean mapNumerics = config.getBoolean(JdbcSourceTaskConfig.NUMERIC_PRECISION_MAPPING_CONFIG);
 
-      if (mode.equals(JdbcSourceTaskConfig.MODE_BULK)) {
-        tableQueue.add(new BulkTableQuerier(queryMode, tableOrQuery, schemaPattern, topicPrefix, fetchSize, mapNumerics));
+      KeysetTableQuerier keysetQuerier = null;
+      if (bulkPaging) {
+        keysetQuerier = createKeysetQuerier(schemaPattern, tableOrQuery, topicPrefix, bulkPageSize,
+                                            offset, fetchSize, mapNumerics);
+      }
+
+      if (keysetQuerier != null) {
+        tableQueue.add(keysetQuerier);
+      } else if (mode.equals(JdbcSourceTaskConfig.MODE_BULK)) {
+        BulkChunkPlan chunkPlan = null;
+        if (queryMode == TableQuerier.QueryMode.TABLE && bulkChunkCount > 1) {
+          chunkPlan = createChunkPlan(schemaPattern, tableOrQuery, bulkChunkCount);
+        }
+        if (chunkPlan == null) {
+          BulkTableQuerier querier = new BulkTableQuerier(queryMode, tableOrQuery, schemaPattern, topicPrefix, fetchSize, mapNumerics);
+          if (bulkDigests) {
+            enableChangeDetection(querier, bulkDigestDir, schemaPattern, tableOrQuery, topicPrefix);
+          }
+          tableQueue.add(querier);
+        } else {
+          for (int chunk = 0; chunk < chunkPlan.chunkCount(); chunk++) {
+            tableQueue.add(new BulkTableQuerier(queryMode, tableOrQuery, schemaPattern, topicPrefix, fetchSize, mapNumerics, chunkPlan, chunk));
+          }
+        }
       } else if (mode.equals(JdbcSourceTaskConfig.MODE_INCREMENTING)) {
         tableQueue.add(new TimestampIncrementingTableQuerier(
             queryMode, tableOrQuery, topicPrefix, null, incrementingColumn, offset, timestampDelayInterval, schemaPattern, fetchSize, mapNumerics));
@@ -160,7 +204,88 @@ public class JdbcSourceTask extends SourceTask {
       }
     }
 
+    // Every pass of a plain bulk querier returns the whole table, so its record count says nothing
+    // about how often the table changes
+    boolean adaptivePolling = !mode.equals(JdbcSourceTaskConfig.MODE_BULK) || bulkDigests;
+    Map<String, long[]> pollIntervalOverrides = PollSchedule.parseOverrides(
+        config.getList(JdbcSourceTaskConfig.POLL_INTERVAL_OVERRIDES_CONFIG));
+    SourceDialect dialect = createDialect();
+    int incrementalPageSize = config.getInt(JdbcSourceTaskConfig.INCREMENTAL_PAGE_SIZE_CONFIG);
+    if (incrementalPageSize > 0 && mode.equals(JdbcSourceTaskConfig.MODE_TIMESTAMP)) {
+      // Rows sharing the timestamp of the last row of a page would be skipped by the next page
+      log.warn("{} is ignored in {} mode, which can't resume exactly where a page ended",
+               JdbcSourceTaskConfig.INCREMENTAL_PAGE_SIZE_CONFIG, mode);
+      incrementalPageSize = 0;
+    }
+    DatabaseClock databaseClock = new DatabaseClock(
+        dialect, time, config.getLong(JdbcSourceTaskConfig.TIMESTAMP_CLOCK_RESYNC_INTERVAL_MS_CONFIG),
+        config.getLong(JdbcSourceTaskConfig.TIMESTAMP_CLOCK_MAX_DRIFT_MS_CONFIG));
+    String connectorName = properties.get("name");
+    metrics = new SourceTaskMetrics(connectorName != null ? connectorName : "jdbc-source",
+                                    config.getInt(JdbcSourceTaskConfig.TASK_ID_CONFIG), time);
+    for (TableQuerier querier : tableQueue) {
+      querier.setMetrics(metrics.forQuerier(querier.metricsName()));
+      querier.setDialect(dialect);
+      querier.setLobReader(createLobReader());
+      if (querier instanceof TimestampIncrementingTableQuerier) {
+        querier.setPageLimit(incrementalPageSize);
+        ((TimestampIncrementingTableQuerier) querier).setClock(databaseClock);
+      }
+      querier.setPollSchedule(createPollSchedule(querier.name, adaptivePolling, pollIntervalOverrides));
+    }
+
     stop = new AtomicBoolean(false);
+
+    startQuerierWorkerPool();
+  }
+
+  private PooledConnectionProvider createConnectionProvider() {
+    final String dbUrl = config.getString(JdbcSourceConnectorConfig.CONNECTION_URL_CONFIG);
+    final String dbUser = config.getString(JdbcSourceConnectorConfig.CONNECTION_USER_CONFIG);
+    final Password dbPassword = config.getPassword(JdbcSourceConnectorConfig.CONNECTION_PASSWORD_CONFIG);
+    final String dbPasswordValue = dbPassword == null ? null : dbPassword.value();
+    return new PooledConnectionProvider(
+        dbUrl, dbUser, dbPasswordValue,
+        config.getInt(JdbcSourceTaskConfig.CONNECTION_POOL_MIN_SIZE_CONFIG),
+        config.getInt(JdbcSourceTaskConfig.CONNECTION_POOL_MAX_SIZE_CONFIG),
+        config.getLong(JdbcSourceTaskConfig.CONNECTION_VALIDATION_INTERVAL_MS_CONFIG), time);
+  }
+
+  private LobReader createLobReader() {
+    String overflow = config.getString(JdbcSourceTaskConfig.LOB_OVERFLOW_HANDLING_CONFIG);
+    return new LobReader(config.getLong(JdbcSourceTaskConfig.LOB_MAX_BYTES_CONFIG),
+                         LobReader.Overflow.valueOf(overflow.toUpperCase(Locale.ROOT)),
+                         config.getLong(JdbcSourceTaskConfig.BATCH_MAX_LOB_BYTES_CONFIG));
+  }
+
+  private void startQuerierWorkerPool() {
+    int poolMaxSize = config.getInt(JdbcSourceTaskConfig.CONNECTION_POOL_MAX_SIZE_CONFIG);
+    int queryConcurrency = config.getInt(JdbcSourceTaskConfig.QUERY_CONCURRENCY_CONFIG);
+    int workers = Math.min(queryConcurrency, tableQueue.size());
+    if (poolMaxSize > 0 && workers > poolMaxSize - 1) {
+      // One connection of the pool is kept by the task itself
+      log.warn("Querying at most {} tables concurrently, since {} is {}",
+               Math.max(1, poolMaxSize - 1), JdbcSourceTaskConfig.CONNECTION_POOL_MAX_SIZE_CONFIG,
+               poolMaxSize);
+      workers = poolMaxSize - 1;
+    }
+    if (workers > 1) {
+      log.info("Querying {} tables using {} concurrent connections", tableQueue.size(), workers);
+      querierWorkerPool = new QuerierWorkerPool(
+          tableQueue, workers, connectionProvider,
+          config.getInt(JdbcSourceTaskConfig.BATCH_MAX_ROWS_CONFIG), time);
+      querierWorkerPool.start();
+    }
+  }
+
+  private SourceDialect createDialect() {
+    String url = config.getString(JdbcSourceConnectorConfig.CONNECTION_URL_CONFIG);
+    try {
+      return SourceDialect.fromConnection(connectionProvider.getValidConnection(), url);
+    } catch (SQLException | ConnectException e) {
+      log.warn("Failed to read the database product name, choosing the dialect from the URL", e);
+      return SourceDialect.fromConnectionString(url);
+    }
   }
 
   @Override
@@ -168,22 +293,50 @@ public class JdbcSourceTask extends SourceTask {
     if (stop != null) {
       stop.set(true);
     }
-    if (cachedConnectionProvider != null) {
-      cachedConnectionProvider.closeQuietly();
+    if (querierWorkerPool != null) {
+      querierWorkerPool.stop();
     }
+    long statementsPrepared = 0;
+    long statementsReused = 0;
+    for (TableQuerier querier : tableQueue) {
+      statementsPrepared += querier.statementsPrepared();
+      statementsReused += querier.statementsReused();
+      querier.releaseStatement();
+    }
+    log.info("Reused prepared statements for {} of {} queries", statementsReused,
+             statementsReused + statementsPrepared);
+    if (connectionProvider != null) {
+      connectionProvider.closeQuietly();
+    }
+    if (metrics != null) {
+      metrics.close();
+    }
+  }
+
+  @Override
+  public void commit() throws InterruptedException {
+    pendingCommits.commit();
+  }
+
+  @Override
+  public void commitRecord(SourceRecord record) throws InterruptedException {
+    pendingCommits.recordAcked(record);
   }
 
   @Override
   public List<SourceRecord> poll() throws InterruptedException {
     log.trace("{} Polling for new data");
 
+    if (querierWorkerPool != null) {
+      return pollWorkerPool();
+    }
+
     while (!stop.get()) {
       final TableQuerier querier = tableQueue.peek();
 
       if (!querier.querying()) {
         // If not in the middle of an update, wait for next update time
-        final long nextUpdate = querier.getLastUpdate() + config.getInt(JdbcSourceTaskConfig.POLL_INTERVAL_MS_CONFIG);
-        final long untilNext = nextUpdate - time.milliseconds();
+        final long untilNext = querier.getNextUpdate() - time.milliseconds();
         if (untilNext > 0) {
           log.trace("Waiting {} ms to poll {} next", untilNext, querier.toString());
           time.sleep(untilNext);
@@ -194,17 +347,18 @@ public class JdbcSourceTask extends SourceTask {
       final List<SourceRecord> results = new ArrayList<>();
       try {
         log.debug("Checking for next block of results from {}", querier.toString());
-        querier.maybeStartQuery(cachedConnectionProvider.getValidConnection());
+        querier.maybeStartQuery(connectionProvider.getValidConnection());
 
         int batchMaxRows = config.getInt(JdbcSourceTaskConfig.BATCH_MAX_ROWS_CONFIG);
-        boolean hadNext = true;
-        while (results.size() < batchMaxRows && (hadNext = querier.next())) {
-          results.add(querier.extractRecord());
-        }
+        boolean hadNext = querier.readBatch(results, batchMaxRows);
 
         if (!hadNext) {
           // If we finished processing the results from the current query, we can reset and send the querier to the tail of the queue
           resetAndRequeueHead(querier);
+          Runnable pendingCommit = querier.takePendingCommit();
+          if (pendingCommit != null) {
+            pendingCommits.add(pendingCommit, !results.isEmpty());
+          }
         }
 
         if (results.isEmpty()) {
@@ -213,10 +367,15 @@ public class JdbcSourceTask extends SourceTask {
         }
 
         log.debug("Returning {} records for {}", results.size(), querier.toString());
+        pendingCommits.batchReturned(results);
         return results;
       } catch (SQLException e) {
         log.error("Failed to run query for table {}: {}", querier.toString(), e);
+        querier.releaseStatement();
         resetAndRequeueHead(querier);
+        // Connections are no longer validated before every query, so don't hold on to one that
+        // may be broken
+        connectionProvider.closeQuietly();
         return null;
       }
     }
@@ -225,21 +384,151 @@ public class JdbcSourceTask extends SourceTask {
     return null;
   }
 
+  private List<SourceRecord> pollWorkerPool() throws InterruptedException {
+    final long pollIntervalMs = config.getInt(JdbcSourceTaskConfig.POLL_INTERVAL_MS_CONFIG);
+    while (!stop.get()) {
+      QuerierWorkerPool.Batch batch = querierWorkerPool.poll(pollIntervalMs);
+      if (batch == null) {
+        continue;
+      }
+      if (batch.pendingCommit != null) {
+        pendingCommits.add(batch.pendingCommit, !batch.records.isEmpty());
+      }
+      if (!batch.records.isEmpty()) {
+        pendingCommits.batchReturned(batch.records);
+        return batch.records;
+      }
+    }
+    // Only in case of shutdown
+    return null;
+  }
+
   private void resetAndRequeueHead(TableQuerier expectedHead) {
     log.debug("Resetting querier {}", expectedHead.toString());
     TableQuerier removedQuerier = tableQueue.poll();
     assert removedQuerier == expectedHead;
     try {
-      expectedHead.reset(time.milliseconds(), cachedConnectionProvider.getValidConnection());
+      expectedHead.reset(time.milliseconds(), connectionProvider.getValidConnection());
     } catch (SQLException e) {
       log.error("Failed to reset result set for failed query.", e);
     }
     tableQueue.add(expectedHead);
   }
 
+  /**
+   * Create the schedule deciding how long a querier waits between passes over its table.
+   *
+   * @param adaptive whether the interval should adapt to the number of records each pass returns
+   */
+  private PollSchedule createPollSchedule(String table, boolean adaptive,
+                                          Map<String, long[]> overrides) {
+    int pollIntervalMs = config.getInt(JdbcSourceTaskConfig.POLL_INTERVAL_MS_CONFIG);
+    int batchMaxRows = config.getInt(JdbcSourceTaskConfig.BATCH_MAX_ROWS_CONFIG);
+    int maxPollIntervalMs = config.getInt(JdbcSourceTaskConfig.POLL_INTERVAL_MAX_MS_CONFIG);
+    long[] override = table == null ? null : overrides.get(table);
+    if (override != null) {
+      return new PollSchedule(pollIntervalMs, override[0], override[1], batchMaxRows);
+    } else if (adaptive && maxPollIntervalMs > pollIntervalMs) {
+      return new PollSchedule(pollIntervalMs, 0, maxPollIntervalMs, batchMaxRows);
+    }
+    return PollSchedule.fixed(pollIntervalMs);
+  }
+
+  /**
+   * Make a bulk querier only return the rows that changed since its last pass, keeping the row
+   * digests of the table in the given directory.
+   */
+  private void enableChangeDetection(BulkTableQuerier querier, String digestDir,
+                                     String schemaPattern, String table, String topicPrefix) {
+    final List<String> keyColumns;
+    try {
+      keyColumns = JdbcUtils.getPrimaryKeyColumns(
+          connectionProvider.getValidConnection(), schemaPattern, table);
+    } catch (SQLException e) {
+      throw new ConnectException("Failed to look up the primary key of " + table, e);
+    }
+    if (keyColumns.isEmpty()) {
+      log.info("{} has no primary key, so changed rows are detected as new rows", table);
+    }
+    String storeName = (topicPrefix + table).replaceAll("[^A-Za-z0-9._-]", "_");
+    RowDigestStore store = new RowDigestStore(new File(digestDir), storeName);
+    try {
+      store.open();
+    } catch (IOException e) {
+      throw new ConnectException("Failed to open row digests of " + table + " in " + digestDir, e);
+    }
+    querier.detectChanges(store, keyColumns);
+  }
+
+  /**
+   * Create a querier that reads the table in pages ordered by its primary key.
+   *
+   * @return the querier, or null if the table has no primary key that can be used for paging
+   */
+  private KeysetTableQuerier createKeysetQuerier(String schemaPattern, String table,
+                                                 String topicPrefix, int pageSize,
+                                                 Map<String, Object> offset, Integer fetchSize,
+                                                 boolean mapNumerics) {
+    final List<String> keyColumns;
+    final int[] keyTypes;
+    try {
+      final Connection connection = connectionProvider.getValidConnection();
+      keyColumns = JdbcUtils.getPrimaryKeyColumns(connection, schemaPattern, table);
+      keyTypes = new int[keyColumns.size()];
+      for (int i = 0; i < keyColumns.size(); i++) {
+        Integer columnType = JdbcUtils.getColumnType(connection, schemaPattern, table, keyColumns.get(i));
+        if (columnType == null || !KeysetTableQuerier.isSupportedKeyType(columnType)) {
+          log.warn("Reading {} with a single query because the type of its primary key column {} "
+                   + "can't be used for paging", table, keyColumns.get(i));
+          return null;
+        }
+        keyTypes[i] = columnType;
+      }
+    } catch (SQLException e) {
+      throw new ConnectException("Failed to look up the primary key of " + table, e);
+    }
+    if (keyColumns.isEmpty()) {
+      log.warn("Reading {} with a single query because it has no primary key", table);
+      return null;
+    }
+    return new KeysetTableQuerier(table, schemaPattern, topicPrefix, keyColumns, keyTypes,
+                                  pageSize, offset, fetchSize, mapNumerics);
+  }
+
+  /**
+   * Work out how to split a table into key ranges for a chunked bulk copy.
+   *
+   * @return the plan, or null if the table has no column that can be used to split it
+   */
+  private BulkChunkPlan createChunkPlan(String schemaPattern, String table, int chunkCount) {
+    String column = config.getString(JdbcSourceTaskConfig.BULK_CHUNK_COLUMN_CONFIG);
+    try {
+      final Connection connection = connectionProvider.getValidConnection();
+      if (column.isEmpty()) {
+        List<String> keyColumns = JdbcUtils.getPrimaryKeyColumns(connection, schemaPattern, table);
+        if (keyColumns.size() != 1) {
+          log.warn("Reading {} with a single query because it doesn't have a single-column "
+                   + "primary key to split it on", table);
+          return null;
+        }
+        column = keyColumns.get(0);
+      }
+      Integer columnType = JdbcUtils.getColumnType(connection, schemaPattern, table, column);
+      if (columnType == null || !BulkChunkPlan.isChunkableType(columnType)) {
+        log.warn("Reading {} with a single query because column {} is missing or not numeric",
+                 table, column);
+        return null;
+      }
+    } catch (SQLException e) {
+      throw new ConnectException("Failed to look up the column to split " + table + " on", e);
+    }
+    log.info("Reading {} in {} chunks split on column {}", table, chunkCount, column);
+    return new BulkChunkPlan(table, column, chunkCount);
+  }
+
   private void validateNonNullable(String incrementalMode, String schemaPattern, String table, String incrementingColumn, String timestampColumn) {
     try {
-      final Connection connection = cachedConnectionProvider.getValidConnection();
+      final Connection connection = connectionProvider.getValidConnection();
       // Validate that requested columns for offsets are NOT NULL. Currently this is only performed
       // for table-based copying because custom query mode doesn't allow this to be looked up
       // without a query or parsing the query since we don't have a table name.
@@ -0,0 +1,101 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The position of a keyset-paginated bulk copy: the primary key of the last row that was read in
+ * the current pass over the table. Key values are stored as Longs for integral columns and as
+ * Strings for decimal and character columns, so that they survive serialization by the offset
+ * storage converters.
+ */
+public class KeysetOffset {
+  private static final String KEY_FIELD = "key";
+
+  private final List<Object> key;
+
+  /**
+   * @param key the primary key values of the last row read, in key column order. If null, the
+   *            next pass starts at the beginning of the table.
+   */
+  public KeysetOffset(List<Object> key) {
+    this.key = key == null ? null : Collections.unmodifiableList(new ArrayList<>(key));
+  }
+
+  /**
+   * @return the key values, or null if no row has been read in the current pass
+   */
+  public List<Object> getKey() {
+    return key;
+  }
+
+  /**
+   * Convert a key column value read from a record into the form stored in the offset.
+   */
+  public static Object toOffsetValue(Object value) {
+    if (value instanceof Byte || value instanceof Short || value instanceof Integer) {
+      return ((Number) value).longValue();
+    } else if (value instanceof BigDecimal) {
+      return ((BigDecimal) value).toPlainString();
+    }
+    return value;
+  }
+
+  public Map<String, Object> toMap() {
+    Map<String, Object> map = new HashMap<>(1);
+    if (key != null) {
+      map.put(KEY_FIELD, key);
+    }
+    return map;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static KeysetOffset fromMap(Map<String, ?> map) {
+    if (map == null || map.isEmpty()) {
+      return new KeysetOffset(null);
+    }
+    return new KeysetOffset((List<Object>) map.get(KEY_FIELD));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    KeysetOffset that = (KeysetOffset) o;
+    return key != null ? key.equals(that.key) : that.key == null;
+  }
+
+  @Override
+  public int hashCode() {
+    return key != null ? key.hashCode() : 0;
+  }
+
+  @Override
+  public String toString() {
+    return "KeysetOffset{key=" + key + '}';
+  }
+}
@@ -0,0 +1,232 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.confluent.connect.jdbc.util.JdbcUtils;
+
+/**
+ * KeysetTableQuerier copies the entire table like {@link BulkTableQuerier}, but reads it in pages
+ * ordered by the primary key, each page starting after the last key of the previous one:
+ * <pre>
+ *   SELECT * FROM table WHERE (k1 &gt; ?) OR (k1 = ? AND k2 &gt; ?) ORDER BY k1, k2
+ * </pre>
+ * The key of each row is stored as its source offset, so a task that restarts in the middle of a
+ * pass resumes after the last row that was committed instead of copying the table again.
+ */
+public class KeysetTableQuerier extends TableQuerier {
+  private static final Logger log = LoggerFactory.getLogger(KeysetTableQuerier.class);
+
+  private final List<String> keyColumns;
+  private final int[] keyTypes;
+  private List<Object> lastKey;
+  // The first page of a pass doesn't have a key to start after and the following ones do, so each
+  // kind of page has its own statement, kept open across passes like the statement of any querier
+  private PreparedStatement firstPageStmt;
+  private PreparedStatement afterKeyStmt;
+  private boolean passComplete;
+
+  /**
+   * @param keyColumns the primary key columns, in key order
+   * @param keyTypes the SQL types of the key columns; see {@link #isSupportedKeyType}
+   */
+  public KeysetTableQuerier(String name, String schemaPattern, String topicPrefix,
+                            List<String> keyColumns, int[] keyTypes, int pageSize,
+                            Map<String, Object> offsetMap, Integer fetchSize,
+                            boolean mapNumerics) {
+    super(QueryMode.TABLE, name, topicPrefix, schemaPattern, fetchSize, mapNumerics);
+    if (keyColumns.isEmpty() || keyColumns.size() != keyTypes.length) {
+      throw new IllegalArgumentException("A type is needed for each of at least one key column");
+    }
+    this.keyColumns = keyColumns;
+    this.keyTypes = keyTypes;
+    this.pageLimit = pageSize;
+    this.lastKey = KeysetOffset.fromMap(offsetMap).getKey();
+  }
+
+  /**
+   * Check whether a column of the given SQL type can be part of the key used for paging.
+   */
+  public static boolean isSupportedKeyType(int sqlType) {
+    switch (sqlType) {
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+      case Types.BIGINT:
+      case Types.NUMERIC:
+      case Types.DECIMAL:
+      case Types.CHAR:
+      case Types.VARCHAR:
+      case Types.NCHAR:
+      case Types.NVARCHAR:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  protected void createPreparedStatement(Connection db) throws SQLException {
+    String quoteString = JdbcUtils.getIdentifierQuoteString(db);
+    List<String> quotedKeys = new ArrayList<>(keyColumns.size());
+    for (String column : keyColumns) {
+      quotedKeys.add(JdbcUtils.quoteString(column, quoteString));
+    }
+
+    StringBuilder builder = new StringBuilder();
+    builder.append("SELECT * FROM ");
+    builder.append(JdbcUtils.quoteString(name, quoteString));
+    boolean afterKey = lastKey != null;
+    if (afterKey) {
+      builder.append(" WHERE ");
+      for (int i = 0; i < quotedKeys.size(); i++) {
+        if (i > 0) {
+          builder.append(" OR ");
+        }
+        builder.append("(");
+        for (int j = 0; j < i; j++) {
+          builder.append(quotedKeys.get(j)).append(" = ? AND ");
+        }
+        builder.append(quotedKeys.get(i)).append(" > ?)");
+      }
+    }
+    builder.append(" ORDER BY ");
+    for (int i = 0; i < quotedKeys.size(); i++) {
+      if (i > 0) {
+        builder.append(",");
+      }
+      builder.append(quotedKeys.get(i));
+    }
+    String queryString = withPageLimit(builder.toString());
+    log.debug("{} prepared SQL query: {}", this, queryString);
+    stmt = db.prepareStatement(queryString);
+    if (afterKey) {
+      afterKeyStmt = stmt;
+    } else {
+      firstPageStmt = stmt;
+    }
+  }
+
+  @Override
+  protected ResultSet executeQuery() throws SQLException {
+    PreparedStatement pageStmt = lastKey != null ? afterKeyStmt : firstPageStmt;
+    if (pageStmt == null) {
+      prepareAnotherStatement(stmt.getConnection());
+    } else {
+      stmt = pageStmt;
+    }
+    if (lastKey != null) {
+      int index = 1;
+      for (int i = 0; i < keyColumns.size(); i++) {
+        for (int j = 0; j <= i; j++) {
+          bindKeyValue(index++, j);
+        }
+      }
+    }
+    passComplete = false;
+    return stmt.executeQuery();
+  }
+
+  private void bindKeyValue(int index, int keyIndex) throws SQLException {
+    Object value = lastKey.get(keyIndex);
+    switch (keyTypes[keyIndex]) {
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+      case Types.BIGINT:
+        stmt.setLong(index, ((Number) value).longValue());
+        break;
+      case Types.NUMERIC:
+      case Types.DECIMAL:
+        stmt.setBigDecimal(index, new BigDecimal(value.toString()));
+        break;
+      default:
+        stmt.setString(index, value.toString());
+        break;
+    }
+  }
+
+  @Override
+  public boolean next() throws SQLException {
+    boolean hadNext = super.next();
+    if (!hadNext) {
+      passComplete = true;
+    }
+    return hadNext;
+  }
+
+  @Override
+  public SourceRecord extractRecord() throws SQLException {
+    Struct record = DataConverter.convertRecord(schemaMapping, resultSet);
+    List<Object> key = new ArrayList<>(keyColumns.size());
+    for (String column : keyColumns) {
+      key.add(KeysetOffset.toOffsetValue(record.get(column)));
+    }
+    lastKey = key;
+    return new SourceRecord(partition, new KeysetOffset(key).toMap(), topic, record.schema(),
+                            record);
+  }
+
+  @Override
+  public void reset(long now, Connection db) throws SQLException {
+    if (passComplete) {
+      // Start over at the beginning of the table on the next pass
+      lastKey = null;
+      passComplete = false;
+    }
+    super.reset(now, db);
+  }
+
+  @Override
+  protected void closeStatementQuietly() {
+    for (PreparedStatement pageStmt : new PreparedStatement[]{firstPageStmt, afterKeyStmt}) {
+      if (pageStmt != null && pageStmt != stmt) {
+        try {
+          pageStmt.close();
+        } catch (SQLException ignored) {
+        }
+      }
+    }
+    firstPageStmt = null;
+    afterKeyStmt = null;
+    super.closeStatementQuietly();
+  }
+
+  @Override
+  public String toString() {
+    return "KeysetTableQuerier{" +
+           "name='" + name + '\'' +
+           ", keyColumns=" + keyColumns +
+           ", pageSize=" + pageLimit +
+           ", topicPrefix='" + topicPrefix + '\'' +
+           '}';
+  }
+}
@@ -0,0 +1,207 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.connect.errors.ConnectException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Reads BLOB and CLOB values of a querier from their streams, so that no more than the maximum
+ * size of a value is ever read, and keeps count of the size of the values read for the current
+ * batch.
+ *
+ * <p>CLOBs of up to {@link #MAX_KEPT_BUFFER_CHARS} characters are read into a buffer that is
+ * reused for the next CLOB, so only the resulting string is allocated for each value. Larger CLOBs
+ * are read into a buffer of their own, so that one large value doesn't stay allocated for the life
+ * of the querier. Like the rest of a querier, a reader must only be used by one
+ * thread at a time.
+ */
+public class LobReader {
+
+  private static final Logger log = LoggerFactory.getLogger(LobReader.class);
+
+  public enum Overflow {
+    TRUNCATE, SKIP, FAIL
+  }
+
+  private static final byte[] EMPTY_BYTES = new byte[0];
+
+  // The largest buffer kept for reading the next CLOB
+  static final int MAX_KEPT_BUFFER_CHARS = 64 * 1024;
+
+  private final long maxLobBytes;
+  private final Overflow overflow;
+  private final long batchMaxBytes;
+  private char[] charBuffer = new char[0];
+  private long batchBytes;
+
+  /**
+   * A reader that reads values completely and doesn't limit batches.
+   */
+  public LobReader() {
+    this(0, Overflow.FAIL, 0);
+  }
+
+  /**
+   * @param maxLobBytes the maximum number of bytes of a BLOB or characters of a CLOB, or 0 for no
+   *                    limit
+   * @param overflow what to do with values larger than the maximum
+   * @param batchMaxBytes the size of the values read after which a batch should end, or 0 for no
+   *                      limit
+   */
+  public LobReader(long maxLobBytes, Overflow overflow, long batchMaxBytes) {
+    this.maxLobBytes = maxLobBytes;
+    this.overflow = overflow;
+    this.batchMaxBytes = batchMaxBytes;
+  }
+
+  /**
+   * Start counting the size of the values read for a new batch.
+   */
+  void startBatch() {
+    batchBytes = 0;
+  }
+
+  /**
+   * @return true if the values read since the batch started reached the batch limit
+   */
+  boolean batchFull() {
+    return batchMaxBytes > 0 && batchBytes >= batchMaxBytes;
+  }
+
+  /**
+   * @return the size in bytes of the values read since the batch started
+   */
+  long batchBytes() {
+    return batchBytes;
+  }
+
+  /**
+   * @param column the name of the column, for reporting values that are too large
+   * @param nullable whether a skipped value may be replaced with null rather than an empty value
+   */
+  byte[] read(Blob blob, String column, boolean nullable) throws SQLException, IOException {
+    try {
+      long length = blob.length();
+      if (length > Integer.MAX_VALUE) {
+        throw new IOException("Can't process BLOBs longer than Integer.MAX_VALUE");
+      }
+      int size = (int) length;
+      if (exceedsLimit(length, column, "bytes")) {
+        if (overflow == Overflow.SKIP) {
+          return nullable ? null : EMPTY_BYTES;
+        }
+        size = (int) maxLobBytes;
+      }
+      byte[] bytes = new byte[size];
+      int read = 0;
+      try (InputStream in = blob.getBinaryStream()) {
+        while (read < size) {
+          int count = in.read(bytes, read, size - read);
+          if (count < 0) {
+            break;
+          }
+          read += count;
+        }
+      }
+      batchBytes += read;
+      return read == size ? bytes : Arrays.copyOf(bytes, read);
+    } finally {
+      blob.free();
+    }
+  }
+
+  /**
+   * @param column the name of the column, for reporting values that are too large
+   * @param nullable whether a skipped value may be replaced with null rather than an empty value
+   */
+  String read(Clob clob, String column, boolean nullable) throws SQLException, IOException {
+    try {
+      long length = clob.length();
+      if (length > Integer.MAX_VALUE) {
+        throw new IOException("Can't process CLOBs longer than Integer.MAX_VALUE");
+      }
+      int size = (int) length;
+      if (exceedsLimit(length, column, "characters")) {
+        if (overflow == Overflow.SKIP) {
+          return nullable ? null : "";
+        }
+        size = (int) maxLobBytes;
+      }
+      char[] buffer;
+      if (size > MAX_KEPT_BUFFER_CHARS) {
+        buffer = new char[size];
+      } else {
+        if (charBuffer.length < size) {
+          charBuffer = new char[size];
+        }
+        buffer = charBuffer;
+      }
+      int read = 0;
+      try (Reader in = clob.getCharacterStream()) {
+        while (read < size) {
+          int count = in.read(buffer, read, size - read);
+          if (count < 0) {
+            break;
+          }
+          read += count;
+        }
+      }
+      // Strings hold two bytes per character
+      batchBytes += 2L * read;
+      return new String(buffer, 0, read);
+    } finally {
+      clob.free();
+    }
+  }
+
+  /**
+   * @return the size of the buffer kept for reading the next CLOB
+   */
+  int keptBufferChars() {
+    return charBuffer.length;
+  }
+
+  private boolean exceedsLimit(long length, String column, String unit) {
+    if (maxLobBytes <= 0 || length <= maxLobBytes) {
+      return false;
+    }
+    switch (overflow) {
+      case FAIL:
+        throw new ConnectException("Value of column " + column + " has " + length + " " + unit
+                                   + ", more than the maximum of " + maxLobBytes + " set by "
+                                   + JdbcSourceConnectorConfig.LOB_MAX_BYTES_CONFIG);
+      case SKIP:
+        log.warn("Skipping value of column {} with {} {}, more than the maximum of {}", column,
+                 length, unit, maxLobBytes);
+        return true;
+      default:
+        log.debug("Truncating value of column {} from {} to {} {}", column, length, maxLobBytes,
+                  unit);
+        return true;
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * A cheap summary of the parts of a {@link ResultSetMetaData} that the generated Connect schema and
+ * {@link SchemaMapping} depend on. Two result sets with equal fingerprints map to identical
+ * schemas, so the schema of a previous query can be reused.
+ */
+final class MetadataFingerprint {
+
+  private final String[] names;
+  private final int[] types;
+  private final String[] typeNames;
+  private final int[] precisions;
+  private final int[] scales;
+  private final int[] nullabilities;
+  private final boolean[] signed;
+  private final int hashCode;
+
+  static MetadataFingerprint of(ResultSetMetaData metadata) throws SQLException {
+    int columnCount = metadata.getColumnCount();
+    String[] names = new String[columnCount];
+    int[] types = new int[columnCount];
+    String[] typeNames = new String[columnCount];
+    int[] precisions = new int[columnCount];
+    int[] scales = new int[columnCount];
+    int[] nullabilities = new int[columnCount];
+    boolean[] signed = new boolean[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      int col = i + 1;
+      names[i] = DataConverter.fieldName(metadata, col);
+      types[i] = metadata.getColumnType(col);
+      typeNames[i] = metadata.getColumnTypeName(col);
+      precisions[i] = metadata.getPrecision(col);
+      scales[i] = metadata.getScale(col);
+      nullabilities[i] = metadata.isNullable(col);
+      signed[i] = metadata.isSigned(col);
+    }
+    return new MetadataFingerprint(names, types, typeNames, precisions, scales, nullabilities,
+                                   signed);
+  }
+
+  private MetadataFingerprint(String[] names, int[] types, String[] typeNames, int[] precisions,
+                              int[] scales, int[] nullabilities, boolean[] signed) {
+    this.names = names;
+    this.types = types;
+    this.typeNames = typeNames;
+    this.precisions = precisions;
+    this.scales = scales;
+    this.nullabilities = nullabilities;
+    this.signed = signed;
+    int result = Arrays.hashCode(names);
+    result = 31 * result + Arrays.hashCode(types);
+    result = 31 * result + Arrays.hashCode(typeNames);
+    result = 31 * result + Arrays.hashCode(precisions);
+    result = 31 * result + Arrays.hashCode(scales);
+    result = 31 * result + Arrays.hashCode(nullabilities);
+    result = 31 * result + Arrays.hashCode(signed);
+    this.hashCode = result;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    MetadataFingerprint that = (MetadataFingerprint) o;
+    return hashCode == that.hashCode
+           && Arrays.equals(names, that.names)
+           && Arrays.equals(types, that.types)
+           && Arrays.equals(typeNames, that.typeNames)
+           && Arrays.equals(precisions, that.precisions)
+           && Arrays.equals(scales, that.scales)
+           && Arrays.equals(nullabilities, that.nullabilities)
+           && Arrays.equals(signed, that.signed);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return "MetadataFingerprint{names=" + Arrays.toString(names)
+           + ", types=" + Arrays.toString(types) + '}';
+  }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.connect.source.SourceRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actions that must wait until the records that were produced before them have been committed,
+ * such as replacing the row digests of a table with those of a completed pass.
+ *
+ * <p>Records returned by {@link JdbcSourceTask#poll()} are not necessarily sent before the next
+ * call, nor covered by the offsets flushed before the next {@link JdbcSourceTask#commit()}, so
+ * every record of a batch is tracked until the framework acknowledges it through {@link
+ * JdbcSourceTask#commitRecord(SourceRecord)}. An action is run by the first commit after every
+ * record of the batches it depends on, and of all batches before them, has been acknowledged.
+ */
+class PendingCommits {
+  private static final Logger log = LoggerFactory.getLogger(PendingCommits.class);
+
+  private final boolean trackRecords;
+  private final Deque<Pending> pending = new ArrayDeque<>();
+  private final Deque<Batch> unackedBatches = new ArrayDeque<>();
+  private final Map<SourceRecord, Batch> batchByRecord = new IdentityHashMap<>();
+  private long batchesReturned;
+  private long batchesAcked;
+
+  /**
+   * @param trackRecords whether actions will be added, so that the records of every batch have
+   *                     to be tracked until they are acknowledged
+   */
+  PendingCommits(boolean trackRecords) {
+    this.trackRecords = trackRecords;
+  }
+
+  /**
+   * Add an action that depends on all batches returned so far and, if {@code inNextBatch} is
+   * set, on the batch that is about to be returned.
+   */
+  synchronized void add(Runnable action, boolean inNextBatch) {
+    pending.add(new Pending(action, batchesReturned + (inNextBatch ? 1 : 0)));
+  }
+
+  /**
+   * Record that poll() is returning a batch of records.
+   */
+  synchronized void batchReturned(List<SourceRecord> records) {
+    batchesReturned++;
+    if (!trackRecords || records.isEmpty()) {
+      if (unackedBatches.isEmpty()) {
+        batchesAcked = batchesReturned;
+      } else {
+        unackedBatches.add(new Batch(batchesReturned, 0));
+      }
+      return;
+    }
+    Batch batch = new Batch(batchesReturned, records.size());
+    for (SourceRecord record : records) {
+      batchByRecord.put(record, batch);
+    }
+    unackedBatches.add(batch);
+  }
+
+  /**
+   * Record that a record returned by poll() was acknowledged by the framework.
+   */
+  synchronized void recordAcked(SourceRecord record) {
+    Batch batch = batchByRecord.remove(record);
+    if (batch == null) {
+      return;
+    }
+    batch.unacked--;
+    while (!unackedBatches.isEmpty() && unackedBatches.peek().unacked == 0) {
+      batchesAcked = unackedBatches.poll().sequence;
+    }
+  }
+
+  /**
+   * Run the actions whose records have all been acknowledged.
+   */
+  void commit() {
+    while (true) {
+      final Pending next;
+      synchronized (this) {
+        next = pending.peek();
+        if (next == null || next.requiredBatches > batchesAcked) {
+          return;
+        }
+        pending.poll();
+      }
+      try {
+        next.action.run();
+      } catch (RuntimeException e) {
+        log.error("Failed to complete action after commit", e);
+      }
+    }
+  }
+
+  synchronized int size() {
+    return pending.size();
+  }
+
+  private static class Pending {
+    final Runnable action;
+    final long requiredBatches;
+
+    Pending(Runnable action, long requiredBatches) {
+      this.action = action;
+      this.requiredBatches = requiredBatches;
+    }
+  }
+
+  private static class Batch {
+    final long sequence;
+    int unacked;
+
+    Batch(long sequence, int unacked) {
+      this.sequence = sequence;
+      this.unacked = unacked;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.connect.errors.ConnectException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides how long a querier waits after a pass before it queries its table again, based on the
+ * number of records the pass returned.
+ *
+ * <p>A pass that returned at least a full batch of records suggests more changes are waiting, so
+ * the table is queried again after the minimum interval. A pass that returned fewer records
+ * resets the interval to the base interval, and every pass that returned nothing doubles it, up to
+ * the maximum interval. A schedule whose minimum and maximum are both the base interval always
+ * waits the same time, which is the behavior of {@link #fixed}.
+ */
+class PollSchedule {
+
+  private final long baseIntervalMs;
+  private final long minIntervalMs;
+  private final long maxIntervalMs;
+  private final int batchMaxRows;
+  private long intervalMs;
+
+  PollSchedule(long baseIntervalMs, long minIntervalMs, long maxIntervalMs, int batchMaxRows) {
+    if (minIntervalMs < 0 || minIntervalMs > maxIntervalMs) {
+      throw new IllegalArgumentException("Invalid poll interval range [" + minIntervalMs + ", "
+                                         + maxIntervalMs + "]");
+    }
+    this.baseIntervalMs = baseIntervalMs;
+    this.minIntervalMs = minIntervalMs;
+    this.maxIntervalMs = maxIntervalMs;
+    this.batchMaxRows = batchMaxRows;
+    this.intervalMs = clamp(baseIntervalMs);
+  }
+
+  static PollSchedule fixed(long intervalMs) {
+    return new PollSchedule(intervalMs, intervalMs, intervalMs, Integer.MAX_VALUE);
+  }
+
+  /**
+   * @return the time to wait before the next pass, after a pass that returned the given number of
+   *         records
+   */
+  long nextInterval(long records) {
+    if (records >= batchMaxRows) {
+      intervalMs = minIntervalMs;
+    } else if (records > 0) {
+      intervalMs = clamp(baseIntervalMs);
+    } else if (intervalMs < baseIntervalMs) {
+      intervalMs = clamp(baseIntervalMs);
+    } else {
+      intervalMs = clamp(Math.max(1, intervalMs) * 2);
+    }
+    return intervalMs;
+  }
+
+  private long clamp(long value) {
+    return Math.max(minIntervalMs, Math.min(maxIntervalMs, value));
+  }
+
+  /**
+   * Parse per-table poll interval overrides of the form {@code <table>:<min ms>:<max ms>}.
+   *
+   * @return the minimum and maximum interval of each table
+   */
+  static Map<String, long[]> parseOverrides(List<String> overrides) {
+    Map<String, long[]> result = new HashMap<>();
+    for (String override : overrides) {
+      int maxSeparator = override.lastIndexOf(':');
+      int minSeparator = maxSeparator > 0 ? override.lastIndexOf(':', maxSeparator - 1) : -1;
+      if (minSeparator <= 0) {
+        throw new ConnectException("Invalid poll interval override '" + override
+                                   + "', expected <table>:<min ms>:<max ms>");
+      }
+      final long min;
+      final long max;
+      try {
+        min = Long.parseLong(override.substring(minSeparator + 1, maxSeparator).trim());
+        max = Long.parseLong(override.substring(maxSeparator + 1).trim());
+      } catch (NumberFormatException e) {
+        throw new ConnectException("Invalid poll interval override '" + override
+                                   + "', expected <table>:<min ms>:<max ms>", e);
+      }
+      if (min < 0 || min > max) {
+        throw new ConnectException("Invalid poll interval override '" + override
+                                   + "', the minimum must be between 0 and the maximum");
+      }
+      result.put(override.substring(0, minSeparator).trim(), new long[]{min, max});
+    }
+    return result;
+  }
+}
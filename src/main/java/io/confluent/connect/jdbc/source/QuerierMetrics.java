@@ -0,0 +1,199 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.metrics.stats.Total;
+import org.apache.kafka.common.utils.Time;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The metrics of a single {@link TableQuerier}. Times are measured by the querier and recorded
+ * once per query or batch, so the cost of recording doesn't grow with the number of rows.
+ *
+ * <p>{@code db-time-rate} is the fraction of wall clock time spent executing the queries of the
+ * table and fetching their rows, which identifies the tables that cost the most database time.
+ */
+class QuerierMetrics {
+
+  static final String GROUP = "source-table-metrics";
+
+  /**
+   * Metrics that record nothing, for queriers that are not run by a task.
+   */
+  static final QuerierMetrics NOOP = new QuerierMetrics();
+
+  private static final double NANOS_PER_MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final Metrics metrics;
+  private final Time time;
+  private final String prefix;
+  private final Sensor queryTime;
+  private final Sensor firstRowTime;
+  private final Sensor dbTime;
+  private final Sensor rows;
+  private final Sensor conversionTime;
+  private final Sensor batches;
+  private final Sensor emptyPasses;
+  private final Sensor scheduleDelay;
+
+  private QuerierMetrics() {
+    metrics = null;
+    time = null;
+    prefix = null;
+    queryTime = null;
+    firstRowTime = null;
+    dbTime = null;
+    rows = null;
+    conversionTime = null;
+    batches = null;
+    emptyPasses = null;
+    scheduleDelay = null;
+  }
+
+  QuerierMetrics(Metrics metrics, Map<String, String> tags, Time time) {
+    this.metrics = metrics;
+    this.time = time;
+    this.prefix = "jdbc-source." + tags.get("connector") + "." + tags.get("table") + ".";
+
+    queryTime = sensor("query-time");
+    queryTime.add(metrics.metricName("query-time-avg", GROUP,
+        "The average time in ms to execute a query", tags), new Avg());
+    queryTime.add(metrics.metricName("query-time-max", GROUP,
+        "The maximum time in ms to execute a query", tags), new Max());
+
+    firstRowTime = sensor("first-row-time");
+    firstRowTime.add(metrics.metricName("first-row-time-avg", GROUP,
+        "The average time in ms from executing a query until its first row is read", tags),
+        new Avg());
+    firstRowTime.add(metrics.metricName("first-row-time-max", GROUP,
+        "The maximum time in ms from executing a query until its first row is read", tags),
+        new Max());
+
+    dbTime = sensor("db-time");
+    dbTime.add(metrics.metricName("db-time-total", GROUP,
+        "The total time in ms spent executing queries and fetching rows", tags), new Total());
+    dbTime.add(metrics.metricName("db-time-rate", GROUP,
+        "The time in ms per second spent executing queries and fetching rows", tags),
+        new Rate(TimeUnit.SECONDS));
+
+    rows = sensor("rows");
+    rows.add(metrics.metricName("rows-rate", GROUP,
+        "The number of rows read per second", tags), new Rate(TimeUnit.SECONDS));
+    rows.add(metrics.metricName("rows-total", GROUP,
+        "The total number of rows read", tags), new Total());
+
+    conversionTime = sensor("conversion-time");
+    conversionTime.add(metrics.metricName("conversion-time-ns-avg", GROUP,
+        "The average time in ns to convert a row into a record", tags), new Avg());
+
+    batches = sensor("batches");
+    batches.add(metrics.metricName("batch-rate", GROUP,
+        "The number of non-empty batches returned per second", tags), new Rate(TimeUnit.SECONDS));
+    batches.add(metrics.metricName("batch-total", GROUP,
+        "The total number of non-empty batches returned", tags), new Total());
+
+    emptyPasses = sensor("empty-polls");
+    emptyPasses.add(metrics.metricName("empty-poll-total", GROUP,
+        "The total number of passes over the table that returned no records", tags), new Total());
+
+    scheduleDelay = sensor("schedule-delay");
+    scheduleDelay.add(metrics.metricName("schedule-delay-avg", GROUP,
+        "The average time in ms between when a pass was due and when it started", tags),
+        new Avg());
+    scheduleDelay.add(metrics.metricName("schedule-delay-max", GROUP,
+        "The maximum time in ms between when a pass was due and when it started", tags),
+        new Max());
+  }
+
+  private Sensor sensor(String name) {
+    return metrics.sensor(prefix + name);
+  }
+
+  /**
+   * @return the current time for measuring durations, or 0 if nothing is recorded
+   */
+  long nanoseconds() {
+    return time == null ? 0 : time.nanoseconds();
+  }
+
+  void passStarted(long dueMs) {
+    if (time != null && dueMs > 0) {
+      scheduleDelay.record(Math.max(0, time.milliseconds() - dueMs));
+    }
+  }
+
+  void queryExecuted(long nanos) {
+    if (time != null) {
+      queryTime.record(nanos / NANOS_PER_MS);
+    }
+  }
+
+  void firstRowRead(long nanosSinceExecute) {
+    if (time != null) {
+      firstRowTime.record(nanosSinceExecute / NANOS_PER_MS);
+    }
+  }
+
+  /**
+   * Record a batch of rows that were read and converted.
+   *
+   * @param dbNanos the time spent executing queries and fetching the rows
+   * @param conversionNanos the time spent converting the rows into records
+   * @param records the number of records returned for the rows
+   */
+  void batchRead(int rowCount, long dbNanos, long conversionNanos, int records) {
+    if (time == null) {
+      return;
+    }
+    long now = time.milliseconds();
+    dbTime.record(dbNanos / NANOS_PER_MS, now);
+    rows.record(rowCount, now);
+    if (rowCount > 0) {
+      conversionTime.record((double) conversionNanos / rowCount, now);
+    }
+    if (records > 0) {
+      batches.record(1, now);
+    }
+  }
+
+  void emptyPass() {
+    if (time != null) {
+      emptyPasses.record();
+    }
+  }
+
+  /**
+   * Remove the metrics of the querier.
+   */
+  void close() {
+    if (metrics == null) {
+      return;
+    }
+    for (String name : new String[]{"query-time", "first-row-time", "db-time", "rows",
+                                    "conversion-time", "batches", "empty-polls",
+                                    "schedule-delay"}) {
+      metrics.removeSensor(prefix + name);
+    }
+  }
+}
@@ -0,0 +1,257 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.connect.errors.ConnectException;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.confluent.connect.jdbc.util.PooledConnectionProvider;
+
+/**
+ * Runs the queriers of a task on a fixed number of worker threads, each with its own database
+ * connection, so that a slow query on one table doesn't hold up the tables of the other workers.
+ * Converted batches are handed to {@link JdbcSourceTask#poll()} through a bounded queue.
+ *
+ * <p>Each querier is assigned to a single worker, which runs it from its own queue. The worker
+ * checks a connection out of the pool of the task for its first query and keeps it until it stops
+ * or the connection fails, so the prepared statements its queriers keep open between passes stay
+ * on that connection and are never used by another thread.
+ *
+ * <p>Batches of a querier are therefore always produced by one thread and enqueued in the order
+ * they were read, which keeps its offsets in order.
+ */
+class QuerierWorkerPool {
+
+  private static final Logger log = LoggerFactory.getLogger(QuerierWorkerPool.class);
+
+  // Upper bound on how long an idle worker or a blocked hand-off waits before re-checking whether
+  // the pool is stopping
+  private static final long MAX_WAIT_MS = 100;
+  private static final long STOP_TIMEOUT_MS = 30000;
+
+  private final Time time;
+  private final int batchMaxRows;
+  private final BlockingQueue<Batch> batches;
+  private final List<Worker> workers;
+  private final AtomicBoolean stop = new AtomicBoolean(false);
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+  QuerierWorkerPool(Collection<TableQuerier> queriers, int concurrency,
+                    PooledConnectionProvider connectionProvider, int batchMaxRows, Time time) {
+    this.time = time;
+    this.batchMaxRows = batchMaxRows;
+    this.batches = new ArrayBlockingQueue<>(2 * concurrency);
+    this.workers = new ArrayList<>(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      workers.add(new Worker("jdbc-source-querier-" + i, connectionProvider));
+    }
+    int next = 0;
+    for (TableQuerier querier : queriers) {
+      workers.get(next).tableQueue.add(querier);
+      next = (next + 1) % concurrency;
+    }
+  }
+
+  void start() {
+    for (Worker worker : workers) {
+      worker.start();
+    }
+  }
+
+  /**
+   * Wait for the next batch produced by any of the workers.
+   *
+   * @return the batch, or null if none was available within the given timeout
+   */
+  Batch poll(long timeoutMs) throws InterruptedException {
+    Throwable t = failure.get();
+    if (t != null) {
+      throw new ConnectException("Querier worker failed", t);
+    }
+    return batches.poll(timeoutMs, TimeUnit.MILLISECONDS);
+  }
+
+  void stop() {
+    stop.set(true);
+    long deadline = System.currentTimeMillis() + STOP_TIMEOUT_MS;
+    for (Worker worker : workers) {
+      try {
+        worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+      if (worker.isAlive()) {
+        log.warn("Querier worker {} did not stop in time", worker.getName());
+      }
+    }
+  }
+
+  /**
+   * Hand a batch over to the task, blocking while the queue is full.
+   *
+   * @return false if the pool was stopped before the batch could be enqueued
+   */
+  private boolean enqueue(Batch batch) throws InterruptedException {
+    while (!stop.get()) {
+      if (batches.offer(batch, MAX_WAIT_MS, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Records produced by a worker, and optionally an action that has to wait until they and all
+   * records of earlier batches have been committed.
+   */
+  static class Batch {
+    final List<SourceRecord> records;
+    final Runnable pendingCommit;
+
+    Batch(List<SourceRecord> records, Runnable pendingCommit) {
+      this.records = records;
+      this.pendingCommit = pendingCommit;
+    }
+  }
+
+  private class Worker extends Thread {
+    private final PooledConnectionProvider connectionProvider;
+    // Only used by this worker once it started
+    private final PriorityQueue<TableQuerier> tableQueue = new PriorityQueue<>();
+    private Connection connection;
+
+    Worker(String name, PooledConnectionProvider connectionProvider) {
+      super(name);
+      setDaemon(true);
+      this.connectionProvider = connectionProvider;
+    }
+
+    @Override
+    public void run() {
+      try {
+        TableQuerier querier;
+        while ((querier = takeNextDue()) != null) {
+          try {
+            process(querier);
+          } finally {
+            tableQueue.add(querier);
+          }
+        }
+      } catch (InterruptedException e) {
+        log.debug("Querier worker {} interrupted", getName());
+      } catch (Throwable t) {
+        log.error("Querier worker {} failed", getName(), t);
+        failure.compareAndSet(null, t);
+      } finally {
+        connectionProvider.release(connection);
+        connection = null;
+      }
+    }
+
+    /**
+     * Take the next querier of this worker off its queue, waiting until it is due for an update.
+     *
+     * @return the querier, or null if the pool was stopped
+     */
+    private TableQuerier takeNextDue() {
+      while (!stop.get()) {
+        TableQuerier next = tableQueue.peek();
+        if (next == null) {
+          // More workers than queriers
+          return null;
+        }
+        long untilNext = next.getNextUpdate() - time.milliseconds();
+        if (untilNext <= 0) {
+          return tableQueue.poll();
+        }
+        log.trace("Waiting {} ms to poll next table", untilNext);
+        time.sleep(Math.min(untilNext, MAX_WAIT_MS));
+      }
+      return null;
+    }
+
+    private Connection connection() {
+      if (connection == null) {
+        connection = connectionProvider.acquire();
+      }
+      return connection;
+    }
+
+    /**
+     * Read the complete result set of the querier in batches of at most the configured size.
+     */
+    private void process(TableQuerier querier) throws InterruptedException {
+      try {
+        log.debug("Checking for next block of results from {}", querier.toString());
+        querier.maybeStartQuery(connection());
+        boolean hadNext = true;
+        while (hadNext && !stop.get()) {
+          List<SourceRecord> results = new ArrayList<>();
+          hadNext = querier.readBatch(results, batchMaxRows);
+          if (!results.isEmpty()) {
+            log.debug("Returning {} records for {}", results.size(), querier.toString());
+            if (!enqueue(new Batch(results, null))) {
+              break;
+            }
+          }
+        }
+        if (!hadNext) {
+          log.trace("Finished reading results of {}", querier.toString());
+        }
+        reset(querier);
+        Runnable pendingCommit = querier.takePendingCommit();
+        if (pendingCommit != null) {
+          // Queued behind the batches it depends on
+          enqueue(new Batch(Collections.<SourceRecord>emptyList(), pendingCommit));
+        }
+      } catch (SQLException e) {
+        log.error("Failed to run query for table {}: {}", querier.toString(), e);
+        querier.releaseStatement();
+        reset(querier);
+        // The connection may be broken, so don't hold on to it
+        connectionProvider.invalidate(connection);
+        connection = null;
+      }
+    }
+
+    private void reset(TableQuerier querier) {
+      log.debug("Resetting querier {}", querier.toString());
+      try {
+        querier.reset(time.milliseconds(), connection());
+      } catch (SQLException e) {
+        log.error("Failed to reset result set for failed query.", e);
+      }
+    }
+  }
+}
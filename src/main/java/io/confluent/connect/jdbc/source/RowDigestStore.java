@@ -0,0 +1,363 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A compact on-disk store of the row digests of the last completed pass over a table, mapping the
+ * digest of each row's key to the digest of its contents.
+ *
+ * <p>The store is a file of 16 byte entries sorted by key digest, which is memory mapped and
+ * binary searched, so lookups don't need to hold the table's digests in heap memory. The digests
+ * of a new pass are buffered in sorted runs of bounded size that are spilled to disk and merged
+ * into a new store file once the pass completes. That file only replaces the current one when
+ * {@link #promote} is called, which should happen once the records of the pass have been
+ * committed.
+ */
+class RowDigestStore implements Closeable {
+  private static final Logger log = LoggerFactory.getLogger(RowDigestStore.class);
+
+  static final int ENTRY_SIZE = 16;
+  static final int DEFAULT_RUN_ENTRIES = 1 << 18;
+  private static final int SEGMENT_ENTRIES_BITS = 26;
+  private static final long SEGMENT_ENTRIES = 1L << SEGMENT_ENTRIES_BITS;
+  private static final int IO_BUFFER_SIZE = 1 << 16;
+
+  private final File dir;
+  private final String name;
+  private final File file;
+  private final int runEntries;
+
+  // The mapped entries of the current store
+  private MappedByteBuffer[] segments = new MappedByteBuffer[0];
+  private long entryCount;
+
+  // The digests of the pass in progress, only allocated while a pass is in progress
+  private long[] runKeys;
+  private long[] runRows;
+  private int runSize;
+  private final List<File> runs = new ArrayList<>();
+  private int pendingCount;
+
+  RowDigestStore(File dir, String name) {
+    this(dir, name, DEFAULT_RUN_ENTRIES);
+  }
+
+  RowDigestStore(File dir, String name, int runEntries) {
+    this.dir = dir;
+    this.name = name;
+    this.file = new File(dir, name + ".digest");
+    this.runEntries = runEntries;
+  }
+
+  /**
+   * Open the store, discarding any leftovers of passes that were not completed or promoted.
+   */
+  synchronized void open() throws IOException {
+    if (!dir.isDirectory() && !dir.mkdirs()) {
+      throw new IOException("Couldn't create digest directory " + dir);
+    }
+    File[] files = dir.listFiles();
+    if (files != null) {
+      for (File f : files) {
+        if (f.getName().startsWith(name + ".digest.")) {
+          deleteQuietly(f);
+        }
+      }
+    }
+    map();
+  }
+
+  /**
+   * @return the number of rows in the current store
+   */
+  synchronized long size() {
+    return entryCount;
+  }
+
+  /**
+   * Look up the row digest stored for a key digest in the current store.
+   *
+   * @return the row digest, or null if the key is not in the store
+   */
+  synchronized Long lookup(long keyDigest) {
+    long low = 0;
+    long high = entryCount - 1;
+    while (low <= high) {
+      long mid = (low + high) >>> 1;
+      long midKey = readLong(mid, 0);
+      if (midKey < keyDigest) {
+        low = mid + 1;
+      } else if (midKey > keyDigest) {
+        high = mid - 1;
+      } else {
+        return readLong(mid, 8);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Record the digests of a row read in the pass in progress.
+   */
+  synchronized void add(long keyDigest, long rowDigest) throws IOException {
+    if (runKeys == null) {
+      runKeys = new long[runEntries];
+      runRows = new long[runEntries];
+    } else if (runSize == runEntries) {
+      spillRun();
+    }
+    runKeys[runSize] = keyDigest;
+    runRows[runSize] = rowDigest;
+    runSize++;
+  }
+
+  /**
+   * Complete the pass in progress, writing its digests to a new store file.
+   *
+   * @return the new file, which becomes the current store when passed to {@link #promote}
+   */
+  synchronized File finishPass() throws IOException {
+    if (runSize > 0 || runs.isEmpty()) {
+      spillRun();
+    }
+    File pending = new File(dir, name + ".digest.pending." + (pendingCount++));
+    try {
+      long entries = mergeRuns(pending);
+      log.debug("Wrote {} row digests of {} to {}", entries, name, pending);
+    } finally {
+      abortPass();
+    }
+    return pending;
+  }
+
+  /**
+   * Discard the digests of the pass in progress.
+   */
+  synchronized void abortPass() {
+    for (File run : runs) {
+      deleteQuietly(run);
+    }
+    runs.clear();
+    runSize = 0;
+    runKeys = null;
+    runRows = null;
+  }
+
+  /**
+   * Replace the current store with the one written by {@link #finishPass}.
+   */
+  synchronized void promote(File pending) throws IOException {
+    Files.move(pending.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+               StandardCopyOption.ATOMIC_MOVE);
+    map();
+    log.debug("Promoted {} row digests of {}", entryCount, name);
+  }
+
+  /**
+   * Discard a store written by {@link #finishPass} without promoting it.
+   */
+  synchronized void discard(File pending) {
+    deleteQuietly(pending);
+  }
+
+  @Override
+  public synchronized void close() {
+    abortPass();
+    segments = new MappedByteBuffer[0];
+    entryCount = 0;
+  }
+
+  private long readLong(long entry, int offset) {
+    MappedByteBuffer segment = segments[(int) (entry >>> SEGMENT_ENTRIES_BITS)];
+    return segment.getLong((int) (entry & (SEGMENT_ENTRIES - 1)) * ENTRY_SIZE + offset);
+  }
+
+  private void map() throws IOException {
+    if (!file.exists()) {
+      segments = new MappedByteBuffer[0];
+      entryCount = 0;
+      return;
+    }
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+         FileChannel channel = raf.getChannel()) {
+      long length = channel.size();
+      entryCount = length / ENTRY_SIZE;
+      int segmentCount = (int) ((entryCount + SEGMENT_ENTRIES - 1) / SEGMENT_ENTRIES);
+      MappedByteBuffer[] mapped = new MappedByteBuffer[segmentCount];
+      for (int i = 0; i < segmentCount; i++) {
+        long start = i * SEGMENT_ENTRIES * ENTRY_SIZE;
+        long size = Math.min(SEGMENT_ENTRIES * ENTRY_SIZE, entryCount * ENTRY_SIZE - start);
+        // The mapping stays valid after the channel is closed
+        mapped[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+      }
+      segments = mapped;
+    }
+  }
+
+  private void spillRun() throws IOException {
+    if (runSize > 0) {
+      sort(runKeys, runRows, 0, runSize - 1);
+    }
+    File run = new File(dir, name + ".digest.run." + runs.size());
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(run), IO_BUFFER_SIZE))) {
+      for (int i = 0; i < runSize; i++) {
+        out.writeLong(runKeys[i]);
+        out.writeLong(runRows[i]);
+      }
+    }
+    runs.add(run);
+    runSize = 0;
+  }
+
+  private long mergeRuns(File target) throws IOException {
+    PriorityQueue<RunReader> readers = new PriorityQueue<>();
+    long entries = 0;
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(target), IO_BUFFER_SIZE))) {
+      for (File run : runs) {
+        RunReader reader = new RunReader(run);
+        if (reader.advance()) {
+          readers.add(reader);
+        } else {
+          reader.close();
+        }
+      }
+      boolean first = true;
+      long lastKey = 0;
+      while (!readers.isEmpty()) {
+        RunReader reader = readers.poll();
+        // Key digests are unique unless two keys collide, in which case only one is kept
+        if (first || reader.key != lastKey) {
+          out.writeLong(reader.key);
+          out.writeLong(reader.row);
+          entries++;
+          lastKey = reader.key;
+          first = false;
+        }
+        if (reader.advance()) {
+          readers.add(reader);
+        } else {
+          reader.close();
+        }
+      }
+    } finally {
+      for (RunReader reader : readers) {
+        reader.close();
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * Sort the entries of two parallel arrays by the values of the first.
+   */
+  static void sort(long[] keys, long[] rows, int low, int high) {
+    while (low < high) {
+      long pivot = keys[(low + high) >>> 1];
+      int i = low;
+      int j = high;
+      while (i <= j) {
+        while (keys[i] < pivot) {
+          i++;
+        }
+        while (keys[j] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          long key = keys[i];
+          keys[i] = keys[j];
+          keys[j] = key;
+          long row = rows[i];
+          rows[i] = rows[j];
+          rows[j] = row;
+          i++;
+          j--;
+        }
+      }
+      // Recurse into the smaller part to bound the stack depth
+      if (j - low < high - i) {
+        sort(keys, rows, low, j);
+        low = i;
+      } else {
+        sort(keys, rows, i, high);
+        high = j;
+      }
+    }
+  }
+
+  private static void deleteQuietly(File f) {
+    if (f.exists() && !f.delete()) {
+      log.warn("Couldn't delete {}", f);
+    }
+  }
+
+  private static class RunReader implements Comparable<RunReader>, Closeable {
+    private final DataInputStream in;
+    long key;
+    long row;
+
+    RunReader(File run) throws IOException {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(run), IO_BUFFER_SIZE));
+    }
+
+    boolean advance() throws IOException {
+      try {
+        key = in.readLong();
+      } catch (EOFException e) {
+        return false;
+      }
+      row = in.readLong();
+      return true;
+    }
+
+    @Override
+    public int compareTo(RunReader other) {
+      return key < other.key ? -1 : (key == other.key ? 0 : 1);
+    }
+
+    @Override
+    public void close() {
+      try {
+        in.close();
+      } catch (IOException ignored) {
+      }
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.errors.ConnectException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Computes 64 bit digests of the key and the full contents of the rows read by a querier, which
+ * are compared with the digests of the previous pass to detect rows that changed. Instances are
+ * not thread safe.
+ */
+class RowDigester {
+
+  private final MessageDigest md5;
+  private final byte[] lengthBuffer = new byte[4];
+
+  RowDigester() {
+    try {
+      md5 = MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      throw new ConnectException("MD5 digests are not supported by this JVM", e);
+    }
+  }
+
+  /**
+   * @return the digest of the values of the given key fields, or of the whole row if there are no
+   *         key fields
+   */
+  long keyDigest(Struct record, List<String> keyFields) {
+    if (keyFields.isEmpty()) {
+      return rowDigest(record);
+    }
+    md5.reset();
+    for (String keyField : keyFields) {
+      update(record.get(keyField));
+    }
+    return digest();
+  }
+
+  /**
+   * @return the digest of the names and values of all fields of the row
+   */
+  long rowDigest(Struct record) {
+    md5.reset();
+    for (Field field : record.schema().fields()) {
+      update(field.name());
+      update(record.get(field));
+    }
+    return digest();
+  }
+
+  private void update(Object value) {
+    final byte[] bytes;
+    if (value == null) {
+      // Distinct from any value, which all have a non-negative length
+      updateLength(-1);
+      return;
+    } else if (value instanceof byte[]) {
+      bytes = (byte[]) value;
+    } else if (value instanceof Date) {
+      bytes = Long.toString(((Date) value).getTime()).getBytes(StandardCharsets.UTF_8);
+    } else if (value instanceof BigDecimal) {
+      bytes = ((BigDecimal) value).toPlainString().getBytes(StandardCharsets.UTF_8);
+    } else {
+      bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+    updateLength(bytes.length);
+    md5.update(bytes);
+  }
+
+  private void updateLength(int length) {
+    lengthBuffer[0] = (byte) (length >>> 24);
+    lengthBuffer[1] = (byte) (length >>> 16);
+    lengthBuffer[2] = (byte) (length >>> 8);
+    lengthBuffer[3] = (byte) length;
+    md5.update(lengthBuffer);
+  }
+
+  private long digest() {
+    byte[] hash = md5.digest();
+    long result = 0;
+    for (int i = 0; i < 8; i++) {
+      result = (result << 8) | (hash[i] & 0xff);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A mapping from the columns of a result set to the fields of the Connect schema generated for it.
+ * All of the result set metadata is resolved when the mapping is created, so converting a row only
+ * needs to read the column values.
+ */
+public final class SchemaMapping {
+
+  private final Schema schema;
+  private final List<FieldSetter> fieldSetters;
+
+  /**
+   * Create a mapping for the given result set metadata, generating the schema with
+   * {@link DataConverter#convertSchema}.
+   */
+  public static SchemaMapping create(String schemaName, ResultSetMetaData metadata,
+                                     boolean mapNumerics)
+      throws SQLException {
+    Schema schema = DataConverter.convertSchema(schemaName, metadata, mapNumerics);
+    return create(schema, metadata, mapNumerics);
+  }
+
+  /**
+   * Create a mapping for the given result set metadata onto an existing schema. Columns that have
+   * no corresponding field in the schema or have an unsupported type are ignored.
+   */
+  public static SchemaMapping create(Schema schema, ResultSetMetaData metadata, boolean mapNumerics)
+      throws SQLException {
+    return create(schema, metadata, mapNumerics, new LobReader());
+  }
+
+  /**
+   * Create a mapping like {@link #create(String, ResultSetMetaData, boolean)} that reads BLOB and
+   * CLOB values with the given reader.
+   */
+  public static SchemaMapping create(String schemaName, ResultSetMetaData metadata,
+                                     boolean mapNumerics, LobReader lobReader)
+      throws SQLException {
+    Schema schema = DataConverter.convertSchema(schemaName, metadata, mapNumerics);
+    return create(schema, metadata, mapNumerics, lobReader);
+  }
+
+  private static SchemaMapping create(Schema schema, ResultSetMetaData metadata,
+                                      boolean mapNumerics, LobReader lobReader)
+      throws SQLException {
+    List<FieldSetter> fieldSetters = new ArrayList<>();
+    for (int col = 1; col <= metadata.getColumnCount(); col++) {
+      Field field = schema.field(DataConverter.fieldName(metadata, col));
+      if (field == null) {
+        continue;
+      }
+      DataConverter.ColumnConverter converter =
+          DataConverter.columnConverterFor(metadata, col, mapNumerics, lobReader);
+      if (converter == null) {
+        continue;
+      }
+      fieldSetters.add(new FieldSetter(field, converter));
+    }
+    return new SchemaMapping(schema, fieldSetters);
+  }
+
+  private SchemaMapping(Schema schema, List<FieldSetter> fieldSetters) {
+    this.schema = schema;
+    this.fieldSetters = Collections.unmodifiableList(Arrays.asList(
+        fieldSetters.toArray(new FieldSetter[fieldSetters.size()])));
+  }
+
+  public Schema schema() {
+    return schema;
+  }
+
+  /**
+   * @return the setters for each supported column, in column order
+   */
+  public List<FieldSetter> fieldSetters() {
+    return fieldSetters;
+  }
+
+  @Override
+  public String toString() {
+    return "SchemaMapping{schema=" + schema + ", fieldSetters=" + fieldSetters + '}';
+  }
+
+  /**
+   * Copies the value of a single column of the current row into the corresponding field of a
+   * struct.
+   */
+  public static final class FieldSetter {
+    private final Field field;
+    private final DataConverter.ColumnConverter converter;
+
+    private FieldSetter(Field field, DataConverter.ColumnConverter converter) {
+      this.field = field;
+      this.converter = converter;
+    }
+
+    public Field field() {
+      return field;
+    }
+
+    public void setField(Struct struct, ResultSet resultSet) throws SQLException, IOException {
+      Object value = converter.convert(resultSet);
+      struct.put(field, resultSet.wasNull() ? null : value);
+    }
+
+    @Override
+    public String toString() {
+      return field.name();
+    }
+  }
+}
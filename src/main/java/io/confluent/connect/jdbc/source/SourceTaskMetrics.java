@@ -0,0 +1,89 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.common.metrics.JmxReporter;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.MetricsReporter;
+import org.apache.kafka.common.utils.Time;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The metrics of the queriers of a source task, published over JMX with the domain
+ * {@value #JMX_PREFIX}. Each querier gets its own set of metrics in the {@value
+ * QuerierMetrics#GROUP} group, tagged with the connector name, the task and its table, e.g.
+ * <pre>
+ *   kafka.connect.jdbc:type=source-table-metrics,connector=orders-source,task=0,table=orders
+ * </pre>
+ * The querier of a custom query is tagged with the table {@value #QUERY_TABLE_TAG}, which no
+ * sanitized table name can be.
+ */
+class SourceTaskMetrics {
+
+  static final String JMX_PREFIX = "kafka.connect.jdbc";
+  static final String QUERY_TABLE_TAG = "<query>";
+
+  private final Metrics metrics;
+  private final String connectorName;
+  private final int taskId;
+  private final Time time;
+
+  SourceTaskMetrics(String connectorName, int taskId, Time time) {
+    this(connectorName, taskId, time, new Metrics(
+        new MetricConfig(), Collections.<MetricsReporter>singletonList(new JmxReporter(JMX_PREFIX)),
+        time));
+  }
+
+  // Visible for testing
+  SourceTaskMetrics(String connectorName, int taskId, Time time, Metrics metrics) {
+    this.connectorName = connectorName;
+    this.taskId = taskId;
+    this.time = time;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Create the metrics of the querier of a table, or of the custom query if the name is null.
+   */
+  QuerierMetrics forQuerier(String tableName) {
+    Map<String, String> tags = new LinkedHashMap<>();
+    tags.put("connector", sanitize(connectorName));
+    tags.put("task", String.valueOf(taskId));
+    tags.put("table", tableName == null ? QUERY_TABLE_TAG : sanitize(tableName));
+    return new QuerierMetrics(metrics, tags, time);
+  }
+
+  Metrics metrics() {
+    return metrics;
+  }
+
+  void close() {
+    metrics.close();
+  }
+
+  /**
+   * Replace the characters that can't appear in an unquoted JMX object name value, and the angle
+   * brackets that mark {@value #QUERY_TABLE_TAG}.
+   */
+  static String sanitize(String value) {
+    return value.replaceAll("[,=:*?<>\"\\\\\\s]", "_");
+  }
+}
@@ -21,24 +21,42 @@ import org.apache.kafka.connect.errors.ConnectException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
+import io.confluent.connect.jdbc.source.dialect.GenericSourceDialect;
+import io.confluent.connect.jdbc.source.dialect.SourceDialect;
 import io.confluent.connect.jdbc.util.CachedConnectionProvider;
 import io.confluent.connect.jdbc.util.JdbcUtils;
 
 /**
  * Thread that monitors the database for changes to the set of tables in the database that this
  * connector should load data from.
+ *
+ * <p>Where the database has a cheap marker that changes whenever tables are created, dropped or
+ * renamed, the tables are only listed again when the marker changes. The listing itself only asks
+ * the catalog for the whitelisted tables, in a single query where the dialect has one, or for the
+ * tables starting with the literal prefix of the include pattern.
  */
 public class TableMonitorThread extends Thread {
   private static final Logger log = LoggerFactory.getLogger(TableMonitorThread.class);
 
+  // Up to this many whitelisted tables are listed by name in a single query of the dialect
+  static final int MAX_WHITELIST_QUERY_NAMES = 1000;
+  // Without such a query, up to this many are looked up one by one rather than listing all tables
+  static final int MAX_WHITELIST_LOOKUPS = 20;
+
   private final CachedConnectionProvider cachedConnectionProvider;
   private final String schemaPattern;
   private final ConnectorContext context;
@@ -48,9 +66,25 @@ public class TableMonitorThread extends Thread {
   private Set<String> blacklist;
   private List<String> tables;
   private Set<String> tableTypes;
+  private final Pattern includePattern;
+  private final Pattern excludePattern;
+  private final SourceDialect dialect;
+  // The change marker read before the current table list was listed
+  private String changeMarker;
 
   public TableMonitorThread(CachedConnectionProvider cachedConnectionProvider, ConnectorContext context, String schemaPattern, long pollMs,
                             Set<String> whitelist, Set<String> blacklist, Set<String> tableTypes) {
+    this(cachedConnectionProvider, context, schemaPattern, pollMs, whitelist, blacklist, tableTypes,
+         null, null, new GenericSourceDialect());
+  }
+
+  /**
+   * @param includePattern if not null, only tables whose whole name matches it are loaded
+   * @param excludePattern if not null, tables whose whole name matches it are not loaded
+   */
+  public TableMonitorThread(CachedConnectionProvider cachedConnectionProvider, ConnectorContext context, String schemaPattern, long pollMs,
+                            Set<String> whitelist, Set<String> blacklist, Set<String> tableTypes,
+                            Pattern includePattern, Pattern excludePattern, SourceDialect dialect) {
     this.cachedConnectionProvider = cachedConnectionProvider;
     this.schemaPattern = schemaPattern;
     this.context = context;
@@ -60,6 +94,9 @@ public class TableMonitorThread extends Thread {
     this.blacklist = blacklist;
     this.tables = null;
     this.tableTypes = tableTypes;
+    this.includePattern = includePattern;
+    this.excludePattern = excludePattern;
+    this.dialect = dialect;
   }
 
   @Override
@@ -110,16 +147,26 @@ public class TableMonitorThread extends Thread {
 
   private synchronized boolean updateTables() {
     final List<String> tables;
-    try {
-      tables = JdbcUtils.getTables(cachedConnectionProvider.getValidConnection(), schemaPattern, tableTypes);
-      log.debug("Got the following tables: " + Arrays.toString(tables.toArray()));
-    } catch (SQLException e) {
-      log.error("Error while trying to get updated table list, ignoring and waiting for next table poll interval", e);
-      cachedConnectionProvider.closeQuietly();
-      return false;
+    final String marker;
+    // The connector reads table statistics on the same connection when it assigns tables to tasks
+    synchronized (cachedConnectionProvider) {
+      try {
+        Connection db = cachedConnectionProvider.getValidConnection();
+        marker = readChangeMarker(db);
+        if (marker != null && marker.equals(changeMarker) && this.tables != null) {
+          log.trace("Tables unchanged since the last lookup");
+          return false;
+        }
+        tables = listTables(db);
+        log.debug("Got the following tables: " + Arrays.toString(tables.toArray()));
+      } catch (SQLException e) {
+        log.error("Error while trying to get updated table list, ignoring and waiting for next table poll interval", e);
+        cachedConnectionProvider.closeQuietly();
+        return false;
+      }
     }
 
-    final List<String> filteredTables;
+    List<String> filteredTables;
     if (whitelist != null) {
       filteredTables = new ArrayList<>(tables.size());
       for (String table : tables) {
@@ -137,6 +184,17 @@ public class TableMonitorThread extends Thread {
     } else {
       filteredTables = tables;
     }
+    if (includePattern != null || excludePattern != null) {
+      List<String> matching = new ArrayList<>(filteredTables.size());
+      for (String table : filteredTables) {
+        if ((includePattern == null || includePattern.matcher(table).matches())
+            && (excludePattern == null || !excludePattern.matcher(table).matches())) {
+          matching.add(table);
+        }
+      }
+      filteredTables = matching;
+    }
+    changeMarker = marker;
 
     if (!filteredTables.equals(this.tables)) {
       log.debug("After filtering we got tables: " + Arrays.toString(filteredTables.toArray()));
@@ -150,4 +208,143 @@ public class TableMonitorThread extends Thread {
 
     return false;
   }
+
+  /**
+   * List the candidate tables, asking the catalog for as few tables as the filters allow. The
+   * result still has to be filtered.
+   */
+  private List<String> listTables(Connection db) throws SQLException {
+    if (whitelist != null && whitelist.size() <= MAX_WHITELIST_QUERY_NAMES) {
+      List<String> tables = listNamedTables(db);
+      if (tables != null) {
+        return tables;
+      }
+    }
+    if (whitelist != null && whitelist.size() <= MAX_WHITELIST_LOOKUPS) {
+      String escape = db.getMetaData().getSearchStringEscape();
+      List<String> tables = new ArrayList<>(whitelist.size());
+      // Sorted, so that the order doesn't depend on the hashing of the whitelist
+      for (String table : new TreeSet<>(whitelist)) {
+        tables.addAll(JdbcUtils.getTables(db, schemaPattern,
+                                          escapeSearchPattern(table, escape), tableTypes));
+      }
+      return tables;
+    }
+    String prefix = whitelist == null && includePattern != null
+                    ? literalPrefix(includePattern.pattern()) : "";
+    if (prefix.isEmpty()) {
+      return JdbcUtils.getTables(db, schemaPattern, tableTypes);
+    }
+    String escape = db.getMetaData().getSearchStringEscape();
+    return JdbcUtils.getTables(db, schemaPattern,
+                               escapeSearchPattern(prefix, escape) + "%", tableTypes);
+  }
+
+  /**
+   * @return the whitelisted tables of the allowed types in the matching schemas, listed with the
+   *         named tables query of the dialect, or null if it has none or it failed
+   */
+  private List<String> listNamedTables(Connection db) {
+    String query = dialect.namedTablesQuery(whitelist.size());
+    if (query == null) {
+      return null;
+    }
+    try (PreparedStatement stmt = db.prepareStatement(query)) {
+      int index = 1;
+      for (String table : whitelist) {
+        stmt.setString(index++, table);
+      }
+      Pattern schemas = schemaPattern == null ? null : WeightedTableAssignment.searchPatternRegex(
+          schemaPattern, db.getMetaData().getSearchStringEscape());
+      List<String> tables = new ArrayList<>(whitelist.size());
+      try (ResultSet rs = stmt.executeQuery()) {
+        while (rs.next()) {
+          String schema = rs.getString(1);
+          if (schemas != null && schema != null && !schemas.matcher(schema).matches()) {
+            continue;
+          }
+          if (tableTypes.contains(rs.getString(3))) {
+            tables.add(rs.getString(2));
+          }
+        }
+      }
+      // Sorted, so that the order doesn't depend on the database
+      Collections.sort(tables);
+      return tables;
+    } catch (SQLException e) {
+      log.warn("Failed to list whitelisted tables using query {}, looking them up through the "
+               + "driver", query, e);
+      return null;
+    }
+  }
+
+  /**
+   * @return the values of the single row returned by the change marker query of the dialect, or
+   *         null if it has none or it failed
+   */
+  private String readChangeMarker(Connection db) {
+    String query = dialect.tableChangeMarkerQuery(schemaPattern);
+    if (query == null) {
+      return null;
+    }
+    try (PreparedStatement stmt = db.prepareStatement(query)) {
+      if (query.indexOf('?') >= 0) {
+        stmt.setString(1, schemaPattern);
+      }
+      try (ResultSet rs = stmt.executeQuery()) {
+        if (!rs.next()) {
+          return null;
+        }
+        StringBuilder marker = new StringBuilder();
+        int columns = rs.getMetaData().getColumnCount();
+        for (int i = 1; i <= columns; i++) {
+          marker.append(rs.getString(i)).append('|');
+        }
+        return marker.toString();
+      }
+    } catch (SQLException e) {
+      log.warn("Failed to read table change marker using query {}, listing all tables", query, e);
+      return null;
+    }
+  }
+
+  /**
+   * Escape the wildcards of a {@link java.sql.DatabaseMetaData} search pattern, so that it only
+   * matches the given name.
+   * @param escape the escape string of the database, as returned by
+   *               {@link java.sql.DatabaseMetaData#getSearchStringEscape}
+   */
+  static String escapeSearchPattern(String name, String escape) {
+    if (escape == null || escape.isEmpty()) {
+      return name;
+    }
+    StringBuilder builder = new StringBuilder(name.length());
+    for (char c : name.toCharArray()) {
+      if (c == '%' || c == '_' || escape.indexOf(c) >= 0) {
+        builder.append(escape);
+      }
+      builder.append(c);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * @return the characters every name matching the regular expression starts with, or an empty
+   *         string if they are not known
+   */
+  static String literalPrefix(String regex) {
+    if (regex.indexOf('|') >= 0) {
+      return "";
+    }
+    int start = regex.startsWith("^") ? 1 : 0;
+    int end = start;
+    while (end < regex.length() && ".[]{}()*+?^$|\\".indexOf(regex.charAt(end)) < 0) {
+      end++;
+    }
+    // A quantifier makes the character before it optional
+    if (end < regex.length() && end > start && "*?{".indexOf(regex.charAt(end)) >= 0) {
+      end--;
+    }
+    return regex.substring(start, end);
+  }
 }
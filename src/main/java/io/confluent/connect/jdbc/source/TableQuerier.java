@@ -16,13 +16,21 @@
 
 package io.confluent.connect.jdbc.source;
 
-import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.source.SourceRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import io.confluent.connect.jdbc.source.dialect.GenericSourceDialect;
+import io.confluent.connect.jdbc.source.dialect.SourceDialect;
 
 /**
  * TableQuerier executes queries against a specific table. Implementations handle different types
@@ -30,6 +38,8 @@ import java.sql.SQLException;
  * loads using timestamps, etc.
  */
 abstract class TableQuerier implements Comparable<TableQuerier> {
+  private static final Logger log = LoggerFactory.getLogger(TableQuerier.class);
+
   public enum QueryMode {
     TABLE, // Copying whole tables, with queries constructed automatically
     QUERY // User-specified query
@@ -40,15 +50,38 @@ abstract class TableQuerier implements Comparable<TableQuerier> {
   protected final String name;
   protected final String query;
   protected final String topicPrefix;
+  // The topic and source partition of every record, which are the same for all rows
+  protected final String topic;
+  protected final Map<String, String> partition;
 
   // Mutable state
 
   protected final boolean mapNumerics;
   protected long lastUpdate;
+  // Time at which the next pass is due, decided by the poll schedule when the last pass ended
+  protected long nextUpdate;
+  private PollSchedule pollSchedule;
+  private long recordsInPass;
   protected PreparedStatement stmt;
   protected ResultSet resultSet;
-  protected Schema schema;
+  protected SchemaMapping schemaMapping;
+  private MetadataFingerprint schemaFingerprint;
   protected Integer fetchSize = 100;
+  protected SourceDialect dialect = new GenericSourceDialect();
+  // Maximum number of rows returned by each query, or 0 to read all rows with a single query
+  protected int pageLimit = 0;
+  private int rowsInPage;
+  // The prepared statement is kept open across passes until its connection changes or the schema
+  // of its results changes
+  private boolean statementStale;
+  private long statementsPrepared;
+  private long statementsReused;
+  private QuerierMetrics metrics = QuerierMetrics.NOOP;
+  private LobReader lobReader = new LobReader();
+  // Start of the current query, until its first row has been read
+  private long queryStartNanos = -1;
+  // Time spent executing the first query of the pass, not yet recorded as database time
+  private long unrecordedQueryNanos;
 
   public TableQuerier(QueryMode mode, String nameOrQuery, String topicPrefix,
                       String schemaPattern, Integer fetchSize, boolean mapNumerics) {
@@ -57,6 +90,14 @@ abstract class TableQuerier implements Comparable<TableQuerier> {
     this.name = mode.equals(QueryMode.TABLE) ? nameOrQuery : null;
     this.query = mode.equals(QueryMode.QUERY) ? nameOrQuery : null;
     this.topicPrefix = topicPrefix;
+    if (mode.equals(QueryMode.TABLE)) {
+      this.topic = topicPrefix + name;
+      this.partition = Collections.singletonMap(JdbcSourceConnectorConstants.TABLE_NAME_KEY, name);
+    } else {
+      this.topic = topicPrefix;
+      this.partition = Collections.singletonMap(JdbcSourceConnectorConstants.QUERY_NAME_KEY,
+                                                JdbcSourceConnectorConstants.QUERY_NAME_VALUE);
+    }
     this.fetchSize = fetchSize;
     this.mapNumerics = mapNumerics;
     this.lastUpdate = 0;
@@ -66,16 +107,98 @@ abstract class TableQuerier implements Comparable<TableQuerier> {
     return lastUpdate;
   }
 
+  public long getNextUpdate() {
+    return nextUpdate;
+  }
+
+  void setDialect(SourceDialect dialect) {
+    this.dialect = dialect;
+  }
+
+  /**
+   * Read the results in pages of at most the given number of rows, each fetched by a separate
+   * query. Only queriers that bind the position of the last extracted row into their next query
+   * may be paged; see {@link #next()}.
+   */
+  void setPageLimit(int pageLimit) {
+    this.pageLimit = pageLimit;
+  }
+
+  /**
+   * Limit a query to the page size, if the results are paged. Only generated table queries are
+   * rewritten, since a dialect can't safely tell where a user's query selects its final rows; the
+   * page limit of a user's query is left to {@link #configureStatement()}.
+   */
+  protected String withPageLimit(String query) {
+    return pageLimit > 0 && mode == QueryMode.TABLE ? dialect.limitQuery(query, pageLimit) : query;
+  }
+
+  /**
+   * Read BLOB and CLOB values with the given reader, which also ends a batch early once the values
+   * read for it reach the reader's batch limit.
+   */
+  void setLobReader(LobReader lobReader) {
+    this.lobReader = lobReader;
+  }
+
+  void setMetrics(QuerierMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * @return the name the metrics of this querier are published under, or null for a query
+   */
+  String metricsName() {
+    return name;
+  }
+
+  /**
+   * Set the schedule that decides when the next pass is due after each pass. Without a schedule,
+   * the next pass is due as soon as the current one ends.
+   */
+  void setPollSchedule(PollSchedule pollSchedule) {
+    this.pollSchedule = pollSchedule;
+  }
+
+  /**
+   * Record that records extracted from the current pass were returned by the task, which the
+   * poll schedule uses to judge how busy the table is.
+   */
+  void recordsReturned(int count) {
+    recordsInPass += count;
+  }
+
   public PreparedStatement getOrCreatePreparedStatement(Connection db) throws SQLException {
     if (stmt != null) {
       return stmt;
     }
-    createPreparedStatement(db);
+    prepareStatement(db);
     return stmt;
   }
 
   protected abstract void createPreparedStatement(Connection db) throws SQLException;
 
+  /**
+   * Prepare the statement for the next query on the given connection, replacing any statement
+   * that was prepared before.
+   */
+  protected void prepareStatement(Connection db) throws SQLException {
+    closeStatementQuietly();
+    prepareAnotherStatement(db);
+    statementStale = false;
+  }
+
+  /**
+   * Prepare the statement for the next query on the given connection without closing the one that
+   * was prepared before, for queriers that keep several statements open and close them in {@link
+   * #closeStatementQuietly()}.
+   */
+  protected void prepareAnotherStatement(Connection db) throws SQLException {
+    createPreparedStatement(db);
+    configureStatement();
+    statementsPrepared++;
+  }
+
   public boolean querying() {
     return resultSet != null;
   }
@@ -85,34 +208,199 @@ abstract class TableQuerier implements Comparable<TableQuerier> {
       if (fetchSize > 0) {
         db.setAutoCommit(false);
       }
-      stmt = getOrCreatePreparedStatement(db);
-      if (fetchSize > 0) {
-        stmt.setFetchDirection(ResultSet.FETCH_FORWARD);
-        stmt.setFetchSize(fetchSize);
+      if (stmt == null || statementStale || stmt.getConnection() != db) {
+        prepareStatement(db);
+      } else {
+        statementsReused++;
       }
-      resultSet = executeQuery();
-      schema = DataConverter.convertSchema(name, resultSet.getMetaData(), mapNumerics);
+      metrics.passStarted(nextUpdate);
+      unrecordedQueryNanos = startQuery();
+    }
+  }
+
+  /**
+   * @return the time it took to execute the query
+   */
+  private long startQuery() throws SQLException {
+    rowsInPage = 0;
+    long start = metrics.nanoseconds();
+    resultSet = executeQuery();
+    long elapsed = metrics.nanoseconds() - start;
+    metrics.queryExecuted(elapsed);
+    queryStartNanos = start;
+    maybeUpdateSchemaMapping(resultSet.getMetaData());
+    return elapsed;
+  }
+
+  /**
+   * @return the number of times a statement was prepared for a query
+   */
+  public long statementsPrepared() {
+    return statementsPrepared;
+  }
+
+  /**
+   * @return the number of passes that reused the statement prepared for a previous pass
+   */
+  public long statementsReused() {
+    return statementsReused;
+  }
+
+  /**
+   * Apply the fetch settings and page limit to a newly prepared statement. The page limit is also
+   * set as the maximum number of rows, in case the dialect couldn't add it to the query.
+   */
+  protected void configureStatement() throws SQLException {
+    if (fetchSize > 0) {
+      stmt.setFetchDirection(ResultSet.FETCH_FORWARD);
+      stmt.setFetchSize(fetchSize);
+    }
+    if (pageLimit > 0) {
+      stmt.setMaxRows(pageLimit);
     }
   }
 
+  /**
+   * Reuse the schema mapping of the previous query unless the result set metadata has changed, so
+   * an unchanged table keeps producing records with the same {@link
+   * org.apache.kafka.connect.data.Schema} instance.
+   */
+  private void maybeUpdateSchemaMapping(ResultSetMetaData metadata) throws SQLException {
+    MetadataFingerprint fingerprint = MetadataFingerprint.of(metadata);
+    if (schemaMapping != null && fingerprint.equals(schemaFingerprint)) {
+      return;
+    }
+    SchemaMapping newMapping = SchemaMapping.create(name, metadata, mapNumerics, lobReader);
+    if (schemaMapping != null) {
+      log.info("Schema of {} changed from {} to {}", this, schemaMapping.schema().fields(),
+               newMapping.schema().fields());
+      // Don't rely on the driver to notice the change in cached statement metadata
+      statementStale = true;
+    }
+    schemaMapping = newMapping;
+    schemaFingerprint = fingerprint;
+  }
+
   protected abstract ResultSet executeQuery() throws SQLException;
 
+  /**
+   * Advance to the next row. If the query is paged and the current page was full, the next page
+   * is queried, which the querier should start after the last row it extracted.
+   */
   public boolean next() throws SQLException {
-    return resultSet.next();
+    if (nextInPage()) {
+      return true;
+    }
+    if (pageLimit > 0 && rowsInPage >= pageLimit) {
+      startNextPage();
+      return nextInPage();
+    }
+    return false;
+  }
+
+  private boolean nextInPage() throws SQLException {
+    if (!resultSet.next()) {
+      return false;
+    }
+    rowsInPage++;
+    if (queryStartNanos >= 0) {
+      metrics.firstRowRead(metrics.nanoseconds() - queryStartNanos);
+      queryStartNanos = -1;
+    }
+    return true;
   }
 
+  /**
+   * Replace the exhausted result set of a full page with the one for the next page. Each page is
+   * read in its own short transaction rather than keeping one open for the whole pass.
+   */
+  private void startNextPage() throws SQLException {
+    Connection db = stmt.getConnection();
+    resultSet.close();
+    resultSet = null;
+    if (!db.getAutoCommit()) {
+      db.commit();
+    }
+    log.trace("Querying next page of {}", this);
+    startQuery();
+  }
+
+  /**
+   * Convert the current row into a record.
+   *
+   * @return the record, or null if the row should be skipped
+   */
   public abstract SourceRecord extractRecord() throws SQLException;
 
+  /**
+   * Read the next rows of the current query and add the records extracted from them to the given
+   * batch, until it holds the given number of records, the BLOB and CLOB values read for it reach
+   * the batch limit of the LOB reader, or the results are exhausted. The records are counted as
+   * returned, and the time spent fetching and converting the rows is recorded.
+   *
+   * @return false if the results were exhausted
+   */
+  boolean readBatch(List<SourceRecord> batch, int maxRecords) throws SQLException {
+    int rows = 0;
+    long fetchNanos = 0;
+    long conversionNanos = 0;
+    boolean hadNext = true;
+    lobReader.startBatch();
+    while (batch.size() < maxRecords && !lobReader.batchFull()) {
+      long start = metrics.nanoseconds();
+      hadNext = next();
+      long fetched = metrics.nanoseconds();
+      fetchNanos += fetched - start;
+      if (!hadNext) {
+        break;
+      }
+      rows++;
+      SourceRecord record = extractRecord();
+      conversionNanos += metrics.nanoseconds() - fetched;
+      if (record != null) {
+        batch.add(record);
+      }
+    }
+    recordsReturned(batch.size());
+    // Queries of later pages ran inside next(), so they are part of the fetch time
+    metrics.batchRead(rows, unrecordedQueryNanos + fetchNanos, conversionNanos, batch.size());
+    unrecordedQueryNanos = 0;
+    return hadNext;
+  }
+
+  /**
+   * Take the action that has to wait until the records extracted so far have been committed, if
+   * the querier has one.
+   *
+   * @return the action, or null
+   */
+  public Runnable takePendingCommit() {
+    return null;
+  }
+
   public void reset(long now, Connection db) throws SQLException {
     closeResultSetQuietly(db);
-    closeStatementQuietly();
-    // TODO: Can we cache this and quickly check that it's identical for the next query
-    // instead of constructing from scratch since it's almost always the same
-    schema = null;
+    log.debug("{} reused its prepared statement for {} of {} passes", this, statementsReused,
+              statementsReused + statementsPrepared);
     lastUpdate = now;
+    long intervalMs = pollSchedule == null ? 0 : pollSchedule.nextInterval(recordsInPass);
+    log.trace("{} returned {} records, next pass in {} ms", this, recordsInPass, intervalMs);
+    if (recordsInPass == 0) {
+      metrics.emptyPass();
+    }
+    queryStartNanos = -1;
+    nextUpdate = now + intervalMs;
+    recordsInPass = 0;
+  }
+
+  /**
+   * Close the prepared statement, for instance because the query failed or the task is stopping.
+   */
+  public void releaseStatement() {
+    closeStatementQuietly();
   }
 
-  private void closeStatementQuietly() {
+  protected void closeStatementQuietly() {
     if (stmt != null) {
       try {
         stmt.close();
@@ -137,9 +425,9 @@ abstract class TableQuerier implements Comparable<TableQuerier> {
 
   @Override
   public int compareTo(TableQuerier other) {
-    if (this.lastUpdate < other.lastUpdate) {
+    if (this.nextUpdate < other.nextUpdate) {
       return -1;
-    } else if (this.lastUpdate > other.lastUpdate) {
+    } else if (this.nextUpdate > other.nextUpdate) {
       return 1;
     } else {
       return this.name.compareTo(other.name);
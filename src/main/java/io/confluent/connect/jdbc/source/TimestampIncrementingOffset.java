@@ -17,6 +17,7 @@
 package io.confluent.connect.jdbc.source;
 
 import java.sql.Timestamp;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -48,6 +49,13 @@ public class TimestampIncrementingOffset {
   }
 
   public Map<String, Object> toMap() {
+    if (timestampOffset == null) {
+      // Incrementing mode, which produces the most offsets per second
+      if (incrementingOffset == null) {
+        return Collections.emptyMap();
+      }
+      return Collections.<String, Object>singletonMap(INCREMENTING_FIELD, incrementingOffset);
+    }
     Map<String, Object> map = new HashMap<>(3);
     if (incrementingOffset != null) {
       map.put(INCREMENTING_FIELD, incrementingOffset);
@@ -17,6 +17,7 @@
 package io.confluent.connect.jdbc.source;
 
 import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.errors.ConnectException;
@@ -29,7 +30,6 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
-import java.util.Collections;
 import java.util.Map;
 
 import io.confluent.connect.jdbc.util.DateTimeUtils;
@@ -61,6 +61,12 @@ public class TimestampIncrementingTableQuerier extends TableQuerier {
   private String incrementingColumn;
   private long timestampDelay;
   private TimestampIncrementingOffset offset;
+  private DatabaseClock clock;
+  // The fields of the offset columns, resolved once for each schema rather than for every row
+  private Schema offsetSchema;
+  private Field timestampField;
+  private Field incrementingField;
+  private boolean incrementingDecimal;
 
   public TimestampIncrementingTableQuerier(QueryMode mode, String name, String topicPrefix,
                                            String timestampColumn, String incrementingColumn,
@@ -73,6 +79,14 @@ public class TimestampIncrementingTableQuerier extends TableQuerier {
     this.offset = TimestampIncrementingOffset.fromMap(offsetMap);
   }
 
+  /**
+   * Read the current database time, which bounds the timestamps of the rows returned by each
+   * query, from the given clock instead of querying the database every time.
+   */
+  void setClock(DatabaseClock clock) {
+    this.clock = clock;
+  }
+
   @Override
   protected void createPreparedStatement(Connection db) throws SQLException {
     // Default when unspecified uses an autoincrementing column
@@ -141,7 +155,7 @@ public class TimestampIncrementingTableQuerier extends TableQuerier {
       builder.append(JdbcUtils.quoteString(timestampColumn, quoteString));
       builder.append(" ASC");
     }
-    String queryString = builder.toString();
+    String queryString = withPageLimit(builder.toString());
     log.debug("{} prepared SQL query: {}", this, queryString);
     stmt = db.prepareStatement(queryString);
   }
@@ -151,7 +165,7 @@ public class TimestampIncrementingTableQuerier extends TableQuerier {
     if (incrementingColumn != null && timestampColumn != null) {
       Timestamp tsOffset = offset.getTimestampOffset();
       Long incOffset = offset.getIncrementingOffset();
-      Timestamp endTime = new Timestamp(JdbcUtils.getCurrentTimeOnDB(stmt.getConnection(), DateTimeUtils.UTC_CALENDAR.get()).getTime() - timestampDelay);
+      Timestamp endTime = new Timestamp(currentTimeOnDB().getTime() - timestampDelay);
       stmt.setTimestamp(1, endTime, DateTimeUtils.UTC_CALENDAR.get());
       stmt.setTimestamp(2, tsOffset, DateTimeUtils.UTC_CALENDAR.get());
       stmt.setLong(3, incOffset);
@@ -166,7 +180,7 @@ public class TimestampIncrementingTableQuerier extends TableQuerier {
       log.debug("Executing prepared statement with incrementing value = {}", incOffset);
     } else if (timestampColumn != null) {
       Timestamp tsOffset = offset.getTimestampOffset();
-      Timestamp endTime = new Timestamp(JdbcUtils.getCurrentTimeOnDB(stmt.getConnection(), DateTimeUtils.UTC_CALENDAR.get()).getTime() - timestampDelay);
+      Timestamp endTime = new Timestamp(currentTimeOnDB().getTime() - timestampDelay);
       stmt.setTimestamp(1, tsOffset, DateTimeUtils.UTC_CALENDAR.get());
       stmt.setTimestamp(2, endTime, DateTimeUtils.UTC_CALENDAR.get());
       log.debug("Executing prepared statement with timestamp value = {} end time = {}",
@@ -176,34 +190,30 @@ public class TimestampIncrementingTableQuerier extends TableQuerier {
     return stmt.executeQuery();
   }
 
+  private Timestamp currentTimeOnDB() throws SQLException {
+    if (clock != null) {
+      return clock.currentTime(stmt.getConnection());
+    }
+    return JdbcUtils.getCurrentTimeOnDB(stmt.getConnection(), DateTimeUtils.UTC_CALENDAR.get());
+  }
+
   @Override
   public SourceRecord extractRecord() throws SQLException {
-    final Struct record = DataConverter.convertRecord(schema, resultSet, mapNumerics);
-    offset = extractOffset(schema, record);
+    final Struct record = DataConverter.convertRecord(schemaMapping, resultSet);
+    offset = extractOffset(schemaMapping.schema(), record);
     // TODO: Key?
-    final String topic;
-    final Map<String, String> partition;
-    switch (mode) {
-      case TABLE:
-        partition = Collections.singletonMap(JdbcSourceConnectorConstants.TABLE_NAME_KEY, name);
-        topic = topicPrefix + name;
-        break;
-      case QUERY:
-        partition = Collections.singletonMap(JdbcSourceConnectorConstants.QUERY_NAME_KEY,
-                                             JdbcSourceConnectorConstants.QUERY_NAME_VALUE);
-        topic = topicPrefix;
-        break;
-      default:
-        throw new ConnectException("Unexpected query mode: " + mode);
-    }
     return new SourceRecord(partition, offset.toMap(), topic, record.schema(), record);
   }
 
   // Visible for testing
   TimestampIncrementingOffset extractOffset(Schema schema, Struct record) {
+    if (schema != offsetSchema) {
+      resolveOffsetFields(schema);
+    }
+
     final Timestamp extractedTimestamp;
-    if (timestampColumn != null) {
-      extractedTimestamp = (Timestamp) record.get(timestampColumn);
+    if (timestampField != null) {
+      extractedTimestamp = (Timestamp) record.get(timestampField);
       Timestamp timestampOffset = offset.getTimestampOffset();
       assert timestampOffset != null && timestampOffset.compareTo(extractedTimestamp) <= 0;
     } else {
@@ -211,14 +221,13 @@ public class TimestampIncrementingTableQuerier extends TableQuerier {
     }
 
     final Long extractedId;
-    if (incrementingColumn != null) {
-      final Schema incrementingColumnSchema = schema.field(incrementingColumn).schema();
-      final Object incrementingColumnValue = record.get(incrementingColumn);
+    if (incrementingField != null) {
+      final Object incrementingColumnValue = record.get(incrementingField);
       if (incrementingColumnValue == null) {
-        throw new ConnectException("Null value for incrementing column of type: " + incrementingColumnSchema.type());
+        throw new ConnectException("Null value for incrementing column of type: " + incrementingField.schema().type());
       } else if (isIntegralPrimitiveType(incrementingColumnValue)) {
         extractedId = ((Number) incrementingColumnValue).longValue();
-      } else if (incrementingColumnSchema.name() != null && incrementingColumnSchema.name().equals(Decimal.LOGICAL_NAME)) {
+      } else if (incrementingDecimal) {
         final BigDecimal decimal = ((BigDecimal) incrementingColumnValue);
         if (decimal.compareTo(LONG_MAX_VALUE_AS_BIGDEC) > 0) {
           throw new ConnectException("Decimal value for incrementing column exceeded Long.MAX_VALUE");
@@ -228,13 +237,13 @@ public class TimestampIncrementingTableQuerier extends TableQuerier {
         }
         extractedId = decimal.longValue();
       } else {
-        throw new ConnectException("Invalid type for incrementing column: " + incrementingColumnSchema.type());
+        throw new ConnectException("Invalid type for incrementing column: " + incrementingField.schema().type());
       }
 
       // If we are only using an incrementing column, then this must be incrementing.
       // If we are also using a timestamp, then we may see updates to older rows.
       Long incrementingOffset = offset.getIncrementingOffset();
-      assert incrementingOffset == -1L || extractedId > incrementingOffset || timestampColumn != null;
+      assert incrementingOffset == -1L || extractedId > incrementingOffset || timestampField != null;
     } else {
       extractedId = null;
     }
@@ -242,6 +251,22 @@ public class TimestampIncrementingTableQuerier extends TableQuerier {
     return new TimestampIncrementingOffset(extractedTimestamp, extractedId);
   }
 
+  private void resolveOffsetFields(Schema schema) {
+    timestampField = timestampColumn == null ? null : offsetField(schema, timestampColumn);
+    incrementingField = incrementingColumn == null ? null : offsetField(schema, incrementingColumn);
+    incrementingDecimal = incrementingField != null
+                          && Decimal.LOGICAL_NAME.equals(incrementingField.schema().name());
+    offsetSchema = schema;
+  }
+
+  private Field offsetField(Schema schema, String column) {
+    Field field = schema.field(column);
+    if (field == null) {
+      throw new ConnectException("Column " + column + " is not in the results of " + this);
+    }
+    return field;
+  }
+
   private boolean isIntegralPrimitiveType(Object incrementingColumnValue) {
     return incrementingColumnValue instanceof Long
            || incrementingColumnValue instanceof Integer
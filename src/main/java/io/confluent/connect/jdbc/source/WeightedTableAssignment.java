@@ -0,0 +1,344 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.connect.errors.ConnectException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import io.confluent.connect.jdbc.source.dialect.SourceDialect;
+
+/**
+ * Assigns tables to tasks so that each task gets about the same total weight, rather than about
+ * the same number of tables. The weight of a table is its estimated number of rows, unless it is
+ * configured explicitly. Without any weights, each task gets about the same number of tables.
+ */
+public class WeightedTableAssignment {
+
+  private static final Logger log = LoggerFactory.getLogger(WeightedTableAssignment.class);
+
+  /**
+   * Read the estimated number of rows of each table from the statistics of the database.
+   *
+   * @param schemaPattern if not null, only tables in the schemas matching this {@link
+   *                      java.sql.DatabaseMetaData} search pattern are estimated
+   * @return the estimates by table name, empty if the database has no statistics or they couldn't
+   *         be read
+   */
+  public static Map<String, Long> estimateRowCounts(Connection db, SourceDialect dialect,
+                                                    String schemaPattern) {
+    Map<String, Long> estimates = new HashMap<>();
+    String query = dialect.tableStatisticsQuery();
+    if (query == null) {
+      log.info("No table statistics available for {}, tables without a configured weight are "
+               + "weighted equally", dialect.getClass().getSimpleName());
+      return estimates;
+    }
+    try (Statement stmt = db.createStatement();
+         ResultSet rs = stmt.executeQuery(query)) {
+      Pattern schemas = schemaPattern == null ? null : searchPatternRegex(
+          schemaPattern, db.getMetaData().getSearchStringEscape());
+      while (rs.next()) {
+        String schema = rs.getString(1);
+        if (schemas != null && (schema == null || !schemas.matcher(schema).matches())) {
+          continue;
+        }
+        String table = rs.getString(2);
+        long rows = rs.getLong(3);
+        if (rs.wasNull() || rows < 0) {
+          // Never analyzed
+          continue;
+        }
+        // Tables of the same name in different matching schemas can't be told apart by the task
+        // assignment, so assume the largest
+        Long previous = estimates.get(table);
+        estimates.put(table, previous == null ? rows : Math.max(previous, rows));
+      }
+    } catch (SQLException e) {
+      log.warn("Failed to read table statistics using query {}, tables without a configured "
+               + "weight are weighted equally", query, e);
+      estimates.clear();
+    }
+    return estimates;
+  }
+
+  /**
+   * Convert a {@link java.sql.DatabaseMetaData} search pattern, in which {@code %} matches any
+   * characters and {@code _} any single character unless preceded by the escape string, into the
+   * equivalent regular expression.
+   */
+  static Pattern searchPatternRegex(String searchPattern, String escape) {
+    StringBuilder regex = new StringBuilder();
+    for (int i = 0; i < searchPattern.length(); i++) {
+      char c = searchPattern.charAt(i);
+      if (escape != null && !escape.isEmpty() && searchPattern.startsWith(escape, i)
+          && i + escape.length() < searchPattern.length()) {
+        i += escape.length();
+        regex.append(Pattern.quote(String.valueOf(searchPattern.charAt(i))));
+      } else if (c == '%') {
+        regex.append(".*");
+      } else if (c == '_') {
+        regex.append('.');
+      } else {
+        regex.append(Pattern.quote(String.valueOf(c)));
+      }
+    }
+    return Pattern.compile(regex.toString(), Pattern.DOTALL);
+  }
+
+  /**
+   * Parse table weights of the form {@code <table>:<weight>}.
+   */
+  public static Map<String, Long> parseWeights(List<String> weights) {
+    Map<String, Long> result = new HashMap<>();
+    for (String weight : weights) {
+      int separator = weight.lastIndexOf(':');
+      if (separator <= 0) {
+        throw new ConnectException("Invalid table weight '" + weight
+                                   + "', expected <table>:<weight>");
+      }
+      final long value;
+      try {
+        value = Long.parseLong(weight.substring(separator + 1).trim());
+      } catch (NumberFormatException e) {
+        throw new ConnectException("Invalid table weight '" + weight
+                                   + "', expected <table>:<weight>", e);
+      }
+      if (value < 0) {
+        throw new ConnectException("Invalid table weight '" + weight
+                                   + "', the weight must not be negative");
+      }
+      result.put(weight.substring(0, separator).trim(), value);
+    }
+    return result;
+  }
+
+  /**
+   * Split the tables into the given number of groups of about equal total weight. Each table, from
+   * the heaviest to the lightest, is added to the group with the lowest total weight so far. The
+   * tables of each group keep the order they were given in.
+   *
+   * <p>Tables without a weight are assumed to weigh as much as the average table with one, or 1
+   * if no table has a weight. Every table weighs at least 1, so that tiny tables are still spread
+   * across the groups.
+   */
+  public static List<List<String>> group(List<String> tables, Map<String, Long> weights,
+                                         int numGroups) {
+    if (numGroups <= 0) {
+      throw new IllegalArgumentException("Number of groups must be positive.");
+    }
+    List<List<String>> groups = new ArrayList<>(numGroups);
+    for (int i = 0; i < numGroups; i++) {
+      groups.add(new ArrayList<String>());
+    }
+    place(tables, groups, effectiveWeights(tables, weights));
+    for (List<String> group : groups) {
+      sortByPosition(group, tables);
+    }
+    return groups;
+  }
+
+  /**
+   * Update a previous grouping for the current tables and number of groups, moving as few tables
+   * as possible. Tables that still exist stay in their group, dropped tables are removed from
+   * theirs, and new tables are added to the groups with the lowest total weight, as with {@link
+   * #group}. Groups beyond the number of groups are dissolved, empty ones first, and their tables
+   * placed like new tables. A group left without tables takes one from the heaviest group that
+   * has more than one, so that every group has a table unless there are fewer tables than groups,
+   * in which case the empty groups are removed.
+   *
+   * <p>Only the groups that gain or lose tables change, but groups are not rebalanced when the
+   * weights of the tables they keep change.
+   */
+  public static List<List<String>> regroup(List<List<String>> previous, List<String> tables,
+                                           Map<String, Long> weights, int numGroups) {
+    if (numGroups <= 0) {
+      throw new IllegalArgumentException("Number of groups must be positive.");
+    }
+    Set<String> current = new HashSet<>(tables);
+    Set<String> kept = new HashSet<>();
+    List<List<String>> groups = new ArrayList<>(Math.max(numGroups, previous.size()));
+    for (List<String> previousGroup : previous) {
+      List<String> group = new ArrayList<>(previousGroup.size());
+      for (String table : previousGroup) {
+        if (current.contains(table) && kept.add(table)) {
+          group.add(table);
+        }
+      }
+      groups.add(group);
+    }
+    while (groups.size() > numGroups) {
+      int dissolved = groups.size() - 1;
+      for (int i = groups.size() - 1; i >= 0; i--) {
+        if (groups.get(i).isEmpty()) {
+          dissolved = i;
+          break;
+        }
+      }
+      kept.removeAll(groups.remove(dissolved));
+    }
+    while (groups.size() < numGroups) {
+      groups.add(new ArrayList<String>());
+    }
+
+    List<String> unplaced = new ArrayList<>();
+    for (String table : tables) {
+      if (!kept.contains(table)) {
+        unplaced.add(table);
+      }
+    }
+    if (!unplaced.isEmpty()) {
+      log.info("Adding tables {} to the existing assignment", unplaced);
+    }
+    Map<String, Long> effectiveWeights = effectiveWeights(tables, weights);
+    place(unplaced, groups, effectiveWeights);
+    fillEmptyGroups(groups, effectiveWeights);
+    return groups;
+  }
+
+  /**
+   * Move a table into each empty group from the heaviest group with more than one table, choosing
+   * the table that comes closest to splitting the weight of that group in half. Groups that stay
+   * empty because there are no such groups left are removed.
+   */
+  private static void fillEmptyGroups(List<List<String>> groups, Map<String, Long> weights) {
+    for (List<String> group : groups) {
+      if (!group.isEmpty()) {
+        continue;
+      }
+      List<String> donor = null;
+      long donorTotal = -1;
+      for (List<String> candidate : groups) {
+        long total = 0;
+        for (String table : candidate) {
+          total += weights.get(table);
+        }
+        if (candidate.size() > 1 && total > donorTotal) {
+          donor = candidate;
+          donorTotal = total;
+        }
+      }
+      if (donor == null) {
+        break;
+      }
+      String moved = donor.get(0);
+      for (String table : donor) {
+        if (Math.abs(donorTotal - 2 * weights.get(table))
+            < Math.abs(donorTotal - 2 * weights.get(moved))) {
+          moved = table;
+        }
+      }
+      donor.remove(moved);
+      group.add(moved);
+      log.info("Moving table {} to a group that was left without tables", moved);
+    }
+    Iterator<List<String>> iterator = groups.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().isEmpty()) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Tables without a weight weigh as much as the average table with one, and every table weighs
+   * at least 1.
+   */
+  private static Map<String, Long> effectiveWeights(List<String> tables,
+                                                    Map<String, Long> weights) {
+    long knownTotal = 0;
+    int known = 0;
+    for (String table : tables) {
+      Long weight = weights.get(table);
+      if (weight != null) {
+        knownTotal += weight;
+        known++;
+      }
+    }
+    long defaultWeight = known == 0 ? 1 : Math.max(1, knownTotal / known);
+    Map<String, Long> effective = new HashMap<>();
+    for (String table : tables) {
+      Long weight = weights.get(table);
+      effective.put(table, weight == null ? defaultWeight : Math.max(1, weight));
+    }
+    return effective;
+  }
+
+  /**
+   * Append each table, from the heaviest to the lightest, to the group with the lowest total
+   * weight so far.
+   */
+  private static void place(final List<String> tables, List<List<String>> groups,
+                            final Map<String, Long> weights) {
+    long[] totals = new long[groups.size()];
+    for (int i = 0; i < groups.size(); i++) {
+      for (String table : groups.get(i)) {
+        totals[i] += weights.get(table);
+      }
+    }
+    List<String> order = new ArrayList<>(tables);
+    // Heaviest first, ties in the order given, so the result is deterministic
+    Collections.sort(order, new Comparator<String>() {
+      @Override
+      public int compare(String a, String b) {
+        return Long.compare(weights.get(b), weights.get(a));
+      }
+    });
+    for (String table : order) {
+      int lightest = 0;
+      for (int i = 1; i < groups.size(); i++) {
+        if (totals[i] < totals[lightest]) {
+          lightest = i;
+        }
+      }
+      totals[lightest] += weights.get(table);
+      groups.get(lightest).add(table);
+    }
+    for (int i = 0; i < groups.size(); i++) {
+      log.debug("Assigned tables {} with a total weight of {} to group {}", groups.get(i),
+                totals[i], i);
+    }
+  }
+
+  private static void sortByPosition(List<String> group, List<String> tables) {
+    final Map<String, Integer> positions = new HashMap<>();
+    for (int i = 0; i < tables.size(); i++) {
+      positions.put(tables.get(i), i);
+    }
+    Collections.sort(group, new Comparator<String>() {
+      @Override
+      public int compare(String a, String b) {
+        return Integer.compare(positions.get(a), positions.get(b));
+      }
+    });
+  }
+}
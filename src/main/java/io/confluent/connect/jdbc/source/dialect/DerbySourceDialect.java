@@ -0,0 +1,41 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source.dialect;
+
+/**
+ * Dialect for Derby, which limits rows with the standard FETCH FIRST clause.
+ */
+public class DerbySourceDialect extends SourceDialect {
+
+  @Override
+  public String limitQuery(String query, int limit) {
+    return query + " FETCH FIRST " + limit + " ROWS ONLY";
+  }
+
+  @Override
+  public String currentTimestampQuery() {
+    return "values(CURRENT_TIMESTAMP)";
+  }
+
+  @Override
+  public String namedTablesQuery(int names) {
+    return "SELECT s.SCHEMANAME, t.TABLENAME, TRIM(CASE t.TABLETYPE WHEN 'T' THEN 'TABLE' "
+           + "WHEN 'V' THEN 'VIEW' WHEN 'S' THEN 'SYSTEM TABLE' WHEN 'A' THEN 'SYNONYM' END) "
+           + "FROM SYS.SYSTABLES t JOIN SYS.SYSSCHEMAS s ON s.SCHEMAID = t.SCHEMAID "
+           + "WHERE t.TABLENAME IN (" + parameters(names) + ")";
+  }
+}
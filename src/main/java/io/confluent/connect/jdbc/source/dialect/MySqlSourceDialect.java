@@ -0,0 +1,52 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source.dialect;
+
+/**
+ * Dialect for MySQL and MariaDB, which limit rows with a trailing LIMIT clause.
+ */
+public class MySqlSourceDialect extends SourceDialect {
+
+  @Override
+  public String limitQuery(String query, int limit) {
+    return query + " LIMIT " + limit;
+  }
+
+  @Override
+  public String tableStatisticsQuery() {
+    return "SELECT TABLE_SCHEMA, TABLE_NAME, TABLE_ROWS FROM information_schema.TABLES "
+           + "WHERE TABLE_SCHEMA = DATABASE()";
+  }
+
+  @Override
+  public String tableChangeMarkerQuery(String schemaPattern) {
+    // Only the names are read, so that MySQL 5.x can answer from the directory of the database
+    // without opening every table as it would for CREATE_TIME. That still costs about as much as
+    // the SHOW FULL TABLES the driver lists tables with; the marker only saves returning the names
+    return "SELECT COUNT(*), SUM(CRC32(TABLE_NAME)) "
+           + "FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE()";
+  }
+
+  @Override
+  public String namedTablesQuery(int names) {
+    // The driver lists the tables of the current database, ignoring the schema pattern
+    return "SELECT NULL, TABLE_NAME, "
+           + "CASE TABLE_TYPE WHEN 'BASE TABLE' THEN 'TABLE' ELSE TABLE_TYPE END "
+           + "FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() "
+           + "AND TABLE_NAME IN (" + parameters(names) + ")";
+  }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source.dialect;
+
+/**
+ * Dialect for Oracle, which limits rows with the standard FETCH FIRST clause from 12c on, and by
+ * the ROWNUM of an enclosing query before.
+ */
+public class OracleSourceDialect extends SourceDialect {
+
+  private final boolean fetchFirst;
+
+  public OracleSourceDialect() {
+    this(12);
+  }
+
+  /**
+   * @param majorVersion the major version of the database
+   */
+  public OracleSourceDialect(int majorVersion) {
+    this.fetchFirst = majorVersion >= 12;
+  }
+
+  @Override
+  public String limitQuery(String query, int limit) {
+    if (!fetchFirst) {
+      // ROWNUM is assigned after the ORDER BY of the inner query
+      return "SELECT * FROM (" + query + ") WHERE ROWNUM <= " + limit;
+    }
+    return query + " FETCH FIRST " + limit + " ROWS ONLY";
+  }
+
+  @Override
+  public String currentTimestampQuery() {
+    return "select CURRENT_TIMESTAMP from dual";
+  }
+
+  @Override
+  public String tableStatisticsQuery() {
+    // Only the tables of the current user, whose schema has the user's name
+    return "SELECT USER, TABLE_NAME, NUM_ROWS FROM USER_TABLES";
+  }
+
+  @Override
+  public String tableChangeMarkerQuery(String schemaPattern) {
+    if (schemaPattern == null) {
+      // Tables are listed from every schema, whose objects are too many to check on every poll
+      return null;
+    }
+    // The driver escapes search patterns with a slash
+    return "SELECT COUNT(*), MAX(LAST_DDL_TIME) FROM ALL_OBJECTS "
+           + "WHERE OBJECT_TYPE IN ('TABLE', 'VIEW', 'SYNONYM') AND OWNER LIKE ? ESCAPE '/'";
+  }
+
+  @Override
+  public String namedTablesQuery(int names) {
+    return "SELECT OWNER, OBJECT_NAME, OBJECT_TYPE FROM ALL_OBJECTS "
+           + "WHERE OBJECT_TYPE IN ('TABLE', 'VIEW', 'SYNONYM') "
+           + "AND OBJECT_NAME IN (" + parameters(names) + ")";
+  }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source.dialect;
+
+/**
+ * Dialect for PostgreSQL, which limits rows with a trailing LIMIT clause.
+ */
+public class PostgreSqlSourceDialect extends SourceDialect {
+
+  @Override
+  public String limitQuery(String query, int limit) {
+    return query + " LIMIT " + limit;
+  }
+
+  @Override
+  public String tableStatisticsQuery() {
+    // reltuples is negative for tables that were never analyzed by PostgreSQL 14 and later
+    return "SELECT n.nspname, c.relname, c.reltuples FROM pg_catalog.pg_class c "
+           + "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace "
+           + "WHERE c.relkind IN ('r', 'm', 'p') "
+           + "AND n.nspname NOT IN ('pg_catalog', 'information_schema')";
+  }
+
+  @Override
+  public String tableChangeMarkerQuery(String schemaPattern) {
+    // A digest of every qualified name rather than transaction ids, which wrap around
+    return "SELECT COUNT(*), SUM(c.oid::bigint), "
+           + "md5(string_agg(n.nspname || '.' || c.relname, ',' ORDER BY c.oid)) "
+           + "FROM pg_catalog.pg_class c JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace "
+           + "WHERE c.relkind IN ('r', 'v', 'm', 'p', 'f')";
+  }
+
+  @Override
+  public String namedTablesQuery(int names) {
+    // The types the driver reports for each kind of relation
+    return "SELECT n.nspname, c.relname, CASE c.relkind WHEN 'r' THEN 'TABLE' "
+           + "WHEN 'v' THEN 'VIEW' WHEN 'm' THEN 'MATERIALIZED VIEW' "
+           + "WHEN 'p' THEN 'PARTITIONED TABLE' WHEN 'f' THEN 'FOREIGN TABLE' END "
+           + "FROM pg_catalog.pg_class c JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace "
+           + "WHERE c.relkind IN ('r', 'v', 'm', 'p', 'f') "
+           + "AND n.nspname NOT IN ('pg_catalog', 'information_schema') "
+           + "AND c.relname IN (" + parameters(names) + ")";
+  }
+}
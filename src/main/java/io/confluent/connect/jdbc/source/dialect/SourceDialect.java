@@ -0,0 +1,161 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source.dialect;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ * The database specific parts of the queries issued by source tasks.
+ */
+public abstract class SourceDialect {
+
+  /**
+   * Limit a SELECT statement, which may end with an ORDER BY clause, to return at most the given
+   * number of rows. Bounding the query in SQL rather than only through
+   * {@link java.sql.Statement#setMaxRows} lets the database stop after the first rows of an
+   * ordered index scan instead of sorting every matching row first.
+   *
+   * @return the limited statement, or the statement unchanged if the database has no known syntax
+   *         for it
+   */
+  public abstract String limitQuery(String query, int limit);
+
+  /**
+   * @return a query returning the current time of the database as its only row and column
+   */
+  public String currentTimestampQuery() {
+    return "select CURRENT_TIMESTAMP;";
+  }
+
+  /**
+   * @return a query returning the schema of each table in its first column, its name in the second
+   *         and the number of rows the database estimates it to have in the third, read from
+   *         catalog statistics rather than by counting; or null if the database has no such
+   *         statistics
+   */
+  public String tableStatisticsQuery() {
+    return null;
+  }
+
+  /**
+   * @param schemaPattern the schema pattern tables are listed with, or null for all schemas
+   * @return a query returning a single row whose values change whenever a table matching the
+   *         schema pattern is created, dropped or renamed, which is much cheaper than listing all
+   *         tables; or null if the database has no such marker for those schemas. A query with a
+   *         parameter takes the schema pattern as its only parameter
+   */
+  public String tableChangeMarkerQuery(String schemaPattern) {
+    return null;
+  }
+
+  /**
+   * @return a query taking the given number of table names as parameters and returning the schema
+   *         of each table or view with one of those names in its first column, its name in the
+   *         second and its {@link java.sql.DatabaseMetaData#getTables} type in the third, so that
+   *         they can be listed in a single round trip; or null if each has to be looked up by name
+   */
+  public String namedTablesQuery(int names) {
+    return null;
+  }
+
+  /**
+   * @return the given number of comma separated parameter markers
+   */
+  protected static String parameters(int count) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append('?');
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Choose the dialect from the product name the driver reports, so that databases reached through
+   * wrapping drivers with URLs of their own get their dialect too. The URL is only used for
+   * products without a dialect of their own.
+   */
+  public static SourceDialect fromConnection(Connection conn, String url) throws SQLException {
+    DatabaseMetaData metadata = conn.getMetaData();
+    String product = metadata.getDatabaseProductName();
+    switch (product) {
+      case "Oracle":
+        return new OracleSourceDialect(metadata.getDatabaseMajorVersion());
+      case "Apache Derby":
+        return new DerbySourceDialect();
+      case "SQLite":
+        return new SqliteSourceDialect();
+      case "Microsoft SQL Server":
+        return new SqlServerSourceDialect();
+      case "MySQL":
+      case "MariaDB":
+        return new MySqlSourceDialect();
+      case "PostgreSQL":
+        return new PostgreSqlSourceDialect();
+      default:
+        return fromConnectionString(url);
+    }
+  }
+
+  public static SourceDialect fromConnectionString(final String url) {
+    if (url.startsWith("jdbc:sqlite:")) {
+      return new SqliteSourceDialect();
+    }
+
+    if (url.startsWith("jdbc:oracle:")) {
+      return new OracleSourceDialect();
+    }
+
+    if (url.startsWith("jdbc:derby:")) {
+      return new DerbySourceDialect();
+    }
+
+    final String protocol = extractProtocolFromUrl(url).toLowerCase();
+    switch (protocol) {
+      case "microsoft:sqlserver":
+      case "sqlserver":
+      case "jtds:sqlserver":
+        return new SqlServerSourceDialect();
+      case "mariadb":
+      case "mysql":
+        return new MySqlSourceDialect();
+      case "postgresql":
+        return new PostgreSqlSourceDialect();
+      default:
+        return new GenericSourceDialect();
+    }
+  }
+
+  /**
+   * @return the protocol of a URL of the form jdbc:protocol://..., or an empty string if the URL
+   *         doesn't have that form
+   */
+  static String extractProtocolFromUrl(final String url) {
+    if (!url.startsWith("jdbc:")) {
+      return "";
+    }
+    final int index = url.indexOf("://", "jdbc:".length());
+    if (index < 0) {
+      return "";
+    }
+    return url.substring("jdbc:".length(), index);
+  }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source.dialect;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Dialect for SQL Server, which limits rows with a TOP clause following the SELECT keyword and any
+ * DISTINCT or ALL quantifier.
+ */
+public class SqlServerSourceDialect extends SourceDialect {
+
+  private static final Pattern SELECT_PREFIX =
+      Pattern.compile("^\\s*SELECT(\\s+(DISTINCT|ALL))?\\s", Pattern.CASE_INSENSITIVE);
+
+  @Override
+  public String limitQuery(String query, int limit) {
+    Matcher matcher = SELECT_PREFIX.matcher(query);
+    if (!matcher.find()) {
+      return query;
+    }
+    return query.substring(0, matcher.end()) + "TOP " + limit + " "
+           + query.substring(matcher.end());
+  }
+
+  @Override
+  public String tableStatisticsQuery() {
+    // Rows of the heap or clustered index of each partition
+    return "SELECT s.name, t.name, SUM(p.rows) FROM sys.tables t "
+           + "JOIN sys.schemas s ON s.schema_id = t.schema_id "
+           + "JOIN sys.partitions p ON p.object_id = t.object_id "
+           + "WHERE p.index_id IN (0, 1) GROUP BY s.name, t.name";
+  }
+
+  @Override
+  public String tableChangeMarkerQuery(String schemaPattern) {
+    // Renaming an object updates its modify_date
+    return "SELECT COUNT(*), MAX(modify_date) FROM sys.objects WHERE type IN ('U', 'V', 'SN')";
+  }
+
+  @Override
+  public String namedTablesQuery(int names) {
+    return "SELECT TABLE_SCHEMA, TABLE_NAME, "
+           + "CASE TABLE_TYPE WHEN 'BASE TABLE' THEN 'TABLE' ELSE TABLE_TYPE END "
+           + "FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME IN (" + parameters(names) + ")";
+  }
+}
@@ -33,7 +33,9 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Utilties for interacting with a JDBC database.
@@ -55,9 +57,13 @@ public class JdbcUtils {
   private static final int GET_TABLES_NAME_COLUMN = 3;
 
   private static final int GET_COLUMNS_COLUMN_NAME = 4;
+  private static final int GET_COLUMNS_DATA_TYPE = 5;
   private static final int GET_COLUMNS_IS_NULLABLE = 18;
   private static final int GET_COLUMNS_IS_AUTOINCREMENT = 23;
 
+  private static final int GET_PRIMARY_KEYS_COLUMN_NAME = 4;
+  private static final int GET_PRIMARY_KEYS_KEY_SEQ = 5;
+
 
   /**
    * Get a list of tables in the database. This uses the default filters, which only include
@@ -77,8 +83,23 @@ public class JdbcUtils {
    * @throws SQLException
    */
   public static List<String> getTables(Connection conn, String schemaPattern, Set<String> types) throws SQLException {
+    return getTables(conn, schemaPattern, "%", types);
+  }
+
+  /**
+   * Get a list of the names of tables in the database that match a pattern. The pattern and the
+   * table types are passed on to the catalog query, so that only matching tables are listed.
+   * @param conn database connection
+   * @param tableNamePattern a table name pattern as accepted by
+   *                         {@link java.sql.DatabaseMetaData#getTables}
+   * @param types a set of table types that should be included in the results
+   * @throws SQLException
+   */
+  public static List<String> getTables(Connection conn, String schemaPattern, String tableNamePattern,
+                                       Set<String> types) throws SQLException {
     DatabaseMetaData metadata = conn.getMetaData();
-    try (ResultSet rs = metadata.getTables(null, schemaPattern, "%", null)) {
+    String[] typesArray = types.toArray(new String[types.size()]);
+    try (ResultSet rs = metadata.getTables(null, schemaPattern, tableNamePattern, typesArray)) {
       List<String> tableNames = new ArrayList<>();
       while (rs.next()) {
         if (types.contains(rs.getString(GET_TABLES_TYPE_COLUMN))) {
@@ -137,6 +158,43 @@ public class JdbcUtils {
     return (matches == 1 ? result : null);
   }
 
+  /**
+   * Look up the primary key columns of the specified table.
+   * @param conn database connection
+   * @param table the table
+   * @return the names of the primary key columns in key order, or an empty list if the table has
+   *         no primary key
+   * @throws SQLException
+   */
+  public static List<String> getPrimaryKeyColumns(Connection conn, String schemaPattern, String table)
+      throws SQLException {
+    final Map<Integer, String> columnsBySeq = new TreeMap<>();
+    try (ResultSet rs = conn.getMetaData().getPrimaryKeys(null, schemaPattern, table)) {
+      while (rs.next()) {
+        columnsBySeq.put(rs.getInt(GET_PRIMARY_KEYS_KEY_SEQ), rs.getString(GET_PRIMARY_KEYS_COLUMN_NAME));
+      }
+    }
+    return new ArrayList<>(columnsBySeq.values());
+  }
+
+  /**
+   * Look up the SQL type of a column.
+   * @param conn database connection
+   * @param table the table
+   * @param column the column
+   * @return the type from {@link java.sql.Types}, or null if the column does not exist
+   * @throws SQLException
+   */
+  public static Integer getColumnType(Connection conn, String schemaPattern, String table, String column)
+      throws SQLException {
+    try (ResultSet rs = conn.getMetaData().getColumns(null, schemaPattern, table, column)) {
+      if (!rs.next()) {
+        return null;
+      }
+      return rs.getInt(GET_COLUMNS_DATA_TYPE);
+    }
+  }
+
   public static boolean isColumnNullable(Connection conn, String schemaPattern, String table, String column)
       throws SQLException {
     try (ResultSet rs = conn.getMetaData().getColumns(null, schemaPattern, table, column)) {
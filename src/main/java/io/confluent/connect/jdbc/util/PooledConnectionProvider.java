@@ -0,0 +1,266 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.util;
+
+import org.apache.kafka.common.utils.SystemTime;
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.connect.errors.ConnectException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A small pool of connections to the same database. Connections are checked out with {@link
+ * #acquire()} and checked back in with {@link #release(Connection)}, so that threads don't have to
+ * share a connection.
+ *
+ * <p>A connection is only validated when it is handed out after being idle for longer than the
+ * validation interval, rather than before every use. Idle connections beyond the minimum size are
+ * closed instead of validated.
+ *
+ * <p>{@link #getValidConnection()} returns the same connection, checked out of the pool, until it is
+ * closed, for callers that only ever need one. A caller that keeps a connection checked out for
+ * longer, for instance because it keeps statements prepared on it, passes it to {@link
+ * #revalidate(Connection)} before each use instead.
+ */
+public class PooledConnectionProvider {
+
+  private static final Logger log = LoggerFactory.getLogger(PooledConnectionProvider.class);
+
+  private static final int VALIDITY_CHECK_TIMEOUT_S = 5;
+  private static final long ACQUIRE_TIMEOUT_MS = 30000;
+
+  private final String url;
+  private final String username;
+  private final String password;
+  private final int minSize;
+  private final int maxSize;
+  private final long validationIntervalMs;
+  private final Time time;
+
+  // Most recently released first, so that few connections are kept busy
+  private final Deque<Connection> idle = new ArrayDeque<>();
+  // The time each connection was last checked in or handed out
+  private final Map<Connection, Long> lastUsed = new IdentityHashMap<>();
+  private int open;
+  private Connection pinned;
+
+  /**
+   * @param maxSize the maximum number of open connections, or 0 for no limit
+   * @param validationIntervalMs how long a connection may be idle before it is validated again
+   */
+  public PooledConnectionProvider(String url, String username, String password, int minSize,
+                                  int maxSize, long validationIntervalMs) {
+    this(url, username, password, minSize, maxSize, validationIntervalMs, new SystemTime());
+  }
+
+  public PooledConnectionProvider(String url, String username, String password, int minSize,
+                                  int maxSize, long validationIntervalMs, Time time) {
+    if (maxSize > 0 && minSize > maxSize) {
+      throw new IllegalArgumentException("Minimum pool size " + minSize
+                                         + " is larger than the maximum size " + maxSize);
+    }
+    this.url = url;
+    this.username = username;
+    this.password = password;
+    this.minSize = minSize;
+    this.maxSize = maxSize;
+    this.validationIntervalMs = validationIntervalMs;
+    this.time = time;
+  }
+
+  /**
+   * @return the connection of this provider, checking it out of the pool the first time
+   */
+  public synchronized Connection getValidConnection() {
+    pinned = pinned == null ? acquire() : revalidate(pinned);
+    return pinned;
+  }
+
+  /**
+   * @return the given checked out connection if it was used within the validation interval or is
+   *         still valid, or otherwise a new connection checked out in its place
+   */
+  public synchronized Connection revalidate(Connection connection) {
+    if (!lastUsed.containsKey(connection)) {
+      // Already invalidated
+      return acquire();
+    }
+    if (isValid(connection)) {
+      lastUsed.put(connection, time.milliseconds());
+      return connection;
+    }
+    log.info("The database connection is invalid. Reconnecting...");
+    invalidate(connection);
+    return acquire();
+  }
+
+  /**
+   * Check a connection out of the pool, opening a new one if none is idle and the pool isn't
+   * full, or waiting for one to be released otherwise.
+   */
+  public synchronized Connection acquire() {
+    long deadline = time.milliseconds() + ACQUIRE_TIMEOUT_MS;
+    while (true) {
+      Connection connection = idle.pollFirst();
+      if (connection != null) {
+        if (isValid(connection)) {
+          lastUsed.put(connection, time.milliseconds());
+          return connection;
+        }
+        discard(connection);
+        continue;
+      }
+      if (maxSize <= 0 || open < maxSize) {
+        return open();
+      }
+      long remaining = deadline - time.milliseconds();
+      if (remaining <= 0) {
+        throw new ConnectException("Timed out waiting for one of " + maxSize
+                                   + " database connections to be released");
+      }
+      try {
+        wait(remaining);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ConnectException("Interrupted while waiting for a database connection", e);
+      }
+    }
+  }
+
+  /**
+   * Check a connection back into the pool. Its transaction must have been ended.
+   */
+  public synchronized void release(Connection connection) {
+    if (connection == null || !lastUsed.containsKey(connection)) {
+      return;
+    }
+    if (connection == pinned) {
+      pinned = null;
+    }
+    lastUsed.put(connection, time.milliseconds());
+    idle.addFirst(connection);
+    evictIdle();
+    notifyAll();
+  }
+
+  /**
+   * Close a checked out connection that failed, rather than returning it to the pool.
+   */
+  public synchronized void invalidate(Connection connection) {
+    if (connection == null || !lastUsed.containsKey(connection)) {
+      return;
+    }
+    if (connection == pinned) {
+      pinned = null;
+    }
+    discard(connection);
+    notifyAll();
+  }
+
+  /**
+   * Close the connection of this provider and all idle connections. Connections that are checked
+   * out stay open until they are released or invalidated.
+   */
+  public synchronized void closeQuietly() {
+    if (pinned != null) {
+      discard(pinned);
+      pinned = null;
+    }
+    while (!idle.isEmpty()) {
+      discard(idle.pollFirst());
+    }
+    notifyAll();
+  }
+
+  /**
+   * @return the number of open connections, whether idle or checked out
+   */
+  public synchronized int size() {
+    return open;
+  }
+
+  /**
+   * Prepare a newly opened connection before it is handed out.
+   */
+  protected void onConnect(Connection connection) throws SQLException {
+  }
+
+  private Connection open() {
+    log.debug("Attempting to connect to {}", url);
+    try {
+      Connection connection = DriverManager.getConnection(url, username, password);
+      try {
+        onConnect(connection);
+      } catch (SQLException e) {
+        connection.close();
+        throw e;
+      }
+      open++;
+      lastUsed.put(connection, time.milliseconds());
+      return connection;
+    } catch (SQLException sqle) {
+      throw new ConnectException(sqle);
+    }
+  }
+
+  private boolean isValid(Connection connection) {
+    if (time.milliseconds() - lastUsed.get(connection) < validationIntervalMs) {
+      return true;
+    }
+    try {
+      return connection.isValid(VALIDITY_CHECK_TIMEOUT_S);
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Close idle connections beyond the minimum size that would have to be validated before they
+   * could be used again.
+   */
+  private void evictIdle() {
+    long now = time.milliseconds();
+    Iterator<Connection> oldestFirst = idle.descendingIterator();
+    while (oldestFirst.hasNext() && open > minSize) {
+      Connection connection = oldestFirst.next();
+      if (now - lastUsed.get(connection) < validationIntervalMs) {
+        break;
+      }
+      oldestFirst.remove();
+      discard(connection);
+    }
+  }
+
+  private void discard(Connection connection) {
+    lastUsed.remove(connection);
+    open--;
+    try {
+      connection.close();
+    } catch (SQLException sqle) {
+      log.warn("Ignoring error closing connection", sqle);
+    }
+  }
+}
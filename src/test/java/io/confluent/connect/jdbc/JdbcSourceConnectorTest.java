@@ -145,6 +145,9 @@ public class JdbcSourceConnectorTest {
     assertEquals(3, configs.size());
     assertTaskConfigsHaveParentConfigs(configs);
 
+    for (int i = 0; i < configs.size(); i++) {
+      assertEquals(String.valueOf(i), configs.get(i).get(JdbcSourceTaskConfig.TASK_ID_CONFIG));
+    }
     assertEquals("test1,test2", configs.get(0).get(JdbcSourceTaskConfig.TABLES_CONFIG));
     assertNull(configs.get(0).get(JdbcSourceTaskConfig.QUERY_CONFIG));
     assertEquals("test3", configs.get(1).get(JdbcSourceTaskConfig.TABLES_CONFIG));
@@ -155,6 +158,27 @@ public class JdbcSourceConnectorTest {
     connector.stop();
   }
 
+  @Test
+  public void testPartitioningByWeight() throws Exception {
+    // Derby has no table statistics, so only the configured weights differ
+    db.createTable("test1", "id", "INT NOT NULL");
+    db.createTable("test2", "id", "INT NOT NULL");
+    db.createTable("test3", "id", "INT NOT NULL");
+    db.createTable("test4", "id", "INT NOT NULL");
+    connProps.put(JdbcSourceConnectorConfig.TABLE_ASSIGNMENT_CONFIG,
+                  JdbcSourceConnectorConfig.TABLE_ASSIGNMENT_WEIGHTED);
+    connProps.put(JdbcSourceConnectorConfig.TABLE_WEIGHTS_CONFIG, "test1:1000,test2:10,test3:10,test4:10");
+    connector.start(connProps);
+    List<Map<String, String>> configs = connector.taskConfigs(2);
+    assertEquals(2, configs.size());
+    assertTaskConfigsHaveParentConfigs(configs);
+
+    assertEquals("test1", configs.get(0).get(JdbcSourceTaskConfig.TABLES_CONFIG));
+    assertEquals("test2,test3,test4", configs.get(1).get(JdbcSourceTaskConfig.TABLES_CONFIG));
+
+    connector.stop();
+  }
+
   @Test
   public void testPartitioningQuery() throws Exception {
     // Tests "partitioning" when config specifies running a custom query
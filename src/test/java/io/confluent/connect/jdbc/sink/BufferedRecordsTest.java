@@ -25,12 +25,20 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 
+import io.confluent.connect.jdbc.sink.dialect.BulkLoader;
 import io.confluent.connect.jdbc.sink.dialect.DbDialect;
+import io.confluent.connect.jdbc.sink.dialect.SqliteDialect;
 
 import static org.junit.Assert.assertEquals;
 
@@ -79,17 +87,198 @@ public class BufferedRecordsTest {
     final SinkRecord recordB = new SinkRecord("dummy", 1, null, null, schemaB, valueB, 1);
 
     // test records are batched correctly based on schema equality as records are added
-    //   (schemaA,schemaA,schemaA,schemaB,schemaA) -> ([schemaA,schemaA,schemaA],[schemaB],[schemaA])
+    //   (schemaA,schemaA,schemaA,schemaB,schemaA) -> ([schemaA,schemaA,schemaA,schemaA],[schemaB])
 
     assertEquals(Collections.emptyList(), buffer.add(recordA));
     assertEquals(Collections.emptyList(), buffer.add(recordA));
     assertEquals(Collections.emptyList(), buffer.add(recordA));
 
-    assertEquals(Arrays.asList(recordA, recordA, recordA), buffer.add(recordB));
+    assertEquals(Collections.emptyList(), buffer.add(recordB));
 
-    assertEquals(Collections.singletonList(recordB), buffer.add(recordA));
+    assertEquals(Collections.emptyList(), buffer.add(recordA));
+
+    assertEquals(Arrays.asList(recordA, recordA, recordA, recordA, recordB), buffer.flush());
+  }
+
+  @Test
+  public void interleavedSchemasAreWrittenInBatchesOfTheirOwn() throws SQLException {
+    final HashMap<Object, Object> props = new HashMap<>();
+    props.put("connection.url", sqliteHelper.sqliteUri());
+    props.put("auto.create", true);
+    props.put("auto.evolve", true);
+    props.put("batch.size", 3);
+    final JdbcSinkConfig config = new JdbcSinkConfig(props);
+    final DbDialect dbDialect = DbDialect.fromConnectionString(sqliteHelper.sqliteUri());
+    final BufferedRecords buffer = new BufferedRecords(config, "people", dbDialect, new DbStructure(dbDialect), sqliteHelper.connection);
+
+    final SinkRecord a1 = person(1, "a1", 0);
+    final SinkRecord b2 = personWithAge(2, "b2", 1);
+    final SinkRecord a3 = person(3, "a3", 2);
+    final SinkRecord b4 = personWithAge(4, "b4", 3);
+    final SinkRecord a5 = person(5, "a5", 4);
+
+    assertEquals(Collections.emptyList(), buffer.add(a1));
+    assertEquals(Collections.emptyList(), buffer.add(b2));
+    assertEquals(Collections.emptyList(), buffer.add(a3));
+    assertEquals(Collections.emptyList(), buffer.add(b4));
+    assertEquals(Arrays.asList(a1, a3, a5), buffer.add(a5));
+    assertEquals(Arrays.asList(b2, b4), buffer.flush());
+    buffer.close();
+    assertEquals(5, countRows("SELECT * FROM people"));
+  }
+
+  @Test
+  public void upsertsOfAKeyAreNotReorderedAcrossSchemas() throws SQLException {
+    final BufferedRecords buffer = multiRowBuffer("upsert");
+    final SinkRecord a1 = person(1, "a1", 0);
+    final SinkRecord b2 = personWithAge(2, "b2", 1);
+    final SinkRecord a3 = person(3, "a3", 2);
+    final SinkRecord b1 = personWithAge(1, "b1", 3);
+
+    assertEquals(Collections.emptyList(), buffer.add(a1));
+    assertEquals(Collections.emptyList(), buffer.add(b2));
+    assertEquals(Collections.emptyList(), buffer.add(a3));
+    // Key 1 is buffered with the other schema, so everything before it is written first
+    assertEquals(Arrays.asList(a1, a3, b2), buffer.add(b1));
+    assertEquals(Collections.singletonList(b1), buffer.flush());
+    buffer.close();
+
+    assertEquals(3, countRows("SELECT * FROM people"));
+    assertEquals(1, countRows("SELECT * FROM people WHERE id = 1 AND name = 'b1' AND age = 42"));
+  }
+
+  @Test
+  public void multiRowInserts() throws SQLException {
+    final BufferedRecords buffer = multiRowBuffer("insert");
+    final List<SinkRecord> records = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      records.add(person(i, "name" + i, i));
+      buffer.add(records.get(i));
+    }
+
+    // Two statements of three rows and one of the single row left over
+    assertEquals(records, buffer.flush());
+    buffer.close();
+    assertEquals(7, countRows("SELECT * FROM people"));
+    assertEquals(1, countRows("SELECT * FROM people WHERE id = 6 AND name = 'name6'"));
+  }
+
+  @Test
+  public void multiRowUpsertsKeepTheLastValueOfARepeatedKey() throws SQLException {
+    final BufferedRecords buffer = multiRowBuffer("upsert");
+    buffer.add(person(1, "first", 0));
+    buffer.add(person(2, "other", 1));
+    buffer.add(person(1, "second", 2));
+    buffer.add(person(1, "third", 3));
+    buffer.flush();
+    buffer.close();
+
+    assertEquals(2, countRows("SELECT * FROM people"));
+    assertEquals(1, countRows("SELECT * FROM people WHERE id = 1 AND name = 'third'"));
+  }
+
+  @Test
+  public void bulkLoadStreamsTheRecordsToTheLoader() throws SQLException {
+    final List<String> loadedColumns = new ArrayList<>();
+    final StringBuilder loadedRows = new StringBuilder();
+    final DbDialect dbDialect = new SqliteDialect() {
+      @Override
+      public BulkLoader getBulkLoader() {
+        return new BulkLoader() {
+          @Override
+          public long load(Connection connection, String tableName, Collection<String> columns, Reader rows) throws SQLException {
+            assertEquals("people", tableName);
+            loadedColumns.addAll(columns);
+            final char[] buffer = new char[4];
+            int length;
+            try {
+              while ((length = rows.read(buffer)) != -1) {
+                loadedRows.append(buffer, 0, length);
+              }
+            } catch (IOException e) {
+              throw new AssertionError(e);
+            }
+            return 2;
+          }
+        };
+      }
+    };
+    final BufferedRecords buffer = bulkLoadBuffer(dbDialect);
+    buffer.add(person(1, "one", 0));
+    buffer.add(person(2, "\"two\"", 1));
+    buffer.flush();
+    buffer.close();
+
+    assertEquals(Arrays.asList("id", "name"), loadedColumns);
+    assertEquals("1,\"one\"\n2,\"\"\"two\"\"\"\n", loadedRows.toString());
+    // The table is still created, but the rows only went to the loader
+    assertEquals(0, countRows("SELECT * FROM people"));
+  }
+
+  @Test
+  public void bulkLoadWithoutALoaderWritesMultiRowInserts() throws SQLException {
+    final BufferedRecords buffer = bulkLoadBuffer(DbDialect.fromConnectionString(sqliteHelper.sqliteUri()));
+    for (int i = 0; i < 7; i++) {
+      buffer.add(person(i, "name" + i, i));
+    }
+    assertEquals(7, buffer.flush().size());
+    buffer.close();
+    assertEquals(7, countRows("SELECT * FROM people"));
+  }
+
+  private BufferedRecords bulkLoadBuffer(DbDialect dbDialect) {
+    final HashMap<Object, Object> props = new HashMap<>();
+    props.put("connection.url", sqliteHelper.sqliteUri());
+    props.put("auto.create", true);
+    props.put("pk.mode", "record_value");
+    props.put("pk.fields", "id");
+    props.put("bulk.load.topics", "people");
+    final JdbcSinkConfig config = new JdbcSinkConfig(props);
+    return new BufferedRecords(config, "people", dbDialect, new DbStructure(dbDialect), sqliteHelper.connection, true);
+  }
+
+  private BufferedRecords multiRowBuffer(String insertMode) {
+    final DbDialect dbDialect = DbDialect.fromConnectionString(sqliteHelper.sqliteUri());
+    final HashMap<Object, Object> props = new HashMap<>();
+    props.put("connection.url", sqliteHelper.sqliteUri());
+    props.put("auto.create", true);
+    props.put("auto.evolve", true);
+    props.put("insert.mode", insertMode);
+    props.put("pk.mode", "record_value");
+    props.put("pk.fields", "id");
+    props.put("batch.size", 1000);
+    props.put("rows.per.statement", 3);
+    final JdbcSinkConfig config = new JdbcSinkConfig(props);
+    return new BufferedRecords(config, "people", dbDialect, new DbStructure(dbDialect), sqliteHelper.connection);
+  }
+
+  private static final Schema PERSON_SCHEMA = SchemaBuilder.struct()
+      .field("id", Schema.INT64_SCHEMA)
+      .field("name", Schema.STRING_SCHEMA)
+      .build();
+
+  private static SinkRecord person(long id, String name, long offset) {
+    final Struct value = new Struct(PERSON_SCHEMA).put("id", id).put("name", name);
+    return new SinkRecord("people", 0, null, null, PERSON_SCHEMA, value, offset);
+  }
+
+  private static final Schema PERSON_WITH_AGE_SCHEMA = SchemaBuilder.struct()
+      .field("id", Schema.INT64_SCHEMA)
+      .field("name", Schema.STRING_SCHEMA)
+      .field("age", Schema.OPTIONAL_INT32_SCHEMA)
+      .build();
+
+  private static SinkRecord personWithAge(long id, String name, long offset) {
+    final Struct value = new Struct(PERSON_WITH_AGE_SCHEMA).put("id", id).put("name", name).put("age", 42);
+    return new SinkRecord("people", 0, null, null, PERSON_WITH_AGE_SCHEMA, value, offset);
+  }
 
-    assertEquals(Collections.singletonList(recordA), buffer.flush());
+  private int countRows(String query) throws SQLException {
+    return sqliteHelper.select(query, new SqliteHelper.ResultSetReadCallback() {
+      @Override
+      public void read(ResultSet rs) {
+      }
+    });
   }
 
 }
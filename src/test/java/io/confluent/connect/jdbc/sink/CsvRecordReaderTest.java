@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.connect.jdbc.sink;
+
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.confluent.connect.jdbc.sink.metadata.FieldsMetadata;
+import io.confluent.connect.jdbc.sink.metadata.SchemaPair;
+
+import static org.junit.Assert.assertEquals;
+
+public class CsvRecordReaderTest {
+
+  @Test
+  public void formatsEachType() throws IOException {
+    final Schema valueSchema = SchemaBuilder.struct()
+        .field("int8", Schema.INT8_SCHEMA)
+        .field("int16", Schema.INT16_SCHEMA)
+        .field("int32", Schema.INT32_SCHEMA)
+        .field("int64", Schema.INT64_SCHEMA)
+        .field("float32", Schema.FLOAT32_SCHEMA)
+        .field("float64", Schema.FLOAT64_SCHEMA)
+        .field("boolean", Schema.BOOLEAN_SCHEMA)
+        .field("string", Schema.STRING_SCHEMA)
+        .field("empty", Schema.STRING_SCHEMA)
+        .field("null", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("bytes", Schema.BYTES_SCHEMA)
+        .field("decimal", Decimal.schema(2))
+        .field("date", Date.SCHEMA)
+        .field("time", Time.SCHEMA)
+        .field("timestamp", Timestamp.SCHEMA)
+        .field("array", SchemaBuilder.array(Schema.OPTIONAL_STRING_SCHEMA).build())
+        .build();
+    final Struct value = new Struct(valueSchema)
+        .put("int8", (byte) -8)
+        .put("int16", (short) 16)
+        .put("int32", 32)
+        .put("int64", 64L)
+        .put("float32", 3.5f)
+        .put("float64", -0.25)
+        .put("boolean", true)
+        .put("string", "a \"quoted\", multi-line\nstring")
+        .put("empty", "")
+        .put("bytes", new byte[]{1, 0x2f, (byte) 0xff})
+        .put("decimal", new BigDecimal("1E+3").setScale(2))
+        .put("date", new java.util.Date(0))
+        .put("time", new java.util.Date(45296789L))
+        .put("timestamp", new java.util.Date(1500000000123L))
+        .put("array", Arrays.asList("a", "b\"c", null));
+
+    assertEquals(
+        "-8,16,32,64,3.5,-0.25,true,\"a \"\"quoted\"\", multi-line\nstring\",\"\",,\\x012FFF,1000.00,1970-01-01,"
+        + "12:34:56.789,2017-07-14 02:40:00.123,\"{\"\"a\"\",\"\"b\\\"\"c\"\",NULL}\"\n",
+        read(Collections.singletonList(new SinkRecord("topic", 0, null, null, valueSchema, value, 0)),
+             JdbcSinkConfig.PrimaryKeyMode.NONE, Collections.<String>emptyList(), valueSchema)
+    );
+  }
+
+  @Test
+  public void writesKeyColumnsFirst() throws IOException {
+    final Schema valueSchema = SchemaBuilder.struct()
+        .field("name", Schema.STRING_SCHEMA)
+        .build();
+    final List<SinkRecord> records = Arrays.asList(
+        new SinkRecord("topic", 3, null, null, valueSchema, new Struct(valueSchema).put("name", "one"), 10),
+        new SinkRecord("topic", 3, null, null, valueSchema, new Struct(valueSchema).put("name", "two"), 11)
+    );
+
+    assertEquals(
+        "\"topic\",3,10,\"one\"\n\"topic\",3,11,\"two\"\n",
+        read(records, JdbcSinkConfig.PrimaryKeyMode.KAFKA, Collections.<String>emptyList(), valueSchema)
+    );
+  }
+
+  private static String read(List<SinkRecord> records, JdbcSinkConfig.PrimaryKeyMode pkMode, List<String> pkFields,
+                             Schema valueSchema) throws IOException {
+    final SchemaPair schemaPair = new SchemaPair(null, valueSchema);
+    final FieldsMetadata fieldsMetadata =
+        FieldsMetadata.extract("table", pkMode, pkFields, Collections.<String>emptySet(), schemaPair);
+    final StringBuilder text = new StringBuilder();
+    try (CsvRecordReader reader = new CsvRecordReader(records, pkMode, schemaPair, fieldsMetadata)) {
+      // A small buffer reads rows in several pieces
+      final char[] buffer = new char[5];
+      int length;
+      while ((length = reader.read(buffer)) != -1) {
+        text.append(buffer, 0, length);
+      }
+    }
+    return text.toString();
+  }
+}
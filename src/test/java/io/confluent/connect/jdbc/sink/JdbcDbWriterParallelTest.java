@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.connect.jdbc.sink;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.confluent.connect.jdbc.sink.dialect.DbDialect;
+import io.confluent.connect.jdbc.sink.dialect.GenericDialect;
+import io.confluent.connect.jdbc.source.EmbeddedDerby;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.fail;
+
+public class JdbcDbWriterParallelTest {
+
+  private static final Schema VALUE_SCHEMA = SchemaBuilder.struct()
+      .field("id", Schema.INT32_SCHEMA)
+      .field("name", Schema.STRING_SCHEMA)
+      .build();
+
+  private EmbeddedDerby db;
+  private JdbcDbWriter writer;
+
+  @Before
+  public void setUp() throws SQLException {
+    db = new EmbeddedDerby();
+    for (String table : new String[]{"a", "b", "c"}) {
+      db.createTable(table, "id", "INT NOT NULL PRIMARY KEY", "name", "VARCHAR(20)");
+    }
+    // Derby compiles its metadata queries on first use while locking the system tables, which would time out when
+    // the lanes look up their tables at the same time
+    DbMetadataQueries.getTableMetadata(db.getConnection(), "a");
+    final Map<String, String> props = new HashMap<>();
+    props.put("connection.url", db.getUrl());
+    props.put("write.parallelism", "3");
+    final JdbcSinkConfig config = new JdbcSinkConfig(props);
+    final DbDialect dbDialect = new GenericDialect();
+    writer = new JdbcDbWriter(config, dbDialect, new DbStructure(dbDialect));
+  }
+
+  @After
+  public void tearDown() throws IOException, SQLException {
+    writer.closeQuietly();
+    db.close();
+    db.dropDatabase();
+  }
+
+  @Test
+  public void writesEveryTableOnItsOwnConnection() throws SQLException {
+    final List<SinkRecord> records = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      for (String topic : new String[]{"a", "b", "c"}) {
+        records.add(record(topic, i));
+      }
+    }
+
+    writer.write(records);
+
+    assertEquals(3, writer.lanes.size());
+    assertNotSame(writer.lanes.get(0).connection,
+                  writer.lanes.get(1).connection);
+    assertEquals(10, count("a"));
+    assertEquals(10, count("b"));
+    assertEquals(10, count("c"));
+  }
+
+  @Test
+  public void aFailedTableRollsBackTheOthers() throws SQLException {
+    final List<SinkRecord> records = new ArrayList<>();
+    records.add(record("a", 1));
+    records.add(record("b", 1));
+    records.add(record("c", 1));
+    records.add(record("c", 1));
+
+    try {
+      writer.write(records);
+      fail();
+    } catch (SQLException expected) {
+    }
+
+    assertEquals(0, count("a"));
+    assertEquals(0, count("b"));
+    assertEquals(0, count("c"));
+
+    // The lanes are usable again once the failed writes were rolled back
+    writer.write(records.subList(0, 3));
+
+    assertEquals(1, count("a"));
+    assertEquals(1, count("b"));
+    assertEquals(1, count("c"));
+  }
+
+  private static SinkRecord record(String topic, int id) {
+    final Struct value = new Struct(VALUE_SCHEMA).put("id", id).put("name", topic + id);
+    return new SinkRecord(topic, 0, null, null, VALUE_SCHEMA, value, id);
+  }
+
+  private int count(String table) throws SQLException {
+    try (Statement statement = db.getConnection().createStatement();
+         ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM \"" + table + "\"")) {
+      resultSet.next();
+      return resultSet.getInt(1);
+    }
+  }
+}
@@ -41,10 +41,14 @@ import java.util.concurrent.ThreadLocalRandom;
 import io.confluent.connect.jdbc.sink.dialect.DbDialect;
 import io.confluent.connect.jdbc.sink.dialect.SqliteDialect;
 import io.confluent.connect.jdbc.sink.metadata.DbTable;
+import io.confluent.connect.jdbc.sink.metadata.SchemaPair;
 
 import static junit.framework.TestCase.assertTrue;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 public class JdbcDbWriterTest {
 
@@ -97,7 +101,7 @@ public class JdbcDbWriterTest {
 
     writer.write(Collections.singleton(new SinkRecord(topic, 0, keySchema, 1L, valueSchema1, valueStruct1, 0)));
 
-    DbTable metadata = DbMetadataQueries.getTableMetadata(writer.cachedConnectionProvider.getValidConnection(), topic);
+    DbTable metadata = DbMetadataQueries.getTableMetadata(writer.lanes.get(0).connection, topic);
     assertTrue(metadata.columns.get("id").isPrimaryKey);
     for (Field field : valueSchema1.fields()) {
       assertTrue(metadata.columns.containsKey(field.name()));
@@ -200,6 +204,51 @@ public class JdbcDbWriterTest {
     );
   }
 
+  @Test
+  public void statementsAreKeptAcrossWritesUntilTheTableOrConnectionChanges() throws SQLException {
+    Map<String, String> props = new HashMap<>();
+    props.put("connection.url", sqliteHelper.sqliteUri());
+    props.put("auto.create", "true");
+    props.put("auto.evolve", "true");
+    writer = newWriter(props);
+
+    Schema valueSchema1 = SchemaBuilder.struct()
+        .field("name", Schema.STRING_SCHEMA)
+        .build();
+    SchemaPair schemaPair1 = new SchemaPair(null, valueSchema1);
+    Schema valueSchema2 = SchemaBuilder.struct()
+        .field("name", Schema.STRING_SCHEMA)
+        .field("age", Schema.OPTIONAL_INT32_SCHEMA) // new field
+        .build();
+
+    writer.write(Collections.singleton(new SinkRecord("people", 0, null, null, valueSchema1, new Struct(valueSchema1).put("name", "a"), 0)));
+    WriterStateCache.State state = writer.lanes.get(0).writerStateCache.get("people", schemaPair1);
+    assertNotNull(state);
+    writer.write(Collections.singleton(new SinkRecord("people", 0, null, null, valueSchema1, new Struct(valueSchema1).put("name", "b"), 1)));
+    assertSame(state, writer.lanes.get(0).writerStateCache.get("people", schemaPair1));
+
+    writer.write(Collections.singleton(new SinkRecord("people", 0, null, null, valueSchema2, new Struct(valueSchema2).put("name", "c"), 2)));
+    assertNull(writer.lanes.get(0).writerStateCache.get("people", schemaPair1));
+    assertEquals(1, writer.lanes.get(0).writerStateCache.size());
+
+    writer.closeQuietly();
+    assertEquals(0, writer.lanes.get(0).writerStateCache.size());
+    writer.write(Collections.singleton(new SinkRecord("people", 0, null, null, valueSchema1, new Struct(valueSchema1).put("name", "d"), 3)));
+    assertEquals(1, writer.lanes.get(0).writerStateCache.size());
+
+    assertEquals(
+        4,
+        sqliteHelper.select(
+            "SELECT * FROM people",
+            new SqliteHelper.ResultSetReadCallback() {
+              @Override
+              public void read(ResultSet rs) throws SQLException {
+              }
+            }
+        )
+    );
+  }
+
   @Test
   public void sameRecordNTimes() throws SQLException {
     String testId = "sameRecordNTimes";
@@ -294,4 +343,15 @@ public class JdbcDbWriterTest {
     );
   }
 
-}
\ No newline at end of file
+  @Test
+  public void sqliteIsWrittenOnOneConnection() {
+    Map<String, String> props = new HashMap<>();
+    props.put("connection.url", sqliteHelper.sqliteUri());
+    props.put("write.parallelism", "4");
+
+    writer = newWriter(props);
+
+    assertEquals(1, writer.lanes.size());
+  }
+
+}
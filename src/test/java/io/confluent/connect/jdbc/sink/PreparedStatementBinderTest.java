@@ -135,6 +135,33 @@ public class PreparedStatementBinderTest {
   }
 
 
+  @Test
+  public void bindRecordAtRowOffset() throws SQLException {
+    Schema valueSchema = SchemaBuilder.struct()
+        .field("id", Schema.INT64_SCHEMA)
+        .field("name", Schema.STRING_SCHEMA)
+        .build();
+    SchemaPair schemaPair = new SchemaPair(null, valueSchema);
+    JdbcSinkConfig.PrimaryKeyMode pkMode = JdbcSinkConfig.PrimaryKeyMode.RECORD_VALUE;
+    FieldsMetadata fieldsMetadata = FieldsMetadata.extract("people", pkMode, Collections.singletonList("id"),
+                                                           Collections.<String>emptySet(), schemaPair);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    PreparedStatementBinder binder = new PreparedStatementBinder(statement, pkMode, schemaPair, fieldsMetadata,
+                                                                 new MockConnection());
+
+    binder.bindRecord(new SinkRecord("topic", 0, null, null, valueSchema, new Struct(valueSchema)
+        .put("id", 1L).put("name", "a"), 0), 0);
+    binder.bindRecord(new SinkRecord("topic", 0, null, null, valueSchema, new Struct(valueSchema)
+        .put("id", 2L).put("name", "b"), 1), 1);
+
+    verify(statement, times(1)).setLong(1, 1L);
+    verify(statement, times(1)).setString(2, "a");
+    verify(statement, times(1)).setLong(3, 2L);
+    verify(statement, times(1)).setString(4, "b");
+    // Rows of a multi-row statement are added to the batch by the caller
+    verify(statement, times(0)).addBatch();
+  }
+
   @Test
   public void bindFieldPrimitiveValues() throws SQLException {
     int index = ThreadLocalRandom.current().nextInt();
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.connect.jdbc.sink;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import io.confluent.connect.jdbc.sink.metadata.SchemaPair;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class WriterStateCacheTest {
+
+  private static final SchemaPair SCHEMA_PAIR_A = new SchemaPair(null, SchemaBuilder.struct().field("a", Schema.INT32_SCHEMA).build());
+  private static final SchemaPair SCHEMA_PAIR_B = new SchemaPair(null, SchemaBuilder.struct().field("b", Schema.INT32_SCHEMA).build());
+
+  private final WriterStateCache cache = new WriterStateCache(2);
+
+  @Test
+  public void evictsTheLeastRecentlyUsedState() throws SQLException {
+    final WriterStateCache.State first = state();
+    final WriterStateCache.State second = state();
+    final WriterStateCache.State third = state();
+    cache.put("t1", SCHEMA_PAIR_A, first);
+    cache.put("t1", SCHEMA_PAIR_B, second);
+    assertSame(first, cache.get("t1", SCHEMA_PAIR_A));
+
+    cache.put("t2", SCHEMA_PAIR_A, third);
+
+    assertEquals(2, cache.size());
+    assertNull(cache.get("t1", SCHEMA_PAIR_B));
+    verify(second.preparedStatement).close();
+    verify(first.preparedStatement, never()).close();
+  }
+
+  @Test
+  public void invalidatesTheStatesOfATable() throws SQLException {
+    final WriterStateCache.State first = state();
+    final WriterStateCache.State second = state();
+    cache.put("t1", SCHEMA_PAIR_A, first);
+    cache.put("t2", SCHEMA_PAIR_A, second);
+
+    cache.invalidate("t1");
+
+    assertNull(cache.get("t1", SCHEMA_PAIR_A));
+    assertSame(second, cache.get("t2", SCHEMA_PAIR_A));
+    verify(first.preparedStatement).close();
+
+    cache.invalidateAll();
+
+    assertEquals(0, cache.size());
+    verify(second.preparedStatement).close();
+  }
+
+  private static WriterStateCache.State state() {
+    return new WriterStateCache.State(null, false, 1, null, mock(PreparedStatement.class), null);
+  }
+}
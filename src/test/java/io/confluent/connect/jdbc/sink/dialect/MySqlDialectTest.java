@@ -120,4 +120,21 @@ public class MySqlDialectTest extends BaseDialectTest {
     );
   }
 
+  @Test
+  public void multiRowUpsert() {
+    assertEquals(
+        "insert into `actor`(`actor_id`,`score`) " +
+        "values(?,?),(?,?) on duplicate key update `score`=values(`score`)",
+        dialect.getUpsertQuery("actor", Arrays.asList("actor_id"), Arrays.asList("score"), 2)
+    );
+  }
+
+  @Test
+  public void multiRowInsert() {
+    assertEquals(
+        "INSERT INTO `customers`(`id`,`age`) VALUES(?,?),(?,?),(?,?)",
+        dialect.getInsert("customers", Collections.singletonList("id"), Collections.singletonList("age"), 3)
+    );
+  }
+
 }
@@ -108,4 +108,15 @@ public class OracleDialectTest extends BaseDialectTest {
     );
   }
 
-}
\ No newline at end of file
+  @Test
+  public void noMultiRowStatements() {
+    assertEquals(1, dialect.getMaxInsertRows(2));
+    assertEquals(1, dialect.getMaxUpsertRows(2));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void multiRowUpsert() {
+    dialect.getUpsertQuery("ARTICLE", Arrays.asList("title", "author"), Collections.singletonList("body"), 2);
+  }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.connect.jdbc.sink.dialect;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PostgreSqlCopyLoaderTest {
+
+  private final BulkLoader loader = new PostgreSqlDialect().getBulkLoader();
+
+  @Test
+  public void copiesTheRowsThroughTheCopyManager() throws SQLException, IOException {
+    final StringBuilder copied = new StringBuilder();
+    final CopyManager copyManager = mock(CopyManager.class);
+    when(copyManager.copyIn(anyString(), any(Reader.class))).thenAnswer(new Answer<Long>() {
+      @Override
+      public Long answer(InvocationOnMock invocation) throws IOException {
+        copied.append(invocation.getArguments()[0]).append('\n');
+        final Reader rows = (Reader) invocation.getArguments()[1];
+        int c;
+        while ((c = rows.read()) != -1) {
+          copied.append((char) c);
+        }
+        return 2L;
+      }
+    });
+    final Connection connection = pgConnection(copyManager);
+
+    assertEquals(2L, loader.load(connection, "people", Arrays.asList("id", "name"),
+                                 new StringReader("1,\"one\"\n2,\"two\"\n")));
+    assertEquals("COPY \"people\"(\"id\",\"name\") FROM STDIN WITH (FORMAT csv)\n1,\"one\"\n2,\"two\"\n",
+                 copied.toString());
+  }
+
+  @Test
+  public void rethrowsErrorsOfTheCopy() throws SQLException, IOException {
+    final SQLException error = new SQLException("duplicate key");
+    final CopyManager copyManager = mock(CopyManager.class);
+    when(copyManager.copyIn(anyString(), any(Reader.class))).thenThrow(error);
+
+    try {
+      loader.load(pgConnection(copyManager), "people", Arrays.asList("id"), new StringReader("1\n"));
+      fail();
+    } catch (SQLException e) {
+      assertSame(error, e);
+    }
+  }
+
+  @Test(expected = SQLException.class)
+  public void requiresAPostgreSqlConnection() throws SQLException {
+    loader.load(mock(Connection.class), "people", Arrays.asList("id"), new StringReader("1\n"));
+  }
+
+  private static Connection pgConnection(CopyManager copyManager) throws SQLException {
+    final PGConnection pgConnection = mock(PGConnection.class);
+    when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+    final Connection connection = mock(Connection.class);
+    when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+    when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+    return connection;
+  }
+}
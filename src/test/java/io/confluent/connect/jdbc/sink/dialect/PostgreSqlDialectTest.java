@@ -108,4 +108,27 @@ public class PostgreSqlDialectTest extends BaseDialectTest {
     );
   }
 
+  @Test
+  public void copyQuery() {
+    assertEquals(
+        "COPY \"Customer\"(\"id\",\"name\") FROM STDIN WITH (FORMAT csv)",
+        ((PostgreSqlDialect) dialect).getCopyQuery("Customer", Arrays.asList("id", "name"))
+    );
+  }
+
+  @Test
+  public void multiRowUpsert() {
+    assertEquals(
+        "INSERT INTO \"Customer\" (\"id\",\"name\") "
+        + "VALUES (?,?),(?,?),(?,?) ON CONFLICT (\"id\") DO UPDATE SET \"name\"=EXCLUDED.\"name\"",
+        dialect.getUpsertQuery("Customer", Collections.singletonList("id"), Collections.singletonList("name"), 3)
+    );
+  }
+
+  @Test
+  public void maxRows() {
+    assertEquals(Short.MAX_VALUE / 4, dialect.getMaxInsertRows(4));
+    assertEquals(Short.MAX_VALUE / 4, dialect.getMaxUpsertRows(4));
+  }
+
 }
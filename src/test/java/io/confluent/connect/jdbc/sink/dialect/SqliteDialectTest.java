@@ -99,4 +99,19 @@ public class SqliteDialectTest extends BaseDialectTest {
     );
   }
 
+  @Test
+  public void multiRowUpsert() {
+    assertEquals(
+        "INSERT OR REPLACE INTO `Book`(`author`,`title`,`ISBN`) VALUES(?,?,?),(?,?,?)",
+        dialect.getUpsertQuery("Book", Arrays.asList("author", "title"), Arrays.asList("ISBN"), 2)
+    );
+  }
+
+  @Test
+  public void maxRowsAreLimitedByBindParameters() {
+    assertEquals(99, dialect.getMaxInsertRows(10));
+    assertEquals(99, dialect.getMaxUpsertRows(10));
+    assertEquals(1, dialect.getMaxInsertRows(1000));
+  }
+
 }
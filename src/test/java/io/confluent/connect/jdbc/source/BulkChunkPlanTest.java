@@ -0,0 +1,87 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Types;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BulkChunkPlanTest {
+
+  private EmbeddedDerby db;
+
+  @Before
+  public void setup() {
+    db = new EmbeddedDerby();
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    db.close();
+    db.dropDatabase();
+  }
+
+  @Test
+  public void testSplitRange() {
+    assertArrayEquals(new long[]{4, 7}, BulkChunkPlan.splitRange(1, 9, 3));
+    assertArrayEquals(new long[]{6}, BulkChunkPlan.splitRange(1, 10, 2));
+    assertArrayEquals(new long[]{0, 0, 0}, BulkChunkPlan.splitRange(0, 0, 4));
+    assertArrayEquals(new long[]{0}, BulkChunkPlan.splitRange(Long.MIN_VALUE, Long.MAX_VALUE, 2));
+  }
+
+  @Test
+  public void testWhereClause() {
+    BulkChunkPlan plan = new BulkChunkPlan("test", "id", 3);
+    assertEquals(" WHERE (id < ? OR id IS NULL)", plan.whereClause(0, "id"));
+    assertEquals(" WHERE id >= ? AND id < ?", plan.whereClause(1, "id"));
+    assertEquals(" WHERE id >= ?", plan.whereClause(2, "id"));
+  }
+
+  @Test
+  public void testChunkableTypes() {
+    assertTrue(BulkChunkPlan.isChunkableType(Types.INTEGER));
+    assertTrue(BulkChunkPlan.isChunkableType(Types.DECIMAL));
+    assertFalse(BulkChunkPlan.isChunkableType(Types.VARCHAR));
+    assertFalse(BulkChunkPlan.isChunkableType(Types.TIMESTAMP));
+  }
+
+  @Test
+  public void testBoundariesOnlyChangeOnceEveryChunkClaimedThem() throws Exception {
+    db.createTable("test", "id", "INT NOT NULL");
+    db.insert("test", "id", 1);
+    db.insert("test", "id", 9);
+
+    BulkChunkPlan plan = new BulkChunkPlan("test", "id", 3);
+    assertArrayEquals(new long[]{4}, plan.claimBounds(0, db.getConnection()));
+    assertArrayEquals(new long[]{4, 7}, plan.claimBounds(1, db.getConnection()));
+
+    // Chunk 2 hasn't read the current ranges yet, so they must not change
+    db.insert("test", "id", 18);
+    assertArrayEquals(new long[]{4}, plan.claimBounds(0, db.getConnection()));
+    assertArrayEquals(new long[]{7}, plan.claimBounds(2, db.getConnection()));
+
+    // Now every chunk has claimed its range and the next pass picks up the new maximum
+    assertArrayEquals(new long[]{7, 13}, plan.claimBounds(1, db.getConnection()));
+  }
+}
@@ -283,4 +283,52 @@ public class DataConverterTest {
         assertEquals("Expected Array to match Array of Strings and nulls", expectedResult, record.get("array_column"));
 
     }
+
+    @Test
+    public void schemaMappingReadsMetadataOnlyOnce() throws SQLException {
+        boolean mapNumerics = false;
+        final String tableName = "test";
+        final int[] metadataCalls = {0};
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl() {
+            @Override
+            public int getColumnType(int columnIndex) throws SQLException {
+                metadataCalls[0]++;
+                return super.getColumnType(columnIndex);
+            }
+        };
+        metaData.setColumnCount(2);
+        metaData.setColumnType(1, Types.INTEGER);
+        metaData.setColumnLabel(1, "id");
+        metaData.setSigned(1, true);
+        metaData.setColumnType(2, Types.VARCHAR);
+        metaData.setColumnLabel(2, "name");
+        metaData.setNullable(2, ResultSetMetaData.columnNullable);
+
+        MockResultSet mockResultSet = new MockResultSet("myResults");
+        mockResultSet.addColumn("id");
+        mockResultSet.addColumn("name");
+        mockResultSet.setResultSetMetaData(metaData);
+        mockResultSet.addRow(new Object[]{1, "a"});
+        mockResultSet.addRow(new Object[]{2, null});
+        mockResultSet.addRow(new Object[]{3, "c"});
+
+        SchemaMapping mapping = SchemaMapping.create(tableName, metaData, mapNumerics);
+        assertEquals(2, mapping.fieldSetters().size());
+        final int callsAfterMapping = metadataCalls[0];
+
+        mockResultSet.next();
+        Struct first = DataConverter.convertRecord(mapping, mockResultSet);
+        mockResultSet.next();
+        Struct second = DataConverter.convertRecord(mapping, mockResultSet);
+        mockResultSet.next();
+        Struct third = DataConverter.convertRecord(mapping, mockResultSet);
+
+        assertEquals("Expected no metadata lookups while converting rows", callsAfterMapping, metadataCalls[0]);
+        assertEquals(1, first.get("id"));
+        assertEquals("a", first.get("name"));
+        assertEquals(2, second.get("id"));
+        assertEquals(null, second.get("name"));
+        assertEquals(3, third.get("id"));
+        assertEquals("c", third.get("name"));
+    }
 }
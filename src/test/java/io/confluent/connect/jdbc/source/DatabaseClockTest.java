@@ -0,0 +1,132 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.easymock.EasyMock;
+import org.easymock.IAnswer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+import io.confluent.connect.jdbc.source.dialect.DerbySourceDialect;
+
+import static org.junit.Assert.assertEquals;
+
+public class DatabaseClockTest {
+
+  private static final long DB_OFFSET = 123456L;
+
+  private MockTime time;
+  private Connection db;
+  private Statement stmt;
+  private ResultSet rs;
+
+  @Before
+  public void setUp() {
+    time = new MockTime();
+    db = EasyMock.createMock(Connection.class);
+    stmt = EasyMock.createMock(Statement.class);
+    rs = EasyMock.createMock(ResultSet.class);
+  }
+
+  @Test
+  public void testQueriesEveryTimeWithoutResyncInterval() throws Exception {
+    expectQueries(0, 50);
+    DatabaseClock clock = new DatabaseClock(new DerbySourceDialect(), time, 0, 100);
+
+    assertEquals(dbTime(0), clock.currentTime(db));
+    // The database is queried again, and its answer used, even though the local clock didn't move
+    assertEquals(dbTime(50), clock.currentTime(db));
+    verifyMocks();
+  }
+
+  @Test
+  public void testDerivesTimeUntilResync() throws Exception {
+    expectQueries(0, 0);
+    DatabaseClock clock = new DatabaseClock(new DerbySourceDialect(), time, 1000, 100);
+
+    Timestamp first = clock.currentTime(db);
+    assertEquals(dbTime(0), first);
+    time.sleep(500);
+    assertEquals(new Timestamp(first.getTime() + 500), clock.currentTime(db));
+    time.sleep(499);
+    assertEquals(new Timestamp(first.getTime() + 999), clock.currentTime(db));
+
+    time.sleep(1);
+    // Resynced, and the database agrees with the derived time
+    assertEquals(dbTime(0), clock.currentTime(db));
+    verifyMocks();
+  }
+
+  @Test
+  public void testQueriesUntilStableAfterDrift() throws Exception {
+    // The database clock runs 500 ms ahead after the first interval, then stays in step
+    expectQueries(0, 500, 500);
+    DatabaseClock clock = new DatabaseClock(new DerbySourceDialect(), time, 1000, 100);
+
+    clock.currentTime(db);
+    time.sleep(1000);
+    assertEquals(dbTime(500), clock.currentTime(db));
+    // Drifted, so query again even though the resync interval hasn't passed
+    assertEquals(dbTime(500), clock.currentTime(db));
+    // Stable again, so derived from the new offset
+    time.sleep(10);
+    assertEquals(dbTime(500), clock.currentTime(db));
+    verifyMocks();
+  }
+
+  /**
+   * @return the database time corresponding to the current local time, shifted by the given skew
+   */
+  private Timestamp dbTime(long skewMs) {
+    return new Timestamp(time.milliseconds() + DB_OFFSET + skewMs);
+  }
+
+  /**
+   * Expect the database to be queried for its time once for each given skew, answering with the
+   * database time at the time of the query shifted by the skew.
+   */
+  private void expectQueries(long... skewsMs) throws Exception {
+    EasyMock.expect(db.createStatement()).andReturn(stmt).times(skewsMs.length);
+    EasyMock.expect(stmt.executeQuery("values(CURRENT_TIMESTAMP)")).andReturn(rs)
+        .times(skewsMs.length);
+    EasyMock.expect(rs.next()).andReturn(true).times(skewsMs.length);
+    for (final long skewMs : skewsMs) {
+      EasyMock.expect(rs.getTimestamp(EasyMock.eq(1), EasyMock.anyObject(Calendar.class)))
+          .andAnswer(new IAnswer<Timestamp>() {
+            @Override
+            public Timestamp answer() {
+              return dbTime(skewMs);
+            }
+          });
+    }
+    rs.close();
+    EasyMock.expectLastCall().times(skewsMs.length);
+    stmt.close();
+    EasyMock.expectLastCall().times(skewsMs.length);
+    EasyMock.replay(db, stmt, rs);
+  }
+
+  private void verifyMocks() {
+    EasyMock.verify(db, stmt, rs);
+  }
+}
@@ -16,6 +16,7 @@
 
 package io.confluent.connect.jdbc.source;
 
+import org.apache.kafka.common.utils.Time;
 import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.easymock.EasyMock;
@@ -32,7 +33,7 @@ import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 
-import io.confluent.connect.jdbc.util.CachedConnectionProvider;
+import io.confluent.connect.jdbc.util.PooledConnectionProvider;
 
 import static org.junit.Assert.assertEquals;
 
@@ -58,18 +59,21 @@ public class JdbcSourceTaskLifecycleTest extends JdbcSourceTaskTestBase {
   @Test
   public void testStartStop() throws Exception {
     // Minimal start/stop functionality
-    CachedConnectionProvider mockCachedConnectionProvider = PowerMock.createMock(CachedConnectionProvider.class);
-    PowerMock.expectNew(CachedConnectionProvider.class, db.getUrl(), null, null).andReturn(mockCachedConnectionProvider);
+    PooledConnectionProvider mockConnectionProvider = PowerMock.createMock(PooledConnectionProvider.class);
+    PowerMock.expectNew(PooledConnectionProvider.class, EasyMock.eq(db.getUrl()), EasyMock.isNull(),
+                        EasyMock.isNull(), EasyMock.eq(1), EasyMock.eq(0), EasyMock.eq(10000L),
+                        EasyMock.anyObject(Time.class)).andReturn(mockConnectionProvider);
 
-    // Should request a connection, then should close it on stop()
+    // Should request a connection to validate the table and one to choose the dialect, then
+    // should close it on stop()
     Connection conn = PowerMock.createMock(Connection.class);
-    EasyMock.expect(mockCachedConnectionProvider.getValidConnection()).andReturn(conn);
+    EasyMock.expect(mockConnectionProvider.getValidConnection()).andReturn(conn).times(2);
 
     // Since we're just testing start/stop, we don't worry about the value here but need to stub
     // something since the background thread will be started and try to lookup metadata.
     EasyMock.expect(conn.getMetaData()).andStubThrow(new SQLException());
 
-    mockCachedConnectionProvider.closeQuietly();
+    mockConnectionProvider.closeQuietly();
     PowerMock.expectLastCall();
 
     PowerMock.replayAll();
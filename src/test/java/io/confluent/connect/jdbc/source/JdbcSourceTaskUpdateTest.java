@@ -16,14 +16,18 @@
 
 package io.confluent.connect.jdbc.source;
 
+import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.junit.After;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.powermock.api.easymock.PowerMock;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
@@ -34,6 +38,10 @@ import java.util.Map;
 import io.confluent.connect.jdbc.util.DateTimeUtils;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 // Tests of polling that return data updates, i.e. verifies the different behaviors for getting
 // incremental data updates from the database
@@ -42,6 +50,9 @@ public class JdbcSourceTaskUpdateTest extends JdbcSourceTaskTestBase {
       = Collections.singletonMap(JdbcSourceConnectorConstants.QUERY_NAME_KEY,
                                  JdbcSourceConnectorConstants.QUERY_NAME_VALUE);
 
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
   @After
   public void tearDown() throws Exception {
     task.stop();
@@ -79,6 +90,72 @@ public class JdbcSourceTaskUpdateTest extends JdbcSourceTaskTestBase {
     assertRecordsTopic(records, TOPIC_PREFIX + SINGLE_TABLE_NAME);
   }
 
+
+  @Test
+  public void testBulkPeriodicLoadReusesSchemaUntilTableChanges() throws Exception {
+    db.createTable(SINGLE_TABLE_NAME, "id", "INT NOT NULL");
+    db.insert(SINGLE_TABLE_NAME, "id", 1);
+
+    task.start(singleTableConfig());
+
+    List<SourceRecord> records = task.poll();
+    assertEquals(1, records.size());
+    Schema firstSchema = records.get(0).valueSchema();
+
+    records = task.poll();
+    assertEquals(1, records.size());
+    assertSame(firstSchema, records.get(0).valueSchema());
+
+    db.execute("ALTER TABLE \"" + SINGLE_TABLE_NAME + "\" ADD COLUMN \"name\" VARCHAR(20)");
+    records = task.poll();
+    assertEquals(1, records.size());
+    Schema changedSchema = records.get(0).valueSchema();
+    assertNotSame(firstSchema, changedSchema);
+    assertNotNull(changedSchema.field("name"));
+  }
+  @Test
+  public void testBulkLoadOnlyReturnsChangedRows() throws Exception {
+    db.createTable(SINGLE_TABLE_NAME, "id", "INT NOT NULL PRIMARY KEY", "name", "VARCHAR(20)");
+    db.insert(SINGLE_TABLE_NAME, "id", 1, "name", "a");
+    db.insert(SINGLE_TABLE_NAME, "id", 2, "name", "b");
+
+    Map<String, String> taskConfig = singleTableConfig();
+    taskConfig.put(JdbcSourceConnectorConfig.BULK_DIGEST_DIR_CONFIG,
+                   tempFolder.getRoot().getAbsolutePath());
+    task.start(taskConfig);
+
+    // The digests of a pass are only used once all of its records have been acknowledged, so the
+    // whole table is returned until the first pass is acknowledged and committed
+    List<SourceRecord> first = task.poll();
+    assertEquals(twoIntValues(1, 2), countIntValues(first, "id"));
+    task.commit();
+    List<SourceRecord> second = task.poll();
+    assertEquals(twoIntValues(1, 2), countIntValues(second, "id"));
+    ack(first);
+    ack(second);
+    task.commit();
+
+    db.execute("UPDATE \"" + SINGLE_TABLE_NAME + "\" SET \"name\" = 'c' WHERE \"id\" = 2");
+    List<SourceRecord> records = task.poll();
+    assertEquals(Collections.singletonMap(2, 1), countIntValues(records, "id"));
+    ack(records);
+    task.commit();
+
+    // A pass whose records haven't all been acknowledged yet isn't used, even after a commit
+    db.insert(SINGLE_TABLE_NAME, "id", 3, "name", "d");
+    List<SourceRecord> unacked = task.poll();
+    assertEquals(Collections.singletonMap(3, 1), countIntValues(unacked, "id"));
+    task.commit();
+    records = task.poll();
+    assertEquals(Collections.singletonMap(3, 1), countIntValues(records, "id"));
+  }
+
+  private void ack(List<SourceRecord> records) throws InterruptedException {
+    for (SourceRecord record : records) {
+      task.commitRecord(record);
+    }
+  }
+
   @Test(expected = ConnectException.class)
   public void testIncrementingInvalidColumn() throws Exception {
     expectInitializeNoOffsets(Arrays.asList(SINGLE_TABLE_PARTITION));
@@ -129,6 +206,82 @@ public class JdbcSourceTaskUpdateTest extends JdbcSourceTaskTestBase {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testIncrementingReadsBacklogInPages() throws Exception {
+    expectInitializeNoOffsets(Arrays.asList(SINGLE_TABLE_PARTITION));
+
+    PowerMock.replayAll();
+
+    db.createTable(SINGLE_TABLE_NAME,
+            "id", "INT NOT NULL");
+    for (int id = 1; id <= 5; id++) {
+      db.insert(SINGLE_TABLE_NAME, "id", id);
+    }
+
+    initializeTask();
+    Map<String, String> taskConfig = singleTableConfig();
+    taskConfig.put(JdbcSourceConnectorConfig.MODE_CONFIG, JdbcSourceConnectorConfig.MODE_INCREMENTING);
+    taskConfig.put(JdbcSourceConnectorConfig.INCREMENTING_COLUMN_NAME_CONFIG, "id");
+    taskConfig.put(JdbcSourceConnectorConfig.INCREMENTAL_PAGE_SIZE_CONFIG, "2");
+    taskConfig.put(JdbcSourceConnectorConfig.BATCH_MAX_ROWS_CONFIG, "3");
+    task.start(taskConfig);
+
+    // Batches continue across pages, and each page starts after the last row of the previous one
+    verifyPoll(3, "id", Arrays.asList(1, 2, 3), false, true, TOPIC_PREFIX + SINGLE_TABLE_NAME);
+    verifyPoll(2, "id", Arrays.asList(4, 5), false, true, TOPIC_PREFIX + SINGLE_TABLE_NAME);
+
+    db.insert(SINGLE_TABLE_NAME, "id", 6);
+    verifyPoll(1, "id", Arrays.asList(6), false, true, TOPIC_PREFIX + SINGLE_TABLE_NAME);
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testConcurrentIncrementingKeepsPerTableOrder() throws Exception {
+    expectInitializeNoOffsets(Arrays.asList(SINGLE_TABLE_PARTITION, SECOND_TABLE_PARTITION));
+
+    PowerMock.replayAll();
+
+    db.createTable(SINGLE_TABLE_NAME, "id", "INT NOT NULL");
+    db.createTable(SECOND_TABLE_NAME, "id", "INT NOT NULL");
+    for (int id = 1; id <= 5; id++) {
+      db.insert(SINGLE_TABLE_NAME, "id", id);
+      db.insert(SECOND_TABLE_NAME, "id", id);
+    }
+
+    Map<String, String> taskConfig = twoTableConfig();
+    taskConfig.put(JdbcSourceConnectorConfig.MODE_CONFIG, JdbcSourceConnectorConfig.MODE_INCREMENTING);
+    taskConfig.put(JdbcSourceConnectorConfig.INCREMENTING_COLUMN_NAME_CONFIG, "id");
+    taskConfig.put(JdbcSourceConnectorConfig.BATCH_MAX_ROWS_CONFIG, "1");
+    taskConfig.put(JdbcSourceConnectorConfig.QUERY_CONCURRENCY_CONFIG, "2");
+    initializeTask();
+    task.start(taskConfig);
+
+    Map<String, List<Integer>> idsByTopic = new HashMap<>();
+    int received = 0;
+    for (int i = 0; i < 100 && received < 10; i++) {
+      List<SourceRecord> records = task.poll();
+      if (records == null) {
+        continue;
+      }
+      for (SourceRecord record : records) {
+        List<Integer> ids = idsByTopic.get(record.topic());
+        if (ids == null) {
+          ids = new ArrayList<>();
+          idsByTopic.put(record.topic(), ids);
+        }
+        ids.add(((Struct) record.value()).getInt32("id"));
+        received++;
+      }
+    }
+
+    List<Integer> expected = Arrays.asList(1, 2, 3, 4, 5);
+    assertEquals(expected, idsByTopic.get(TOPIC_PREFIX + SINGLE_TABLE_NAME));
+    assertEquals(expected, idsByTopic.get(TOPIC_PREFIX + SECOND_TABLE_NAME));
+
+    PowerMock.verifyAll();
+  }
+
   @Test
   public void testAutoincrement() throws Exception {
     expectInitializeNoOffsets(Arrays.asList(SINGLE_TABLE_PARTITION));
@@ -535,6 +688,13 @@ public class JdbcSourceTaskUpdateTest extends JdbcSourceTaskTestBase {
     return result;
   }
 
+  private Map<Integer, Integer> twoIntValues(int first, int second) {
+    Map<Integer, Integer> values = new HashMap<>();
+    values.put(first, 1);
+    values.put(second, 1);
+    return values;
+  }
+
   private Map<Integer, Integer> countIntValues(List<SourceRecord> records, String fieldName) {
     return countInts(records, Field.VALUE, fieldName);
   }
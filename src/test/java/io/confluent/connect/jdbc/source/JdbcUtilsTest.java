@@ -20,6 +20,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.sql.Types;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -127,4 +128,30 @@ public class JdbcUtilsTest {
     assertTrue(JdbcUtils.isColumnNullable(db.getConnection(), null, "tstest", "tsdefault"));
     assertTrue(JdbcUtils.isColumnNullable(db.getConnection(), null, "tstest", "tsnull"));
   }
+
+  @Test
+  public void testGetPrimaryKeyColumns() throws Exception {
+    db.createTable("single", "id", "INTEGER NOT NULL PRIMARY KEY", "bar", "INTEGER");
+    assertEquals(Arrays.asList("id"),
+                 JdbcUtils.getPrimaryKeyColumns(db.getConnection(), null, "single"));
+
+    db.execute("CREATE TABLE \"composite\" (\"a\" INTEGER NOT NULL, \"b\" INTEGER NOT NULL, "
+               + "PRIMARY KEY (\"b\", \"a\"))");
+    assertEquals(Arrays.asList("b", "a"),
+                 JdbcUtils.getPrimaryKeyColumns(db.getConnection(), null, "composite"));
+
+    db.createTable("none", "id", "INTEGER");
+    assertEquals(Collections.emptyList(),
+                 JdbcUtils.getPrimaryKeyColumns(db.getConnection(), null, "none"));
+  }
+
+  @Test
+  public void testGetColumnType() throws Exception {
+    db.createTable("test", "id", "INTEGER", "name", "VARCHAR(20)");
+    assertEquals(Integer.valueOf(Types.INTEGER),
+                 JdbcUtils.getColumnType(db.getConnection(), null, "test", "id"));
+    assertEquals(Integer.valueOf(Types.VARCHAR),
+                 JdbcUtils.getColumnType(db.getConnection(), null, "test", "name"));
+    assertNull(JdbcUtils.getColumnType(db.getConnection(), null, "test", "missing"));
+  }
 }
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class KeysetOffsetTest {
+
+  @Test
+  public void testUnset() {
+    KeysetOffset unset = new KeysetOffset(null);
+    assertNull(unset.getKey());
+    assertEquals(0, unset.toMap().size());
+    assertEquals(unset, KeysetOffset.fromMap(null));
+    assertEquals(unset, KeysetOffset.fromMap(Collections.<String, Object>emptyMap()));
+  }
+
+  @Test
+  public void testRoundTrip() {
+    KeysetOffset offset = new KeysetOffset(Arrays.<Object>asList(5L, "abc"));
+    assertEquals(1, offset.toMap().size());
+    assertEquals(offset, KeysetOffset.fromMap(offset.toMap()));
+    assertEquals(Arrays.<Object>asList(5L, "abc"), KeysetOffset.fromMap(offset.toMap()).getKey());
+  }
+
+  @Test
+  public void testToOffsetValue() {
+    assertEquals(7L, KeysetOffset.toOffsetValue((byte) 7));
+    assertEquals(7L, KeysetOffset.toOffsetValue((short) 7));
+    assertEquals(7L, KeysetOffset.toOffsetValue(7));
+    assertEquals(7L, KeysetOffset.toOffsetValue(7L));
+    assertEquals("12.50", KeysetOffset.toOffsetValue(new BigDecimal("12.50")));
+    assertEquals("key", KeysetOffset.toOffsetValue("key"));
+  }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.errors.ConnectException;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LobReaderTest {
+
+  private static final String TABLE_NAME = "test";
+
+  private EmbeddedDerby db;
+
+  @Before
+  public void setup() throws Exception {
+    db = new EmbeddedDerby();
+    db.createTable(TABLE_NAME, "id", "INT NOT NULL", "b", "BLOB(100)", "c", "CLOB(100) NOT NULL");
+    db.insert(TABLE_NAME, "id", 1, "b", new SerialBlob("0123456789".getBytes()), "c", "abcdefghij");
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    db.close();
+    db.dropDatabase();
+  }
+
+  @Test
+  public void testReadsWholeValuesWithoutLimit() throws Exception {
+    LobReader reader = new LobReader();
+    reader.startBatch();
+    Struct row = readRow(reader);
+    assertArrayEquals("0123456789".getBytes(), row.getBytes("b"));
+    assertEquals("abcdefghij", row.getString("c"));
+    // Ten bytes plus ten characters
+    assertEquals(30, reader.batchBytes());
+  }
+
+  @Test
+  public void testTruncatesLargeValues() throws Exception {
+    Struct row = readRow(new LobReader(4, LobReader.Overflow.TRUNCATE, 0));
+    assertArrayEquals("0123".getBytes(), row.getBytes("b"));
+    assertEquals("abcd", row.getString("c"));
+  }
+
+  @Test
+  public void testSkipsLargeValues() throws Exception {
+    Struct row = readRow(new LobReader(4, LobReader.Overflow.SKIP, 0));
+    assertNull(row.getBytes("b"));
+    // The column doesn't allow nulls
+    assertEquals("", row.getString("c"));
+  }
+
+  @Test
+  public void testValuesWithinLimitAreNotTruncated() throws Exception {
+    Struct row = readRow(new LobReader(10, LobReader.Overflow.FAIL, 0));
+    assertArrayEquals("0123456789".getBytes(), row.getBytes("b"));
+    assertEquals("abcdefghij", row.getString("c"));
+  }
+
+  @Test(expected = ConnectException.class)
+  public void testFailsOnLargeValues() throws Exception {
+    readRow(new LobReader(4, LobReader.Overflow.FAIL, 0));
+  }
+
+  @Test
+  public void testBatchEndsAtLobBudget() throws Exception {
+    db.insert(TABLE_NAME, "id", 2, "b", new SerialBlob("0123456789".getBytes()), "c", "abcdefghij");
+    db.insert(TABLE_NAME, "id", 3, "b", new SerialBlob("0123456789".getBytes()), "c", "abcdefghij");
+    BulkTableQuerier querier = new BulkTableQuerier(TableQuerier.QueryMode.TABLE, TABLE_NAME, null,
+                                                    "test-", 100, false);
+    querier.setLobReader(new LobReader(0, LobReader.Overflow.FAIL, 50));
+    Connection conn = db.getConnection();
+    try {
+      querier.maybeStartQuery(conn);
+      List<SourceRecord> batch = new ArrayList<>();
+      // Each row holds 30 bytes of LOB values, so the budget is reached by the second row
+      assertTrue(querier.readBatch(batch, 100));
+      assertEquals(2, batch.size());
+      batch.clear();
+      assertFalse(querier.readBatch(batch, 100));
+      assertEquals(1, batch.size());
+    } finally {
+      querier.reset(0, conn);
+      querier.releaseStatement();
+    }
+  }
+
+  @Test
+  public void testLargeClobBufferIsNotKept() throws Exception {
+    LobReader reader = new LobReader();
+    assertEquals("abc", reader.read(new SerialClob("abc".toCharArray()), "c", false));
+    assertEquals(3, reader.keptBufferChars());
+    char[] large = new char[LobReader.MAX_KEPT_BUFFER_CHARS + 1];
+    Arrays.fill(large, 'x');
+    assertEquals(new String(large), reader.read(new SerialClob(large), "c", false));
+    assertEquals(3, reader.keptBufferChars());
+  }
+
+  private Struct readRow(LobReader reader) throws Exception {
+    try (Statement stmt = db.getConnection().createStatement();
+         ResultSet rs = stmt.executeQuery("SELECT * FROM \"" + TABLE_NAME + "\"")) {
+      SchemaMapping mapping = SchemaMapping.create(TABLE_NAME, rs.getMetaData(), false, reader);
+      assertTrue(rs.next());
+      return DataConverter.convertRecord(mapping, rs);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class PendingCommitsTest {
+
+  private final PendingCommits pendingCommits = new PendingCommits(true);
+  private final AtomicInteger actionsRun = new AtomicInteger();
+  private final Runnable action = new Runnable() {
+    @Override
+    public void run() {
+      actionsRun.incrementAndGet();
+    }
+  };
+
+  @Test
+  public void runsActionsOnceTheirBatchesAreAcknowledged() {
+    List<SourceRecord> first = batch(2);
+    pendingCommits.batchReturned(first);
+    pendingCommits.add(action, true);
+    List<SourceRecord> second = batch(1);
+    pendingCommits.batchReturned(second);
+
+    // Returning more batches doesn't mean the earlier ones were sent
+    pendingCommits.batchReturned(batch(1));
+    pendingCommits.commit();
+    assertEquals(0, actionsRun.get());
+
+    pendingCommits.recordAcked(second.get(0));
+    pendingCommits.recordAcked(first.get(0));
+    pendingCommits.commit();
+    assertEquals(0, actionsRun.get());
+
+    pendingCommits.recordAcked(first.get(1));
+    assertEquals(0, actionsRun.get());
+    pendingCommits.commit();
+    assertEquals(1, actionsRun.get());
+    assertEquals(0, pendingCommits.size());
+  }
+
+  @Test
+  public void runsActionsWithoutTrackingWhenNotAsked() {
+    PendingCommits untracked = new PendingCommits(false);
+    untracked.batchReturned(batch(1));
+    untracked.add(action, false);
+    untracked.commit();
+    assertEquals(1, actionsRun.get());
+  }
+
+  private static List<SourceRecord> batch(int size) {
+    SourceRecord[] records = new SourceRecord[size];
+    for (int i = 0; i < size; i++) {
+      records[i] = new SourceRecord(null, null, "topic", null, i);
+    }
+    return Arrays.asList(records);
+  }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.connect.errors.ConnectException;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class PollScheduleTest {
+
+  @Test
+  public void testFixed() {
+    PollSchedule schedule = PollSchedule.fixed(5000);
+    assertEquals(5000, schedule.nextInterval(0));
+    assertEquals(5000, schedule.nextInterval(0));
+    assertEquals(5000, schedule.nextInterval(1000000));
+    assertEquals(5000, schedule.nextInterval(1));
+  }
+
+  @Test
+  public void testIdleTablesBackOff() {
+    PollSchedule schedule = new PollSchedule(1000, 0, 5000, 100);
+    assertEquals(2000, schedule.nextInterval(0));
+    assertEquals(4000, schedule.nextInterval(0));
+    assertEquals(5000, schedule.nextInterval(0));
+    assertEquals(5000, schedule.nextInterval(0));
+    // Any change resets the interval
+    assertEquals(1000, schedule.nextInterval(1));
+    assertEquals(2000, schedule.nextInterval(0));
+  }
+
+  @Test
+  public void testFullBatchesRepollImmediately() {
+    PollSchedule schedule = new PollSchedule(1000, 0, 5000, 100);
+    assertEquals(0, schedule.nextInterval(100));
+    assertEquals(0, schedule.nextInterval(250));
+    assertEquals(1000, schedule.nextInterval(0));
+    assertEquals(2000, schedule.nextInterval(0));
+  }
+
+  @Test
+  public void testIntervalsStayInRange() {
+    PollSchedule schedule = new PollSchedule(1000, 200, 1500, 100);
+    assertEquals(200, schedule.nextInterval(100));
+    assertEquals(1000, schedule.nextInterval(0));
+    assertEquals(1500, schedule.nextInterval(0));
+    assertEquals(1000, schedule.nextInterval(10));
+
+    schedule = new PollSchedule(1000, 3000, 3000, 100);
+    assertEquals(3000, schedule.nextInterval(100));
+    assertEquals(3000, schedule.nextInterval(1));
+    assertEquals(3000, schedule.nextInterval(0));
+  }
+
+  @Test
+  public void testParseOverrides() {
+    Map<String, long[]> overrides = PollSchedule.parseOverrides(
+        Arrays.asList("orders:0:1000", " schema.audit:60000:600000 ", "odd:name:5:5"));
+    assertEquals(3, overrides.size());
+    assertArrayEquals(new long[]{0, 1000}, overrides.get("orders"));
+    assertArrayEquals(new long[]{60000, 600000}, overrides.get("schema.audit"));
+    assertArrayEquals(new long[]{5, 5}, overrides.get("odd:name"));
+    assertEquals(0, PollSchedule.parseOverrides(Collections.<String>emptyList()).size());
+  }
+
+  @Test(expected = ConnectException.class)
+  public void testParseOverrideMissingMaximum() {
+    PollSchedule.parseOverrides(Collections.singletonList("orders:1000"));
+  }
+
+  @Test(expected = ConnectException.class)
+  public void testParseOverrideInvalidNumber() {
+    PollSchedule.parseOverrides(Collections.singletonList("orders:fast:1000"));
+  }
+
+  @Test(expected = ConnectException.class)
+  public void testParseOverrideMinimumAboveMaximum() {
+    PollSchedule.parseOverrides(Collections.singletonList("orders:2000:1000"));
+  }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.confluent.connect.jdbc.util.PooledConnectionProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PooledConnectionProviderTest {
+
+  private static final long VALIDATION_INTERVAL_MS = 1000;
+
+  private MockTime time;
+  private EmbeddedDerby db;
+  private PooledConnectionProvider provider;
+
+  @Before
+  public void setup() {
+    time = new MockTime();
+    db = new EmbeddedDerby();
+    provider = new PooledConnectionProvider(db.getUrl(), null, null, 1, 0,
+                                            VALIDATION_INTERVAL_MS, time);
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    provider.closeQuietly();
+    db.close();
+    db.dropDatabase();
+  }
+
+  @Test
+  public void testReleasedConnectionIsReused() {
+    Connection first = provider.acquire();
+    provider.release(first);
+    assertSame(first, provider.acquire());
+    assertEquals(1, provider.size());
+  }
+
+  @Test
+  public void testConcurrentCheckoutsGetSeparateConnections() {
+    Connection first = provider.acquire();
+    Connection second = provider.acquire();
+    assertNotSame(first, second);
+    assertEquals(2, provider.size());
+  }
+
+  @Test
+  public void testRecentlyUsedConnectionIsNotValidated() throws Exception {
+    Connection connection = provider.acquire();
+    connection.close();
+    provider.release(connection);
+    // Handed out again without checking it
+    assertSame(connection, provider.acquire());
+
+    provider.release(connection);
+    time.sleep(VALIDATION_INTERVAL_MS);
+    // Idle long enough to be checked, and replaced since it is closed
+    Connection replacement = provider.acquire();
+    assertNotSame(connection, replacement);
+    assertTrue(replacement.isValid(1));
+    assertEquals(1, provider.size());
+  }
+
+  @Test
+  public void testKeptConnectionIsRevalidatedOnlyWhenUnused() throws Exception {
+    Connection connection = provider.acquire();
+    connection.close();
+    // Used recently, so returned without checking it
+    assertSame(connection, provider.revalidate(connection));
+
+    time.sleep(VALIDATION_INTERVAL_MS);
+    // Checked, and replaced since it is closed
+    Connection replacement = provider.revalidate(connection);
+    assertNotSame(connection, replacement);
+    assertTrue(replacement.isValid(1));
+    assertEquals(1, provider.size());
+  }
+
+  @Test
+  public void testIdleConnectionsBeyondMinimumAreClosed() throws Exception {
+    Connection first = provider.acquire();
+    Connection second = provider.acquire();
+    provider.release(first);
+    provider.release(second);
+    assertEquals(2, provider.size());
+
+    time.sleep(VALIDATION_INTERVAL_MS);
+    provider.release(provider.acquire());
+    assertEquals(1, provider.size());
+    assertTrue(first.isClosed());
+  }
+
+  @Test
+  public void testInvalidatedConnectionIsClosed() throws Exception {
+    Connection connection = provider.acquire();
+    provider.invalidate(connection);
+    assertTrue(connection.isClosed());
+    assertEquals(0, provider.size());
+    assertNotSame(connection, provider.acquire());
+  }
+
+  @Test
+  public void testValidConnectionIsNotHandedOut() {
+    Connection pinned = provider.getValidConnection();
+    assertSame(pinned, provider.getValidConnection());
+    assertNotSame(pinned, provider.acquire());
+  }
+
+  @Test
+  public void testAcquireWaitsForReleaseWhenFull() throws Exception {
+    provider.closeQuietly();
+    provider = new PooledConnectionProvider(db.getUrl(), null, null, 1, 1,
+                                            VALIDATION_INTERVAL_MS, time);
+    final Connection connection = provider.acquire();
+    final AtomicReference<Connection> acquired = new AtomicReference<>();
+    Thread waiter = new Thread() {
+      @Override
+      public void run() {
+        acquired.set(provider.acquire());
+      }
+    };
+    waiter.start();
+    provider.release(connection);
+    waiter.join(10000);
+    assertSame(connection, acquired.get());
+    assertEquals(1, provider.size());
+  }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.common.utils.SystemTime;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.confluent.connect.jdbc.util.PooledConnectionProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QuerierWorkerPoolTest {
+
+  private static final int TABLES = 4;
+  private static final int PASSES = 5;
+
+  private EmbeddedDerby db;
+  private PooledConnectionProvider provider;
+
+  @Before
+  public void setup() throws Exception {
+    db = new EmbeddedDerby();
+    provider = new PooledConnectionProvider(db.getUrl(), null, null, 0, 0, 1000);
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    provider.closeQuietly();
+    db.close();
+    db.dropDatabase();
+  }
+
+  @Test
+  public void testQueriersKeepTheirStatementsWithSeveralWorkers() throws Exception {
+    List<TableQuerier> queriers = new ArrayList<>();
+    for (int i = 0; i < TABLES; i++) {
+      String table = "table" + i;
+      db.createTable(table, "id", "INT NOT NULL");
+      db.insert(table, "id", 1);
+      queriers.add(new BulkTableQuerier(TableQuerier.QueryMode.TABLE, table, null, "test-", 100,
+                                        false));
+    }
+    QuerierWorkerPool pool = new QuerierWorkerPool(queriers, 2, provider, 100, new SystemTime());
+    pool.start();
+    try {
+      // Each pass of a querier returns one record
+      Map<String, Integer> passes = new HashMap<>();
+      long deadline = System.currentTimeMillis() + 30000;
+      while (!allPassed(passes) && System.currentTimeMillis() < deadline) {
+        QuerierWorkerPool.Batch batch = pool.poll(100);
+        if (batch != null) {
+          for (SourceRecord record : batch.records) {
+            Integer count = passes.get(record.topic());
+            passes.put(record.topic(), count == null ? 1 : count + 1);
+          }
+        }
+      }
+      assertTrue(allPassed(passes));
+    } finally {
+      pool.stop();
+    }
+
+    for (TableQuerier querier : queriers) {
+      // Always run by the same worker, on the same connection
+      assertEquals(1, querier.statementsPrepared());
+      assertTrue(querier.statementsReused() > 0);
+      querier.releaseStatement();
+    }
+  }
+
+  private static boolean allPassed(Map<String, Integer> passes) {
+    if (passes.size() < TABLES) {
+      return false;
+    }
+    for (int count : passes.values()) {
+      if (count < PASSES) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
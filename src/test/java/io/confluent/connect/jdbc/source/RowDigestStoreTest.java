@@ -0,0 +1,142 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RowDigestStoreTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private RowDigestStore store;
+
+  @Before
+  public void setUp() throws Exception {
+    // Small runs so that passes are spilled and merged
+    store = new RowDigestStore(tempFolder.getRoot(), "table", 4);
+    store.open();
+  }
+
+  @After
+  public void tearDown() {
+    store.close();
+  }
+
+  @Test
+  public void testEmptyStore() {
+    assertEquals(0, store.size());
+    assertNull(store.lookup(42L));
+  }
+
+  @Test
+  public void testDigestsOnlyVisibleOncePromoted() throws Exception {
+    for (long key = 10; key > 0; key--) {
+      store.add(key, key * 100);
+    }
+    File pending = store.finishPass();
+    assertEquals(0, store.size());
+    assertNull(store.lookup(5L));
+
+    store.promote(pending);
+    assertEquals(10, store.size());
+    for (long key = 1; key <= 10; key++) {
+      assertEquals(Long.valueOf(key * 100), store.lookup(key));
+    }
+    assertNull(store.lookup(0L));
+    assertNull(store.lookup(11L));
+  }
+
+  @Test
+  public void testPromoteReplacesPreviousPass() throws Exception {
+    store.add(1L, 1L);
+    store.add(2L, 2L);
+    store.promote(store.finishPass());
+
+    store.add(2L, 20L);
+    store.add(3L, 30L);
+    File pending = store.finishPass();
+    assertEquals(Long.valueOf(2L), store.lookup(2L));
+
+    store.promote(pending);
+    assertEquals(2, store.size());
+    assertNull(store.lookup(1L));
+    assertEquals(Long.valueOf(20L), store.lookup(2L));
+    assertEquals(Long.valueOf(30L), store.lookup(3L));
+  }
+
+  @Test
+  public void testAbortedAndDiscardedPassesKeepCurrentStore() throws Exception {
+    store.add(1L, 1L);
+    store.promote(store.finishPass());
+
+    store.add(1L, 2L);
+    store.abortPass();
+    store.add(1L, 3L);
+    store.discard(store.finishPass());
+
+    assertEquals(Long.valueOf(1L), store.lookup(1L));
+    assertEquals(1, tempFolder.getRoot().listFiles().length);
+  }
+
+  @Test
+  public void testReopenKeepsPromotedPassAndDropsLeftovers() throws Exception {
+    store.add(-5L, 1L);
+    store.add(7L, 2L);
+    store.promote(store.finishPass());
+    for (long key = 0; key < 10; key++) {
+      store.add(key, key);
+    }
+    File pending = store.finishPass();
+    store.close();
+
+    store = new RowDigestStore(tempFolder.getRoot(), "table", 4);
+    store.open();
+    assertFalse(pending.exists());
+    assertEquals(2, store.size());
+    assertEquals(Long.valueOf(1L), store.lookup(-5L));
+    assertEquals(Long.valueOf(2L), store.lookup(7L));
+  }
+
+  @Test
+  public void testSortKeepsRowsWithTheirKeys() {
+    Random random = new Random(1);
+    long[] keys = new long[1000];
+    long[] rows = new long[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = random.nextLong();
+      rows[i] = ~keys[i];
+    }
+    RowDigestStore.sort(keys, rows, 0, keys.length - 1);
+    for (int i = 0; i < keys.length; i++) {
+      assertTrue(i == 0 || keys[i - 1] <= keys[i]);
+      assertEquals(~keys[i], rows[i]);
+    }
+  }
+}
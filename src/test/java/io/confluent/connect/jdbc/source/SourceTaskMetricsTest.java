@@ -0,0 +1,148 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.MetricsReporter;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SourceTaskMetricsTest {
+
+  private static final String TABLE_NAME = "test";
+
+  private MockTime time;
+  private EmbeddedDerby db;
+  private SourceTaskMetrics taskMetrics;
+  private QuerierMetrics querierMetrics;
+  private BulkTableQuerier querier;
+
+  @Before
+  public void setup() throws Exception {
+    time = new MockTime();
+    db = new EmbeddedDerby();
+    db.createTable(TABLE_NAME, "id", "INT NOT NULL");
+    taskMetrics = new SourceTaskMetrics("my source", 3, time, new Metrics(
+        new MetricConfig(), Collections.<MetricsReporter>emptyList(), time));
+    querier = new BulkTableQuerier(TableQuerier.QueryMode.TABLE, TABLE_NAME, null, "test-", 100,
+                                   false);
+    querierMetrics = taskMetrics.forQuerier(querier.metricsName());
+    querier.setMetrics(querierMetrics);
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    querier.releaseStatement();
+    taskMetrics.close();
+    db.close();
+    db.dropDatabase();
+  }
+
+  @Test
+  public void testRecordsRowsBatchesAndEmptyPasses() throws Exception {
+    Connection conn = db.getConnection();
+    readPass(conn, 10);
+    assertEquals(1.0, metric("empty-poll-total"), 0.0);
+
+    for (int i = 0; i < 3; i++) {
+      db.insert(TABLE_NAME, "id", i);
+    }
+    readPass(conn, 2);
+    assertEquals(3.0, metric("rows-total"), 0.0);
+    assertEquals(2.0, metric("batch-total"), 0.0);
+    assertEquals(1.0, metric("empty-poll-total"), 0.0);
+  }
+
+  @Test
+  public void testRecordsScheduleDelay() throws Exception {
+    Connection conn = db.getConnection();
+    querier.setPollSchedule(PollSchedule.fixed(1000));
+    readPass(conn, 10);
+    time.sleep(1250);
+    readPass(conn, 10);
+    // The first pass wasn't scheduled, so only the second one was late
+    assertEquals(250.0, metric("schedule-delay-max"), 0.0);
+    assertEquals(250.0, metric("schedule-delay-avg"), 0.0);
+  }
+
+  @Test
+  public void testCloseRemovesQuerierMetrics() throws Exception {
+    assertTrue(taskMetrics.metrics().metrics().containsKey(metricName("rows-total")));
+    querierMetrics.close();
+    assertNull(taskMetrics.metrics().metrics().get(metricName("rows-total")));
+  }
+
+  @Test
+  public void testSanitizesTagValues() {
+    assertEquals("my_source", SourceTaskMetrics.sanitize("my source"));
+    assertEquals("a_b_c_d", SourceTaskMetrics.sanitize("a,b=c:d"));
+    assertEquals("_query_", SourceTaskMetrics.sanitize("<query>"));
+  }
+
+  @Test
+  public void testQueryAndTableNamedQueryHaveTheirOwnMetrics() {
+    QuerierMetrics table = taskMetrics.forQuerier("query");
+    QuerierMetrics query = taskMetrics.forQuerier(null);
+    Map<String, String> tags = new LinkedHashMap<>();
+    tags.put("connector", "my_source");
+    tags.put("task", "3");
+    tags.put("table", SourceTaskMetrics.QUERY_TABLE_TAG);
+    assertTrue(taskMetrics.metrics().metrics().containsKey(
+        taskMetrics.metrics().metricName("rows-total", QuerierMetrics.GROUP, tags)));
+    table.close();
+    query.close();
+  }
+
+  private void readPass(Connection conn, int batchMaxRows) throws Exception {
+    querier.maybeStartQuery(conn);
+    boolean hadNext = true;
+    while (hadNext) {
+      List<SourceRecord> batch = new ArrayList<>();
+      hadNext = querier.readBatch(batch, batchMaxRows);
+      assertFalse(batch.size() > batchMaxRows);
+    }
+    querier.reset(time.milliseconds(), conn);
+  }
+
+  private double metric(String name) {
+    return taskMetrics.metrics().metrics().get(metricName(name)).value();
+  }
+
+  private MetricName metricName(String name) {
+    Map<String, String> tags = new LinkedHashMap<>();
+    tags.put("connector", "my_source");
+    tags.put("task", "3");
+    tags.put("table", TABLE_NAME);
+    return taskMetrics.metrics().metricName(name, QuerierMetrics.GROUP, tags);
+  }
+}
@@ -35,7 +35,13 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 
+import io.confluent.connect.jdbc.source.dialect.DerbySourceDialect;
+import io.confluent.connect.jdbc.source.dialect.GenericSourceDialect;
+import io.confluent.connect.jdbc.source.dialect.OracleSourceDialect;
+import io.confluent.connect.jdbc.source.dialect.SourceDialect;
 import io.confluent.connect.jdbc.util.CachedConnectionProvider;
 import io.confluent.connect.jdbc.util.JdbcUtils;
 
@@ -102,11 +108,13 @@ public class TableMonitorThreadTest {
     tableMonitorThread = new TableMonitorThread(cachedConnectionProvider, context, null, POLL_INTERVAL,
                                                 new HashSet<>(Arrays.asList("foo", "bar")), null, DEFAULT_TABLE_TYPES);
 
-    EasyMock.expect(JdbcUtils.getTables(cachedConnectionProvider.getValidConnection(), null, DEFAULT_TABLE_TYPES)).andAnswer(new IAnswer<List<String>>() {
+    // Few whitelisted tables are looked up by name, in order
+    EasyMock.expect(JdbcUtils.getTables(cachedConnectionProvider.getValidConnection(), null, "bar", DEFAULT_TABLE_TYPES)).andReturn(Arrays.asList("bar"));
+    EasyMock.expect(JdbcUtils.getTables(cachedConnectionProvider.getValidConnection(), null, "foo", DEFAULT_TABLE_TYPES)).andAnswer(new IAnswer<List<String>>() {
       @Override
       public List<String> answer() throws Throwable {
         tableMonitorThread.shutdown();
-        return THIRD_TOPIC_LIST;
+        return Arrays.asList("foo");
       }
     });
 
@@ -114,7 +122,28 @@ public class TableMonitorThreadTest {
 
     tableMonitorThread.start();
     tableMonitorThread.join();
-    assertEquals(Arrays.asList("foo", "bar"), tableMonitorThread.tables());
+    assertEquals(Arrays.asList("bar", "foo"), tableMonitorThread.tables());
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testWhitelistListedInOneQuery() throws Exception {
+    db.createTable("foo", "id", "INT");
+    db.createTable("bar", "id", "INT");
+    db.createTable("baz", "id", "INT");
+    tableMonitorThread = new TableMonitorThread(cachedConnectionProvider, context, "APP", POLL_INTERVAL,
+                                                new HashSet<>(Arrays.asList("foo", "bar", "missing")), null,
+                                                DEFAULT_TABLE_TYPES, null, null, new DerbySourceDialect());
+
+    // No lookups through the driver
+    PowerMock.replayAll();
+
+    tableMonitorThread.start();
+    List<String> tables = tableMonitorThread.tables();
+    tableMonitorThread.shutdown();
+    tableMonitorThread.join();
+    assertEquals(Arrays.asList("bar", "foo"), tables);
 
     PowerMock.verifyAll();
   }
@@ -141,6 +170,131 @@ public class TableMonitorThreadTest {
     PowerMock.verifyAll();
   }
 
+  @Test
+  public void testIncludeAndExcludePatterns() throws Exception {
+    tableMonitorThread = new TableMonitorThread(cachedConnectionProvider, context, null, POLL_INTERVAL,
+                                                null, null, DEFAULT_TABLE_TYPES, Pattern.compile("ba.*"),
+                                                Pattern.compile(".*z"), new GenericSourceDialect());
+
+    // The literal prefix of the include pattern narrows the lookup
+    EasyMock.expect(JdbcUtils.getTables(cachedConnectionProvider.getValidConnection(), null, "ba%", DEFAULT_TABLE_TYPES)).andAnswer(new IAnswer<List<String>>() {
+      @Override
+      public List<String> answer() throws Throwable {
+        tableMonitorThread.shutdown();
+        return Arrays.asList("bar", "baz");
+      }
+    });
+
+    PowerMock.replayAll();
+
+    tableMonitorThread.start();
+    tableMonitorThread.join();
+    assertEquals(Arrays.asList("bar"), tableMonitorThread.tables());
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testSkipsLookupWhileChangeMarkerUnchanged() throws Exception {
+    final AtomicInteger markerReads = new AtomicInteger();
+    SourceDialect dialect = new GenericSourceDialect() {
+      @Override
+      public String tableChangeMarkerQuery(String schemaPattern) {
+        return markerReads.incrementAndGet() <= 2 ? "VALUES 1" : "VALUES 2";
+      }
+    };
+    tableMonitorThread = new TableMonitorThread(cachedConnectionProvider, context, null, POLL_INTERVAL,
+                                                null, null, DEFAULT_TABLE_TYPES, null, null, dialect);
+
+    EasyMock.expect(JdbcUtils.getTables(cachedConnectionProvider.getValidConnection(), null, DEFAULT_TABLE_TYPES)).andReturn(FIRST_TOPIC_LIST);
+    // Not listed again until the marker changes on the third read
+    EasyMock.expect(JdbcUtils.getTables(cachedConnectionProvider.getValidConnection(), null, DEFAULT_TABLE_TYPES)).andAnswer(new IAnswer<List<String>>() {
+      @Override
+      public List<String> answer() throws Throwable {
+        assertEquals(3, markerReads.get());
+        tableMonitorThread.shutdown();
+        return FIRST_TOPIC_LIST;
+      }
+    });
+
+    PowerMock.replayAll();
+
+    tableMonitorThread.start();
+    tableMonitorThread.join();
+    assertEquals(FIRST_TOPIC_LIST, tableMonitorThread.tables());
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testChangeMarkerCoversTablesOfOtherOwners() throws Exception {
+    // Stands in for the Oracle catalog view, with objects of the connecting user APP and of OTHER
+    db.createTable("ALL_OBJECTS", "OWNER", "VARCHAR(30)", "OBJECT_NAME", "VARCHAR(30)",
+                   "OBJECT_TYPE", "VARCHAR(30)", "LAST_DDL_TIME", "TIMESTAMP");
+    db.insert("ALL_OBJECTS", "OWNER", "OTHER", "OBJECT_NAME", "foo", "OBJECT_TYPE", "TABLE",
+              "LAST_DDL_TIME", "2017-01-01 00:00:00");
+    final AtomicInteger markerReads = new AtomicInteger();
+    SourceDialect dialect = new OracleSourceDialect() {
+      @Override
+      public String tableChangeMarkerQuery(String schemaPattern) {
+        try {
+          switch (markerReads.incrementAndGet()) {
+            case 2:
+              db.insert("ALL_OBJECTS", "OWNER", "APP", "OBJECT_NAME", "baz", "OBJECT_TYPE",
+                        "TABLE", "LAST_DDL_TIME", "2017-01-02 00:00:00");
+              break;
+            case 3:
+              db.insert("ALL_OBJECTS", "OWNER", "OTHER", "OBJECT_NAME", "bar", "OBJECT_TYPE",
+                        "TABLE", "LAST_DDL_TIME", "2017-01-01 00:00:00");
+              break;
+            default:
+          }
+        } catch (SQLException e) {
+          throw new AssertionError(e);
+        }
+        return super.tableChangeMarkerQuery(schemaPattern);
+      }
+    };
+    tableMonitorThread = new TableMonitorThread(cachedConnectionProvider, context, "OTHER", POLL_INTERVAL,
+                                                null, null, DEFAULT_TABLE_TYPES, null, null, dialect);
+
+    EasyMock.expect(JdbcUtils.getTables(cachedConnectionProvider.getValidConnection(), "OTHER", DEFAULT_TABLE_TYPES)).andReturn(FIRST_TOPIC_LIST);
+    // A new table of the connecting user doesn't matter, but one of OTHER does
+    EasyMock.expect(JdbcUtils.getTables(cachedConnectionProvider.getValidConnection(), "OTHER", DEFAULT_TABLE_TYPES)).andAnswer(new IAnswer<List<String>>() {
+      @Override
+      public List<String> answer() throws Throwable {
+        assertEquals(3, markerReads.get());
+        tableMonitorThread.shutdown();
+        return SECOND_TOPIC_LIST;
+      }
+    });
+    context.requestTaskReconfiguration();
+    PowerMock.expectLastCall();
+
+    PowerMock.replayAll();
+
+    tableMonitorThread.start();
+    tableMonitorThread.join();
+    assertEquals(SECOND_TOPIC_LIST, tableMonitorThread.tables());
+
+    PowerMock.verifyAll();
+  }
+
+  @Test
+  public void testLiteralPrefix() {
+    assertEquals("orders_", TableMonitorThread.literalPrefix("orders_.*"));
+    assertEquals("orders", TableMonitorThread.literalPrefix("^orders\\d+"));
+    assertEquals("order", TableMonitorThread.literalPrefix("orders?"));
+    assertEquals("", TableMonitorThread.literalPrefix("(?i)orders"));
+    assertEquals("", TableMonitorThread.literalPrefix("orders|customers"));
+  }
+
+  @Test
+  public void testEscapeSearchPattern() {
+    assertEquals("a\\_b\\%c", TableMonitorThread.escapeSearchPattern("a_b%c", "\\"));
+    assertEquals("a_b", TableMonitorThread.escapeSearchPattern("a_b", ""));
+  }
+
   @Test
   public void testReconfigOnUpdate() throws Exception {
     tableMonitorThread = new TableMonitorThread(cachedConnectionProvider, context, null, POLL_INTERVAL, null, null, DEFAULT_TABLE_TYPES);
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TableQuerierTest {
+
+  private static final String TABLE_NAME = "test";
+
+  private EmbeddedDerby db;
+  private BulkTableQuerier querier;
+
+  @Before
+  public void setup() throws Exception {
+    db = new EmbeddedDerby();
+    db.createTable(TABLE_NAME, "id", "INT NOT NULL");
+    db.insert(TABLE_NAME, "id", 1);
+    querier = new BulkTableQuerier(TableQuerier.QueryMode.TABLE, TABLE_NAME, null, "test-", 100,
+                                   false);
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    querier.releaseStatement();
+    db.close();
+    db.dropDatabase();
+  }
+
+  @Test
+  public void testStatementReusedAcrossPasses() throws Exception {
+    Connection conn = db.getConnection();
+    assertEquals(1, readPass(conn));
+    PreparedStatement first = querier.getOrCreatePreparedStatement(conn);
+    assertFalse(first.isClosed());
+
+    db.insert(TABLE_NAME, "id", 2);
+    assertEquals(2, readPass(conn));
+    assertSame(first, querier.getOrCreatePreparedStatement(conn));
+    assertEquals(1, querier.statementsPrepared());
+    assertEquals(1, querier.statementsReused());
+  }
+
+  @Test
+  public void testStatementPreparedAgainOnNewConnection() throws Exception {
+    Connection conn = db.getConnection();
+    readPass(conn);
+    PreparedStatement first = querier.getOrCreatePreparedStatement(conn);
+
+    try (Connection other = DriverManager.getConnection(db.getUrl())) {
+      assertEquals(1, readPass(other));
+      assertTrue(first.isClosed());
+      assertNotSame(first, querier.getOrCreatePreparedStatement(other));
+      assertEquals(2, querier.statementsPrepared());
+      assertEquals(0, querier.statementsReused());
+      querier.releaseStatement();
+    }
+  }
+
+  @Test
+  public void testStatementPreparedAgainAfterSchemaChange() throws Exception {
+    Connection conn = db.getConnection();
+    readPass(conn);
+    db.execute("ALTER TABLE \"" + TABLE_NAME + "\" ADD COLUMN \"name\" VARCHAR(20)");
+    readPass(conn);
+    readPass(conn);
+    assertEquals(2, querier.statementsPrepared());
+    assertEquals(1, querier.statementsReused());
+  }
+
+  @Test
+  public void testKeysetStatementsReusedAcrossPages() throws Exception {
+    db.insert(TABLE_NAME, "id", 2);
+    db.insert(TABLE_NAME, "id", 3);
+    KeysetTableQuerier keyset = new KeysetTableQuerier(
+        TABLE_NAME, null, "test-", Collections.singletonList("id"), new int[]{Types.INTEGER}, 2,
+        null, 100, false);
+    try {
+      Connection conn = db.getConnection();
+      assertEquals(3, readPass(keyset, conn));
+      assertEquals(3, readPass(keyset, conn));
+      // One statement for the first page of each pass and one for the pages after it
+      assertEquals(2, keyset.statementsPrepared());
+      assertEquals(1, keyset.statementsReused());
+    } finally {
+      keyset.releaseStatement();
+    }
+  }
+
+  private int readPass(Connection conn) throws Exception {
+    return readPass(querier, conn);
+  }
+
+  private static int readPass(TableQuerier querier, Connection conn) throws Exception {
+    querier.maybeStartQuery(conn);
+    int rows = 0;
+    while (querier.next()) {
+      querier.extractRecord();
+      rows++;
+    }
+    querier.reset(0, conn);
+    return rows;
+  }
+}
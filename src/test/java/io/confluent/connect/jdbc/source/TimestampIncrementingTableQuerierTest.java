@@ -27,6 +27,8 @@ import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.util.Collections;
 
+import io.confluent.connect.jdbc.source.dialect.SqlServerSourceDialect;
+
 import static org.junit.Assert.assertEquals;
 
 public class TimestampIncrementingTableQuerierTest {
@@ -69,6 +71,56 @@ public class TimestampIncrementingTableQuerierTest {
     newQuerier().extractOffset(schema, record).getIncrementingOffset();
   }
 
+  @Test
+  public void extractOffsetAfterSchemaChange() throws SQLException {
+    final TimestampIncrementingTableQuerier querier = newQuerier();
+    final Schema schema = SchemaBuilder.struct().field("id", SchemaBuilder.INT32_SCHEMA).build();
+    assertEquals(42L, querier.extractOffset(schema, new Struct(schema).put("id", 42))
+        .getIncrementingOffset());
+    // The incrementing column moved, so its field has to be resolved again
+    final Schema changed = SchemaBuilder.struct().field("name", SchemaBuilder.STRING_SCHEMA)
+        .field("id", SchemaBuilder.INT64_SCHEMA).build();
+    final Struct record = new Struct(changed).put("name", "foo").put("id", 43L);
+    assertEquals(43L, querier.extractOffset(changed, record).getIncrementingOffset());
+  }
+
+  @Test(expected = ConnectException.class)
+  public void extractMissingOffsetColumn() throws SQLException {
+    final Schema schema = SchemaBuilder.struct().field("name", SchemaBuilder.STRING_SCHEMA).build();
+    final Struct record = new Struct(schema).put("name", "foo");
+    newQuerier().extractOffset(schema, record);
+  }
+
+  @Test
+  public void partitionAndTopicArePerQuerier() {
+    final TimestampIncrementingTableQuerier querier = new TimestampIncrementingTableQuerier(
+        TableQuerier.QueryMode.TABLE, "orders", "test-", null, "id",
+        Collections.<String, Object>emptyMap(), 0L, null, 0, false);
+    assertEquals("test-orders", querier.topic);
+    assertEquals(Collections.singletonMap(JdbcSourceConnectorConstants.TABLE_NAME_KEY, "orders"),
+                 querier.partition);
+  }
+
+  @Test
+  public void onlyTableQueriesAreRewrittenForThePageLimit() {
+    final TimestampIncrementingTableQuerier table = new TimestampIncrementingTableQuerier(
+        TableQuerier.QueryMode.TABLE, "orders", "test-", null, "id",
+        Collections.<String, Object>emptyMap(), 0L, null, 0, false);
+    table.setDialect(new SqlServerSourceDialect());
+    table.setPageLimit(10);
+    assertEquals("SELECT TOP 10 * FROM [orders]", table.withPageLimit("SELECT * FROM [orders]"));
+
+    // The limit of a user's query is only applied through Statement.setMaxRows
+    final String cte = "WITH x AS (SELECT * FROM orders) SELECT * FROM x WHERE id > ?";
+    final TimestampIncrementingTableQuerier query = new TimestampIncrementingTableQuerier(
+        TableQuerier.QueryMode.QUERY, cte, "test-", null, "id",
+        Collections.<String, Object>emptyMap(), 0L, null, 0, false);
+    query.setDialect(new SqlServerSourceDialect());
+    query.setPageLimit(10);
+    assertEquals(cte, query.withPageLimit(cte));
+    assertEquals("SELECT * FROM orders", query.withPageLimit("SELECT * FROM orders"));
+  }
+
   private TimestampIncrementingTableQuerier newQuerier() {
     return new TimestampIncrementingTableQuerier(TableQuerier.QueryMode.TABLE, null, "", null, "id", Collections.<String, Object>emptyMap(), 0L, null, 0, false);
   }
@@ -0,0 +1,252 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source;
+
+import org.apache.kafka.connect.errors.ConnectException;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.confluent.connect.jdbc.source.dialect.DerbySourceDialect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WeightedTableAssignmentTest {
+
+  @Test
+  public void testHeavyTablesAreSpreadAcrossGroups() {
+    List<String> tables = Arrays.asList("big1", "big2", "big3", "lookup1", "lookup2", "lookup3");
+    Map<String, Long> weights = new HashMap<>();
+    weights.put("big1", 1000000000L);
+    weights.put("big2", 1000000000L);
+    weights.put("big3", 1000000000L);
+    weights.put("lookup1", 10L);
+    weights.put("lookup2", 20L);
+    weights.put("lookup3", 30L);
+
+    List<List<String>> groups = WeightedTableAssignment.group(tables, weights, 3);
+    assertEquals(Arrays.asList("big1", "lookup3"), groups.get(0));
+    assertEquals(Arrays.asList("big2", "lookup2"), groups.get(1));
+    assertEquals(Arrays.asList("big3", "lookup1"), groups.get(2));
+  }
+
+  @Test
+  public void testHeaviestTableGetsItsOwnGroup() {
+    List<String> tables = Arrays.asList("a", "b", "c", "d");
+    Map<String, Long> weights = new HashMap<>();
+    weights.put("a", 10L);
+    weights.put("b", 10L);
+    weights.put("c", 30L);
+    weights.put("d", 10L);
+
+    List<List<String>> groups = WeightedTableAssignment.group(tables, weights, 2);
+    assertEquals(Collections.singletonList("c"), groups.get(0));
+    assertEquals(Arrays.asList("a", "b", "d"), groups.get(1));
+  }
+
+  @Test
+  public void testTablesWithoutWeightGetAverageWeight() {
+    List<String> tables = Arrays.asList("a", "b", "unknown");
+    Map<String, Long> weights = new HashMap<>();
+    weights.put("a", 100L);
+    weights.put("b", 300L);
+
+    // unknown weighs 200, so it is paired with the lighter table
+    List<List<String>> groups = WeightedTableAssignment.group(tables, weights, 2);
+    assertEquals(Collections.singletonList("b"), groups.get(0));
+    assertEquals(Arrays.asList("a", "unknown"), groups.get(1));
+  }
+
+  @Test
+  public void testWithoutWeightsBalancesTableCounts() {
+    List<String> tables = Arrays.asList("a", "b", "c", "d", "e");
+    List<List<String>> groups =
+        WeightedTableAssignment.group(tables, Collections.<String, Long>emptyMap(), 2);
+    assertEquals(Arrays.asList("a", "c", "e"), groups.get(0));
+    assertEquals(Arrays.asList("b", "d"), groups.get(1));
+  }
+
+  @Test
+  public void testRegroupAddsNewTableToLightestGroupOnly() {
+    List<List<String>> previous = Arrays.asList(
+        Arrays.asList("a", "b"), Arrays.asList("c"), Arrays.asList("d", "e"));
+    List<List<String>> groups = WeightedTableAssignment.regroup(
+        previous, Arrays.asList("new", "a", "b", "c", "d", "e"),
+        Collections.<String, Long>emptyMap(), 3);
+    assertEquals(Arrays.asList("a", "b"), groups.get(0));
+    assertEquals(Arrays.asList("c", "new"), groups.get(1));
+    assertEquals(Arrays.asList("d", "e"), groups.get(2));
+  }
+
+  @Test
+  public void testRegroupRemovesDroppedTablesInPlace() {
+    List<List<String>> previous = Arrays.asList(
+        Arrays.asList("a", "b"), Arrays.asList("c", "d"));
+    List<List<String>> groups = WeightedTableAssignment.regroup(
+        previous, Arrays.asList("a", "b", "d"), Collections.<String, Long>emptyMap(), 2);
+    assertEquals(Arrays.asList("a", "b"), groups.get(0));
+    assertEquals(Collections.singletonList("d"), groups.get(1));
+  }
+
+  @Test
+  public void testRegroupRefillsAGroupWhoseOnlyTableWasDropped() {
+    List<List<String>> previous = Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c"));
+    List<List<String>> groups = WeightedTableAssignment.regroup(
+        previous, Arrays.asList("a", "b"), Collections.<String, Long>emptyMap(), 2);
+    assertEquals(Arrays.asList(Collections.singletonList("b"), Collections.singletonList("a")),
+                 groups);
+  }
+
+  @Test
+  public void testRegroupMovesTheTableThatBestSplitsTheHeaviestGroup() {
+    List<List<String>> previous = Arrays.asList(
+        Arrays.asList("a", "b", "c"), Arrays.asList("d"), Arrays.asList("e"));
+    Map<String, Long> weights = new HashMap<>();
+    weights.put("a", 10L);
+    weights.put("b", 60L);
+    weights.put("c", 40L);
+    weights.put("e", 30L);
+    List<List<String>> groups = WeightedTableAssignment.regroup(
+        previous, Arrays.asList("a", "b", "c", "e"), weights, 3);
+    // Moving b leaves 50 of the 110 behind, closer to half than moving c or a
+    assertEquals(Arrays.asList("a", "c"), groups.get(0));
+    assertEquals(Collections.singletonList("b"), groups.get(1));
+    assertEquals(Collections.singletonList("e"), groups.get(2));
+  }
+
+  @Test
+  public void testRegroupRemovesGroupsThatCantBeFilled() {
+    List<List<String>> previous = Arrays.asList(Arrays.asList("a"), Arrays.asList("b"));
+    List<List<String>> groups = WeightedTableAssignment.regroup(
+        previous, Collections.singletonList("a"), Collections.<String, Long>emptyMap(), 2);
+    assertEquals(Collections.singletonList(Collections.singletonList("a")), groups);
+  }
+
+  @Test
+  public void testRegroupDissolvesEmptyGroupsFirst() {
+    List<List<String>> previous = Arrays.asList(
+        Arrays.asList("a"), Arrays.asList("b"), Arrays.asList("c"));
+    List<List<String>> groups = WeightedTableAssignment.regroup(
+        previous, Arrays.asList("a", "c"), Collections.<String, Long>emptyMap(), 2);
+    assertEquals(Arrays.asList(Collections.singletonList("a"), Collections.singletonList("c")),
+                 groups);
+  }
+
+  @Test
+  public void testRegroupPlacesTablesOfDissolvedGroups() {
+    List<List<String>> previous = Arrays.asList(
+        Arrays.asList("a"), Arrays.asList("b"), Arrays.asList("c", "d"));
+    Map<String, Long> weights = new HashMap<>();
+    weights.put("a", 100L);
+    weights.put("b", 10L);
+    weights.put("c", 50L);
+    weights.put("d", 20L);
+    List<List<String>> groups = WeightedTableAssignment.regroup(
+        previous, Arrays.asList("a", "b", "c", "d"), weights, 2);
+    assertEquals(Collections.singletonList("a"), groups.get(0));
+    assertEquals(Arrays.asList("b", "c", "d"), groups.get(1));
+  }
+
+  @Test
+  public void testRegroupAddsGroupsForNewTables() {
+    List<List<String>> previous = Collections.singletonList(Collections.singletonList("a"));
+    List<List<String>> groups = WeightedTableAssignment.regroup(
+        previous, Arrays.asList("a", "b"), Collections.<String, Long>emptyMap(), 2);
+    assertEquals(Arrays.asList(Collections.singletonList("a"), Collections.singletonList("b")),
+                 groups);
+  }
+
+  @Test
+  public void testParseWeights() {
+    Map<String, Long> weights =
+        WeightedTableAssignment.parseWeights(Arrays.asList("orders:500", " schema:table : 7"));
+    assertEquals(2, weights.size());
+    assertEquals(Long.valueOf(500), weights.get("orders"));
+    assertEquals(Long.valueOf(7), weights.get("schema:table"));
+  }
+
+  @Test(expected = ConnectException.class)
+  public void testParseWeightMissingValue() {
+    WeightedTableAssignment.parseWeights(Collections.singletonList("orders"));
+  }
+
+  @Test(expected = ConnectException.class)
+  public void testParseNegativeWeight() {
+    WeightedTableAssignment.parseWeights(Collections.singletonList("orders:-1"));
+  }
+
+  @Test
+  public void testNoEstimatesWithoutStatistics() throws Exception {
+    EmbeddedDerby db = new EmbeddedDerby();
+    try {
+      db.createTable("test", "id", "INT NOT NULL");
+      assertTrue(WeightedTableAssignment.estimateRowCounts(db.getConnection(),
+                                                           new DerbySourceDialect(), null).isEmpty());
+    } finally {
+      db.close();
+      db.dropDatabase();
+    }
+  }
+
+  @Test
+  public void testEstimatesOnlyTablesOfMatchingSchemas() throws Exception {
+    EmbeddedDerby db = new EmbeddedDerby();
+    DerbySourceDialect dialect = new DerbySourceDialect() {
+      @Override
+      public String tableStatisticsQuery() {
+        // Trimmed, since Derby pads the literals to the longest one
+        return "SELECT TRIM(s), TRIM(n), r FROM (VALUES "
+               + "('APP', 'orders', 10), ('APP_2', 'orders', 500), ('APP', 'items', 3), "
+               + "('OTHER', 'items', 7)) AS t(s, n, r)";
+      }
+    };
+    try {
+      Map<String, Long> all = WeightedTableAssignment.estimateRowCounts(db.getConnection(),
+                                                                        dialect, null);
+      assertEquals(Long.valueOf(500), all.get("orders"));
+      assertEquals(Long.valueOf(7), all.get("items"));
+
+      Map<String, Long> app = WeightedTableAssignment.estimateRowCounts(db.getConnection(),
+                                                                        dialect, "APP");
+      assertEquals(Long.valueOf(10), app.get("orders"));
+      assertEquals(Long.valueOf(3), app.get("items"));
+
+      Map<String, Long> wildcard = WeightedTableAssignment.estimateRowCounts(db.getConnection(),
+                                                                             dialect, "APP_%");
+      assertEquals(Long.valueOf(500), wildcard.get("orders"));
+      assertEquals(1, wildcard.size());
+    } finally {
+      db.close();
+      db.dropDatabase();
+    }
+  }
+
+  @Test
+  public void testSearchPatternRegex() {
+    assertTrue(WeightedTableAssignment.searchPatternRegex("APP_%", "\\").matcher("APP_2").matches());
+    assertTrue(WeightedTableAssignment.searchPatternRegex("APP_%", "\\").matcher("APPX").matches());
+    assertFalse(WeightedTableAssignment.searchPatternRegex("APP\\_%", "\\").matcher("APPX").matches());
+    assertTrue(WeightedTableAssignment.searchPatternRegex("APP\\_%", "\\").matcher("APP_2").matches());
+    assertFalse(WeightedTableAssignment.searchPatternRegex("A.P", null).matcher("AXP").matches());
+  }
+}
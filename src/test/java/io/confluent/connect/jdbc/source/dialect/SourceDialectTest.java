@@ -0,0 +1,130 @@
+/**
+ * Copyright 2017 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.confluent.connect.jdbc.source.dialect;
+
+import org.easymock.EasyMock;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SourceDialectTest {
+
+  private static final String QUERY = "SELECT * FROM \"t\" WHERE \"id\" > ? ORDER BY \"id\" ASC";
+
+  @Test
+  public void fromConnectionString() {
+    assertEquals(PostgreSqlSourceDialect.class,
+                 SourceDialect.fromConnectionString("jdbc:postgresql://localhost/db").getClass());
+    assertEquals(MySqlSourceDialect.class,
+                 SourceDialect.fromConnectionString("jdbc:mysql://localhost/db").getClass());
+    assertEquals(MySqlSourceDialect.class,
+                 SourceDialect.fromConnectionString("jdbc:mariadb://localhost/db").getClass());
+    assertEquals(SqlServerSourceDialect.class,
+                 SourceDialect.fromConnectionString("jdbc:sqlserver://localhost;db=x").getClass());
+    assertEquals(SqlServerSourceDialect.class,
+                 SourceDialect.fromConnectionString("jdbc:jtds:sqlserver://localhost/db").getClass());
+    assertEquals(OracleSourceDialect.class,
+                 SourceDialect.fromConnectionString("jdbc:oracle:thin:@localhost:1521:db").getClass());
+    assertEquals(SqliteSourceDialect.class,
+                 SourceDialect.fromConnectionString("jdbc:sqlite:/tmp/db").getClass());
+    assertEquals(DerbySourceDialect.class,
+                 SourceDialect.fromConnectionString("jdbc:derby:memory:db;create=true").getClass());
+    assertEquals(GenericSourceDialect.class,
+                 SourceDialect.fromConnectionString("jdbc:h2:mem:db").getClass());
+    assertEquals(GenericSourceDialect.class,
+                 SourceDialect.fromConnectionString("jdbc:db2://localhost/db").getClass());
+  }
+
+  @Test
+  public void limitQuery() {
+    assertEquals(QUERY + " LIMIT 500", new PostgreSqlSourceDialect().limitQuery(QUERY, 500));
+    assertEquals(QUERY + " LIMIT 500", new MySqlSourceDialect().limitQuery(QUERY, 500));
+    assertEquals(QUERY + " LIMIT 500", new SqliteSourceDialect().limitQuery(QUERY, 500));
+    assertEquals(QUERY + " FETCH FIRST 500 ROWS ONLY",
+                 new OracleSourceDialect().limitQuery(QUERY, 500));
+    assertEquals(QUERY + " FETCH FIRST 500 ROWS ONLY",
+                 new DerbySourceDialect().limitQuery(QUERY, 500));
+    assertEquals(QUERY, new GenericSourceDialect().limitQuery(QUERY, 500));
+  }
+
+  @Test
+  public void limitQueryOracle() {
+    assertEquals(QUERY + " FETCH FIRST 500 ROWS ONLY", new OracleSourceDialect(12).limitQuery(QUERY, 500));
+    assertEquals("SELECT * FROM (" + QUERY + ") WHERE ROWNUM <= 500",
+                 new OracleSourceDialect(11).limitQuery(QUERY, 500));
+  }
+
+  @Test
+  public void fromConnection() throws SQLException {
+    // A wrapping driver's URL doesn't hide the database
+    assertEquals(DerbySourceDialect.class, SourceDialect.fromConnection(
+        connection("Apache Derby", 10), "jdbc:p6spy:derby:memory:db").getClass());
+    assertEquals(PostgreSqlSourceDialect.class, SourceDialect.fromConnection(
+        connection("PostgreSQL", 9), "jdbc:log4jdbc:postgresql://localhost/db").getClass());
+    SourceDialect oracle = SourceDialect.fromConnection(
+        connection("Oracle", 11), "jdbc:p6spy:oracle:thin:@localhost:1521:db");
+    assertEquals(OracleSourceDialect.class, oracle.getClass());
+    assertTrue(oracle.limitQuery(QUERY, 10).contains("ROWNUM"));
+    // Unknown products still go by the URL
+    assertEquals(MySqlSourceDialect.class, SourceDialect.fromConnection(
+        connection("Other", 1), "jdbc:mysql://localhost/db").getClass());
+  }
+
+  @Test
+  public void limitQuerySqlServer() {
+    SqlServerSourceDialect dialect = new SqlServerSourceDialect();
+    assertEquals("SELECT TOP 500 * FROM [t] ORDER BY [id]",
+                 dialect.limitQuery("SELECT * FROM [t] ORDER BY [id]", 500));
+    assertEquals("select distinct TOP 10 a, b FROM t",
+                 dialect.limitQuery("select distinct a, b FROM t", 10));
+    assertEquals("  SELECT\nTOP 10 a FROM t", dialect.limitQuery("  SELECT\na FROM t", 10));
+    // Not a plain SELECT, so left to Statement.setMaxRows
+    assertEquals("WITH x AS (SELECT 1) SELECT * FROM x",
+                 dialect.limitQuery("WITH x AS (SELECT 1) SELECT * FROM x", 10));
+  }
+
+  @Test
+  public void tableChangeMarkerQueryOracle() {
+    // Only the schemas the tables are listed from
+    assertTrue(new OracleSourceDialect().tableChangeMarkerQuery("OTHER").contains("OWNER LIKE ?"));
+    assertNull(new OracleSourceDialect().tableChangeMarkerQuery(null));
+  }
+
+  @Test
+  public void namedTablesQuery() {
+    assertEquals("?, ?, ?", SourceDialect.parameters(3));
+    assertTrue(new PostgreSqlSourceDialect().namedTablesQuery(2).endsWith("IN (?, ?)"));
+    assertTrue(new SqlServerSourceDialect().namedTablesQuery(1).endsWith("IN (?)"));
+    assertNull(new GenericSourceDialect().namedTablesQuery(2));
+  }
+
+  private static Connection connection(String product, int majorVersion) throws SQLException {
+    DatabaseMetaData metadata = EasyMock.createMock(DatabaseMetaData.class);
+    EasyMock.expect(metadata.getDatabaseProductName()).andStubReturn(product);
+    EasyMock.expect(metadata.getDatabaseMajorVersion()).andStubReturn(majorVersion);
+    Connection connection = EasyMock.createMock(Connection.class);
+    EasyMock.expect(connection.getMetaData()).andStubReturn(metadata);
+    EasyMock.replay(metadata, connection);
+    return connection;
+  }
+}